@@ -0,0 +1,93 @@
+package com.example.pariba.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Exécution asynchrone : chaque usage a son pool nommé et borné (métriques executor.* exposées par l'actuator).
+ * spring.task.execution.mode=force conserve le pool applicatif par défaut (MVC asynchrone, @Async sans nom).
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig {
+
+    /**
+     * Écriture des logs système par lots : les tâches sont des vidages du tampon,
+     * une tâche refusée (pool saturé) est sans conséquence, le vidage suivant reprendra les lignes
+     */
+    @Bean(name = "systemLogExecutor")
+    public ThreadPoolTaskExecutor systemLogExecutor(@Value("${app.system-logs.writer-threads:1}") int threads,
+                                                    @Value("${app.system-logs.executor-queue-capacity:2}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("system-log-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) ->
+            log.debug("Vidage des logs système déjà en file, demande ignorée"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Écriture du journal d'audit par lots (AuditLogWriter) : même politique que les logs système,
+     * le tampon reste plein tant qu'un vidage n'est pas passé
+     */
+    @Bean(name = "auditLogExecutor")
+    public ThreadPoolTaskExecutor auditLogExecutor(@Value("${app.audit.writer-threads:1}") int threads,
+                                                   @Value("${app.audit.executor-queue-capacity:2}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("audit-log-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) ->
+            log.debug("Vidage du journal d'audit déjà en file, demande ignorée"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Envois FCM des lots du PushNotificationBatcher et mises à jour de l'outbox qui en dépendent.
+     * Pool saturé : le thread de regroupement envoie lui-même le lot (contre-pression sans perte)
+     */
+    @Bean(name = "pushSendExecutor")
+    public ThreadPoolTaskExecutor pushSendExecutor(@Value("${app.notifications.push.sender-threads:4}") int threads,
+                                                   @Value("${app.notifications.push.sender-queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("push-send-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Prolongation des verrous des jobs planifiés (ScheduledJobRunner) : hors du pool @Scheduled,
+     * des jobs qui l'occupent tous ne retardent pas leurs propres heartbeats
+     */
+    @Bean(name = "schedulerLockHeartbeat")
+    public ThreadPoolTaskScheduler schedulerLockHeartbeat() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("job-lock-heartbeat-");
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.pariba.configs;
+
+import com.example.pariba.security.DistributedRateLimitBackend;
+import com.example.pariba.security.InMemoryProxyManager;
+import com.example.pariba.security.LocalRateLimitBackend;
+import com.example.pariba.security.RateLimitBackend;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+
+/**
+ * Choix du stockage des buckets de rate limiting (app.rate-limit.backend)
+ * - local (défaut) : mémoire bornée de l'instance
+ * - distributed : ProxyManager&lt;String&gt; déclaré par l'application (Redis, JDBC...),
+ *   à défaut un InMemoryProxyManager local
+ */
+@Configuration
+@Slf4j
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+    public LocalRateLimitBackend localRateLimitBackend(@Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+        return new LocalRateLimitBackend(maxKeys);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "distributed")
+    public RateLimitBackend distributedRateLimitBackend(ObjectProvider<ProxyManager<String>> proxyManager,
+                                                        @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        ProxyManager<String> manager = proxyManager.getIfAvailable(() -> {
+            log.warn("Aucun ProxyManager distribué configuré, utilisation du stockage en mémoire");
+            InMemoryProxyManager inMemory = new InMemoryProxyManager(3_600_000);
+            // Pas un bean : l'éviction des états inactifs est planifiée ici, sinon la map croît sans limite
+            taskScheduler.scheduleWithFixedDelay(inMemory::evictIdle, Duration.ofMinutes(1));
+            return inMemory;
+        });
+        return new DistributedRateLimitBackend(manager);
+    }
+}
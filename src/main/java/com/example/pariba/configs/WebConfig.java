@@ -1,9 +1,12 @@
 package com.example.pariba.configs;
 
 import com.example.pariba.security.AuditInterceptor;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -21,6 +24,14 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${file.upload.dir:./uploads}")
     private String uploadDir;
     
+    @Value("${app.export.stream.max-concurrent:4}")
+    private int streamMaxConcurrent;
+    
+    @Value("${app.export.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+    
+    private ThreadPoolTaskExecutor streamExecutor;
+    
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         // Enregistrer l'intercepteur pour capturer les IPs
@@ -39,6 +50,31 @@ public class WebConfig implements WebMvcConfigurer {
         System.out.println("📁 Serving static files from: file:" + uploadDir + "/");
     }
     
+    /**
+     * Réponses asynchrones (StreamingResponseBody des exports en flux) : pool borné dédié
+     * et délai assez long pour les gros extraits (le délai Tomcat par défaut est de 30 s)
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamMaxConcurrent);
+        executor.setMaxPoolSize(streamMaxConcurrent);
+        executor.setQueueCapacity(streamMaxConcurrent * 2);
+        executor.setThreadNamePrefix("export-stream-");
+        executor.initialize();
+        this.streamExecutor = executor;
+        
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(streamTimeoutMs);
+    }
+    
+    @PreDestroy
+    public void shutdownStreamExecutor() {
+        if (streamExecutor != null) {
+            streamExecutor.shutdown();
+        }
+    }
+    
     @Override
     public void configurePathMatch(PathMatchConfigurer configurer) {
         // Ajouter le préfixe /api/v1 à tous les controllers REST
@@ -0,0 +1,113 @@
+package com.example.pariba.configs;
+
+import com.example.pariba.security.StompAuthChannelInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Notifications en temps réel via STOMP sur WebSocket (ws://.../api/v1/ws).
+ * Destinations personnelles, à suivre par le client après CONNECT :
+ * - /user/queue/notifications : NotificationResponse de chaque notification push enregistrée
+ * - /user/queue/unread : variation du compteur de non lues
+ * - /user/queue/payments : changements de statut des paiements (administrateurs du groupe)
+ *
+ * Broker simple en mémoire par défaut, réservé aux déploiements à une seule instance : un message
+ * /user/... n'atteint que les sessions ouvertes sur l'instance qui l'émet. Dès qu'il y a plusieurs
+ * instances, app.websocket.relay.enabled est obligatoire : il bascule vers un broker STOMP externe
+ * (RabbitMQ, ActiveMQ) partagé, et les registres d'utilisateurs connectés sont diffusés entre
+ * instances via /topic, un message /user/... part donc vers l'instance qui détient la session.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+@Slf4j
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${app.websocket.allowed-origin-patterns:*}")
+    private String[] allowedOriginPatterns;
+
+    @Value("${app.websocket.heartbeat.server-ms:10000}")
+    private long serverHeartbeatMs;
+
+    @Value("${app.websocket.heartbeat.client-ms:10000}")
+    private long clientHeartbeatMs;
+
+    @Value("${app.websocket.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Authentification au CONNECT par le JWT (pas de cookie) : l'origine ne protège rien ici
+        registry.addEndpoint("/api/v1/ws").setAllowedOriginPatterns(allowedOriginPatterns);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        if (relayEnabled) {
+            registry.enableStompBrokerRelay("/queue", "/topic")
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(serverHeartbeatMs)
+                    .setSystemHeartbeatReceiveInterval(clientHeartbeatMs);
+        } else {
+            log.warn("Broker STOMP en mémoire : les messages /user/... n'atteignent que les sessions de cette instance "
+                + "(app.websocket.relay.enabled obligatoire en déploiement multi-instance)");
+            registry.enableSimpleBroker("/queue")
+                    .setHeartbeatValue(new long[] {serverHeartbeatMs, clientHeartbeatMs})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    /**
+     * Le broker déclare son propre TaskScheduler (messageBrokerTaskScheduler), ce qui désactive celui
+     * de Spring Boot : on le redéclare pour que les tâches @Scheduled gardent leur pool (spring.task.scheduling.*)
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -45,6 +45,8 @@ public class AppConstants {
     // Export
     public static final String EXPORT_PDF_FORMAT = "PDF";
     public static final String EXPORT_XLSX_FORMAT = "XLSX";
+    public static final String EXPORT_CSV_FORMAT = "CSV";
+    public static final String EXPORT_NDJSON_FORMAT = "NDJSON";
     
     // Regex patterns
     public static final String PHONE_REGEX = "^\\+223[0-9]{8}$";
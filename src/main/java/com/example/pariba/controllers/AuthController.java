@@ -12,6 +12,7 @@ import com.example.pariba.dtos.requests.OtpVerifyRequest;
 import com.example.pariba.dtos.responses.ApiResponse;
 import com.example.pariba.dtos.responses.AuthResponse;
 import com.example.pariba.security.CurrentUser;
+import com.example.pariba.security.JwtPrincipalCache;
 import com.example.pariba.services.IAuthService;
 import com.example.pariba.services.IOtpService;
 import com.example.pariba.services.IPasswordResetService;
@@ -40,6 +41,7 @@ public class AuthController {
     private final CurrentUser currentUser;
     private final IAuditService auditService;
     private final ISystemLogService systemLogService;
+    private final JwtPrincipalCache principalCache;
 
     public AuthController(IAuthService authService, 
                          IOtpService otpService,
@@ -47,7 +49,8 @@ public class AuthController {
                          IRefreshTokenService refreshTokenService,
                          CurrentUser currentUser,
                          IAuditService auditService,
-                         ISystemLogService systemLogService) {
+                         ISystemLogService systemLogService,
+                         JwtPrincipalCache principalCache) {
         this.authService = authService;
         this.otpService = otpService;
         this.passwordResetService = passwordResetService;
@@ -55,6 +58,7 @@ public class AuthController {
         this.currentUser = currentUser;
         this.auditService = auditService;
         this.systemLogService = systemLogService;
+        this.principalCache = principalCache;
     }
 
     @PostMapping("/register")
@@ -300,6 +304,7 @@ public class AuthController {
         
         // Logs
         if (personId != null) {
+            principalCache.evict(personId);
             auditService.log(personId, "USER_LOGOUT", "Person", personId, "{}");
             systemLogService.log(personId, "User", "USER_LOGOUT", "Person", personId, "{}", "INFO", true);
         }
@@ -8,16 +8,22 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.example.pariba.services.IExportService;
 import com.example.pariba.services.IAuditService;
-import com.example.pariba.services.ISystemLogService;
+import com.example.pariba.utils.StreamedExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
 import java.util.List;
 
 @RestController
@@ -28,12 +34,10 @@ public class ExportController {
 
     private final IExportService exportService;
     private final IAuditService auditService;
-    private final ISystemLogService systemLogService;
 
-    public ExportController(IExportService exportService, IAuditService auditService, ISystemLogService systemLogService) {
+    public ExportController(IExportService exportService, IAuditService auditService) {
         this.exportService = exportService;
         this.auditService = auditService;
-        this.systemLogService = systemLogService;
     }
 
     @PostMapping
@@ -52,7 +56,6 @@ public class ExportController {
         String details = String.format("{\"exportId\":\"%s\",\"type\":\"%s\",\"format\":\"%s\"}", 
             job.getId(), request.getExportType(), request.getFormat());
         auditService.log(personId, "EXPORT_REQUESTED", "Export", job.getId(), details);
-        systemLogService.log(personId, "User", "EXPORT_REQUESTED", "Export", job.getId(), details, "INFO", true);
         
         return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.EXPORT_SUCCESS_REQUESTED, job));
     }
@@ -81,4 +84,54 @@ public class ExportController {
         List<ExportJobResponse> jobs = exportService.getExportJobsByPerson(personId);
         return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.SUCCESS_OPERATION, jobs));
     }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Annuler un export", description = "Annule un export en attente ou en cours de génération")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export annulé"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Export déjà terminé")
+    })
+    public ResponseEntity<ApiResponse<ExportJobResponse>> cancelExport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String id) {
+        ExportJobResponse job = exportService.cancelExport(userDetails.getUsername(), id);
+        return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.SUCCESS_OPERATION, job));
+    }
+
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Télécharger un export", description = "Télécharge le fichier d'un export terminé")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Fichier d'export"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Export pas encore prêt")
+    })
+    public ResponseEntity<Resource> downloadExport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String id) {
+        Path file = exportService.getExportFile(userDetails.getUsername(), id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .contentType(file.toString().endsWith(".pdf") ? MediaType.APPLICATION_PDF : MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+
+    @GetMapping("/groups/{groupId}/stream")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Export en flux", description = "Exporte les paiements ou cotisations d'un groupe en CSV ou NDJSON compressé (gzip), écrit directement dans la réponse")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Fichier CSV/NDJSON gzip"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Non membre du groupe ou plan insuffisant")
+    })
+    public ResponseEntity<StreamingResponseBody> streamExport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String groupId,
+            @RequestParam(defaultValue = "PAYMENTS") String type,
+            @RequestParam(defaultValue = "CSV") String format) {
+        StreamedExport export = exportService.streamGroupExport(userDetails.getUsername(), groupId, type, format);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(export.body());
+    }
 }
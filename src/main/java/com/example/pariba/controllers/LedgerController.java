@@ -0,0 +1,96 @@
+package com.example.pariba.controllers;
+
+import com.example.pariba.constants.MessageConstants;
+import com.example.pariba.dtos.responses.ApiResponse;
+import com.example.pariba.dtos.responses.LedgerBalanceResponse;
+import com.example.pariba.exceptions.ForbiddenException;
+import com.example.pariba.security.CurrentUser;
+import com.example.pariba.services.ILedgerService;
+import com.example.pariba.services.ITontineGroupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Soldes du grand livre d'un groupe (réservé aux membres du groupe)
+ */
+@RestController
+@RequestMapping("/groups/{groupId}/ledger")
+@Tag(name = "Grand livre", description = "Soldes courants d'un groupe : encaissé, dû, restes à payer")
+@SecurityRequirement(name = "bearerAuth")
+public class LedgerController {
+
+    private final ILedgerService ledgerService;
+    private final ITontineGroupService groupService;
+    private final CurrentUser currentUser;
+
+    public LedgerController(ILedgerService ledgerService, ITontineGroupService groupService, CurrentUser currentUser) {
+        this.ledgerService = ledgerService;
+        this.groupService = groupService;
+        this.currentUser = currentUser;
+    }
+
+    @GetMapping("/balance")
+    @Operation(summary = "Solde du groupe", description = "Total dû, pénalités, encaissé, versé et fonds détenus du groupe")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Solde du groupe"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Non membre du groupe")
+    })
+    public ResponseEntity<ApiResponse<LedgerBalanceResponse>> getGroupBalance(@PathVariable String groupId) {
+        checkIsMember(groupId);
+        LedgerBalanceResponse response = new LedgerBalanceResponse(ledgerService.getGroupBalance(groupId));
+        return ResponseEntity.ok(ApiResponse.success(MessageConstants.SUCCESS_OPERATION, response));
+    }
+
+    @GetMapping("/tours/{tourId}")
+    @Operation(summary = "Solde d'un tour", description = "Total dû et encaissé pour un tour du groupe")
+    public ResponseEntity<ApiResponse<LedgerBalanceResponse>> getTourBalance(@PathVariable String groupId,
+                                                                             @PathVariable String tourId) {
+        checkIsMember(groupId);
+        LedgerBalanceResponse response = new LedgerBalanceResponse(ledgerService.getTourBalance(groupId, tourId));
+        return ResponseEntity.ok(ApiResponse.success(MessageConstants.SUCCESS_OPERATION, response));
+    }
+
+    @GetMapping("/tours/{tourId}/debtors")
+    @Operation(summary = "Cotisations non soldées d'un tour", description = "Membres qui doivent encore payer leur cotisation du tour")
+    public ResponseEntity<ApiResponse<List<LedgerBalanceResponse>>> getTourDebtors(@PathVariable String groupId,
+                                                                                   @PathVariable String tourId) {
+        checkIsMember(groupId);
+        List<LedgerBalanceResponse> response = ledgerService.findTourDebtors(tourId).stream()
+                .filter(balance -> balance.getGroupId().equals(groupId))
+                .map(LedgerBalanceResponse::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(MessageConstants.SUCCESS_OPERATION, response));
+    }
+
+    @GetMapping("/members/{personId}")
+    @Operation(summary = "Solde d'un membre", description = "Dû, pénalités, payé et reste à payer d'un membre dans le groupe")
+    public ResponseEntity<ApiResponse<LedgerBalanceResponse>> getMemberBalance(@PathVariable String groupId,
+                                                                               @PathVariable String personId) {
+        checkIsMember(groupId);
+        LedgerBalanceResponse response = new LedgerBalanceResponse(ledgerService.getMemberBalance(groupId, personId));
+        return ResponseEntity.ok(ApiResponse.success(MessageConstants.SUCCESS_OPERATION, response));
+    }
+
+    @GetMapping("/debtors")
+    @Operation(summary = "Membres en retard de paiement", description = "Membres du groupe ayant un reste à payer")
+    public ResponseEntity<ApiResponse<List<LedgerBalanceResponse>>> getDebtors(@PathVariable String groupId) {
+        checkIsMember(groupId);
+        List<LedgerBalanceResponse> response = ledgerService.findDebtors(groupId).stream()
+                .map(LedgerBalanceResponse::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(MessageConstants.SUCCESS_OPERATION, response));
+    }
+
+    private void checkIsMember(String groupId) {
+        if (!groupService.isMember(groupId, currentUser.getPersonId())) {
+            throw new ForbiddenException(MessageConstants.ERROR_FORBIDDEN);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.pariba.controllers;
 
 import com.example.pariba.constants.MessageConstants;
+import com.example.pariba.dtos.requests.NotificationIdsRequest;
 import com.example.pariba.dtos.responses.ApiResponse;
+import com.example.pariba.dtos.responses.CursorPageResponse;
 import com.example.pariba.dtos.responses.NotificationResponse;
+import com.example.pariba.exceptions.BadRequestException;
 import com.example.pariba.services.INotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -77,6 +81,66 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/inbox")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Boîte de réception paginée",
+               description = "Notifications les plus récentes d'abord, par pages de taille bornée. " +
+                             "Passer nextCursor de la réponse pour obtenir la page suivante ; unread=true pour les non lues uniquement")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page de notifications"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Curseur invalide")
+    })
+    public ResponseEntity<ApiResponse<CursorPageResponse<NotificationResponse>>> getInbox(
+            @RequestParam(required = false) Boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            String personId = getPersonIdFromAuthentication();
+            
+            if (personId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                    new ApiResponse<>(false, "Utilisateur non authentifié", null)
+                );
+            }
+            
+            CursorPageResponse<NotificationResponse> page = notificationService.getInbox(personId, unread, cursor, size);
+            
+            return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.SUCCESS_OPERATION, page));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                new ApiResponse<>(false, "Erreur: " + e.getMessage(), null)
+            );
+        }
+    }
+
+    @GetMapping("/unread/count")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Nombre de notifications non lues", description = "Badge de l'application : notifications non lues de la boîte de réception")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Nombre de notifications non lues")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> getUnreadCount() {
+        try {
+            String personId = getPersonIdFromAuthentication();
+            
+            if (personId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                    new ApiResponse<>(false, "Utilisateur non authentifié", null)
+                );
+            }
+            
+            int unread = notificationService.countUnread(personId);
+            
+            return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.SUCCESS_OPERATION, Map.of("unread", unread)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                new ApiResponse<>(false, "Erreur: " + e.getMessage(), null)
+            );
+        }
+    }
+
     @GetMapping("/unread")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Notifications non lues", description = "Récupère uniquement les notifications non lues")
@@ -155,6 +219,32 @@ public class NotificationController {
         }
     }
 
+    @PutMapping("/read-batch")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Marquer plusieurs comme lues", description = "Marque comme lues les notifications de la liste (500 maximum)")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Notifications marquées comme lues")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> markAsReadBatch(@Valid @RequestBody NotificationIdsRequest request) {
+        try {
+            String personId = getPersonIdFromAuthentication();
+            
+            if (personId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                    new ApiResponse<>(false, "Utilisateur non authentifié", null)
+                );
+            }
+            
+            int updated = notificationService.markAsRead(request.getIds(), personId);
+            
+            return ResponseEntity.ok(new ApiResponse<>(true, MessageConstants.NOTIFICATION_SUCCESS_READ, Map.of("updated", updated)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                new ApiResponse<>(false, "Erreur: " + e.getMessage(), null)
+            );
+        }
+    }
+
     @PostMapping("/fcm-token")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Enregistrer token FCM", description = "Enregistre le token FCM pour les notifications push")
@@ -215,6 +305,32 @@ public class NotificationController {
         }
     }
 
+    @PostMapping("/delete-batch")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Supprimer plusieurs notifications", description = "Supprime les notifications de la liste (500 maximum)")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Notifications supprimées")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> deleteNotifications(@Valid @RequestBody NotificationIdsRequest request) {
+        try {
+            String personId = getPersonIdFromAuthentication();
+            
+            if (personId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                    new ApiResponse<>(false, "Utilisateur non authentifié", null)
+                );
+            }
+            
+            int deleted = notificationService.deleteNotifications(request.getIds(), personId);
+            
+            return ResponseEntity.ok(new ApiResponse<>(true, "Notifications supprimées avec succès", Map.of("deleted", deleted)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                new ApiResponse<>(false, "Erreur: " + e.getMessage(), null)
+            );
+        }
+    }
+
     @DeleteMapping("/delete-all")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Supprimer toutes les notifications", description = "Supprime toutes les notifications de l'utilisateur")
@@ -1,10 +1,23 @@
 package com.example.pariba.controllers.admin;
 
+import com.example.pariba.dtos.responses.ExportJobResponse;
+import com.example.pariba.dtos.responses.LedgerBalanceResponse;
+import com.example.pariba.enums.RetentionTable;
+import com.example.pariba.exceptions.BadRequestException;
+import com.example.pariba.models.JobRun;
 import com.example.pariba.models.Person;
+import com.example.pariba.models.RetentionArchive;
+import com.example.pariba.models.SchedulerLock;
 import com.example.pariba.models.TontineGroup;
 import com.example.pariba.models.Payment;
 import com.example.pariba.repositories.*;
-import com.example.pariba.services.impl.FileGeneratorService;
+import com.example.pariba.security.JwtPrincipalCache;
+import com.example.pariba.services.IExportService;
+import com.example.pariba.services.ILedgerService;
+import com.example.pariba.services.IPersonSummaryService;
+import com.example.pariba.services.IRetentionService;
+import com.example.pariba.utils.LedgerMismatch;
+import com.example.pariba.utils.StreamedExport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
@@ -12,13 +25,20 @@ import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +57,13 @@ public class AdminApiController {
     private final TontineGroupRepository tontineGroupRepository;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
-    private final FileGeneratorService fileGeneratorService;
+    private final IExportService exportService;
+    private final JwtPrincipalCache principalCache;
+    private final IPersonSummaryService personSummaryService;
+    private final IRetentionService retentionService;
+    private final ILedgerService ledgerService;
+    private final JobRunRepository jobRunRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
     
     /**
      * Recherche d'utilisateurs
@@ -178,6 +204,8 @@ public class AdminApiController {
         return personRepository.findById(id)
             .map(person -> {
                 personRepository.delete(person);
+                personSummaryService.onPersonDeleted(id);
+                principalCache.revoke(id);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
@@ -198,6 +226,7 @@ public class AdminApiController {
         return tontineGroupRepository.findById(id)
             .map(group -> {
                 tontineGroupRepository.delete(group);
+                ledgerService.deleteGroupLedger(id);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
@@ -226,144 +255,233 @@ public class AdminApiController {
     }
     
     /**
-     * Export utilisateurs en PDF
+     * Demande un export (users, groups, payments) en PDF ou Excel.
+     * La génération se fait en arrière-plan : suivre le job puis télécharger le fichier.
      */
-    @GetMapping("/export/users/pdf")
-    public ResponseEntity<Resource> exportUsersPdf() {
-        log.info("📄 Export utilisateurs en PDF");
+    @PostMapping("/export/{type}/{format}")
+    public ResponseEntity<?> requestExport(@AuthenticationPrincipal UserDetails userDetails,
+                                           @PathVariable String type,
+                                           @PathVariable String format) {
+        log.info("📄 Demande d'export {} en {}", type, format);
         
         try {
-            List<Person> users = personRepository.findAll();
-            String fileName = fileGeneratorService.generateUsersPdf(users, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export PDF", e);
-            return ResponseEntity.internalServerError().build();
+            ExportJobResponse job = exportService.requestAdminExport(userDetails.getUsername(), type, format);
+            return ResponseEntity.accepted().body(job);
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
         }
     }
     
     /**
-     * Export utilisateurs en Excel
+     * Statut et progression d'un export
      */
-    @GetMapping("/export/users/excel")
-    public ResponseEntity<Resource> exportUsersExcel() {
-        log.info("📊 Export utilisateurs en Excel");
-        
+    @GetMapping("/export/jobs/{id}")
+    public ResponseEntity<?> getExportJob(@PathVariable String id) {
+        return ResponseEntity.ok(exportService.getExportJobById(id));
+    }
+    
+    /**
+     * Annulation d'un export en attente ou en cours
+     */
+    @PostMapping("/export/jobs/{id}/cancel")
+    public ResponseEntity<?> cancelExport(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String id) {
         try {
-            List<Person> users = personRepository.findAll();
-            String fileName = fileGeneratorService.generateUsersExcel(users, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export Excel", e);
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.ok(exportService.cancelExport(userDetails.getUsername(), id));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
         }
     }
     
     /**
-     * Export groupes en PDF
+     * Téléchargement d'un export terminé
      */
-    @GetMapping("/export/groups/pdf")
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<Resource> exportGroupsPdf() {
-        log.info("📄 Export groupes en PDF");
+    @GetMapping("/export/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadExport(@AuthenticationPrincipal UserDetails userDetails, @PathVariable String id) {
+        Path file = exportService.getExportFile(userDetails.getUsername(), id);
+        MediaType mediaType = file.toString().endsWith(".pdf") ? MediaType.APPLICATION_PDF : MediaType.APPLICATION_OCTET_STREAM;
         
-        try {
-            List<TontineGroup> groups = tontineGroupRepository.findAll();
-            String fileName = fileGeneratorService.generateGroupsPdf(groups, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export PDF", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .contentType(mediaType)
+                .body(new FileSystemResource(file));
     }
     
     /**
-     * Export groupes en Excel
+     * Export CSV ou NDJSON compressé (gzip) écrit directement dans la réponse :
+     * payments, contributions, audit_logs ou system_logs
      */
-    @GetMapping("/export/groups/excel")
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<Resource> exportGroupsExcel() {
-        log.info("📊 Export groupes en Excel");
+    @GetMapping("/export/stream/{type}/{format}")
+    public ResponseEntity<StreamingResponseBody> streamExport(@AuthenticationPrincipal UserDetails userDetails,
+                                                              @PathVariable String type,
+                                                              @PathVariable String format) {
+        log.info("📄 Export en flux {} en {}", type, format);
+        StreamedExport export = exportService.streamAdminExport(userDetails.getUsername(), type, format);
         
-        try {
-            List<TontineGroup> groups = tontineGroupRepository.findAll();
-            String fileName = fileGeneratorService.generateGroupsExcel(groups, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export Excel", e);
-            return ResponseEntity.internalServerError().build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(export.body());
+    }
+    
+    /**
+     * Archives de rétention d'une table (system_logs, audit_logs, notifications, ad_events, job_runs) couvrant [from, to]
+     */
+    @GetMapping("/archives/{table}")
+    public ResponseEntity<?> listArchives(@PathVariable String table,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RetentionTable retentionTable = retentionTable(table);
+        List<Map<String, Object>> archives = new ArrayList<>();
+        for (RetentionArchive archive : retentionService.findArchives(retentionTable, from, to)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", archive.getId());
+            item.put("rangeStart", archive.getRangeStart());
+            item.put("rangeEnd", archive.getRangeEnd());
+            item.put("rowCount", archive.getRowCount());
+            item.put("fileName", archive.getFileName());
+            item.put("fileSize", archive.getFileSize());
+            archives.add(item);
         }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("table", retentionTable.getTableName());
+        response.put("hotDays", retentionService.getHotDays(retentionTable));
+        response.put("archives", archives);
+        return ResponseEntity.ok(response);
     }
     
     /**
-     * Export paiements en PDF
+     * Lignes archivées des journées [from, to] en NDJSON compressé (gzip)
      */
-    @GetMapping("/export/payments/pdf")
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<Resource> exportPaymentsPdf() {
-        log.info("📄 Export paiements en PDF");
+    @GetMapping("/archives/{table}/download")
+    public ResponseEntity<StreamingResponseBody> downloadArchives(@PathVariable String table,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RetentionTable retentionTable = retentionTable(table);
+        log.info("📦 Consultation des archives {} du {} au {}", retentionTable.getTableName(), from, to);
+        String fileName = retentionTable.getTableName() + "_" + from + "_" + to + ".ndjson.gz";
         
-        try {
-            List<Payment> payments = paymentRepository.findAll();
-            String fileName = fileGeneratorService.generatePaymentsPdf(payments, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export PDF", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(out -> retentionService.writeArchives(retentionTable, from, to, out));
+    }
+    
+    /**
+     * Grand livre d'un groupe : solde, membres avec reste à payer et dernières écritures
+     */
+    @GetMapping("/ledger/{groupId}")
+    public ResponseEntity<?> getLedger(@PathVariable String groupId,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        ledgerService.getLatestEntries(groupId, Math.min(Math.max(limit, 1), 500)).forEach(entry -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("sequence", entry.getSequence());
+            item.put("type", entry.getType());
+            item.put("amount", entry.getAmount());
+            item.put("tourId", entry.getTourId());
+            item.put("memberId", entry.getMemberId());
+            item.put("contributionId", entry.getContributionId());
+            item.put("referenceId", entry.getReferenceId());
+            item.put("createdAt", entry.getCreatedAt());
+            entries.add(item);
+        });
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("balance", new LedgerBalanceResponse(ledgerService.getGroupBalance(groupId)));
+        response.put("debtors", ledgerService.findDebtors(groupId).stream().map(LedgerBalanceResponse::new).toList());
+        response.put("entries", entries);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Vérifie les soldes du grand livre contre les cotisations, paiements confirmés et versements
+     */
+    @GetMapping("/ledger/{groupId}/verify")
+    public ResponseEntity<?> verifyLedger(@PathVariable String groupId) {
+        List<LedgerMismatch> mismatches = ledgerService.verify(groupId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("consistent", mismatches.isEmpty());
+        response.put("mismatches", mismatches);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Reconstruit les soldes du grand livre depuis l'historique des paiements
+     */
+    @PostMapping("/ledger/{groupId}/rebuild")
+    public ResponseEntity<?> rebuildLedger(@PathVariable String groupId) {
+        log.info("📒 Reconstruction du grand livre du groupe {}", groupId);
+        List<LedgerMismatch> corrected = ledgerService.rebuild(groupId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("corrected", corrected);
+        return ResponseEntity.ok(response);
     }
     
     /**
-     * Export paiements en Excel
+     * Historique des jobs planifiés (plus récents d'abord), éventuellement filtré sur un job
      */
-    @GetMapping("/export/payments/excel")
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<Resource> exportPaymentsExcel() {
-        log.info("📊 Export paiements en Excel");
+    @GetMapping("/jobs/runs")
+    public ResponseEntity<?> getJobRuns(@RequestParam(required = false) String job,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "50") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200));
+        Page<JobRun> runs = job != null && !job.isBlank()
+                ? jobRunRepository.findByJobNameOrderByCreatedAtDesc(job, pageable)
+                : jobRunRepository.findByOrderByCreatedAtDesc(pageable);
+        
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (JobRun run : runs.getContent()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", run.getId());
+            item.put("jobName", run.getJobName());
+            item.put("nodeId", run.getNodeId());
+            item.put("status", run.getStatus());
+            item.put("startedAt", run.getCreatedAt());
+            item.put("finishedAt", run.getFinishedAt());
+            item.put("durationMs", run.getDurationMs());
+            item.put("rowsScanned", run.getRowsScanned());
+            item.put("rowsNotified", run.getRowsNotified());
+            item.put("rowsFailed", run.getRowsFailed());
+            item.put("pages", run.getPages());
+            item.put("error", run.getError());
+            items.add(item);
+        }
         
+        Map<String, Object> response = new HashMap<>();
+        response.put("runs", items);
+        response.put("jobs", jobRunRepository.findJobNames());
+        response.put("totalElements", runs.getTotalElements());
+        response.put("totalPages", runs.getTotalPages());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Verrous des jobs planifiés : instance détentrice et échéance
+     */
+    @GetMapping("/jobs/locks")
+    public ResponseEntity<?> getJobLocks() {
+        List<Map<String, Object>> locks = new ArrayList<>();
+        for (SchedulerLock lock : schedulerLockRepository.findAllByOrderByNameAsc()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", lock.getName());
+            item.put("lockedBy", lock.getLockedBy());
+            item.put("lockedAt", lock.getLockedAt());
+            item.put("lockedUntil", lock.getLockedUntil());
+            item.put("held", lock.getLockedUntil().isAfter(Instant.now()));
+            locks.add(item);
+        }
+        return ResponseEntity.ok(Map.of("locks", locks));
+    }
+    
+    private RetentionTable retentionTable(String table) {
         try {
-            List<Payment> payments = paymentRepository.findAll();
-            String fileName = fileGeneratorService.generatePaymentsExcel(payments, "admin");
-            
-            Resource resource = new FileSystemResource(Paths.get("./exports/" + fileName));
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Erreur export Excel", e);
-            return ResponseEntity.internalServerError().build();
+            return RetentionTable.from(table);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Table non archivée : " + table);
         }
     }
 }
@@ -4,6 +4,7 @@ import com.example.pariba.enums.NotificationChannel;
 import com.example.pariba.enums.NotificationType;
 import com.example.pariba.models.NotificationTemplate;
 import com.example.pariba.repositories.NotificationTemplateRepository;
+import com.example.pariba.services.impl.NotificationTemplateCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -24,9 +25,12 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class AdminNotificationTemplateController {
     
     private final NotificationTemplateRepository templateRepository;
+    private final NotificationTemplateCache templateCache;
     
-    public AdminNotificationTemplateController(NotificationTemplateRepository templateRepository) {
+    public AdminNotificationTemplateController(NotificationTemplateRepository templateRepository,
+                                               NotificationTemplateCache templateCache) {
         this.templateRepository = templateRepository;
+        this.templateCache = templateCache;
     }
     
     /**
@@ -106,6 +110,7 @@ public class AdminNotificationTemplateController {
     ) {
         try {
             templateRepository.save(template);
+            templateCache.invalidateAll();
             redirectAttributes.addFlashAttribute("success", "Template créé avec succès");
             log.info("Template créé: {} - {}", template.getType(), template.getChannel());
         } catch (Exception e) {
@@ -141,6 +146,7 @@ public class AdminNotificationTemplateController {
             existing.setLanguage(template.getLanguage());
             
             templateRepository.save(existing);
+            templateCache.invalidateAll();
             redirectAttributes.addFlashAttribute("success", "Template mis à jour avec succès");
             log.info("Template mis à jour: {}", id);
         } catch (Exception e) {
@@ -166,6 +172,7 @@ public class AdminNotificationTemplateController {
             
             template.setActive(!template.isActive());
             templateRepository.save(template);
+            templateCache.invalidateAll();
             
             String status = template.isActive() ? "activé" : "désactivé";
             redirectAttributes.addFlashAttribute("success", "Template " + status + " avec succès");
@@ -185,6 +192,7 @@ public class AdminNotificationTemplateController {
     public String deleteTemplate(@PathVariable String id, RedirectAttributes redirectAttributes) {
         try {
             templateRepository.deleteById(id);
+            templateCache.invalidateAll();
             redirectAttributes.addFlashAttribute("success", "Template supprimé avec succès");
             log.info("Template supprimé: {}", id);
         } catch (Exception e) {
@@ -2,6 +2,7 @@ package com.example.pariba.controllers.admin;
 
 import com.example.pariba.models.Person;
 import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.security.JwtPrincipalCache;
 import com.example.pariba.services.IPasswordResetService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@ public class AdminPasswordResetController {
     private final IPasswordResetService passwordResetService;
     private final PersonRepository personRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtPrincipalCache principalCache;
     
     /**
      * Page "Mot de passe oublié"
@@ -217,6 +219,7 @@ public class AdminPasswordResetController {
             // Changer le mot de passe
             person.getUser().setPassword(passwordEncoder.encode(newPassword));
             personRepository.save(person);
+            principalCache.revoke(person.getId());
             
             log.info("✅ Mot de passe changé avec succès pour: {}", username);
             redirectAttributes.addAttribute("success", "true");
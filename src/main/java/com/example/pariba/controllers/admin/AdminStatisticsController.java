@@ -1,12 +1,14 @@
 package com.example.pariba.controllers.admin;
 
+import com.example.pariba.models.JobRun;
 import com.example.pariba.models.SystemLog;
-import com.example.pariba.models.Subscription;
-import com.example.pariba.models.SubscriptionRequest;
-import com.example.pariba.enums.SubscriptionStatus;
-import com.example.pariba.enums.SubscriptionRequestStatus;
-import com.example.pariba.repositories.*;
+import com.example.pariba.repositories.JobRunRepository;
+import com.example.pariba.repositories.SchedulerLockRepository;
+import com.example.pariba.repositories.SystemLogRepository;
+import com.example.pariba.services.IPlatformStatsService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,10 +16,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Contrôleur pour les statistiques SuperAdmin
@@ -28,133 +28,33 @@ import java.util.Map;
 @Slf4j
 public class AdminStatisticsController {
     
-    private final PersonRepository personRepository;
-    private final TontineGroupRepository groupRepository;
-    private final PaymentRepository paymentRepository;
-    private final ContributionRepository contributionRepository;
-    private final NotificationRepository notificationRepository;
     private final SystemLogRepository systemLogRepository;
-    private final SubscriptionRepository subscriptionRepository;
-    private final SubscriptionRequestRepository subscriptionRequestRepository;
+    private final IPlatformStatsService platformStatsService;
+    private final JobRunRepository jobRunRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
     
-    public AdminStatisticsController(PersonRepository personRepository,
-                                    TontineGroupRepository groupRepository,
-                                    PaymentRepository paymentRepository,
-                                    ContributionRepository contributionRepository,
-                                    NotificationRepository notificationRepository,
-                                    SystemLogRepository systemLogRepository,
-                                    SubscriptionRepository subscriptionRepository,
-                                    SubscriptionRequestRepository subscriptionRequestRepository) {
-        this.personRepository = personRepository;
-        this.groupRepository = groupRepository;
-        this.paymentRepository = paymentRepository;
-        this.contributionRepository = contributionRepository;
-        this.notificationRepository = notificationRepository;
+    public AdminStatisticsController(SystemLogRepository systemLogRepository,
+                                    IPlatformStatsService platformStatsService,
+                                    JobRunRepository jobRunRepository,
+                                    SchedulerLockRepository schedulerLockRepository) {
         this.systemLogRepository = systemLogRepository;
-        this.subscriptionRepository = subscriptionRepository;
-        this.subscriptionRequestRepository = subscriptionRequestRepository;
+        this.platformStatsService = platformStatsService;
+        this.jobRunRepository = jobRunRepository;
+        this.schedulerLockRepository = schedulerLockRepository;
     }
     
     @GetMapping("/superadmin-dashboard")
     public String superAdminDashboard(Model model) {
         try {
-            // Statistiques globales
-            long totalUsers = personRepository.count();
-            long totalGroups = groupRepository.count();
-            long totalPayments = paymentRepository.count();
-            long totalContributions = contributionRepository.count();
-            
-            // Statistiques des 24 dernières heures
-            LocalDateTime last24h = LocalDateTime.now().minusHours(24);
-            long newUsersToday = personRepository.countByCreatedAtAfter(last24h);
-            long newGroupsToday = groupRepository.countByCreatedAtAfter(last24h);
-            
-            // Statistiques des 7 derniers jours
-            LocalDateTime last7days = LocalDateTime.now().minusDays(7);
-            long newUsersWeek = personRepository.countByCreatedAtAfter(last7days);
-            long newGroupsWeek = groupRepository.countByCreatedAtAfter(last7days);
-            
-            // Statistiques des 30 derniers jours
-            LocalDateTime last30days = LocalDateTime.now().minusDays(30);
-            long newUsersMonth = personRepository.countByCreatedAtAfter(last30days);
-            long newGroupsMonth = groupRepository.countByCreatedAtAfter(last30days);
+            // Statistiques globales, périodes glissantes, abonnements et graphiques : agrégats en cache
+            model.addAllAttributes(platformStatsService.getDashboardStats());
             
             // Logs système récents
             List<SystemLog> recentLogs = systemLogRepository.findTop100ByOrderByCreatedAtDesc();
-            long totalLogs = systemLogRepository.count();
-            long errorsToday = systemLogRepository.countErrorsSince(last24h);
-            
-            // Tous les groupes (pas de distinction actif/inactif pour l'instant)
-            // Note: TontineGroup n'a pas de champ 'active'
-            long activeGroups = totalGroups;
-            long inactiveGroups = 0;
-            
-            // Notifications
-            long totalNotifications = notificationRepository.count();
-            long unreadNotifications = notificationRepository.countByReadFlagFalse();
-            
-            // Statistiques d'abonnements
-            long totalSubscriptions = subscriptionRepository.count();
-            long activeSubscriptions = subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE);
-            long pendingRequests = subscriptionRequestRepository.countByStatus(SubscriptionRequestStatus.PENDING);
-            
-            // Calcul des revenus mensuels et annuels
-            List<Subscription> allActiveSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE);
-            double monthlyRevenue = 0.0;
-            double annualRevenue = 0.0;
-            long monthlySubscriptionsCount = 0;
-            long annualSubscriptionsCount = 0;
-            
-            for (Subscription sub : allActiveSubscriptions) {
-                if (sub.getPricePaid() != null) {
-                    if ("annual".equalsIgnoreCase(sub.getBillingPeriod())) {
-                        annualRevenue += sub.getPricePaid().doubleValue();
-                        annualSubscriptionsCount++;
-                    } else {
-                        monthlyRevenue += sub.getPricePaid().doubleValue();
-                        monthlySubscriptionsCount++;
-                    }
-                }
-            }
-            
-            // Ajouter au modèle
-            model.addAttribute("totalUsers", totalUsers);
-            model.addAttribute("totalGroups", totalGroups);
-            model.addAttribute("totalPayments", totalPayments);
-            model.addAttribute("totalContributions", totalContributions);
-            
-            model.addAttribute("newUsersToday", newUsersToday);
-            model.addAttribute("newGroupsToday", newGroupsToday);
-            model.addAttribute("newUsersWeek", newUsersWeek);
-            model.addAttribute("newGroupsWeek", newGroupsWeek);
-            model.addAttribute("newUsersMonth", newUsersMonth);
-            model.addAttribute("newGroupsMonth", newGroupsMonth);
-            
-            model.addAttribute("activeGroups", activeGroups);
-            model.addAttribute("inactiveGroups", inactiveGroups);
-            
-            model.addAttribute("totalNotifications", totalNotifications);
-            model.addAttribute("unreadNotifications", unreadNotifications);
-            
-            // Statistiques d'abonnements
-            model.addAttribute("totalSubscriptions", totalSubscriptions);
-            model.addAttribute("activeSubscriptions", activeSubscriptions);
-            model.addAttribute("pendingRequests", pendingRequests);
-            model.addAttribute("monthlyRevenue", monthlyRevenue);
-            model.addAttribute("annualRevenue", annualRevenue);
-            model.addAttribute("monthlySubscriptionsCount", monthlySubscriptionsCount);
-            model.addAttribute("annualSubscriptionsCount", annualSubscriptionsCount);
-            
             model.addAttribute("recentLogs", recentLogs);
-            model.addAttribute("totalLogs", totalLogs);
-            model.addAttribute("errorsToday", errorsToday);
             
             model.addAttribute("pageTitle", "Dashboard SuperAdmin");
             
-            // Données pour graphiques
-            Map<String, Object> chartData = prepareChartData();
-            model.addAttribute("chartData", chartData);
-            
         } catch (Exception e) {
             log.error("Erreur lors du chargement du dashboard: {}", e.getMessage());
             model.addAttribute("error", "Erreur lors du chargement des statistiques");
@@ -213,34 +113,35 @@ public class AdminStatisticsController {
     }
     
     /**
-     * Préparer les données pour les graphiques
+     * Historique des jobs planifiés (une seule instance exécute chaque déclenchement) et verrous en cours
      */
-    private Map<String, Object> prepareChartData() {
-        Map<String, Object> data = new HashMap<>();
-        
-        // Évolution des utilisateurs sur 7 jours
-        Map<String, Long> userGrowth = new HashMap<>();
-        for (int i = 6; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusDays(i);
-            LocalDateTime nextDate = date.plusDays(1);
-            long count = personRepository.countByCreatedAtBetween(
-                date.atZone(java.time.ZoneId.systemDefault()).toInstant(),
-                nextDate.atZone(java.time.ZoneId.systemDefault()).toInstant()
-            );
-            userGrowth.put(date.toLocalDate().toString(), count);
-        }
-        data.put("userGrowth", userGrowth);
-        
-        // Évolution des groupes sur 7 jours
-        Map<String, Long> groupGrowth = new HashMap<>();
-        for (int i = 6; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusDays(i);
-            LocalDateTime nextDate = date.plusDays(1);
-            long count = groupRepository.countByCreatedAtBetween(date, nextDate);
-            groupGrowth.put(date.toLocalDate().toString(), count);
+    @GetMapping("/jobs")
+    public String jobs(Model model,
+                       @RequestParam(defaultValue = "0") int page,
+                       @RequestParam(defaultValue = "50") int size,
+                       @RequestParam(required = false) String job) {
+        try {
+            PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200));
+            boolean hasJob = job != null && !job.trim().isEmpty() && !job.equals("ALL");
+            Page<JobRun> runsPage = hasJob
+                ? jobRunRepository.findByJobNameOrderByCreatedAtDesc(job, pageable)
+                : jobRunRepository.findByOrderByCreatedAtDesc(pageable);
+            
+            model.addAttribute("runs", runsPage.getContent());
+            model.addAttribute("locks", schedulerLockRepository.findAllByOrderByNameAsc());
+            model.addAttribute("jobNames", jobRunRepository.findJobNames());
+            model.addAttribute("now", Instant.now());
+            model.addAttribute("currentPage", pageable.getPageNumber());
+            model.addAttribute("totalPages", runsPage.getTotalPages());
+            model.addAttribute("totalRuns", runsPage.getTotalElements());
+            model.addAttribute("selectedJob", hasJob ? job : "ALL");
+            model.addAttribute("pageTitle", "Jobs planifiés");
+            
+            return "admin/jobs";
+        } catch (Exception e) {
+            log.error("Erreur lors du chargement de l'historique des jobs", e);
+            model.addAttribute("error", "Erreur lors du chargement des jobs");
+            return "admin/error";
         }
-        data.put("groupGrowth", groupGrowth);
-        
-        return data;
     }
 }
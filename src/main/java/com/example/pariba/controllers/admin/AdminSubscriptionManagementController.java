@@ -9,6 +9,7 @@ import com.example.pariba.repositories.SubscriptionRepository;
 import com.example.pariba.repositories.SubscriptionPlanRepository;
 import com.example.pariba.security.CurrentUser;
 import com.example.pariba.services.IAuditService;
+import com.example.pariba.services.ISubscriptionStatsService;
 import com.example.pariba.services.ISystemLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -21,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -28,10 +30,6 @@ import org.springframework.ui.Model;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +51,7 @@ public class AdminSubscriptionManagementController {
     private final IAuditService auditService;
     private final CurrentUser currentUser;
     private final ISystemLogService systemLogService;
+    private final ISubscriptionStatsService subscriptionStatsService;
 
     // ========================================
     // VUES THYMELEAF - Plans d'Abonnement
@@ -110,20 +109,14 @@ public class AdminSubscriptionManagementController {
                 subscriptionsPage = subscriptionRepository.findAllWithPersonAndPlan(pageRequest);
             }
 
-            // Statistiques
-            Map<String, Long> stats = new HashMap<>();
-            stats.put("total", subscriptionRepository.count());
-            stats.put("active", subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE));
-            stats.put("expired", subscriptionRepository.countByStatus(SubscriptionStatus.EXPIRED));
-            stats.put("cancelled", subscriptionRepository.countByStatus(SubscriptionStatus.CANCELLED));
-            
-            // Abonnements expirant bientôt (dans les 7 prochains jours)
-            LocalDate now = LocalDate.now();
-            LocalDate sevenDaysLater = now.plusDays(7);
-            long expiringSoon = subscriptionRepository.countByStatusAndEndDateBetween(
-                SubscriptionStatus.ACTIVE, now, sevenDaysLater
-            );
-            stats.put("expiringSoon", expiringSoon);
+            // Statistiques (agrégat groupé en cache)
+            Map<String, Object> subscriptionStats = subscriptionStatsService.getSubscriptionStats();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("total", subscriptionStats.get("totalSubscriptions"));
+            stats.put("active", subscriptionStats.get("totalActive"));
+            stats.put("expired", subscriptionStats.get("totalExpired"));
+            stats.put("cancelled", subscriptionStats.get("totalCancelled"));
+            stats.put("expiringSoon", subscriptionStats.get("expiringSoon"));
 
             model.addAttribute("pageTitle", "Gestion des Abonnements");
             model.addAttribute("subscriptions", subscriptionsPage.getContent());
@@ -146,124 +139,12 @@ public class AdminSubscriptionManagementController {
      */
     @GetMapping("/subscription-stats")
     @PreAuthorize("hasRole('SUPERADMIN')")
-    @Transactional(readOnly = true)
     public String subscriptionStats(Model model) {
         log.info("📈 Accès aux statistiques d'abonnement");
 
         try {
-            // Statistiques globales
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Total par statut
-            stats.put("totalActive", subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE));
-            stats.put("totalExpired", subscriptionRepository.countByStatus(SubscriptionStatus.EXPIRED));
-            stats.put("totalCancelled", subscriptionRepository.countByStatus(SubscriptionStatus.CANCELLED));
-            stats.put("totalCanceled", subscriptionRepository.countByStatus(SubscriptionStatus.CANCELED));
-            
-            // Total par plan avec distinction mensuel/annuel
-            Map<String, Long> byPlanId = new HashMap<>();
-            Map<String, Long> monthlyByPlanId = new HashMap<>();
-            Map<String, Long> annualByPlanId = new HashMap<>();
-            List<SubscriptionPlan> allPlans = subscriptionPlanRepository.findAll();
-            log.info("📊 Nombre de plans: {}", allPlans.size());
-            
-            for (SubscriptionPlan plan : allPlans) {
-                // Total abonnés actifs
-                long totalCount = subscriptionRepository.countByPlanAndStatus(plan, SubscriptionStatus.ACTIVE);
-                
-                // Abonnés par période de facturation
-                List<Subscription> planActiveSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE)
-                    .stream()
-                    .filter(s -> s.getPlan().getId().equals(plan.getId()))
-                    .collect(Collectors.toList());
-                
-                long monthlyCount = planActiveSubscriptions.stream()
-                    .filter(s -> !"annual".equalsIgnoreCase(s.getBillingPeriod()))
-                    .count();
-                
-                long annualCount = planActiveSubscriptions.stream()
-                    .filter(s -> "annual".equalsIgnoreCase(s.getBillingPeriod()))
-                    .count();
-                
-                log.info("📊 Plan '{}' (ID: {}): {} total ({} mensuels, {} annuels)", 
-                    plan.getName(), plan.getId(), totalCount, monthlyCount, annualCount);
-                
-                byPlanId.put(plan.getId(), totalCount);
-                monthlyByPlanId.put(plan.getId(), monthlyCount);
-                annualByPlanId.put(plan.getId(), annualCount);
-            }
-            
-            stats.put("byPlanId", byPlanId);
-            stats.put("monthlyByPlanId", monthlyByPlanId);
-            stats.put("annualByPlanId", annualByPlanId);
-            
-            // Abonnements récents (30 derniers jours)
-            Instant thirtyDaysAgo = Instant.now().minus(30, ChronoUnit.DAYS);
-            long recentSubscriptions = subscriptionRepository.countByCreatedAtAfter(thirtyDaysAgo);
-            stats.put("recentSubscriptions", recentSubscriptions);
-            
-            // Taux de rétention (approximatif)
-            // Si on a des abonnements actifs et aucun expiré, le taux est 100%
-            // Sinon, c'est le ratio actifs / (actifs + expirés)
-            long totalExpired = subscriptionRepository.countByStatus(SubscriptionStatus.EXPIRED);
-            long totalActive = subscriptionRepository.countByStatus(SubscriptionStatus.ACTIVE);
-            double renewalRate;
-            if (totalActive > 0 && totalExpired == 0) {
-                renewalRate = 100.0;
-            } else if (totalActive + totalExpired > 0) {
-                renewalRate = (double) totalActive / (totalActive + totalExpired) * 100;
-            } else {
-                renewalRate = 0.0;
-            }
-            stats.put("renewalRate", String.format("%.1f", renewalRate));
-            
-            // Revenus estimés séparés par période de facturation
-            double monthlyRevenue = 0.0;
-            double annualRevenue = 0.0;
-            long monthlySubscriptionsCount = 0;
-            long annualSubscriptionsCount = 0;
-            
-            List<Subscription> activeSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE);
-            log.info("📊 Nombre d'abonnements actifs trouvés: {}", activeSubscriptions.size());
-            
-            for (Subscription sub : activeSubscriptions) {
-                String billingPeriod = sub.getBillingPeriod();
-                BigDecimal pricePaid = sub.getPricePaid();
-                
-                log.info("📊 Abonnement ID: {}, billingPeriod: '{}', pricePaid: {}", 
-                    sub.getId(), billingPeriod, pricePaid);
-                
-                // Si pas de pricePaid, utiliser le prix du plan selon la période
-                BigDecimal revenue = pricePaid;
-                if (revenue == null && sub.getPlan() != null) {
-                    // Déterminer la période: si null ou vide, considérer comme mensuel
-                    String period = (billingPeriod != null && !billingPeriod.trim().isEmpty()) ? billingPeriod : "monthly";
-                    revenue = sub.getPlan().getPriceForPeriod(period);
-                    log.info("📊 Prix calculé depuis le plan: {} pour période: {}", revenue, period);
-                }
-                
-                if (revenue != null) {
-                    if ("annual".equalsIgnoreCase(billingPeriod)) {
-                        annualRevenue += revenue.doubleValue();
-                        annualSubscriptionsCount++;
-                        log.info("📊 Ajouté aux revenus annuels: {}", revenue);
-                    } else {
-                        // Par défaut, considérer comme mensuel si billingPeriod est null/vide
-                        monthlyRevenue += revenue.doubleValue();
-                        monthlySubscriptionsCount++;
-                        log.info("📊 Ajouté aux revenus mensuels: {}", revenue);
-                    }
-                }
-            }
-            
-            stats.put("monthlyRevenue", monthlyRevenue);
-            stats.put("annualRevenue", annualRevenue);
-            stats.put("monthlySubscriptionsCount", monthlySubscriptionsCount);
-            stats.put("annualSubscriptionsCount", annualSubscriptionsCount);
-            stats.put("totalRevenue", monthlyRevenue + annualRevenue);
-
             model.addAttribute("pageTitle", "Statistiques d'Abonnement");
-            model.addAttribute("stats", stats);
+            model.addAttribute("stats", subscriptionStatsService.getSubscriptionStats());
             model.addAttribute("plans", subscriptionPlanRepository.findAll());
 
             return "admin/subscription-stats";
@@ -274,6 +155,16 @@ public class AdminSubscriptionManagementController {
         }
     }
 
+    /**
+     * API: Statistiques d'abonnement (mêmes données que la page, en JSON)
+     */
+    @GetMapping(value = "/subscription-stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    public ResponseEntity<Map<String, Object>> subscriptionStatsJson() {
+        return ResponseEntity.ok(subscriptionStatsService.getSubscriptionStats());
+    }
+
     // ========================================
     // API REST - Plans d'Abonnement
     // ========================================
@@ -424,6 +315,8 @@ public class AdminSubscriptionManagementController {
         }
         
         plan = subscriptionPlanRepository.save(plan);
+        // Les revenus sans prix payé sont estimés avec le prix du plan
+        subscriptionStatsService.invalidateCache();
         
         // Audit log
         String adminId = currentUser.getPersonId();
@@ -476,6 +369,7 @@ public class AdminSubscriptionManagementController {
         systemLogService.log(adminId, "Admin", "SUBSCRIPTION_PLAN_DELETED", "SubscriptionPlan", plan.getId(), details, "WARNING", true);
         
         subscriptionPlanRepository.delete(plan);
+        subscriptionStatsService.invalidateCache();
         
         return ResponseEntity.noContent().build();
     }
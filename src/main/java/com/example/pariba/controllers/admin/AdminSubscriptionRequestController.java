@@ -12,7 +12,7 @@ import com.example.pariba.repositories.PersonRepository;
 import com.example.pariba.repositories.SubscriptionRequestRepository;
 import com.example.pariba.security.CurrentUser;
 import com.example.pariba.services.IAuditService;
-import com.example.pariba.services.IPushNotificationService;
+import com.example.pariba.services.INotificationService;
 import com.example.pariba.services.ISubscriptionService;
 import com.example.pariba.services.ISystemLogService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -55,7 +55,7 @@ public class AdminSubscriptionRequestController {
     private final PersonRepository personRepository;
     private final IAuditService auditService;
     private final ISystemLogService systemLogService;
-    private final IPushNotificationService pushNotificationService;
+    private final INotificationService notificationService;
 
     // ========================================
     // VUE THYMELEAF
@@ -365,22 +365,19 @@ public class AdminSubscriptionRequestController {
     private void sendApprovalNotification(SubscriptionRequest request) {
         try {
             Person person = request.getPerson();
-            if (person.getFcmToken() != null && !person.getFcmToken().trim().isEmpty()) {
-                String title = "🎉 Abonnement approuvé !";
-                String body = String.format("Votre demande d'abonnement au plan %s a été approuvée. Profitez de vos nouveaux avantages !", 
-                    request.getPlan().getName());
-                
-                Map<String, String> data = new HashMap<>();
-                data.put("type", "subscription_approved");
-                data.put("planId", request.getPlan().getId());
-                data.put("planName", request.getPlan().getName());
-                data.put("billingPeriod", request.getBillingPeriod());
-                
-                pushNotificationService.sendToDevice(person.getFcmToken(), title, body, data);
-                log.info("📱 Notification d'approbation envoyée à {}", person.getPhone());
-            } else {
-                log.warn("⚠️ Pas de token FCM pour l'utilisateur {}", person.getPhone());
-            }
+            String title = "🎉 Abonnement approuvé !";
+            String body = String.format("Votre demande d'abonnement au plan %s a été approuvée. Profitez de vos nouveaux avantages !", 
+                request.getPlan().getName());
+            
+            Map<String, String> data = new HashMap<>();
+            data.put("type", "subscription_approved");
+            data.put("planId", request.getPlan().getId());
+            data.put("planName", request.getPlan().getName());
+            data.put("billingPeriod", request.getBillingPeriod());
+            
+            // Tous les appareils actifs de l'utilisateur
+            notificationService.sendPush(person.getId(), title, body, data);
+            log.info("📱 Notification d'approbation planifiée pour {}", person.getPhone());
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'envoi de la notification d'approbation: {}", e.getMessage());
         }
@@ -392,22 +389,18 @@ public class AdminSubscriptionRequestController {
     private void sendRejectionNotification(SubscriptionRequest request) {
         try {
             Person person = request.getPerson();
-            if (person.getFcmToken() != null && !person.getFcmToken().trim().isEmpty()) {
-                String title = "❌ Demande d'abonnement rejetée";
-                String body = String.format("Votre demande d'abonnement au plan %s a été rejetée. Contactez le support pour plus d'informations.", 
-                    request.getPlan().getName());
-                
-                Map<String, String> data = new HashMap<>();
-                data.put("type", "subscription_rejected");
-                data.put("planId", request.getPlan().getId());
-                data.put("planName", request.getPlan().getName());
-                data.put("adminNotes", request.getAdminNotes() != null ? request.getAdminNotes() : "");
-                
-                pushNotificationService.sendToDevice(person.getFcmToken(), title, body, data);
-                log.info("📱 Notification de rejet envoyée à {}", person.getPhone());
-            } else {
-                log.warn("⚠️ Pas de token FCM pour l'utilisateur {}", person.getPhone());
-            }
+            String title = "❌ Demande d'abonnement rejetée";
+            String body = String.format("Votre demande d'abonnement au plan %s a été rejetée. Contactez le support pour plus d'informations.", 
+                request.getPlan().getName());
+            
+            Map<String, String> data = new HashMap<>();
+            data.put("type", "subscription_rejected");
+            data.put("planId", request.getPlan().getId());
+            data.put("planName", request.getPlan().getName());
+            data.put("adminNotes", request.getAdminNotes() != null ? request.getAdminNotes() : "");
+            
+            notificationService.sendPush(person.getId(), title, body, data);
+            log.info("📱 Notification de rejet planifiée pour {}", person.getPhone());
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'envoi de la notification de rejet: {}", e.getMessage());
         }
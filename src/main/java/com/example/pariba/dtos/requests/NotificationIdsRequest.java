@@ -0,0 +1,19 @@
+package com.example.pariba.dtos.requests;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Requête pour lire ou supprimer plusieurs notifications en une seule opération
+ */
+public class NotificationIdsRequest {
+
+    @NotEmpty(message = "La liste des notifications est requise")
+    @Size(max = 500, message = "500 notifications maximum par requête")
+    private List<String> ids;
+
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+}
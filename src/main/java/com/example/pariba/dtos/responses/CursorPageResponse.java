@@ -0,0 +1,36 @@
+package com.example.pariba.dtos.responses;
+
+import java.util.List;
+
+/**
+ * Page keyset : nextCursor à renvoyer tel quel pour la page suivante (null en fin de liste)
+ */
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorPageResponse() {}
+
+    public CursorPageResponse(List<T> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -10,6 +10,9 @@ public class ExportJobResponse {
     private String id;
     private String groupId;
     private ExportStatus status;
+    private String exportType;
+    private int progress;
+    private String errorMessage;
     private String format;
     private String downloadUrl;
     private String parametersJson;
@@ -22,6 +25,9 @@ public class ExportJobResponse {
         this.id = exportJob.getId();
         this.groupId = exportJob.getGroup() != null ? exportJob.getGroup().getId() : null;
         this.status = exportJob.getStatus();
+        this.exportType = exportJob.getExportType();
+        this.progress = exportJob.getProgress();
+        this.errorMessage = exportJob.getErrorMessage();
         this.format = exportJob.getFormat();
         this.downloadUrl = exportJob.getDownloadUrl();
         this.parametersJson = exportJob.getParametersJson();
@@ -35,6 +41,12 @@ public class ExportJobResponse {
     public void setGroupId(String groupId) { this.groupId = groupId; }
     public ExportStatus getStatus() { return status; }
     public void setStatus(ExportStatus status) { this.status = status; }
+    public String getExportType() { return exportType; }
+    public void setExportType(String exportType) { this.exportType = exportType; }
+    public int getProgress() { return progress; }
+    public void setProgress(int progress) { this.progress = progress; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
     public String getFormat() { return format; }
     public void setFormat(String format) { this.format = format; }
     public String getDownloadUrl() { return downloadUrl; }
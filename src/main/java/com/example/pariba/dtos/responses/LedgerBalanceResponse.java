@@ -0,0 +1,63 @@
+package com.example.pariba.dtos.responses;
+
+import com.example.pariba.enums.LedgerScope;
+import com.example.pariba.models.LedgerBalance;
+
+import java.math.BigDecimal;
+
+/**
+ * Solde courant du grand livre (groupe, tour, membre ou cotisation)
+ */
+public class LedgerBalanceResponse {
+
+    private LedgerScope scope;
+    private String scopeId;
+    private String tourId;
+    private String memberId;
+    private BigDecimal totalDue;
+    private BigDecimal totalPenalties;
+    private BigDecimal totalPaid;
+    private BigDecimal totalPaidOut;
+    private BigDecimal outstanding;
+    private BigDecimal held;
+    private long lastSequence;
+
+    public LedgerBalanceResponse() {}
+
+    public LedgerBalanceResponse(LedgerBalance balance) {
+        this.scope = balance.getScope();
+        this.scopeId = balance.getScopeId();
+        this.tourId = balance.getTourId();
+        this.memberId = balance.getMemberId();
+        this.totalDue = balance.getTotalDue();
+        this.totalPenalties = balance.getTotalPenalties();
+        this.totalPaid = balance.getTotalPaid();
+        this.totalPaidOut = balance.getTotalPaidOut();
+        this.outstanding = balance.getOutstanding();
+        this.held = balance.getHeld();
+        this.lastSequence = balance.getLastSequence();
+    }
+
+    public LedgerScope getScope() { return scope; }
+    public void setScope(LedgerScope scope) { this.scope = scope; }
+    public String getScopeId() { return scopeId; }
+    public void setScopeId(String scopeId) { this.scopeId = scopeId; }
+    public String getTourId() { return tourId; }
+    public void setTourId(String tourId) { this.tourId = tourId; }
+    public String getMemberId() { return memberId; }
+    public void setMemberId(String memberId) { this.memberId = memberId; }
+    public BigDecimal getTotalDue() { return totalDue; }
+    public void setTotalDue(BigDecimal totalDue) { this.totalDue = totalDue; }
+    public BigDecimal getTotalPenalties() { return totalPenalties; }
+    public void setTotalPenalties(BigDecimal totalPenalties) { this.totalPenalties = totalPenalties; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public void setTotalPaid(BigDecimal totalPaid) { this.totalPaid = totalPaid; }
+    public BigDecimal getTotalPaidOut() { return totalPaidOut; }
+    public void setTotalPaidOut(BigDecimal totalPaidOut) { this.totalPaidOut = totalPaidOut; }
+    public BigDecimal getOutstanding() { return outstanding; }
+    public void setOutstanding(BigDecimal outstanding) { this.outstanding = outstanding; }
+    public BigDecimal getHeld() { return held; }
+    public void setHeld(BigDecimal held) { this.held = held; }
+    public long getLastSequence() { return lastSequence; }
+    public void setLastSequence(long lastSequence) { this.lastSequence = lastSequence; }
+}
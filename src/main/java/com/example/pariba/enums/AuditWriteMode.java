@@ -0,0 +1,27 @@
+package com.example.pariba.enums;
+
+/**
+ * Durabilité de l'écriture du journal d'audit (app.audit.mode)
+ */
+public enum AuditWriteMode {
+    SYNC("Synchrone, dans la transaction de l'action"),
+    AFTER_COMMIT("Mis en file après le commit de l'action"),
+    ASYNC("Mis en file immédiatement, écrit par lots");
+
+    private final String label;
+
+    AuditWriteMode(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Accepte "sync", "after-commit", "async" (insensible à la casse)
+     */
+    public static AuditWriteMode from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase());
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.pariba.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ContributionStatus { 
     PENDING("En attente"), 
     DUE("À payer"), 
@@ -8,6 +12,11 @@ public enum ContributionStatus {
     LATE("En retard"), 
     WAIVED("Dispensé");
     
+    /**
+     * Cotisations non soldées (soumises aux pénalités de retard)
+     */
+    public static final Set<ContributionStatus> UNPAID = Collections.unmodifiableSet(EnumSet.of(PENDING, DUE, PARTIAL, LATE));
+    
     private final String label;
     
     ContributionStatus(String label) {
@@ -8,7 +8,8 @@ public enum ExportStatus {
     DONE("Terminé"),
     COMPLETED("Complété"),
     ERROR("Erreur"),
-    FAILED("Échoué");
+    FAILED("Échoué"),
+    CANCELLED("Annulé");
     
     private final String label;
     
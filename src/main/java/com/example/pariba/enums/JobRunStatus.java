@@ -0,0 +1,10 @@
+package com.example.pariba.enums;
+
+/**
+ * État d'une exécution de job planifié
+ */
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.example.pariba.enums;
+
+/**
+ * Type d'écriture du grand livre d'un groupe : le type porte le sens du montant
+ */
+public enum LedgerEntryType {
+    CONTRIBUTION_DUE("Cotisation due"),
+    PENALTY("Pénalité de retard"), // écart avec la pénalité précédente, négatif si elle diminue
+    PAYMENT_CONFIRMED("Paiement confirmé"),
+    PAYMENT_REVERSED("Paiement annulé"),
+    PAYOUT("Versement au bénéficiaire");
+
+    private final String label;
+
+    LedgerEntryType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.pariba.enums;
+
+/**
+ * Portée d'un solde courant du grand livre : le groupe, un tour, un membre du groupe ou une cotisation
+ */
+public enum LedgerScope {
+    GROUP,
+    TOUR,
+    MEMBER,
+    CONTRIBUTION
+}
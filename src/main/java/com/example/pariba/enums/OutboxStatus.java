@@ -0,0 +1,18 @@
+package com.example.pariba.enums;
+
+public enum OutboxStatus { 
+    PENDING("En attente d'envoi"),
+    PROCESSING("En cours d'envoi"),
+    SENT("Envoyé"),
+    DEAD("Abandonné après échecs");
+    
+    private final String label;
+    
+    OutboxStatus(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
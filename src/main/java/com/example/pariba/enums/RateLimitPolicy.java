@@ -0,0 +1,57 @@
+package com.example.pariba.enums;
+
+import java.util.List;
+
+/**
+ * Table déclarative des politiques de limitation de débit par route.
+ * La première politique dont une route correspond s'applique (DEFAULT en dernier).
+ * Les valeurs par défaut sont surchargeables via app.rate-limit.policies.&lt;nom&gt;.*
+ */
+public enum RateLimitPolicy {
+    LOGIN("Connexion", 20, 60, "POST",
+        "/api/v1/auth/login", "/admin/login"),
+    OTP("Codes OTP", 5, 300, "POST",
+        "/api/v1/auth/otp/**"),
+    PASSWORD_RESET("Réinitialisation du mot de passe", 5, 900, "POST",
+        "/api/v1/auth/password/forgot", "/api/v1/auth/password/reset",
+        "/admin/forgot-password", "/admin/reset-password"),
+    DEFAULT("Général", 100, 60, null,
+        "/**");
+
+    private final String label;
+    private final int defaultCapacity;
+    private final long defaultPeriodSeconds;
+    private final String method;
+    private final List<String> routes;
+
+    RateLimitPolicy(String label, int defaultCapacity, long defaultPeriodSeconds, String method, String... routes) {
+        this.label = label;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultPeriodSeconds = defaultPeriodSeconds;
+        this.method = method;
+        this.routes = List.of(routes);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public long getDefaultPeriodSeconds() {
+        return defaultPeriodSeconds;
+    }
+
+    /**
+     * Méthode HTTP concernée, null pour toutes
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    public List<String> getRoutes() {
+        return routes;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.pariba.enums;
+
+/**
+ * Tables soumises à la rétention : au-delà de la durée "chaude", les lignes sont archivées puis supprimées
+ */
+public enum RetentionTable {
+    SYSTEM_LOGS("system_logs", "Logs système", 90),
+    AUDIT_LOGS("audit_logs", "Journal d'audit", 365),
+    NOTIFICATIONS("notifications", "Notifications", 90),
+    AD_EVENTS("ad_events", "Événements publicitaires", 180),
+    JOB_RUNS("job_runs", "Historique des jobs planifiés", 90);
+
+    private final String tableName;
+    private final String label;
+    private final int defaultHotDays;
+
+    RetentionTable(String tableName, String label, int defaultHotDays) {
+        this.tableName = tableName;
+        this.label = label;
+        this.defaultHotDays = defaultHotDays;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getDefaultHotDays() {
+        return defaultHotDays;
+    }
+
+    /**
+     * Clé de configuration : app.retention.<clé>-days (system-logs, audit-logs, ...)
+     */
+    public String getConfigKey() {
+        return tableName.replace('_', '-');
+    }
+
+    /**
+     * Accepte "system_logs", "system-logs" ou "SYSTEM_LOGS"
+     */
+    public static RetentionTable from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase());
+    }
+}
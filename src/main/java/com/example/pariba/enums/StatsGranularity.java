@@ -0,0 +1,16 @@
+package com.example.pariba.enums;
+
+public enum StatsGranularity { 
+    HOUR("Heure"), 
+    DAY("Jour");
+    
+    private final String label;
+    
+    StatsGranularity(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
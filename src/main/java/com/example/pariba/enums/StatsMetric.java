@@ -0,0 +1,44 @@
+package com.example.pariba.enums;
+
+/**
+ * Métriques agrégées dans platform_stats_rollups.
+ * - flux : nombre (et montant) de lignes créées dans le créneau, cumulables entre créneaux
+ * - jauge : état instantané relevé à chaque passage du job (seul le dernier relevé compte)
+ * Une métrique modifiable (statut changé après création) est recalculée sur une fenêtre glissante.
+ */
+public enum StatsMetric { 
+    USERS_CREATED("Nouveaux utilisateurs", false, false),
+    GROUPS_CREATED("Nouveaux groupes", false, false),
+    PAYMENTS("Paiements par statut", false, true),
+    CONTRIBUTIONS_CREATED("Nouvelles cotisations", false, false),
+    NOTIFICATIONS_CREATED("Notifications envoyées", false, false),
+    SYSTEM_LOGS("Logs système par niveau", false, false),
+    SUBSCRIPTIONS_CREATED("Abonnements souscrits par période", false, false),
+    USERS_BY_ROLE("Utilisateurs par rôle", true, false),
+    ACTIVE_GROUPS("Groupes avec un tour en cours", true, false),
+    ACTIVE_SUBSCRIPTIONS("Abonnements actifs par période", true, false),
+    PENDING_SUBSCRIPTION_REQUESTS("Demandes d'abonnement en attente", true, false),
+    UNREAD_NOTIFICATIONS("Notifications non lues", true, false);
+    
+    private final String label;
+    private final boolean gauge;
+    private final boolean mutable;
+    
+    StatsMetric(String label, boolean gauge, boolean mutable) {
+        this.label = label;
+        this.gauge = gauge;
+        this.mutable = mutable;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isGauge() {
+        return gauge;
+    }
+
+    public boolean isMutable() {
+        return mutable;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.pariba.exceptions;
+
+public class ExportCancelledException extends RuntimeException {
+
+    public ExportCancelledException(String jobId) {
+        super("Export annulé: " + jobId);
+    }
+}
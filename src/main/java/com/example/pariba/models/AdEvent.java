@@ -3,7 +3,7 @@ package com.example.pariba.models;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "ad_events", indexes = { @Index(columnList = "ad_id"), @Index(columnList = "person_id") })
+@Table(name = "ad_events", indexes = { @Index(columnList = "ad_id"), @Index(columnList = "person_id"), @Index(columnList = "createdAt") })
 public class AdEvent extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
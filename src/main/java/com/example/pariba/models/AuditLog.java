@@ -3,7 +3,7 @@ package com.example.pariba.models;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "audit_logs", indexes = { @Index(columnList = "actor_person_id"), @Index(columnList = "entityType") })
+@Table(name = "audit_logs", indexes = { @Index(columnList = "actor_person_id"), @Index(columnList = "entityType"), @Index(columnList = "createdAt") })
 public class AuditLog extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
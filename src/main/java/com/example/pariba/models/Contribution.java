@@ -7,7 +7,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "contributions",
-       indexes = { @Index(columnList = "group_id"), @Index(columnList = "member_person_id"), @Index(columnList = "tour_id") })
+       indexes = { @Index(columnList = "group_id"), @Index(columnList = "member_person_id"), @Index(columnList = "tour_id"), @Index(columnList = "createdAt"), @Index(columnList = "status, dueDate") })
 public class Contribution extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,8 +3,14 @@ package com.example.pariba.models;
 import com.example.pariba.enums.ExportStatus;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "export_jobs", indexes = { @Index(columnList = "group_id"), @Index(columnList = "status") })
+@Table(name = "export_jobs", indexes = {
+    @Index(columnList = "group_id"),
+    @Index(columnList = "status"),
+    @Index(columnList = "requested_by_id, status")
+})
 public class ExportJob extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -25,6 +31,10 @@ public class ExportJob extends BaseEntity {
     private String parametersJson; // période, filtres…
     private String filters; // Filtres JSON
     private String errorMessage; // Message d'erreur en cas d'échec
+    private String fileName; // fichier généré dans app.export.directory
+    private int progress; // 0 à 100
+    private Instant startedAt;
+    private Instant completedAt;
 
     public TontineGroup getGroup() { return group; }
     public void setGroup(TontineGroup group) { this.group = group; }
@@ -44,4 +54,12 @@ public class ExportJob extends BaseEntity {
     public void setFilters(String filters) { this.filters = filters; }
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public int getProgress() { return progress; }
+    public void setProgress(int progress) { this.progress = progress; }
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
 }
\ No newline at end of file
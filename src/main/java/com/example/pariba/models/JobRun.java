@@ -0,0 +1,56 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.JobRunStatus;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Historique d'exécution d'un job planifié (début = createdAt), affiché dans l'administration
+ */
+@Entity
+@Table(name = "job_runs", indexes = { @Index(columnList = "jobName, createdAt"), @Index(columnList = "createdAt") })
+public class JobRun extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String jobName;
+
+    @Column(length = 255)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobRunStatus status = JobRunStatus.RUNNING;
+
+    private Instant finishedAt;
+    private long durationMs;
+
+    // Métriques du job (JobRunMetrics)
+    private long rowsScanned;
+    private long rowsNotified;
+    private long rowsFailed;
+    private long pages;
+
+    @Column(length = 1024)
+    private String error;
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    public JobRunStatus getStatus() { return status; }
+    public void setStatus(JobRunStatus status) { this.status = status; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+    public long getRowsScanned() { return rowsScanned; }
+    public void setRowsScanned(long rowsScanned) { this.rowsScanned = rowsScanned; }
+    public long getRowsNotified() { return rowsNotified; }
+    public void setRowsNotified(long rowsNotified) { this.rowsNotified = rowsNotified; }
+    public long getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(long rowsFailed) { this.rowsFailed = rowsFailed; }
+    public long getPages() { return pages; }
+    public void setPages(long pages) { this.pages = pages; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
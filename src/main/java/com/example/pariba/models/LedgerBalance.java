@@ -0,0 +1,86 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.LedgerScope;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Solde courant du grand livre pour une portée (groupe, tour, membre du groupe, cotisation).
+ * Mis à jour à chaque écriture, sous le verrou du groupe : la lecture est une recherche par clé unique.
+ */
+@Entity
+@Table(name = "ledger_balances",
+       uniqueConstraints = { @UniqueConstraint(columnNames = { "group_id", "scope", "scope_id" }) },
+       indexes = { @Index(columnList = "tour_id") })
+public class LedgerBalance extends BaseEntity {
+
+    @Column(name = "group_id", nullable = false, length = 36)
+    private String groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private LedgerScope scope;
+
+    // Identifiant du groupe, du tour, du membre ou de la cotisation selon la portée
+    @Column(name = "scope_id", nullable = false, length = 36)
+    private String scopeId;
+
+    @Column(name = "tour_id", length = 36)
+    private String tourId;
+
+    @Column(name = "member_id", length = 36)
+    private String memberId;
+
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal totalDue = BigDecimal.ZERO;
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal totalPenalties = BigDecimal.ZERO;
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal totalPaid = BigDecimal.ZERO;
+    @Column(nullable = false, precision = 19, scale = 2) private BigDecimal totalPaidOut = BigDecimal.ZERO;
+
+    // Séquence de la dernière écriture prise en compte
+    private long lastSequence = 0;
+
+    public LedgerBalance() {}
+
+    public LedgerBalance(String groupId, LedgerScope scope, String scopeId, String tourId, String memberId) {
+        this.groupId = groupId;
+        this.scope = scope;
+        this.scopeId = scopeId;
+        this.tourId = tourId;
+        this.memberId = memberId;
+    }
+
+    /**
+     * Reste à payer : dû + pénalités - payé (négatif en cas de trop-perçu)
+     */
+    public BigDecimal getOutstanding() {
+        return totalDue.add(totalPenalties).subtract(totalPaid);
+    }
+
+    /**
+     * Fonds détenus : encaissé - versé aux bénéficiaires
+     */
+    public BigDecimal getHeld() {
+        return totalPaid.subtract(totalPaidOut);
+    }
+
+    public String getGroupId() { return groupId; }
+    public void setGroupId(String groupId) { this.groupId = groupId; }
+    public LedgerScope getScope() { return scope; }
+    public void setScope(LedgerScope scope) { this.scope = scope; }
+    public String getScopeId() { return scopeId; }
+    public void setScopeId(String scopeId) { this.scopeId = scopeId; }
+    public String getTourId() { return tourId; }
+    public void setTourId(String tourId) { this.tourId = tourId; }
+    public String getMemberId() { return memberId; }
+    public void setMemberId(String memberId) { this.memberId = memberId; }
+    public BigDecimal getTotalDue() { return totalDue; }
+    public void setTotalDue(BigDecimal totalDue) { this.totalDue = totalDue; }
+    public BigDecimal getTotalPenalties() { return totalPenalties; }
+    public void setTotalPenalties(BigDecimal totalPenalties) { this.totalPenalties = totalPenalties; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public void setTotalPaid(BigDecimal totalPaid) { this.totalPaid = totalPaid; }
+    public BigDecimal getTotalPaidOut() { return totalPaidOut; }
+    public void setTotalPaidOut(BigDecimal totalPaidOut) { this.totalPaidOut = totalPaidOut; }
+    public long getLastSequence() { return lastSequence; }
+    public void setLastSequence(long lastSequence) { this.lastSequence = lastSequence; }
+}
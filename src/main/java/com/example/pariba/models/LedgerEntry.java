@@ -0,0 +1,59 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.LedgerEntryType;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Écriture du grand livre d'un groupe : ajoutée, jamais modifiée ni supprimée.
+ * La séquence est continue par groupe (attribuée sous verrou du groupe).
+ */
+@Entity
+@Table(name = "ledger_entries",
+       uniqueConstraints = { @UniqueConstraint(columnNames = { "group_id", "sequence" }) },
+       indexes = { @Index(columnList = "contribution_id"), @Index(columnList = "reference_id") })
+public class LedgerEntry extends BaseEntity {
+
+    @Column(name = "group_id", nullable = false, length = 36)
+    private String groupId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private LedgerEntryType type;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "tour_id", length = 36)
+    private String tourId;
+
+    @Column(name = "member_id", length = 36)
+    private String memberId;
+
+    @Column(name = "contribution_id", length = 36)
+    private String contributionId;
+
+    // Paiement ou versement à l'origine de l'écriture
+    @Column(name = "reference_id", length = 36)
+    private String referenceId;
+
+    public String getGroupId() { return groupId; }
+    public void setGroupId(String groupId) { this.groupId = groupId; }
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public LedgerEntryType getType() { return type; }
+    public void setType(LedgerEntryType type) { this.type = type; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getTourId() { return tourId; }
+    public void setTourId(String tourId) { this.tourId = tourId; }
+    public String getMemberId() { return memberId; }
+    public void setMemberId(String memberId) { this.memberId = memberId; }
+    public String getContributionId() { return contributionId; }
+    public void setContributionId(String contributionId) { this.contributionId = contributionId; }
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+}
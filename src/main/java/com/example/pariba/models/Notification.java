@@ -10,7 +10,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
-@Table(name = "notifications", indexes = { @Index(columnList = "person_id"), @Index(columnList = "type") })
+@Table(name = "notifications", indexes = {
+    @Index(columnList = "person_id, createdAt"),
+    @Index(columnList = "person_id, readFlag, createdAt"),
+    @Index(columnList = "type"),
+    @Index(columnList = "createdAt")
+})
 public class Notification extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,66 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.NotificationChannel;
+import com.example.pariba.enums.NotificationType;
+import com.example.pariba.enums.OutboxStatus;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Notification en attente d'envoi, écrite dans la transaction de l'appelant
+ * puis livrée après commit par le NotificationDispatcher
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = { @Index(columnList = "status, nextAttemptAt") })
+public class NotificationOutbox extends BaseEntity {
+
+    @Column(name = "person_id", nullable = false, length = 36)
+    private String personId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationChannel channel;
+
+    @Column(columnDefinition = "TEXT")
+    private String variablesJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts = 0;
+    private Instant nextAttemptAt = Instant.now();
+    private Instant sentAt;
+
+    @Column(length = 1024)
+    private String lastError;
+
+    /** Notification historisée au premier essai PUSH ; les essais suivants la renvoient sans la recréer */
+    @Column(name = "notification_id", length = 36)
+    private String notificationId;
+
+    public String getPersonId() { return personId; }
+    public void setPersonId(String personId) { this.personId = personId; }
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    public NotificationChannel getChannel() { return channel; }
+    public void setChannel(NotificationChannel channel) { this.channel = channel; }
+    public String getVariablesJson() { return variablesJson; }
+    public void setVariablesJson(String variablesJson) { this.variablesJson = variablesJson; }
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getSentAt() { return sentAt; }
+    public void setSentAt(Instant sentAt) { this.sentAt = sentAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public String getNotificationId() { return notificationId; }
+    public void setNotificationId(String notificationId) { this.notificationId = notificationId; }
+}
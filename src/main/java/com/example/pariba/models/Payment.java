@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
            @Index(columnList = "group_id"), 
            @Index(columnList = "payer_person_id"), 
            @Index(columnList = "status"),
-           @Index(columnList = "contribution_id")
+           @Index(columnList = "contribution_id"),
+           @Index(columnList = "createdAt")
        })
 public class Payment extends BaseEntity {
 
@@ -2,11 +2,18 @@ package com.example.pariba.models;
 
 import com.example.pariba.enums.AppRole;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
+
+// Mises à jour limitées aux colonnes modifiées : une entité chargée avant une révocation
+// (UPDATE en masse de tokensValidAfter) ne l'écrase pas en étant sauvegardée
+@DynamicUpdate
 @Entity
 @Table(name = "persons", indexes = {
   @Index(columnList = "phone", unique = true),
-  @Index(columnList = "email", unique = true)
+  @Index(columnList = "email", unique = true),
+  @Index(columnList = "createdAt")
 })
 public class Person extends BaseEntity {
     
@@ -31,6 +38,10 @@ public class Person extends BaseEntity {
     @Column(nullable = false)
     private AppRole role = AppRole.USER;
     
+    // Access tokens émis avant cet instant refusés (mot de passe changé, déconnexion globale)
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
+    
     @OneToOne(mappedBy = "person", cascade = CascadeType.ALL, fetch = FetchType.LAZY, optional = true)
     private User user;
 
@@ -48,6 +59,8 @@ public class Person extends BaseEntity {
     public void setFcmToken(String fcmToken) { this.fcmToken = fcmToken; }
     public AppRole getRole() { return role; }
     public void setRole(AppRole role) { this.role = role; }
+    public Instant getTokensValidAfter() { return tokensValidAfter; }
+    public void setTokensValidAfter(Instant tokensValidAfter) { this.tokensValidAfter = tokensValidAfter; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 }
@@ -0,0 +1,70 @@
+package com.example.pariba.models;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Résumé matérialisé d'une personne pour le dashboard mobile.
+ * Mis à jour par incréments atomiques lors des événements (paiement validé, tour démarré/terminé,
+ * adhésion, notification créée/lue) : la lecture ne touche ni Payment ni Contribution.
+ */
+@Entity
+@Table(name = "person_summaries", uniqueConstraints = { @UniqueConstraint(columnNames = "person_id") })
+public class PersonSummary extends BaseEntity {
+
+    @Column(name = "person_id", nullable = false, length = 36)
+    private String personId;
+
+    // Groupes
+    private int totalGroups = 0;
+    private int activeGroups = 0; // groupes avec un tour en cours
+
+    // Cotisations et paiements
+    private int totalContributions = 0; // cotisations entièrement payées
+    @Column(precision = 19, scale = 2) private BigDecimal totalAmountContributed = BigDecimal.ZERO;
+    private int confirmedPayments = 0;
+    private int rejectedPayments = 0;
+
+    // Tours reçus
+    private int payoutsReceived = 0;
+    @Column(precision = 19, scale = 2) private BigDecimal totalAmountReceived = BigDecimal.ZERO;
+
+    // Prochaine échéance
+    private int upcomingPayments = 0;
+    private LocalDate nextPaymentDate;
+    @Column(precision = 19, scale = 2) private BigDecimal nextPaymentAmount;
+
+    // Notifications
+    private int unreadNotifications = 0;
+    private int notificationsReceived = 0;
+
+    public String getPersonId() { return personId; }
+    public void setPersonId(String personId) { this.personId = personId; }
+    public int getTotalGroups() { return totalGroups; }
+    public void setTotalGroups(int totalGroups) { this.totalGroups = totalGroups; }
+    public int getActiveGroups() { return activeGroups; }
+    public void setActiveGroups(int activeGroups) { this.activeGroups = activeGroups; }
+    public int getTotalContributions() { return totalContributions; }
+    public void setTotalContributions(int totalContributions) { this.totalContributions = totalContributions; }
+    public BigDecimal getTotalAmountContributed() { return totalAmountContributed; }
+    public void setTotalAmountContributed(BigDecimal totalAmountContributed) { this.totalAmountContributed = totalAmountContributed; }
+    public int getConfirmedPayments() { return confirmedPayments; }
+    public void setConfirmedPayments(int confirmedPayments) { this.confirmedPayments = confirmedPayments; }
+    public int getRejectedPayments() { return rejectedPayments; }
+    public void setRejectedPayments(int rejectedPayments) { this.rejectedPayments = rejectedPayments; }
+    public int getPayoutsReceived() { return payoutsReceived; }
+    public void setPayoutsReceived(int payoutsReceived) { this.payoutsReceived = payoutsReceived; }
+    public BigDecimal getTotalAmountReceived() { return totalAmountReceived; }
+    public void setTotalAmountReceived(BigDecimal totalAmountReceived) { this.totalAmountReceived = totalAmountReceived; }
+    public int getUpcomingPayments() { return upcomingPayments; }
+    public void setUpcomingPayments(int upcomingPayments) { this.upcomingPayments = upcomingPayments; }
+    public LocalDate getNextPaymentDate() { return nextPaymentDate; }
+    public void setNextPaymentDate(LocalDate nextPaymentDate) { this.nextPaymentDate = nextPaymentDate; }
+    public BigDecimal getNextPaymentAmount() { return nextPaymentAmount; }
+    public void setNextPaymentAmount(BigDecimal nextPaymentAmount) { this.nextPaymentAmount = nextPaymentAmount; }
+    public int getUnreadNotifications() { return unreadNotifications; }
+    public void setUnreadNotifications(int unreadNotifications) { this.unreadNotifications = unreadNotifications; }
+    public int getNotificationsReceived() { return notificationsReceived; }
+    public void setNotificationsReceived(int notificationsReceived) { this.notificationsReceived = notificationsReceived; }
+}
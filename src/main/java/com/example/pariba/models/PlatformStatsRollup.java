@@ -0,0 +1,62 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.StatsGranularity;
+import com.example.pariba.enums.StatsMetric;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Agrégat horaire ou journalier d'une métrique plateforme (dashboard SuperAdmin).
+ * Une ligne par (granularité, début du créneau, métrique, dimension) ; maintenu par PlatformStatsRollupJob.
+ */
+@Entity
+@Table(name = "platform_stats_rollups",
+       uniqueConstraints = { @UniqueConstraint(columnNames = { "granularity", "bucketStart", "metric", "dimension" }) },
+       indexes = { @Index(columnList = "granularity, metric, bucketStart") })
+public class PlatformStatsRollup extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatsGranularity granularity;
+
+    @Column(nullable = false)
+    private Instant bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private StatsMetric metric;
+
+    @Column(nullable = false, length = 40)
+    private String dimension; // statut, niveau, rôle, période de facturation ou ALL
+
+    private long countValue = 0;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal amountValue = BigDecimal.ZERO;
+
+    public PlatformStatsRollup() {}
+
+    public PlatformStatsRollup(StatsGranularity granularity, Instant bucketStart, StatsMetric metric,
+                               String dimension, long countValue, BigDecimal amountValue) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.metric = metric;
+        this.dimension = dimension;
+        this.countValue = countValue;
+        this.amountValue = amountValue;
+    }
+
+    public StatsGranularity getGranularity() { return granularity; }
+    public void setGranularity(StatsGranularity granularity) { this.granularity = granularity; }
+    public Instant getBucketStart() { return bucketStart; }
+    public void setBucketStart(Instant bucketStart) { this.bucketStart = bucketStart; }
+    public StatsMetric getMetric() { return metric; }
+    public void setMetric(StatsMetric metric) { this.metric = metric; }
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+    public long getCountValue() { return countValue; }
+    public void setCountValue(long countValue) { this.countValue = countValue; }
+    public BigDecimal getAmountValue() { return amountValue; }
+    public void setAmountValue(BigDecimal amountValue) { this.amountValue = amountValue; }
+}
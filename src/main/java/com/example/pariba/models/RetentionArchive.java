@@ -0,0 +1,44 @@
+package com.example.pariba.models;
+
+import com.example.pariba.enums.RetentionTable;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Fichier d'archive (NDJSON compressé) contenant les lignes d'une table pour une journée [rangeStart, rangeEnd).
+ * Une journée peut avoir plusieurs fichiers si un archivage interrompu a été repris.
+ */
+@Entity
+@Table(name = "retention_archives", indexes = { @Index(columnList = "tableName, rangeStart") })
+public class RetentionArchive extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private RetentionTable tableName;
+
+    @Column(nullable = false)
+    private Instant rangeStart;
+
+    @Column(nullable = false)
+    private Instant rangeEnd;
+
+    private long rowCount;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private long fileSize;
+
+    public RetentionTable getTableName() { return tableName; }
+    public void setTableName(RetentionTable tableName) { this.tableName = tableName; }
+    public Instant getRangeStart() { return rangeStart; }
+    public void setRangeStart(Instant rangeStart) { this.rangeStart = rangeStart; }
+    public Instant getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(Instant rangeEnd) { this.rangeEnd = rangeEnd; }
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+}
@@ -0,0 +1,33 @@
+package com.example.pariba.models;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Verrou d'un job planifié partagé entre les instances : le job ne s'exécute que sur l'instance
+ * qui a fait passer lockedUntil du passé au futur
+ */
+@Entity
+@Table(name = "scheduler_locks", uniqueConstraints = { @UniqueConstraint(columnNames = "name") })
+public class SchedulerLock extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    private Instant lockedAt;
+
+    @Column(length = 255)
+    private String lockedBy;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Instant getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+    public Instant getLockedAt() { return lockedAt; }
+    public void setLockedAt(Instant lockedAt) { this.lockedAt = lockedAt; }
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+}
@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "subscriptions", indexes = { @Index(columnList = "person_id"), @Index(columnList = "status") })
+@Table(name = "subscriptions", indexes = { @Index(columnList = "person_id"), @Index(columnList = "status"), @Index(columnList = "createdAt") })
 public class Subscription extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -9,7 +9,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tontine_groups")
+@Table(name = "tontine_groups", indexes = { @Index(columnList = "createdAt") })
 public class TontineGroup extends BaseEntity {
 
     @Column(nullable = false) private String nom;
@@ -1,6 +1,7 @@
 package com.example.pariba.repositories;
 
 import com.example.pariba.models.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,4 +29,12 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, String> {
         @Param("start") Instant start,
         @Param("end") Instant end
     );
+    
+    // Export en flux : page suivante (keyset sur createdAt, id), acteur chargé dans la même requête
+    @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.actor " +
+           "WHERE a.createdAt > :afterCreatedAt OR (a.createdAt = :afterCreatedAt AND a.id > :afterId) " +
+           "ORDER BY a.createdAt ASC, a.id ASC")
+    List<AuditLog> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                       @Param("afterId") String afterId,
+                                       Pageable pageable);
 }
@@ -2,13 +2,25 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.enums.ContributionStatus;
 import com.example.pariba.models.Contribution;
+import com.example.pariba.utils.LedgerSourceRow;
+import com.example.pariba.utils.PenaltyBucket;
+import com.example.pariba.utils.StatsSourceRow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContributionRepository extends JpaRepository<Contribution, String> {
@@ -35,13 +47,98 @@ public interface ContributionRepository extends JpaRepository<Contribution, Stri
     @Query("SELECT c FROM Contribution c WHERE c.group.id = :groupId AND c.status = 'PENDING' ORDER BY c.dueDate ASC")
     List<Contribution> findPendingContributionsByGroup(@Param("groupId") String groupId);
     
-    @Query("SELECT c FROM Contribution c WHERE c.status = 'DUE' AND c.dueDate < :date ORDER BY c.dueDate ASC")
-    List<Contribution> findLateContributions(@Param("date") LocalDate date);
-    
     long countByTourIdAndStatus(String tourId, ContributionStatus status);
     
     // Méthodes pour le scheduler de notifications
     List<Contribution> findByDueDateAndStatus(LocalDate dueDate, ContributionStatus status);
     
-    List<Contribution> findByDueDateBeforeAndStatus(LocalDate dueDate, ContributionStatus status);
+    /**
+     * Lot suivant des contributions échues à faire changer de statut, verrouillées jusqu'à la fin de la transaction
+     * (les lignes traitées quittent le statut : on relit toujours le début)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Contribution c WHERE c.status = :status AND c.dueDate < :date AND c.id > :afterId ORDER BY c.id ASC")
+    List<String> findIdsDueBefore(@Param("status") ContributionStatus status,
+                                  @Param("date") LocalDate date,
+                                  @Param("afterId") String afterId,
+                                  Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Contribution c SET c.status = :to WHERE c.id IN :ids AND c.status = :from")
+    int updateStatus(@Param("ids") Collection<String> ids,
+                     @Param("from") ContributionStatus from,
+                     @Param("to") ContributionStatus to);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.group JOIN FETCH c.member WHERE c.id IN :ids ORDER BY c.id ASC")
+    List<Contribution> findWithGroupAndMemberByIdIn(@Param("ids") Collection<String> ids);
+    
+    /**
+     * Page suivante (keyset sur l'id) des contributions d'une échéance donnée,
+     * avec groupe et membre chargés dans la même requête
+     */
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.group JOIN FETCH c.member " +
+           "WHERE c.dueDate = :dueDate AND c.status = :status AND c.id > :afterId ORDER BY c.id ASC")
+    List<Contribution> findDuePageAfter(@Param("dueDate") LocalDate dueDate,
+                                        @Param("status") ContributionStatus status,
+                                        @Param("afterId") String afterId,
+                                        Pageable pageable);
+    
+    // Exports : page suivante (keyset sur createdAt, id), membre et tour chargés dans la même requête
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.tour WHERE c.group.id = :groupId " +
+           "AND (c.createdAt > :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id > :afterId)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Contribution> findExportPageByGroupAfter(@Param("groupId") String groupId,
+                                                  @Param("afterCreatedAt") Instant afterCreatedAt,
+                                                  @Param("afterId") String afterId,
+                                                  Pageable pageable);
+    
+    long countByGroupId(String groupId);
+    
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.tour " +
+           "WHERE c.createdAt > :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id > :afterId) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Contribution> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                           @Param("afterId") String afterId,
+                                           Pageable pageable);
+    
+    // Résumé personnel : cotisations payées et prochaine échéance
+    long countByMemberIdAndStatus(String memberId, ContributionStatus status);
+    
+    long countByMemberIdAndStatusIn(String memberId, Collection<ContributionStatus> statuses);
+    
+    Optional<Contribution> findFirstByMemberIdAndStatusInOrderByDueDateAscIdAsc(String memberId, Collection<ContributionStatus> statuses);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(c.createdAt) FROM Contribution c " +
+           "WHERE c.createdAt >= :from AND c.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Vérification du grand livre : cotisations du groupe (projection minimale)
+    @Query("SELECT new com.example.pariba.utils.LedgerSourceRow(c.id, c.tour.id, c.member.id, c.amountDue, c.penaltyApplied) " +
+           "FROM Contribution c WHERE c.group.id = :groupId")
+    List<LedgerSourceRow> findLedgerSourceRows(@Param("groupId") String groupId);
+
+    /**
+     * Pénalités : cotisations impayées échues regroupées par (groupe, tour, échéance, pénalité courante),
+     * un seul parcours agrégé au lieu d'une ligne par cotisation
+     */
+    @Query("SELECT new com.example.pariba.utils.PenaltyBucket(g.id, t.id, c.dueDate, COALESCE(c.penaltyApplied, 0), " +
+           "COUNT(c), g.latePenaltyAmount, g.graceDays) " +
+           "FROM Contribution c JOIN c.group g JOIN c.tour t " +
+           "WHERE c.status IN :statuses AND c.dueDate < :date AND g.latePenaltyAmount > 0 " +
+           "GROUP BY g.id, t.id, c.dueDate, COALESCE(c.penaltyApplied, 0), g.latePenaltyAmount, g.graceDays " +
+           "ORDER BY g.id ASC")
+    List<PenaltyBucket> findPenaltyBuckets(@Param("statuses") Collection<ContributionStatus> statuses,
+                                           @Param("date") LocalDate date);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Contribution c SET c.penaltyApplied = :penalty WHERE c.tour.id = :tourId AND c.dueDate = :dueDate " +
+           "AND c.status IN :statuses AND COALESCE(c.penaltyApplied, 0) = :currentPenalty")
+    int updatePenalty(@Param("tourId") String tourId,
+                      @Param("dueDate") LocalDate dueDate,
+                      @Param("statuses") Collection<ContributionStatus> statuses,
+                      @Param("currentPenalty") BigDecimal currentPenalty,
+                      @Param("penalty") BigDecimal penalty);
 }
@@ -2,10 +2,16 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.models.DeviceToken;
 import com.example.pariba.models.Person;
+import com.example.pariba.utils.PushTarget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +38,19 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, String
     List<DeviceToken> findByPerson(Person person);
     
     Optional<DeviceToken> findByIdAndPerson(String id, Person person);
+    
+    /**
+     * Désactive en une requête les tokens rejetés par Firebase (appareil désinstallé, token expiré)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeviceToken d SET d.active = false WHERE d.token IN :tokens")
+    int deactivateByTokens(@Param("tokens") Collection<String> tokens);
+
+    /**
+     * Tokens des appareils actifs de plusieurs personnes, en une requête
+     */
+    @Query("SELECT new com.example.pariba.utils.PushTarget(d.person.id, d.token) FROM DeviceToken d " +
+           "WHERE d.active = true AND d.person.id IN :personIds")
+    List<PushTarget> findActivePushTargets(@Param("personIds") Collection<String> personIds);
 }
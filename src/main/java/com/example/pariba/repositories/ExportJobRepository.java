@@ -2,13 +2,17 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.enums.ExportStatus;
 import com.example.pariba.models.ExportJob;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExportJobRepository extends JpaRepository<ExportJob, String> {
@@ -23,6 +27,63 @@ public interface ExportJobRepository extends JpaRepository<ExportJob, String> {
     
     List<ExportJob> findByRequestedByIdOrderByCreatedAtDesc(String requestedById);
     
-    @Query("SELECT e FROM ExportJob e WHERE e.status = 'COMPLETED' AND e.createdAt < :cutoffDate")
-    List<ExportJob> findOldCompletedJobs(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Query("SELECT e FROM ExportJob e LEFT JOIN FETCH e.requestedBy LEFT JOIN FETCH e.group WHERE e.id = :id")
+    Optional<ExportJob> findWithDetailsById(@Param("id") String id);
+    
+    /**
+     * Jobs en attente, les plus anciens d'abord (reprise par le poller du moteur d'export)
+     */
+    @Query("SELECT e FROM ExportJob e JOIN FETCH e.requestedBy WHERE e.status IN ('PENDING', 'QUEUED') ORDER BY e.createdAt ASC")
+    List<ExportJob> findWaiting(Pageable pageable);
+    
+    @Query("SELECT COUNT(e) FROM ExportJob e WHERE e.requestedBy.id = :personId AND e.status IN ('PENDING', 'QUEUED', 'PROCESSING')")
+    long countActiveByPerson(@Param("personId") String personId);
+    
+    /**
+     * Réserve un job pour un worker : ne renvoie 1 que s'il était encore en attente
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.status = 'PROCESSING', e.progress = 0, e.startedAt = :now, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status IN ('PENDING', 'QUEUED')")
+    int claim(@Param("id") String id, @Param("now") Instant now);
+    
+    /**
+     * Renvoie 0 si le job n'est plus en cours (annulé entre-temps)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.progress = :progress, e.updatedAt = :now WHERE e.id = :id AND e.status = 'PROCESSING'")
+    int updateProgress(@Param("id") String id, @Param("progress") int progress, @Param("now") Instant now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.status = 'COMPLETED', e.progress = 100, e.fileName = :fileName, e.downloadUrl = :downloadUrl, " +
+           "e.completedAt = :now, e.updatedAt = :now WHERE e.id = :id AND e.status = 'PROCESSING'")
+    int complete(@Param("id") String id, @Param("fileName") String fileName,
+                 @Param("downloadUrl") String downloadUrl, @Param("now") Instant now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.status = 'FAILED', e.errorMessage = :error, e.completedAt = :now, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status = 'PROCESSING'")
+    int fail(@Param("id") String id, @Param("error") String error, @Param("now") Instant now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.status = 'CANCELLED', e.completedAt = :now, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.status IN ('PENDING', 'QUEUED', 'PROCESSING')")
+    int cancel(@Param("id") String id, @Param("now") Instant now);
+    
+    /**
+     * Jobs restés PROCESSING sans progression (instance arrêtée pendant la génération)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportJob e SET e.status = 'FAILED', e.errorMessage = 'Traitement interrompu', e.completedAt = :now, e.updatedAt = :now " +
+           "WHERE e.status = 'PROCESSING' AND e.updatedAt < :staleBefore")
+    int failStale(@Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+    
+    @Query("SELECT e FROM ExportJob e WHERE e.status IN ('COMPLETED', 'FAILED', 'CANCELLED') AND e.createdAt < :cutoffDate")
+    List<ExportJob> findOldCompletedJobs(@Param("cutoffDate") Instant cutoffDate);
 }
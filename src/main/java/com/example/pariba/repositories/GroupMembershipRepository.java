@@ -1,13 +1,17 @@
 package com.example.pariba.repositories;
 
 import com.example.pariba.enums.GroupRole;
+import com.example.pariba.enums.TourStatus;
 import com.example.pariba.models.GroupMembership;
 import com.example.pariba.models.GroupMembershipId;
+import com.example.pariba.models.Person;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,9 +27,29 @@ public interface GroupMembershipRepository extends JpaRepository<GroupMembership
     @Query("SELECT gm FROM GroupMembership gm WHERE gm.group.id = :groupId AND gm.role = :role")
     List<GroupMembership> findByGroupIdAndRole(@Param("groupId") String groupId, @Param("role") GroupRole role);
     
+    @Query("SELECT gm.person.id FROM GroupMembership gm WHERE gm.group.id = :groupId AND gm.role = :role")
+    List<String> findPersonIdsByGroupIdAndRole(@Param("groupId") String groupId, @Param("role") GroupRole role);
+    
     long countByGroupId(String groupId);
     
     boolean existsByGroupIdAndPersonId(String groupId, String personId);
     
     List<GroupMembership> findByGroupIdAndPersonIdNot(String groupId, String personId);
+    
+    @Query("SELECT p FROM GroupMembership gm JOIN gm.person p WHERE gm.group.id = :groupId " +
+           "AND (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id > :afterId)) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Person> findPersonsPageByGroupAfter(@Param("groupId") String groupId,
+                                             @Param("afterCreatedAt") Instant afterCreatedAt,
+                                             @Param("afterId") String afterId,
+                                             Pageable pageable);
+    
+    // Résumé personnel
+    long countByPersonId(String personId);
+    
+    long countByPersonIdAndRole(String personId, GroupRole role);
+    
+    @Query("SELECT COUNT(DISTINCT gm.group.id) FROM GroupMembership gm, Tour t " +
+           "WHERE t.group = gm.group AND gm.person.id = :personId AND t.status = :status")
+    long countGroupsWithTourStatus(@Param("personId") String personId, @Param("status") TourStatus status);
 }
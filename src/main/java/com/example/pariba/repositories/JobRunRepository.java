@@ -0,0 +1,21 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.models.JobRun;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, String> {
+
+    Page<JobRun> findByOrderByCreatedAtDesc(Pageable pageable);
+
+    Page<JobRun> findByJobNameOrderByCreatedAtDesc(String jobName, Pageable pageable);
+
+    @Query("SELECT DISTINCT r.jobName FROM JobRun r ORDER BY r.jobName")
+    List<String> findJobNames();
+}
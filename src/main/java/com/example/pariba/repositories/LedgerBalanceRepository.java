@@ -0,0 +1,73 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.enums.ContributionStatus;
+import com.example.pariba.enums.LedgerScope;
+import com.example.pariba.models.LedgerBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalance, String> {
+
+    Optional<LedgerBalance> findByGroupIdAndScopeAndScopeId(String groupId, LedgerScope scope, String scopeId);
+
+    List<LedgerBalance> findByGroupId(String groupId);
+
+    // Membres du groupe ayant un reste à payer
+    @Query("SELECT b FROM LedgerBalance b WHERE b.groupId = :groupId AND b.scope = com.example.pariba.enums.LedgerScope.MEMBER " +
+           "AND b.totalDue + b.totalPenalties > b.totalPaid ORDER BY b.memberId ASC")
+    List<LedgerBalance> findMemberDebtors(@Param("groupId") String groupId);
+
+    // Cotisations du tour non soldées (une par membre)
+    @Query("SELECT b FROM LedgerBalance b WHERE b.tourId = :tourId AND b.scope = com.example.pariba.enums.LedgerScope.CONTRIBUTION " +
+           "AND b.totalDue + b.totalPenalties > b.totalPaid ORDER BY b.memberId ASC")
+    List<LedgerBalance> findTourDebtors(@Param("tourId") String tourId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerBalance b WHERE b.groupId = :groupId")
+    int deleteByGroup(@Param("groupId") String groupId);
+
+    // Pénalités en masse : cotisations impayées du tour à cette échéance dont la pénalité vaut currentPenalty
+    @Modifying
+    @Transactional
+    @Query("UPDATE LedgerBalance b SET b.totalPenalties = b.totalPenalties + :delta, b.lastSequence = :sequence " +
+           "WHERE b.groupId = :groupId AND b.scope = com.example.pariba.enums.LedgerScope.CONTRIBUTION AND b.scopeId IN " +
+           "(SELECT c.id FROM Contribution c WHERE c.tour.id = :tourId AND c.dueDate = :dueDate " +
+           "AND c.status IN :statuses AND COALESCE(c.penaltyApplied, 0) = :currentPenalty)")
+    int addContributionPenalties(@Param("groupId") String groupId,
+                                 @Param("tourId") String tourId,
+                                 @Param("dueDate") LocalDate dueDate,
+                                 @Param("statuses") Collection<ContributionStatus> statuses,
+                                 @Param("currentPenalty") BigDecimal currentPenalty,
+                                 @Param("delta") BigDecimal delta,
+                                 @Param("sequence") long sequence);
+
+    // Un membre peut avoir plusieurs cotisations dans le lot : delta × nombre de ses cotisations concernées
+    @Modifying
+    @Transactional
+    @Query("UPDATE LedgerBalance b SET b.totalPenalties = b.totalPenalties + :delta * " +
+           "(SELECT COUNT(m) FROM Contribution m WHERE m.member.id = b.scopeId AND m.tour.id = :tourId " +
+           "AND m.dueDate = :dueDate AND m.status IN :statuses AND COALESCE(m.penaltyApplied, 0) = :currentPenalty), " +
+           "b.lastSequence = :sequence " +
+           "WHERE b.groupId = :groupId AND b.scope = com.example.pariba.enums.LedgerScope.MEMBER AND b.scopeId IN " +
+           "(SELECT c.member.id FROM Contribution c WHERE c.tour.id = :tourId AND c.dueDate = :dueDate " +
+           "AND c.status IN :statuses AND COALESCE(c.penaltyApplied, 0) = :currentPenalty)")
+    int addMemberPenalties(@Param("groupId") String groupId,
+                           @Param("tourId") String tourId,
+                           @Param("dueDate") LocalDate dueDate,
+                           @Param("statuses") Collection<ContributionStatus> statuses,
+                           @Param("currentPenalty") BigDecimal currentPenalty,
+                           @Param("delta") BigDecimal delta,
+                           @Param("sequence") long sequence);
+}
@@ -0,0 +1,28 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.models.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, String> {
+
+    // Historique du groupe, plus récentes d'abord
+    @Query("SELECT e FROM LedgerEntry e WHERE e.groupId = :groupId ORDER BY e.sequence DESC")
+    List<LedgerEntry> findLatestByGroup(@Param("groupId") String groupId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM LedgerEntry e WHERE e.groupId = :groupId")
+    long findLastSequence(@Param("groupId") String groupId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerEntry e WHERE e.groupId = :groupId")
+    int deleteByGroup(@Param("groupId") String groupId);
+}
@@ -0,0 +1,41 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.enums.OutboxStatus;
+import com.example.pariba.models.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+    
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt ASC")
+    List<NotificationOutbox> findReady(@Param("now") Instant now, Pageable pageable);
+    
+    /**
+     * Réserve une entrée pour un worker : ne renvoie 1 que si elle était encore PENDING
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PROCESSING', o.updatedAt = :now WHERE o.id = :id AND o.status = 'PENDING'")
+    int claim(@Param("id") String id, @Param("now") Instant now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PENDING', o.updatedAt = :now WHERE o.status = 'PROCESSING' AND o.updatedAt < :staleBefore")
+    int releaseStale(@Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = 'SENT' AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+    
+    long countByStatus(OutboxStatus status);
+}
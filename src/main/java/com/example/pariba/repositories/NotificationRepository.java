@@ -2,12 +2,17 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.enums.NotificationType;
 import com.example.pariba.models.Notification;
+import com.example.pariba.utils.StatsSourceRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,6 +26,54 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     
     List<Notification> findByPersonIdAndReadFlagOrderByCreatedAtDesc(String personId, boolean readFlag);
     
+    // Boîte de réception : pages keyset (createdAt, id) décroissantes, servies par les index
+    // (person_id, createdAt) et (person_id, readFlag, createdAt)
+    List<Notification> findByPersonIdOrderByCreatedAtDescIdDesc(String personId, Pageable pageable);
+    
+    List<Notification> findByPersonIdAndReadFlagOrderByCreatedAtDescIdDesc(String personId, boolean readFlag, Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.person.id = :personId " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageBefore(@Param("personId") String personId,
+                                           @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                           @Param("beforeId") String beforeId,
+                                           Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.person.id = :personId AND n.readFlag = :readFlag " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageByReadFlagBefore(@Param("personId") String personId,
+                                                     @Param("readFlag") boolean readFlag,
+                                                     @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                                     @Param("beforeId") String beforeId,
+                                                     Pageable pageable);
+    
+    // Opérations en masse de la boîte de réception : une instruction par appel, sans charger les entités
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.readFlag = true WHERE n.person.id = :personId AND n.readFlag = false")
+    int markAllAsRead(@Param("personId") String personId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.readFlag = true WHERE n.person.id = :personId AND n.id IN :ids " +
+           "AND n.readFlag = false")
+    int markAsRead(@Param("personId") String personId, @Param("ids") Collection<String> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.person.id = :personId AND n.id IN :ids AND n.readFlag = false")
+    int deleteUnreadByIds(@Param("personId") String personId, @Param("ids") Collection<String> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.person.id = :personId AND n.id IN :ids")
+    int deleteByIds(@Param("personId") String personId, @Param("ids") Collection<String> ids);
+    
+    @Query("SELECT n.id FROM Notification n WHERE n.person.id = :personId")
+    List<String> findIdsByPersonId(@Param("personId") String personId, Pageable pageable);
+    
     @Query("SELECT n FROM Notification n WHERE n.scheduledAt <= :now AND n.sentAt IS NULL")
     List<Notification> findPendingNotifications(@Param("now") Instant now);
     
@@ -29,4 +82,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     long countByPersonIdAndReadFlag(String personId, boolean readFlag);
     
     long countByReadFlagFalse();
+    
+    long countByPersonId(String personId);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(n.createdAt) FROM Notification n " +
+           "WHERE n.createdAt >= :from AND n.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
 }
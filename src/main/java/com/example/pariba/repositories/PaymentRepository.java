@@ -2,11 +2,16 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.enums.PaymentStatus;
 import com.example.pariba.models.Payment;
+import com.example.pariba.utils.LedgerSourceRow;
+import com.example.pariba.utils.StatsSourceRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,13 +33,45 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
     @Query("SELECT p FROM Payment p WHERE p.group.id = :groupId ORDER BY p.createdAt DESC")
     List<Payment> findByGroupIdOrderByCreatedAtDesc(@Param("groupId") String groupId);
     
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.group.id = :groupId AND p.status = 'SUCCESS' AND p.payout = false")
-    Double getTotalCollectedByGroup(@Param("groupId") String groupId);
-    
     List<Payment> findByContributionId(String contributionId);
     
     List<Payment> findByStatus(PaymentStatus status);
     
     @Query("SELECT p FROM Payment p WHERE p.contribution.group.id = :groupId")
     List<Payment> findByContribution_Group_Id(@Param("groupId") String groupId);
+    
+    // Exports : page suivante (keyset sur createdAt, id), payeur chargé dans la même requête
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.payer " +
+           "WHERE (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id > :afterId)) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Payment> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                      @Param("afterId") String afterId,
+                                      Pageable pageable);
+    
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.payer WHERE p.group.id = :groupId " +
+           "AND (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id > :afterId)) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Payment> findExportPageByGroupAfter(@Param("groupId") String groupId,
+                                             @Param("afterCreatedAt") Instant afterCreatedAt,
+                                             @Param("afterId") String afterId,
+                                             Pageable pageable);
+    
+    long countByGroupId(String groupId);
+    
+    // Résumé personnel
+    long countByPayerIdAndStatus(String payerId, PaymentStatus status);
+    
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.payer.id = :payerId AND p.status = :status")
+    BigDecimal sumAmountByPayerAndStatus(@Param("payerId") String payerId, @Param("status") PaymentStatus status);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(p.createdAt, p.status, p.amount) FROM Payment p " +
+           "WHERE p.createdAt >= :from AND p.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Vérification du grand livre : encaissé par cotisation
+    @Query("SELECT new com.example.pariba.utils.LedgerSourceRow(c.id, c.tour.id, c.member.id, SUM(p.amount)) " +
+           "FROM Payment p JOIN p.contribution c WHERE p.group.id = :groupId AND p.status = :status AND p.payout = false " +
+           "GROUP BY c.id, c.tour.id, c.member.id")
+    List<LedgerSourceRow> sumByContribution(@Param("groupId") String groupId, @Param("status") PaymentStatus status);
 }
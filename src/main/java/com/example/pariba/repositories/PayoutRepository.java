@@ -1,7 +1,11 @@
 package com.example.pariba.repositories;
 
+import com.example.pariba.enums.PaymentStatus;
 import com.example.pariba.models.Payout;
+import com.example.pariba.utils.LedgerSourceRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,10 @@ public interface PayoutRepository extends JpaRepository<Payout, String> {
     boolean existsByTourId(String tourId);
     
     List<Payout> findByBeneficiaryId(String beneficiaryId);
+
+    // Vérification du grand livre : versé par tour et bénéficiaire
+    @Query("SELECT new com.example.pariba.utils.LedgerSourceRow(t.id, p.beneficiary.id, SUM(p.amount)) " +
+           "FROM Payout p JOIN p.tour t WHERE t.group.id = :groupId AND p.status = :status " +
+           "GROUP BY t.id, p.beneficiary.id")
+    List<LedgerSourceRow> sumByTour(@Param("groupId") String groupId, @Param("status") PaymentStatus status);
 }
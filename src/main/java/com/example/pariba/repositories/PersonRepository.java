@@ -2,13 +2,22 @@ package com.example.pariba.repositories;
 
 import com.example.pariba.enums.AppRole;
 import com.example.pariba.models.Person;
+import com.example.pariba.utils.PushTarget;
+import com.example.pariba.utils.StatsAggregate;
+import com.example.pariba.utils.StatsSourceRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -31,4 +40,50 @@ public interface PersonRepository extends JpaRepository<Person, String> {
     // Recherche avancée
     Page<Person> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCaseOrEmailContainingIgnoreCaseOrPhoneContaining(
         String nom, String prenom, String email, String phone, Pageable pageable);
+    
+    /**
+     * Efface les tokens FCM signalés comme invalides par Firebase
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Person p SET p.fcmToken = NULL WHERE p.fcmToken IN :tokens")
+    int clearFcmTokens(@Param("tokens") Collection<String> tokens);
+
+    /**
+     * Révocation des access tokens, partagée entre instances et conservée au redémarrage
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Person p SET p.tokensValidAfter = :validAfter WHERE p.id = :personId")
+    int setTokensValidAfter(@Param("personId") String personId, @Param("validAfter") Instant validAfter);
+
+    // Vide si la personne n'existe plus (compte supprimé) ; :never si aucune révocation
+    @Query("SELECT COALESCE(p.tokensValidAfter, :never) FROM Person p WHERE p.id = :personId")
+    Optional<Instant> findTokensValidAfter(@Param("personId") String personId, @Param("never") Instant never);
+
+    // Token FCM du profil (clients enregistrés avant le registre des appareils)
+    @Query("SELECT new com.example.pariba.utils.PushTarget(p.id, p.fcmToken) FROM Person p " +
+           "WHERE p.id IN :personIds AND p.fcmToken IS NOT NULL AND p.fcmToken <> ''")
+    List<PushTarget> findFcmPushTargets(@Param("personIds") Collection<String> personIds);
+    
+    /**
+     * Page suivante (keyset sur createdAt, id) pour les exports en flux
+     */
+    @Query("SELECT p FROM Person p " +
+           "WHERE (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id > :afterId)) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Person> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                     @Param("afterId") String afterId,
+                                     Pageable pageable);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(p.createdAt) FROM Person p " +
+           "WHERE p.createdAt >= :from AND p.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT MIN(p.createdAt) FROM Person p")
+    Instant findFirstCreatedAt();
+
+    @Query("SELECT new com.example.pariba.utils.StatsAggregate(p.role, COUNT(p)) FROM Person p GROUP BY p.role")
+    List<StatsAggregate> countGroupedByRole();
 }
@@ -0,0 +1,129 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.enums.ContributionStatus;
+import com.example.pariba.models.PersonSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mises à jour incrémentales du résumé : chaque méthode est un UPDATE atomique
+ * (aucune lecture-modification-écriture), 0 ligne modifiée si le résumé n'existe pas encore
+ */
+@Repository
+public interface PersonSummaryRepository extends JpaRepository<PersonSummary, String> {
+
+    Optional<PersonSummary> findByPersonId(String personId);
+
+    @Modifying
+    @Transactional
+    void deleteByPersonId(String personId);
+
+    // Badge : lecture du seul compteur par la clé unique person_id
+    @Query("SELECT s.unreadNotifications FROM PersonSummary s WHERE s.personId = :personId")
+    Optional<Integer> findUnreadNotificationsByPersonId(@Param("personId") String personId);
+
+    @Query("SELECT s.personId FROM PersonSummary s WHERE s.personId > :afterPersonId ORDER BY s.personId")
+    List<String> findPersonIdsAfter(@Param("afterPersonId") String afterPersonId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Person p WHERE p.id > :afterPersonId " +
+           "AND NOT EXISTS (SELECT s.id FROM PersonSummary s WHERE s.personId = p.id) ORDER BY p.id")
+    List<String> findPersonIdsWithoutSummary(@Param("afterPersonId") String afterPersonId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.totalGroups = s.totalGroups + :delta, " +
+           "s.activeGroups = s.activeGroups + :activeDelta WHERE s.personId IN :personIds")
+    int addGroups(@Param("personIds") Collection<String> personIds,
+                  @Param("delta") int delta,
+                  @Param("activeDelta") int activeDelta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.activeGroups = s.activeGroups + :delta WHERE s.personId IN :personIds")
+    int addActiveGroups(@Param("personIds") Collection<String> personIds, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.confirmedPayments = s.confirmedPayments + 1, " +
+           "s.totalAmountContributed = s.totalAmountContributed + :amount WHERE s.personId = :personId")
+    int addConfirmedPayment(@Param("personId") String personId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.rejectedPayments = s.rejectedPayments + 1 WHERE s.personId = :personId")
+    int addRejectedPayment(@Param("personId") String personId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.totalContributions = s.totalContributions + 1 WHERE s.personId = :personId")
+    int addPaidContribution(@Param("personId") String personId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.payoutsReceived = s.payoutsReceived + 1, " +
+           "s.totalAmountReceived = s.totalAmountReceived + :amount WHERE s.personId = :personId")
+    int addPayoutReceived(@Param("personId") String personId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.upcomingPayments = :upcoming, s.nextPaymentDate = :nextDate, " +
+           "s.nextPaymentAmount = :nextAmount WHERE s.personId = :personId")
+    int setNextDue(@Param("personId") String personId,
+                   @Param("upcoming") int upcoming,
+                   @Param("nextDate") LocalDate nextDate,
+                   @Param("nextAmount") BigDecimal nextAmount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.unreadNotifications = s.unreadNotifications + :unread, " +
+           "s.notificationsReceived = s.notificationsReceived + 1 WHERE s.personId = :personId")
+    int addNotification(@Param("personId") String personId, @Param("unread") int unread);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.unreadNotifications = CASE WHEN s.unreadNotifications > :count " +
+           "THEN s.unreadNotifications - :count ELSE 0 END WHERE s.personId = :personId")
+    int removeUnread(@Param("personId") String personId, @Param("count") int count);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.unreadNotifications = 0 WHERE s.personId = :personId")
+    int clearUnread(@Param("personId") String personId);
+
+    // Rattrapage des compteurs : recompte les notifications non lues (tous canaux) pour ce lot de personnes,
+    // seules les lignes en écart sont modifiées
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.unreadNotifications = " +
+           "(SELECT COUNT(n) FROM Notification n WHERE n.person.id = s.personId AND n.readFlag = false) " +
+           "WHERE s.personId IN :personIds AND s.unreadNotifications <> " +
+           "(SELECT COUNT(m) FROM Notification m WHERE m.person.id = s.personId AND m.readFlag = false)")
+    int reconcileUnread(@Param("personIds") Collection<String> personIds);
+
+    @Query("SELECT COALESCE(SUM(s.unreadNotifications), 0) FROM PersonSummary s")
+    long sumUnreadNotifications();
+
+    // Pénalités en masse : montant de la prochaine échéance recalculé pour les membres du tour dont c'est l'échéance
+    // (même choix que refreshNextDue : plus petite échéance impayée, puis plus petit id)
+    @Modifying
+    @Transactional
+    @Query("UPDATE PersonSummary s SET s.nextPaymentAmount = " +
+           "(SELECT c.amountDue + COALESCE(c.penaltyApplied, 0) FROM Contribution c WHERE c.id = " +
+           "(SELECT MIN(n.id) FROM Contribution n WHERE n.member.id = s.personId AND n.status IN :statuses " +
+           "AND n.dueDate = s.nextPaymentDate)) " +
+           "WHERE s.nextPaymentDate = :dueDate AND s.personId IN (SELECT m.member.id FROM Contribution m WHERE m.tour.id = :tourId)")
+    int refreshNextPaymentAmounts(@Param("tourId") String tourId,
+                                  @Param("dueDate") LocalDate dueDate,
+                                  @Param("statuses") Collection<ContributionStatus> statuses);
+}
@@ -0,0 +1,49 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.enums.StatsGranularity;
+import com.example.pariba.enums.StatsMetric;
+import com.example.pariba.models.PlatformStatsRollup;
+import com.example.pariba.utils.StatsAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlatformStatsRollupRepository extends JpaRepository<PlatformStatsRollup, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PlatformStatsRollup r WHERE r.granularity = :granularity AND r.metric IN :metrics " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(@Param("granularity") StatsGranularity granularity,
+                      @Param("metrics") Collection<StatsMetric> metrics,
+                      @Param("from") Instant from,
+                      @Param("to") Instant to);
+
+    // Somme des créneaux [from, to) par métrique et dimension
+    @Query("SELECT new com.example.pariba.utils.StatsAggregate(r.metric, r.dimension, SUM(r.countValue), SUM(r.amountValue)) " +
+           "FROM PlatformStatsRollup r WHERE r.granularity = :granularity AND r.metric IN :metrics " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.metric, r.dimension")
+    List<StatsAggregate> sumBuckets(@Param("granularity") StatsGranularity granularity,
+                                    @Param("metrics") Collection<StatsMetric> metrics,
+                                    @Param("from") Instant from,
+                                    @Param("to") Instant to);
+
+    @Query("SELECT MAX(r.bucketStart) FROM PlatformStatsRollup r WHERE r.granularity = :granularity AND r.metric IN :metrics")
+    Instant findLatestBucket(@Param("granularity") StatsGranularity granularity,
+                             @Param("metrics") Collection<StatsMetric> metrics);
+
+    List<PlatformStatsRollup> findByGranularityAndBucketStartAndMetricIn(StatsGranularity granularity,
+                                                                         Instant bucketStart,
+                                                                         Collection<StatsMetric> metrics);
+
+    List<PlatformStatsRollup> findByGranularityAndMetricInAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+        StatsGranularity granularity, Collection<StatsMetric> metrics, Instant from);
+}
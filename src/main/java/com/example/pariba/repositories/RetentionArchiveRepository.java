@@ -0,0 +1,22 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.enums.RetentionTable;
+import com.example.pariba.models.RetentionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RetentionArchiveRepository extends JpaRepository<RetentionArchive, String> {
+
+    // Archives dont la journée chevauche [from, to)
+    @Query("SELECT a FROM RetentionArchive a WHERE a.tableName = :tableName " +
+           "AND a.rangeEnd > :from AND a.rangeStart < :to ORDER BY a.rangeStart ASC, a.createdAt ASC")
+    List<RetentionArchive> findOverlapping(@Param("tableName") RetentionTable tableName,
+                                           @Param("from") Instant from,
+                                           @Param("to") Instant to);
+}
@@ -0,0 +1,42 @@
+package com.example.pariba.repositories;
+
+import com.example.pariba.models.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    boolean existsByName(String name);
+
+    List<SchedulerLock> findAllByOrderByNameAsc();
+
+    // Prise du verrou sur l'horloge de la base : une seule instance modifie la ligne tant que lockedUntil est dans le futur
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = timestampadd(second, :seconds, instant), " +
+           "l.lockedAt = instant, l.lockedBy = :node " +
+           "WHERE l.name = :name AND l.lockedUntil <= instant")
+    int tryLock(@Param("name") String name,
+                @Param("node") String node,
+                @Param("seconds") long seconds);
+
+    // Prolongation par l'instance qui détient encore le verrou (heartbeat pendant le job)
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = timestampadd(second, :seconds, instant) " +
+           "WHERE l.name = :name AND l.lockedBy = :node AND l.lockedUntil > instant")
+    int extend(@Param("name") String name, @Param("node") String node, @Param("seconds") long seconds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = timestampadd(second, :seconds, instant) " +
+           "WHERE l.name = :name AND l.lockedBy = :node")
+    int unlock(@Param("name") String name, @Param("node") String node, @Param("seconds") long seconds);
+}
@@ -4,6 +4,9 @@ import com.example.pariba.enums.SubscriptionStatus;
 import com.example.pariba.models.Person;
 import com.example.pariba.models.Subscription;
 import com.example.pariba.models.SubscriptionPlan;
+import com.example.pariba.utils.StatsAggregate;
+import com.example.pariba.utils.StatsSourceRow;
+import com.example.pariba.utils.SubscriptionStatsRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -58,4 +61,21 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Stri
     @Query(value = "SELECT s FROM Subscription s JOIN FETCH s.person JOIN FETCH s.plan WHERE s.status = :status ORDER BY s.createdAt DESC",
            countQuery = "SELECT COUNT(s) FROM Subscription s WHERE s.status = :status")
     Page<Subscription> findByStatusWithPersonAndPlan(@Param("status") SubscriptionStatus status, Pageable pageable);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(s.createdAt, s.billingPeriod, s.pricePaid) FROM Subscription s " +
+           "WHERE s.createdAt >= :from AND s.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT new com.example.pariba.utils.StatsAggregate(s.billingPeriod, COUNT(s), SUM(s.pricePaid)) " +
+           "FROM Subscription s WHERE s.status = :status GROUP BY s.billingPeriod")
+    List<StatsAggregate> sumByBillingPeriodAndStatus(@Param("status") SubscriptionStatus status);
+
+    // Statistiques abonnements : une seule requête groupée (revenu = prix payé, sinon prix du plan pour la période)
+    @Query("SELECT new com.example.pariba.utils.SubscriptionStatsRow(p.id, s.billingPeriod, s.status, COUNT(s), " +
+           "SUM(COALESCE(s.pricePaid, CASE WHEN LOWER(s.billingPeriod) = 'annual' " +
+           "THEN (CASE WHEN p.annualPrice > 0 THEN p.annualPrice ELSE p.monthlyPrice * 12 END) " +
+           "ELSE p.monthlyPrice END))) " +
+           "FROM Subscription s JOIN s.plan p GROUP BY p.id, s.billingPeriod, s.status")
+    List<SubscriptionStatsRow> aggregateByPlanPeriodAndStatus();
 }
@@ -1,12 +1,15 @@
 package com.example.pariba.repositories;
 
 import com.example.pariba.models.SystemLog;
+import com.example.pariba.utils.StatsSourceRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -42,4 +45,17 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, String> {
            "LOWER(s.details) LIKE LOWER(CONCAT('%', :search, '%'))) " +
            "ORDER BY s.createdAt DESC")
     Page<SystemLog> searchLogsByLevel(String level, String search, Pageable pageable);
+    
+    // Export en flux : page suivante (keyset sur createdAt, id)
+    @Query("SELECT s FROM SystemLog s " +
+           "WHERE s.createdAt > :afterCreatedAt OR (s.createdAt = :afterCreatedAt AND s.id > :afterId) " +
+           "ORDER BY s.createdAt ASC, s.id ASC")
+    List<SystemLog> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                        @Param("afterId") String afterId,
+                                        Pageable pageable);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(s.createdAt, s.level) FROM SystemLog s " +
+           "WHERE s.createdAt >= :from AND s.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
 }
@@ -1,15 +1,20 @@
 package com.example.pariba.repositories;
 
 import com.example.pariba.models.TontineGroup;
+import com.example.pariba.utils.StatsSourceRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TontineGroupRepository extends JpaRepository<TontineGroup, String> {
@@ -40,4 +45,26 @@ public interface TontineGroupRepository extends JpaRepository<TontineGroup, Stri
     
     // Méthodes pour le scheduler de notifications
     List<TontineGroup> findByStartDate(java.time.LocalDate startDate);
+    
+    // Exports : page suivante (keyset sur createdAt, id), créateur chargé dans la même requête
+    @Query("SELECT g FROM TontineGroup g JOIN FETCH g.creator " +
+           "WHERE (g.createdAt > :afterCreatedAt OR (g.createdAt = :afterCreatedAt AND g.id > :afterId)) " +
+           "ORDER BY g.createdAt ASC, g.id ASC")
+    List<TontineGroup> findExportPageAfter(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                           @Param("afterId") String afterId,
+                                           Pageable pageable);
+
+    // Agrégats plateforme : lignes créées dans [from, to), projection minimale
+    @Query("SELECT new com.example.pariba.utils.StatsSourceRow(g.createdAt) FROM TontineGroup g " +
+           "WHERE g.createdAt >= :from AND g.createdAt < :to")
+    List<StatsSourceRow> findStatsRowsBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Sérialise les écritures du grand livre d'un groupe
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM TontineGroup g WHERE g.id = :groupId")
+    Optional<TontineGroup> findByIdForUpdate(@Param("groupId") String groupId);
+
+    // Parcours par lots (vérification du grand livre)
+    @Query("SELECT g.id FROM TontineGroup g WHERE g.id > :afterId ORDER BY g.id ASC")
+    List<String> findIdsAfter(@Param("afterId") String afterId, Pageable pageable);
 }
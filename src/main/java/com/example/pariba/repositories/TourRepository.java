@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +30,16 @@ public interface TourRepository extends JpaRepository<Tour, String> {
     
     // Méthodes pour le scheduler de notifications
     List<Tour> findByScheduledDateAndStatus(java.time.LocalDate scheduledDate, TourStatus status);
+    
+    boolean existsByGroupIdAndStatus(String groupId, TourStatus status);
+    
+    // Résumé personnel : tours reçus
+    long countByBeneficiaryIdAndStatus(String beneficiaryId, TourStatus status);
+    
+    @Query("SELECT COALESCE(SUM(t.expectedAmount), 0) FROM Tour t WHERE t.beneficiary.id = :beneficiaryId AND t.status = :status")
+    BigDecimal sumExpectedAmountByBeneficiaryAndStatus(@Param("beneficiaryId") String beneficiaryId,
+                                                       @Param("status") TourStatus status);
+
+    @Query("SELECT COUNT(DISTINCT t.group.id) FROM Tour t WHERE t.status = :status")
+    long countGroupsWithStatus(@Param("status") TourStatus status);
 }
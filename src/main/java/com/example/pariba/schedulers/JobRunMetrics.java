@@ -0,0 +1,53 @@
+package com.example.pariba.schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Métriques d'une exécution de job planifié (lignes lues, notifiées, en échec, durée)
+ */
+public class JobRunMetrics {
+
+    private final String jobName;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private long rowsScanned;
+    private long rowsNotified;
+    private long rowsFailed;
+    private long pages;
+    private Duration duration;
+
+    public JobRunMetrics(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public void pageRead(int size) {
+        pages++;
+        rowsScanned += size;
+    }
+
+    public void notified() { rowsNotified++; }
+
+    public void failed() { rowsFailed++; }
+
+    public JobRunMetrics finish() {
+        duration = Duration.ofNanos(System.nanoTime() - startNanos);
+        return this;
+    }
+
+    public String getJobName() { return jobName; }
+    public Instant getStartedAt() { return startedAt; }
+    public long getRowsScanned() { return rowsScanned; }
+    public long getRowsNotified() { return rowsNotified; }
+    public long getRowsFailed() { return rowsFailed; }
+    public long getPages() { return pages; }
+    public Duration getDuration() {
+        return duration != null ? duration : Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d lues (%d pages), %d notifiées, %d échecs en %d ms",
+                jobName, rowsScanned, pages, rowsNotified, rowsFailed, getDuration().toMillis());
+    }
+}
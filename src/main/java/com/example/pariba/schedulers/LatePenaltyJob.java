@@ -0,0 +1,41 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.services.IContributionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pénalités de retard quotidiennes : latePenaltyAmount par jour au-delà de l'échéance et des jours de grâce du groupe
+ */
+@Component
+@Slf4j
+public class LatePenaltyJob {
+
+    private final IContributionService contributionService;
+    private final ScheduledJobRunner jobRunner;
+
+    @Value("${app.penalties.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.penalties.cron:0 0 1 * * ?}")
+    private String cron;
+
+    public LatePenaltyJob(IContributionService contributionService, ScheduledJobRunner jobRunner) {
+        this.contributionService = contributionService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(cron = "${app.penalties.cron:0 0 1 * * ?}")
+    public void applyLatePenalties() {
+        if (!enabled) {
+            return;
+        }
+        jobRunner.run("pénalités de retard", cron, metrics -> {
+            int penalized = contributionService.applyLatePenalties();
+            metrics.pageRead(penalized);
+            log.info("✅ Pénalités - {}", metrics.finish());
+        });
+    }
+}
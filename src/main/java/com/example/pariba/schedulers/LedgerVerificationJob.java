@@ -0,0 +1,77 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.repositories.TontineGroupRepository;
+import com.example.pariba.services.ILedgerService;
+import com.example.pariba.utils.LedgerMismatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Vérification nocturne du grand livre : soldes comparés à l'historique des cotisations, paiements et versements,
+ * reconstruits en cas d'écart (app.ledger.verification.repair)
+ */
+@Component
+@Slf4j
+public class LedgerVerificationJob {
+
+    private final ILedgerService ledgerService;
+    private final TontineGroupRepository groupRepository;
+    private final ScheduledJobRunner jobRunner;
+
+    @Value("${app.ledger.verification.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ledger.verification.repair:true}")
+    private boolean repair;
+
+    @Value("${app.ledger.verification.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.ledger.verification.cron:0 0 4 * * ?}")
+    private String cron;
+
+    public LedgerVerificationJob(ILedgerService ledgerService, TontineGroupRepository groupRepository,
+                                 ScheduledJobRunner jobRunner) {
+        this.ledgerService = ledgerService;
+        this.groupRepository = groupRepository;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(cron = "${app.ledger.verification.cron:0 0 4 * * ?}")
+    public void verifyLedgers() {
+        if (!enabled) {
+            return;
+        }
+        jobRunner.run("vérification grand livre", cron, metrics -> {
+            String afterId = "";
+            List<String> groupIds;
+            do {
+                groupIds = groupRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+                metrics.pageRead(groupIds.size());
+                for (String groupId : groupIds) {
+                    try {
+                        List<LedgerMismatch> mismatches = ledgerService.verify(groupId);
+                        if (!mismatches.isEmpty()) {
+                            metrics.failed();
+                            log.warn("❌ Grand livre du groupe {} : {} écarts (ex. {})", groupId, mismatches.size(), mismatches.get(0));
+                            if (repair) {
+                                ledgerService.rebuild(groupId);
+                            }
+                        }
+                    } catch (Exception e) {
+                        log.error("❌ Vérification du grand livre du groupe {} impossible: {}", groupId, e.getMessage());
+                    }
+                }
+                if (!groupIds.isEmpty()) {
+                    afterId = groupIds.get(groupIds.size() - 1);
+                }
+            } while (groupIds.size() == batchSize);
+            log.info("✅ Grand livre - {}", metrics.finish());
+        });
+    }
+}
@@ -10,15 +10,25 @@ import com.example.pariba.models.TontineGroup;
 import com.example.pariba.repositories.ContributionRepository;
 import com.example.pariba.repositories.TourRepository;
 import com.example.pariba.repositories.TontineGroupRepository;
+import com.example.pariba.services.IContributionService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Scheduler pour les notifications automatiques planifiées
@@ -26,419 +36,499 @@ import java.util.Map;
  * - Notifications de tours (démarrage, fin)
  * - Notifications de tontine (démarrage, fin)
  * - Pénalités de retard
+ * Chaque job passe par le ScheduledJobRunner : une seule instance l'exécute par déclenchement.
  */
 @Component
 @Slf4j
 public class NotificationScheduler {
 
+    private static final String CRON_7H = "0 0 7 * * ?";
+    private static final String CRON_8H = "0 0 8 * * ?";
+    private static final String CRON_9H = "0 0 9 * * ?";
+    private static final String CRON_10H = "0 0 10 * * ?";
+    private static final String CRON_18H = "0 0 18 * * ?";
+
+    private static final List<NotificationChannel> OVERDUE_CHANNELS =
+        List.of(NotificationChannel.PUSH, NotificationChannel.SMS, NotificationChannel.EMAIL);
+
     private final ContributionRepository contributionRepository;
     private final TourRepository tourRepository;
     private final TontineGroupRepository groupRepository;
     private final INotificationService notificationService;
+    private final IPersonSummaryService personSummaryService;
+    private final IContributionService contributionService;
+    private final ScheduledJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final int reminderPageSize;
+    private final int overdueChunkSize;
 
     public NotificationScheduler(ContributionRepository contributionRepository,
                                 TourRepository tourRepository,
                                 TontineGroupRepository groupRepository,
-                                INotificationService notificationService) {
+                                INotificationService notificationService,
+                                IPersonSummaryService personSummaryService,
+                                IContributionService contributionService,
+                                ScheduledJobRunner jobRunner,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.scheduler.reminders.page-size:500}") int reminderPageSize,
+                                @Value("${app.scheduler.overdue.chunk-size:500}") int overdueChunkSize) {
         this.contributionRepository = contributionRepository;
         this.tourRepository = tourRepository;
         this.groupRepository = groupRepository;
         this.notificationService = notificationService;
+        this.personSummaryService = personSummaryService;
+        this.contributionService = contributionService;
+        this.jobRunner = jobRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Une page vide (0) ferait échouer PageRequest.of : au moins une ligne par page
+        this.reminderPageSize = Math.max(1, reminderPageSize);
+        this.overdueChunkSize = Math.max(1, overdueChunkSize);
     }
 
     /**
      * Exécuté tous les jours à 8h00
      * Envoie les rappels de contributions dues dans 2 jours
      */
-    @Scheduled(cron = "0 0 8 * * ?")
+    @Scheduled(cron = CRON_8H)
     public void sendContributionReminders2Days() {
-        log.info("🔔 Envoi des rappels de contributions (2 jours avant)...");
-        
-        LocalDate targetDate = LocalDate.now().plusDays(2);
-        List<Contribution> contributions = contributionRepository
-            .findByDueDateAndStatus(targetDate, ContributionStatus.DUE);
-        
-        for (Contribution contribution : contributions) {
-            try {
-                Map<String, String> variables = new HashMap<>();
-                variables.put("groupe", contribution.getGroup().getNom());
-                variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
-                variables.put("date", targetDate.toString());
-                
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_REMINDER_2DAYS,
-                    NotificationChannel.PUSH,
-                    variables
-                );
-                
-                log.info("✅ Rappel 2 jours envoyé à {} pour {}", 
-                    contribution.getMember().getPhone(), contribution.getGroup().getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur rappel 2 jours pour contribution {}: {}", 
-                    contribution.getId(), e.getMessage());
-            }
-        }
-        
-        log.info("✅ {} rappels de contributions (2 jours) envoyés", contributions.size());
+        jobRunner.run("rappels-2-jours", CRON_8H, metrics -> {
+            log.info("🔔 Envoi des rappels de contributions (2 jours avant)...");
+            
+            LocalDate targetDate = LocalDate.now().plusDays(2);
+            scanDueContributions(metrics, targetDate,
+                NotificationType.CONTRIBUTION_REMINDER_2DAYS,
+                List.of(NotificationChannel.PUSH),
+                contribution -> {
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", contribution.getGroup().getNom());
+                    variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
+                    variables.put("date", targetDate.toString());
+                    return variables;
+                });
+            
+            log.info("✅ Rappels de contributions (2 jours) - {}", metrics);
+        });
     }
 
     /**
      * Exécuté tous les jours à 9h00
      * Envoie les rappels de contributions dues dans 1 jour
      */
-    @Scheduled(cron = "0 0 9 * * ?")
+    @Scheduled(cron = CRON_9H)
     public void sendContributionReminders1Day() {
-        log.info("🔔 Envoi des rappels de contributions (1 jour avant)...");
-        
-        LocalDate targetDate = LocalDate.now().plusDays(1);
-        List<Contribution> contributions = contributionRepository
-            .findByDueDateAndStatus(targetDate, ContributionStatus.DUE);
-        
-        for (Contribution contribution : contributions) {
-            try {
-                Map<String, String> variables = new HashMap<>();
-                variables.put("groupe", contribution.getGroup().getNom());
-                variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
-                variables.put("date", targetDate.toString());
-                
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_REMINDER_1DAY,
-                    NotificationChannel.PUSH,
-                    variables
-                );
-                
-                // Envoyer aussi par SMS pour plus d'urgence
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_REMINDER_1DAY,
-                    NotificationChannel.SMS,
-                    variables
-                );
-                
-                log.info("✅ Rappel 1 jour envoyé à {} pour {}", 
-                    contribution.getMember().getPhone(), contribution.getGroup().getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur rappel 1 jour pour contribution {}: {}", 
-                    contribution.getId(), e.getMessage());
-            }
-        }
-        
-        log.info("✅ {} rappels de contributions (1 jour) envoyés", contributions.size());
+        jobRunner.run("rappels-1-jour", CRON_9H, metrics -> {
+            log.info("🔔 Envoi des rappels de contributions (1 jour avant)...");
+            
+            LocalDate targetDate = LocalDate.now().plusDays(1);
+            // Envoyer aussi par SMS pour plus d'urgence
+            scanDueContributions(metrics, targetDate,
+                NotificationType.CONTRIBUTION_REMINDER_1DAY,
+                List.of(NotificationChannel.PUSH, NotificationChannel.SMS),
+                contribution -> {
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", contribution.getGroup().getNom());
+                    variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
+                    variables.put("date", targetDate.toString());
+                    return variables;
+                });
+            
+            log.info("✅ Rappels de contributions (1 jour) - {}", metrics);
+        });
     }
 
     /**
      * Exécuté tous les jours à 10h00
      * Envoie les rappels de contributions dues aujourd'hui
      */
-    @Scheduled(cron = "0 0 10 * * ?")
+    @Scheduled(cron = CRON_10H)
     public void sendContributionDueToday() {
-        log.info("🔔 Envoi des rappels de contributions (aujourd'hui)...");
-        
-        LocalDate today = LocalDate.now();
-        List<Contribution> contributions = contributionRepository
-            .findByDueDateAndStatus(today, ContributionStatus.DUE);
+        jobRunner.run("rappels-aujourd-hui", CRON_10H, metrics -> {
+            log.info("🔔 Envoi des rappels de contributions (aujourd'hui)...");
+            
+            LocalDate today = LocalDate.now();
+            // Envoyer aussi par SMS
+            scanDueContributions(metrics, today,
+                NotificationType.CONTRIBUTION_DUE_TODAY,
+                List.of(NotificationChannel.PUSH, NotificationChannel.SMS),
+                contribution -> {
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", contribution.getGroup().getNom());
+                    variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
+                    variables.put("lien", "https://pariba.app/pay/" + contribution.getId());
+                    return variables;
+                });
+            
+            log.info("✅ Rappels de contributions (aujourd'hui) - {}", metrics);
+        });
+    }
+
+    /**
+     * Parcourt les contributions DUE d'une échéance par pages (keyset sur l'id).
+     * Groupe et membre sont chargés par jointure. La méthode n'est pas transactionnelle : chaque page
+     * est lue dans sa propre session, fermée à la fin de la requête, et n'est plus référencée après
+     * traitement ; la mémoire reste constante et le nombre de requêtes est O(pages).
+     */
+    private void scanDueContributions(JobRunMetrics metrics, LocalDate dueDate, NotificationType type,
+                                      List<NotificationChannel> channels,
+                                      Function<Contribution, Map<String, String>> variablesFactory) {
+        Pageable page = PageRequest.of(0, reminderPageSize);
+        String lastId = "";
         
-        for (Contribution contribution : contributions) {
-            try {
-                Map<String, String> variables = new HashMap<>();
-                variables.put("groupe", contribution.getGroup().getNom());
-                variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
-                variables.put("lien", "https://pariba.app/pay/" + contribution.getId());
-                
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_DUE_TODAY,
-                    NotificationChannel.PUSH,
-                    variables
-                );
-                
-                // Envoyer aussi par SMS
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_DUE_TODAY,
-                    NotificationChannel.SMS,
-                    variables
-                );
-                
-                log.info("✅ Rappel aujourd'hui envoyé à {} pour {}", 
-                    contribution.getMember().getPhone(), contribution.getGroup().getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur rappel aujourd'hui pour contribution {}: {}", 
-                    contribution.getId(), e.getMessage());
+        while (true) {
+            List<Contribution> contributions = contributionRepository
+                .findDuePageAfter(dueDate, ContributionStatus.DUE, lastId, page);
+            if (contributions.isEmpty()) {
+                break;
+            }
+            metrics.pageRead(contributions.size());
+            
+            for (Contribution contribution : contributions) {
+                try {
+                    Map<String, String> variables = variablesFactory.apply(contribution);
+                    for (NotificationChannel channel : channels) {
+                        notificationService.sendNotificationWithTemplate(
+                            contribution.getMember().getId(),
+                            type,
+                            channel,
+                            variables
+                        );
+                    }
+                    metrics.notified();
+                    log.debug("Rappel {} envoyé à {} pour {}", type,
+                        contribution.getMember().getPhone(), contribution.getGroup().getNom());
+                } catch (Exception e) {
+                    metrics.failed();
+                    log.error("❌ Erreur rappel {} pour contribution {}: {}", 
+                        type, contribution.getId(), e.getMessage());
+                }
+            }
+            
+            lastId = contributions.get(contributions.size() - 1).getId();
+            if (contributions.size() < reminderPageSize) {
+                break;
             }
         }
-        
-        log.info("✅ {} rappels de contributions (aujourd'hui) envoyés", contributions.size());
     }
 
     /**
      * Exécuté tous les jours à 18h00
-     * Envoie les notifications de contributions en retard
+     * Passe en LATE les contributions DUE échues, par lots : chaque lot (changement de statut
+     * et notifications dans l'outbox) est une transaction. Après un arrêt, les lots validés
+     * ne sont plus DUE et les autres sont repris tels quels : relancer ne notifie pas deux fois.
+     * Un lot en échec est rejoué contribution par contribution : celles qui échouent encore restent
+     * DUE (reprises au prochain passage) et le curseur les dépasse, sans bloquer les suivantes.
      */
-    @Scheduled(cron = "0 0 18 * * ?")
+    @Scheduled(cron = CRON_18H)
     public void sendOverdueContributionNotifications() {
-        log.info("🔔 Envoi des notifications de contributions en retard...");
-        
-        LocalDate yesterday = LocalDate.now().minusDays(1);
-        List<Contribution> contributions = contributionRepository
-            .findByDueDateBeforeAndStatus(yesterday, ContributionStatus.DUE);
-        
-        for (Contribution contribution : contributions) {
+        jobRunner.run("contributions-en-retard", CRON_18H, metrics -> {
+            log.info("🔔 Envoi des notifications de contributions en retard...");
+            
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            String afterId = "";
+            while (true) {
+                String from = afterId;
+                List<String> ids;
+                try {
+                    ids = transactionTemplate.execute(status -> {
+                        List<String> chunk = contributionService.markOverdue(yesterday, from, overdueChunkSize);
+                        notifyOverdue(chunk);
+                        return chunk;
+                    });
+                    ids.forEach(id -> metrics.notified());
+                } catch (Exception e) {
+                    log.warn("Lot de contributions en retard annulé, reprise une par une: {}", e.getMessage());
+                    ids = markOverdueOneByOne(yesterday, from, metrics);
+                }
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                metrics.pageRead(ids.size());
+                afterId = ids.get(ids.size() - 1);
+                if (ids.size() < overdueChunkSize) {
+                    break;
+                }
+            }
+            
+            log.info("✅ Contributions en retard - {}", metrics);
+        });
+    }
+
+    /**
+     * Rejoue un lot une contribution par transaction ; retourne les ids parcourus, en échec compris
+     */
+    private List<String> markOverdueOneByOne(LocalDate before, String afterId, JobRunMetrics metrics) {
+        List<String> seen = new ArrayList<>();
+        String cursor = afterId;
+        while (seen.size() < overdueChunkSize) {
+            String[] current = new String[1];
             try {
-                // Marquer comme en retard
-                contribution.setStatus(ContributionStatus.LATE);
-                contributionRepository.save(contribution);
-                
-                Map<String, String> variables = new HashMap<>();
-                variables.put("groupe", contribution.getGroup().getNom());
-                variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
-                variables.put("lien", "https://pariba.app/pay/" + contribution.getId());
-                
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_OVERDUE,
-                    NotificationChannel.PUSH,
-                    variables
-                );
-                
-                // Envoyer aussi par SMS et Email
-                notificationService.sendNotificationWithTemplate(
-                    contribution.getMember().getId(),
-                    NotificationType.CONTRIBUTION_OVERDUE,
-                    NotificationChannel.SMS,
-                    variables
-                );
-                
+                String from = cursor;
+                List<String> one = transactionTemplate.execute(status -> {
+                    List<String> ids = contributionService.markOverdue(before, from, 1);
+                    if (!ids.isEmpty()) {
+                        current[0] = ids.get(0);
+                        notifyOverdue(ids);
+                    }
+                    return ids;
+                });
+                if (one == null || one.isEmpty()) {
+                    break;
+                }
+                metrics.notified();
+            } catch (Exception e) {
+                if (current[0] == null) {
+                    // Échec de la sélection elle-même (base indisponible) : inutile d'insister
+                    log.error("❌ Reprise des contributions en retard interrompue: {}", e.getMessage());
+                    break;
+                }
+                metrics.failed();
+                log.error("❌ Contribution {} non passée en retard, ignorée jusqu'au prochain passage: {}",
+                    current[0], e.getMessage());
+            }
+            seen.add(current[0]);
+            cursor = current[0];
+        }
+        return seen;
+    }
+
+    private void notifyOverdue(List<String> contributionIds) {
+        if (contributionIds.isEmpty()) {
+            return;
+        }
+        for (Contribution contribution : contributionRepository.findWithGroupAndMemberByIdIn(contributionIds)) {
+            Map<String, String> variables = new HashMap<>();
+            variables.put("groupe", contribution.getGroup().getNom());
+            variables.put("montant", String.format("%,.0f", contribution.getAmountDue()));
+            variables.put("lien", "https://pariba.app/pay/" + contribution.getId());
+            
+            // Écriture dans l'outbox uniquement : l'envoi (FCM, SMS, SMTP) se fait après commit
+            for (NotificationChannel channel : OVERDUE_CHANNELS) {
                 notificationService.sendNotificationWithTemplate(
                     contribution.getMember().getId(),
                     NotificationType.CONTRIBUTION_OVERDUE,
-                    NotificationChannel.EMAIL,
+                    channel,
                     variables
                 );
-                
-                log.info("✅ Notification retard envoyée à {} pour {}", 
-                    contribution.getMember().getPhone(), contribution.getGroup().getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur notification retard pour contribution {}: {}", 
-                    contribution.getId(), e.getMessage());
             }
         }
-        
-        log.info("✅ {} notifications de retard envoyées", contributions.size());
     }
 
     /**
      * Exécuté tous les jours à 7h00
      * Envoie les notifications de tours qui commencent dans 2 jours
      */
-    @Scheduled(cron = "0 0 7 * * ?")
+    @Scheduled(cron = CRON_7H)
     public void sendTourStartingSoonNotifications() {
-        log.info("🔔 Envoi des notifications de tours qui commencent bientôt...");
-        
-        LocalDate targetDate = LocalDate.now().plusDays(2);
-        List<Tour> tours = tourRepository.findByScheduledDateAndStatus(targetDate, TourStatus.SCHEDULED);
-        
-        for (Tour tour : tours) {
-            try {
-                TontineGroup group = tour.getGroup();
-                
-                // Notifier tous les membres du groupe
-                group.getMemberships().forEach(membership -> {
-                    try {
-                        Map<String, String> variables = new HashMap<>();
-                        variables.put("groupe", group.getNom());
-                        variables.put("tour", "Tour " + tour.getIndexInGroup());
-                        variables.put("jours", "2");
-                        variables.put("beneficiaire", tour.getBeneficiary().getPrenom() + " " + tour.getBeneficiary().getNom());
-                        variables.put("date", targetDate.toString());
-                        
-                        notificationService.sendNotificationWithTemplate(
-                            membership.getPerson().getId(),
-                            NotificationType.TOUR_STARTING_SOON,
-                            NotificationChannel.PUSH,
-                            variables
-                        );
-                    } catch (Exception e) {
-                        log.error("Erreur notification tour pour membre {}", membership.getPerson().getId());
-                    }
-                });
-                
-                // Notifier spécialement le bénéficiaire
-                Map<String, String> beneficiaryVars = new HashMap<>();
-                beneficiaryVars.put("groupe", group.getNom());
-                
-                notificationService.sendNotificationWithTemplate(
-                    tour.getBeneficiary().getId(),
-                    NotificationType.YOUR_TURN_NEXT,
-                    NotificationChannel.PUSH,
-                    beneficiaryVars
-                );
-                
-                log.info("✅ Notifications tour bientôt envoyées pour {}", group.getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur notification tour {}: {}", tour.getId(), e.getMessage());
+        jobRunner.run("tours-bientot", CRON_7H, metrics -> {
+            log.info("🔔 Envoi des notifications de tours qui commencent bientôt...");
+            
+            LocalDate targetDate = LocalDate.now().plusDays(2);
+            List<Tour> tours = tourRepository.findByScheduledDateAndStatus(targetDate, TourStatus.SCHEDULED);
+            metrics.pageRead(tours.size());
+            
+            for (Tour tour : tours) {
+                try {
+                    TontineGroup group = tour.getGroup();
+                    
+                    // Notifier tous les membres du groupe
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", group.getNom());
+                    variables.put("tour", "Tour " + tour.getIndexInGroup());
+                    variables.put("jours", "2");
+                    variables.put("beneficiaire", tour.getBeneficiary().getPrenom() + " " + tour.getBeneficiary().getNom());
+                    variables.put("date", targetDate.toString());
+                    
+                    notificationService.sendGroupNotificationWithTemplate(
+                        memberIds(group),
+                        NotificationType.TOUR_STARTING_SOON,
+                        NotificationChannel.PUSH,
+                        variables
+                    );
+                    
+                    // Notifier spécialement le bénéficiaire
+                    Map<String, String> beneficiaryVars = new HashMap<>();
+                    beneficiaryVars.put("groupe", group.getNom());
+                    
+                    notificationService.sendNotificationWithTemplate(
+                        tour.getBeneficiary().getId(),
+                        NotificationType.YOUR_TURN_NEXT,
+                        NotificationChannel.PUSH,
+                        beneficiaryVars
+                    );
+                    
+                    metrics.notified();
+                    log.info("✅ Notifications tour bientôt envoyées pour {}", group.getNom());
+                } catch (Exception e) {
+                    metrics.failed();
+                    log.error("❌ Erreur notification tour {}: {}", tour.getId(), e.getMessage());
+                }
             }
-        }
-        
-        log.info("✅ {} notifications de tours bientôt envoyées", tours.size());
+            
+            log.info("✅ Tours bientôt - {}", metrics);
+        });
     }
 
     /**
      * Exécuté tous les jours à 8h00
      * Envoie les notifications de tours qui commencent aujourd'hui
      */
-    @Scheduled(cron = "0 0 8 * * ?")
+    @Scheduled(cron = CRON_8H)
     public void sendTourStartedNotifications() {
-        log.info("🔔 Envoi des notifications de tours qui démarrent aujourd'hui...");
-        
-        LocalDate today = LocalDate.now();
-        List<Tour> tours = tourRepository.findByScheduledDateAndStatus(today, TourStatus.SCHEDULED);
-        
-        for (Tour tour : tours) {
-            try {
-                // Marquer le tour comme actif
-                tour.setStatus(TourStatus.IN_PROGRESS);
-                tour.setStartDate(today);
-                tourRepository.save(tour);
-                
-                TontineGroup group = tour.getGroup();
-                
-                // Notifier tous les membres
-                group.getMemberships().forEach(membership -> {
-                    try {
-                        Map<String, String> variables = new HashMap<>();
-                        variables.put("groupe", group.getNom());
-                        variables.put("tour", "Tour " + tour.getIndexInGroup());
-                        variables.put("beneficiaire", tour.getBeneficiary().getPrenom() + " " + tour.getBeneficiary().getNom());
-                        variables.put("montant", String.format("%,.0f", tour.getExpectedAmount()));
-                        
-                        notificationService.sendNotificationWithTemplate(
-                            membership.getPerson().getId(),
-                            NotificationType.TOUR_STARTED,
-                            NotificationChannel.PUSH,
-                            variables
-                        );
-                    } catch (Exception e) {
-                        log.error("Erreur notification tour démarré pour membre {}", membership.getPerson().getId());
+        jobRunner.run("tours-demarres", CRON_8H, metrics -> {
+            log.info("🔔 Envoi des notifications de tours qui démarrent aujourd'hui...");
+            
+            LocalDate today = LocalDate.now();
+            List<Tour> tours = tourRepository.findByScheduledDateAndStatus(today, TourStatus.SCHEDULED);
+            metrics.pageRead(tours.size());
+            
+            for (Tour tour : tours) {
+                try {
+                    // Marquer le tour comme actif
+                    TontineGroup group = tour.getGroup();
+                    boolean groupAlreadyActive = tourRepository.existsByGroupIdAndStatus(group.getId(), TourStatus.IN_PROGRESS);
+                    tour.setStatus(TourStatus.IN_PROGRESS);
+                    tour.setStartDate(today);
+                    tourRepository.save(tour);
+                    if (!groupAlreadyActive) {
+                        personSummaryService.onTourStarted(memberIds(group));
                     }
-                });
-                
-                // Notifier le bénéficiaire avec un message spécial
-                Map<String, String> beneficiaryVars = new HashMap<>();
-                beneficiaryVars.put("groupe", group.getNom());
-                beneficiaryVars.put("montant", String.format("%,.0f", tour.getExpectedAmount()));
-                beneficiaryVars.put("date", today.toString());
-                
-                notificationService.sendNotificationWithTemplate(
-                    tour.getBeneficiary().getId(),
-                    NotificationType.YOUR_TURN_NOW,
-                    NotificationChannel.PUSH,
-                    beneficiaryVars
-                );
-                
-                // Envoyer aussi par Email au bénéficiaire
-                notificationService.sendNotificationWithTemplate(
-                    tour.getBeneficiary().getId(),
-                    NotificationType.YOUR_TURN_NOW,
-                    NotificationChannel.EMAIL,
-                    beneficiaryVars
-                );
-                
-                log.info("✅ Notifications tour démarré envoyées pour {}", group.getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur notification tour démarré {}: {}", tour.getId(), e.getMessage());
+                    
+                    // Notifier tous les membres
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", group.getNom());
+                    variables.put("tour", "Tour " + tour.getIndexInGroup());
+                    variables.put("beneficiaire", tour.getBeneficiary().getPrenom() + " " + tour.getBeneficiary().getNom());
+                    variables.put("montant", String.format("%,.0f", tour.getExpectedAmount()));
+                    
+                    notificationService.sendGroupNotificationWithTemplate(
+                        memberIds(group),
+                        NotificationType.TOUR_STARTED,
+                        NotificationChannel.PUSH,
+                        variables
+                    );
+                    
+                    // Notifier le bénéficiaire avec un message spécial
+                    Map<String, String> beneficiaryVars = new HashMap<>();
+                    beneficiaryVars.put("groupe", group.getNom());
+                    beneficiaryVars.put("montant", String.format("%,.0f", tour.getExpectedAmount()));
+                    beneficiaryVars.put("date", today.toString());
+                    
+                    notificationService.sendNotificationWithTemplate(
+                        tour.getBeneficiary().getId(),
+                        NotificationType.YOUR_TURN_NOW,
+                        NotificationChannel.PUSH,
+                        beneficiaryVars
+                    );
+                    
+                    // Envoyer aussi par Email au bénéficiaire
+                    notificationService.sendNotificationWithTemplate(
+                        tour.getBeneficiary().getId(),
+                        NotificationType.YOUR_TURN_NOW,
+                        NotificationChannel.EMAIL,
+                        beneficiaryVars
+                    );
+                    
+                    metrics.notified();
+                    log.info("✅ Notifications tour démarré envoyées pour {}", group.getNom());
+                } catch (Exception e) {
+                    metrics.failed();
+                    log.error("❌ Erreur notification tour démarré {}: {}", tour.getId(), e.getMessage());
+                }
             }
-        }
-        
-        log.info("✅ {} notifications de tours démarrés envoyées", tours.size());
+            
+            log.info("✅ Tours démarrés - {}", metrics);
+        });
     }
 
     /**
      * Exécuté tous les jours à 7h00
      * Envoie les notifications de tontines qui commencent bientôt
      */
-    @Scheduled(cron = "0 0 7 * * ?")
+    @Scheduled(cron = CRON_7H)
     public void sendTontineStartingSoonNotifications() {
-        log.info("🔔 Envoi des notifications de tontines qui commencent bientôt...");
-        
-        LocalDate targetDate = LocalDate.now().plusDays(2);
-        List<TontineGroup> groups = groupRepository.findByStartDate(targetDate);
-        
-        for (TontineGroup group : groups) {
-            try {
-                // Notifier tous les membres
-                group.getMemberships().forEach(membership -> {
-                    try {
-                        Map<String, String> variables = new HashMap<>();
-                        variables.put("groupe", group.getNom());
-                        variables.put("date", targetDate.toString());
-                        
-                        notificationService.sendNotificationWithTemplate(
-                            membership.getPerson().getId(),
-                            NotificationType.TONTINE_STARTING_SOON,
-                            NotificationChannel.PUSH,
-                            variables
-                        );
-                    } catch (Exception e) {
-                        log.error("Erreur notification tontine bientôt pour membre {}", membership.getPerson().getId());
-                    }
-                });
-                
-                log.info("✅ Notifications tontine bientôt envoyées pour {}", group.getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur notification tontine bientôt {}: {}", group.getId(), e.getMessage());
+        jobRunner.run("tontines-bientot", CRON_7H, metrics -> {
+            log.info("🔔 Envoi des notifications de tontines qui commencent bientôt...");
+            
+            LocalDate targetDate = LocalDate.now().plusDays(2);
+            List<TontineGroup> groups = groupRepository.findByStartDate(targetDate);
+            metrics.pageRead(groups.size());
+            
+            for (TontineGroup group : groups) {
+                try {
+                    // Notifier tous les membres
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", group.getNom());
+                    variables.put("date", targetDate.toString());
+                    
+                    notificationService.sendGroupNotificationWithTemplate(
+                        memberIds(group),
+                        NotificationType.TONTINE_STARTING_SOON,
+                        NotificationChannel.PUSH,
+                        variables
+                    );
+                    
+                    metrics.notified();
+                    log.info("✅ Notifications tontine bientôt envoyées pour {}", group.getNom());
+                } catch (Exception e) {
+                    metrics.failed();
+                    log.error("❌ Erreur notification tontine bientôt {}: {}", group.getId(), e.getMessage());
+                }
             }
-        }
-        
-        log.info("✅ {} notifications de tontines bientôt envoyées", groups.size());
+            
+            log.info("✅ Tontines bientôt - {}", metrics);
+        });
     }
 
     /**
      * Exécuté tous les jours à 8h00
      * Envoie les notifications de tontines qui démarrent aujourd'hui
      */
-    @Scheduled(cron = "0 0 8 * * ?")
+    @Scheduled(cron = CRON_8H)
     public void sendTontineStartedNotifications() {
-        log.info("🔔 Envoi des notifications de tontines qui démarrent aujourd'hui...");
-        
-        LocalDate today = LocalDate.now();
-        List<TontineGroup> groups = groupRepository.findByStartDate(today);
-        
-        for (TontineGroup group : groups) {
-            try {
-                // Notifier tous les membres
-                group.getMemberships().forEach(membership -> {
-                    try {
-                        Map<String, String> variables = new HashMap<>();
-                        variables.put("groupe", group.getNom());
-                        
-                        notificationService.sendNotificationWithTemplate(
-                            membership.getPerson().getId(),
-                            NotificationType.TONTINE_STARTED,
-                            NotificationChannel.PUSH,
-                            variables
-                        );
-                        
-                        // Envoyer aussi par Email
-                        notificationService.sendNotificationWithTemplate(
-                            membership.getPerson().getId(),
-                            NotificationType.TONTINE_STARTED,
-                            NotificationChannel.EMAIL,
-                            variables
-                        );
-                    } catch (Exception e) {
-                        log.error("Erreur notification tontine démarrée pour membre {}", membership.getPerson().getId());
-                    }
-                });
-                
-                log.info("✅ Notifications tontine démarrée envoyées pour {}", group.getNom());
-            } catch (Exception e) {
-                log.error("❌ Erreur notification tontine démarrée {}: {}", group.getId(), e.getMessage());
+        jobRunner.run("tontines-demarrees", CRON_8H, metrics -> {
+            log.info("🔔 Envoi des notifications de tontines qui démarrent aujourd'hui...");
+            
+            LocalDate today = LocalDate.now();
+            List<TontineGroup> groups = groupRepository.findByStartDate(today);
+            metrics.pageRead(groups.size());
+            
+            for (TontineGroup group : groups) {
+                try {
+                    // Notifier tous les membres
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put("groupe", group.getNom());
+                    List<String> memberIds = memberIds(group);
+                    
+                    notificationService.sendGroupNotificationWithTemplate(
+                        memberIds,
+                        NotificationType.TONTINE_STARTED,
+                        NotificationChannel.PUSH,
+                        variables
+                    );
+                    
+                    // Envoyer aussi par Email
+                    notificationService.sendGroupNotificationWithTemplate(
+                        memberIds,
+                        NotificationType.TONTINE_STARTED,
+                        NotificationChannel.EMAIL,
+                        variables
+                    );
+                    
+                    metrics.notified();
+                    log.info("✅ Notifications tontine démarrée envoyées pour {}", group.getNom());
+                } catch (Exception e) {
+                    metrics.failed();
+                    log.error("❌ Erreur notification tontine démarrée {}: {}", group.getId(), e.getMessage());
+                }
             }
-        }
-        
-        log.info("✅ {} notifications de tontines démarrées envoyées", groups.size());
+            
+            log.info("✅ Tontines démarrées - {}", metrics);
+        });
+    }
+
+    private List<String> memberIds(TontineGroup group) {
+        return group.getMemberships().stream()
+            .map(membership -> membership.getPerson().getId())
+            .collect(Collectors.toList());
     }
 }
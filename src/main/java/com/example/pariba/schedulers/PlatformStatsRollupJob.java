@@ -0,0 +1,63 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.services.IPlatformStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Maintient les agrégats horaires/journaliers du dashboard SuperAdmin.
+ * Chaque passage ne relit que les lignes créées depuis le passage précédent (créneau horaire
+ * du dernier relevé des jauges) ; les paiements, dont le statut change après création,
+ * sont relus sur une fenêtre glissante. Premier passage : rattrapage depuis la plus ancienne donnée.
+ */
+@Component
+@Slf4j
+public class PlatformStatsRollupJob {
+
+    private final IPlatformStatsService statsService;
+    private final ScheduledJobRunner jobRunner;
+
+    @Value("${app.stats.rollup.lookback-hours:48}")
+    private long lookbackHours;
+
+    public PlatformStatsRollupJob(IPlatformStatsService statsService, ScheduledJobRunner jobRunner) {
+        this.statsService = statsService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.rollup.initial-delay-ms:30000}",
+               fixedDelayString = "${app.stats.rollup.interval-ms:300000}")
+    public void rollup() {
+        jobRunner.run("agrégats-statistiques", this::rollup);
+    }
+
+    private void rollup(JobRunMetrics metrics) {
+        Instant now = Instant.now();
+        Instant lastRun = statsService.getLastRollupHour();
+        Instant flowFrom = lastRun != null ? lastRun : statsService.getFirstActivity();
+        Instant lookback = now.minus(Duration.ofHours(lookbackHours));
+        Instant mutableFrom = flowFrom.isBefore(lookback) ? flowFrom : lookback;
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.ofInstant(now, zone);
+        try {
+            // Une transaction par journée : un rattrapage interrompu reprend proprement (recalcul idempotent)
+            for (LocalDate day = LocalDate.ofInstant(mutableFrom, zone); !day.isAfter(today); day = day.plusDays(1)) {
+                metrics.pageRead(statsService.rollupDay(day, flowFrom, mutableFrom, now));
+            }
+            statsService.snapshotGauges(now);
+            statsService.invalidateCache();
+            log.info("✅ Agrégats statistiques - {}", metrics.finish());
+        } catch (RuntimeException e) {
+            log.error("❌ Agrégats statistiques interrompus ({}): {}", metrics.finish(), e.getMessage());
+            throw e;
+        }
+    }
+}
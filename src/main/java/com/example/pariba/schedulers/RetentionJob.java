@@ -0,0 +1,44 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.enums.RetentionTable;
+import com.example.pariba.services.IRetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Archivage quotidien des tables volumineuses au-delà de leur durée "chaude" (app.retention.*-days)
+ */
+@Component
+@Slf4j
+public class RetentionJob {
+
+    private final IRetentionService retentionService;
+    private final ScheduledJobRunner jobRunner;
+
+    @Value("${app.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.retention.cron:0 30 3 * * ?}")
+    private String cron;
+
+    public RetentionJob(IRetentionService retentionService, ScheduledJobRunner jobRunner) {
+        this.retentionService = retentionService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * ?}")
+    public void applyRetention() {
+        if (!enabled) {
+            return;
+        }
+        jobRunner.run("rétention", cron, metrics -> {
+            Map<RetentionTable, Long> archived = retentionService.applyRetention();
+            archived.values().forEach(rows -> metrics.pageRead(rows.intValue()));
+            log.info("✅ Rétention - {} {}", metrics.finish(), archived);
+        });
+    }
+}
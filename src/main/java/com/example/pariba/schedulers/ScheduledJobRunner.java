@@ -0,0 +1,183 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.enums.JobRunStatus;
+import com.example.pariba.models.JobRun;
+import com.example.pariba.models.SchedulerLock;
+import com.example.pariba.repositories.JobRunRepository;
+import com.example.pariba.repositories.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Exécute un job planifié sur une seule instance du cluster et trace l'exécution dans job_runs.
+ * - verrou en base (scheduler_locks, MySQL comme H2) : l'instance qui fait passer lockedUntil
+ *   du passé au futur exécute le job, les autres ignorent le déclenchement ; les échéances sont
+ *   calculées sur l'horloge de la base (CURRENT_TIMESTAMP), un décalage entre instances est sans effet
+ * - lockedUntil = maintenant + at-most-for, prolongé toutes les at-most-for / 3 tant que le job tourne :
+ *   un job long garde son verrou, si l'instance tombe le verrou expire seul au plus at-most-for après
+ * - job cron : en fin de job, le verrou est gardé jusqu'au déclenchement suivant moins une marge,
+ *   une instance en retard (pool occupé, horloge décalée) ne relance donc pas le même déclenchement
+ * - job à intervalle : le verrou est gardé au moins at-least-for après le début
+ */
+@Component
+@Slf4j
+public class ScheduledJobRunner {
+
+    private final SchedulerLockRepository lockRepository;
+    private final JobRunRepository jobRunRepository;
+    private final TaskScheduler heartbeatScheduler;
+    private final String nodeId;
+
+    @Value("${app.scheduler.lock.at-most-for-minutes:10}")
+    private long lockAtMostForMinutes;
+
+    @Value("${app.scheduler.lock.at-least-for-seconds:30}")
+    private long lockAtLeastForSeconds;
+
+    @Value("${app.scheduler.lock.next-fire-margin-seconds:60}")
+    private long nextFireMarginSeconds;
+
+    public ScheduledJobRunner(SchedulerLockRepository lockRepository,
+                              JobRunRepository jobRunRepository,
+                              @Qualifier("schedulerLockHeartbeat") TaskScheduler heartbeatScheduler,
+                              @Value("${app.scheduler.node-id:}") String nodeId) {
+        this.lockRepository = lockRepository;
+        this.jobRunRepository = jobRunRepository;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Exécute le job si le verrou est libre ; retourne false si une autre instance l'exécute déjà
+     */
+    public boolean run(String jobName, Consumer<JobRunMetrics> job) {
+        return run(jobName, Duration.ofMinutes(lockAtMostForMinutes), job);
+    }
+
+    public boolean run(String jobName, Duration lockAtMostFor, Consumer<JobRunMetrics> job) {
+        Instant start = Instant.now();
+        return run(jobName, start, lockAtMostFor, start.plusSeconds(lockAtLeastForSeconds), job);
+    }
+
+    /**
+     * Job déclenché par cron : une seule exécution par déclenchement sur le cluster,
+     * le verrou n'est rendu qu'à l'approche du déclenchement suivant
+     */
+    public boolean run(String jobName, String cron, Consumer<JobRunMetrics> job) {
+        Instant start = Instant.now();
+        ZonedDateTime nextFire = CronExpression.parse(cron).next(ZonedDateTime.ofInstant(start, ZoneId.systemDefault()));
+        Instant holdUntil = start.plusSeconds(lockAtLeastForSeconds);
+        if (nextFire != null) {
+            Instant beforeNext = nextFire.toInstant().minusSeconds(nextFireMarginSeconds);
+            holdUntil = beforeNext.isAfter(holdUntil) ? beforeNext : holdUntil;
+        }
+        return run(jobName, start, Duration.ofMinutes(lockAtMostForMinutes), holdUntil, job);
+    }
+
+    private boolean run(String jobName, Instant start, Duration lockAtMostFor, Instant holdUntil, Consumer<JobRunMetrics> job) {
+        if (!tryLock(jobName, lockAtMostFor)) {
+            log.debug("Job {} ignoré : verrouillé par une autre instance", jobName);
+            return false;
+        }
+        Duration heartbeatInterval = lockAtMostFor.dividedBy(3);
+        ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(() -> extendLock(jobName, lockAtMostFor),
+                start.plus(heartbeatInterval), heartbeatInterval);
+
+        JobRunMetrics metrics = new JobRunMetrics(jobName);
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setNodeId(nodeId);
+        run.setCreatedAt(start);
+        try {
+            run = jobRunRepository.save(run);
+            job.accept(metrics);
+            run.setStatus(JobRunStatus.SUCCEEDED);
+        } catch (Exception e) {
+            run.setStatus(JobRunStatus.FAILED);
+            run.setError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            log.error("❌ Job {} en échec: {}", jobName, e.getMessage(), e);
+        } finally {
+            heartbeat.cancel(false);
+            finish(run, metrics.finish());
+            // Seule la durée de garde restante vient de l'horloge locale, l'échéance est posée par la base
+            long holdSeconds = Math.max(0, Duration.between(Instant.now(), holdUntil).toSeconds());
+            lockRepository.unlock(jobName, nodeId, holdSeconds);
+        }
+        return true;
+    }
+
+    private boolean tryLock(String jobName, Duration lockAtMostFor) {
+        if (lockRepository.tryLock(jobName, nodeId, lockAtMostFor.toSeconds()) == 1) {
+            return true;
+        }
+        if (lockRepository.existsByName(jobName)) {
+            return false;
+        }
+        // Premier déclenchement du job : ligne créée déjà expirée (la contrainte d'unicité sur le nom
+        // ne laisse passer qu'une insertion), puis prise du verrou comme d'habitude
+        SchedulerLock lock = new SchedulerLock();
+        lock.setName(jobName);
+        lock.setLockedUntil(Instant.EPOCH);
+        try {
+            lockRepository.save(lock);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Verrou du job {} créé par une autre instance", jobName);
+        }
+        return lockRepository.tryLock(jobName, nodeId, lockAtMostFor.toSeconds()) == 1;
+    }
+
+    private void extendLock(String jobName, Duration lockAtMostFor) {
+        try {
+            if (lockRepository.extend(jobName, nodeId, lockAtMostFor.toSeconds()) == 0) {
+                log.warn("⚠️ Verrou du job {} perdu (expiré ou repris par une autre instance)", jobName);
+            }
+        } catch (Exception e) {
+            log.warn("Prolongation du verrou du job {} en échec: {}", jobName, e.getMessage());
+        }
+    }
+
+    private void finish(JobRun run, JobRunMetrics metrics) {
+        run.setFinishedAt(Instant.now());
+        run.setDurationMs(metrics.getDuration().toMillis());
+        run.setRowsScanned(metrics.getRowsScanned());
+        run.setRowsNotified(metrics.getRowsNotified());
+        run.setRowsFailed(metrics.getRowsFailed());
+        run.setPages(metrics.getPages());
+        try {
+            jobRunRepository.save(run);
+        } catch (Exception e) {
+            log.warn("Historique du job {} non enregistré: {}", run.getJobName(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
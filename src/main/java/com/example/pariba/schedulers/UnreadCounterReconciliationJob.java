@@ -0,0 +1,45 @@
+package com.example.pariba.schedulers;
+
+import com.example.pariba.services.IPersonSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rattrapage des compteurs de notifications non lues : corrige l'écart laissé par une mise à jour
+ * perdue (suppression hors application, transaction partielle) sans toucher aux compteurs justes
+ */
+@Component
+@Slf4j
+public class UnreadCounterReconciliationJob {
+
+    private final IPersonSummaryService personSummaryService;
+    private final ScheduledJobRunner jobRunner;
+
+    @Value("${app.notifications.unread.reconcile-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.unread.reconcile-cron:0 30 3 * * ?}")
+    private String cron;
+
+    public UnreadCounterReconciliationJob(IPersonSummaryService personSummaryService, ScheduledJobRunner jobRunner) {
+        this.personSummaryService = personSummaryService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(cron = "${app.notifications.unread.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        jobRunner.run("compteurs-non-lues", cron, metrics -> {
+            int corrected = personSummaryService.reconcileUnreadCounters();
+            metrics.pageRead(corrected);
+            if (corrected > 0) {
+                log.warn("⚠️ Compteurs de non lues corrigés pour {} personnes", corrected);
+            }
+            log.info("✅ Rattrapage des compteurs - {}", metrics.finish());
+        });
+    }
+}
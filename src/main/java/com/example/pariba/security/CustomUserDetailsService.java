@@ -87,6 +87,22 @@ public class CustomUserDetailsService implements UserDetailsService {
         return authorities;
     }
     
+    /**
+     * Construit le principal à partir des claims du token, sans accès à la base.
+     * Mêmes autorités que getAuthorities(person) ; le mot de passe n'est pas nécessaire ici.
+     */
+    public UserDetails buildFromClaims(String personId, String role) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(personId)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
     /**
      * Charge un utilisateur par son ID de personne
      */
@@ -0,0 +1,25 @@
+package com.example.pariba.security;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+
+/**
+ * Buckets partagés entre instances via un ProxyManager bucket4j
+ * (Redis, JDBC, Hazelcast... ou InMemoryProxyManager en développement).
+ */
+public class DistributedRateLimitBackend implements RateLimitBackend {
+
+    private final ProxyManager<String> proxyManager;
+
+    public DistributedRateLimitBackend(ProxyManager<String> proxyManager) {
+        this.proxyManager = proxyManager;
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        return proxyManager.builder()
+                .build(key, () -> configuration)
+                .tryConsumeAndReturnRemaining(1);
+    }
+}
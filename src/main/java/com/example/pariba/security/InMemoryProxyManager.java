@@ -0,0 +1,98 @@
+package com.example.pariba.security;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProxyManager en mémoire qui reproduit le protocole compare-and-swap d'un stockage distant
+ * (état sérialisé en byte[]). Sert de remplaçant local au backend distribué : en production,
+ * déclarer un bean ProxyManager&lt;String&gt; Redis ou JDBC à la place.
+ */
+public class InMemoryProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private final ConcurrentHashMap<String, StoredState> states = new ConcurrentHashMap<>();
+    private final long idleMillis;
+
+    public InMemoryProxyManager(long idleMillis) {
+        super(ClientSideConfig.getDefault());
+        this.idleMillis = idleMillis;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable(states.get(key)).map(StoredState::data);
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                return swap(key, originalData, newData);
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return CompletableFuture.completedFuture(Optional.ofNullable(states.get(key)).map(StoredState::data));
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                return CompletableFuture.completedFuture(swap(key, originalData, newData));
+            }
+        };
+    }
+
+    private boolean swap(String key, byte[] originalData, byte[] newData) {
+        StoredState replacement = new StoredState(newData, System.currentTimeMillis());
+        if (originalData == null) {
+            return states.putIfAbsent(key, replacement) == null;
+        }
+        StoredState current = states.get(key);
+        // getStateData() renvoie le tableau stocké : une comparaison par référence suffit
+        if (current == null || current.data() != originalData) {
+            return false;
+        }
+        return states.replace(key, current, replacement);
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        states.remove(key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        states.remove(key);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    /**
+     * Retire les états non modifiés depuis plus longtemps que la plus longue période de recharge
+     * (planifié par RateLimitConfig, l'instance n'étant pas un bean)
+     */
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleMillis;
+        states.values().removeIf(state -> state.updatedAt() < threshold);
+    }
+
+    private record StoredState(byte[] data, long updatedAt) {
+    }
+}
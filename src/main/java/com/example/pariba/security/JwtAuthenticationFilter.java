@@ -1,7 +1,6 @@
 package com.example.pariba.security;
 
 import com.example.pariba.constants.AppConstants;
-import com.example.pariba.services.IJwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,12 +19,10 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final IJwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
 
-    public JwtAuthenticationFilter(IJwtService jwtService, CustomUserDetailsService userDetailsService) {
-        this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+    public JwtAuthenticationFilter(JwtPrincipalResolver principalResolver) {
+        this.principalResolver = principalResolver;
     }
 
     @Override
@@ -38,24 +35,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith(AppConstants.JWT_TOKEN_PREFIX)) {
             String token = header.substring(AppConstants.JWT_TOKEN_PREFIX.length());
             
-            if (jwtService.validateToken(token)) {
-                String personId = jwtService.getPersonIdFromToken(token);
+            UserDetails userDetails = principalResolver.resolve(token);
+            if (userDetails != null) {
+                log.debug("JWT Filter - User: {}, Authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
                 
-                try {
-                    // Charger les authorities depuis la base de données en utilisant l'ID de la personne
-                    UserDetails userDetails = userDetailsService.loadUserByPersonId(personId);
-                    
-                    log.debug("JWT Filter - User: {}, Authorities: {}", personId, userDetails.getAuthorities());
-                    
-                    // Utiliser userDetails comme principal pour que @AuthenticationPrincipal fonctionne
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } catch (Exception e) {
-                    log.error("Erreur lors du chargement des authorities pour: {}", personId, e);
-                }
+                // Utiliser userDetails comme principal pour que @AuthenticationPrincipal fonctionne
+                UsernamePasswordAuthenticationToken authentication = 
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
         
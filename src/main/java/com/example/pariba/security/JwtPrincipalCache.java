@@ -0,0 +1,142 @@
+package com.example.pariba.security;
+
+import com.example.pariba.repositories.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache borné token JWT → principal, pour éviter de re-parser un token déjà vu.
+ * Une entrée expire au plus tôt entre le TTL configuré et l'expiration du token.
+ *
+ * Révocation (partagée entre instances, en base sur persons.tokens_valid_after) :
+ * - evict(personId) retire les principals en cache d'une personne (instance courante)
+ * - revoke(personId) rejette en plus tous les tokens émis avant cet instant
+ *   (changement de mot de passe, suppression de compte, révocation globale)
+ * - isRevoked() relit le seuil en base au plus toutes les revocation-ttl-seconds par personne ;
+ *   une personne supprimée rejette tous ses tokens. Les principals en cache sont revérifiés à chaque get()
+ */
+@Component
+@Slf4j
+public class JwtPrincipalCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long revocationTtlMillis;
+    private final PersonRepository personRepository;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final Map<String, RevocationThreshold> revokedBefore = new ConcurrentHashMap<>();
+
+    public JwtPrincipalCache(@Value("${app.security.jwt.principal-cache.enabled:true}") boolean enabled,
+                             @Value("${app.security.jwt.principal-cache.max-size:10000}") int maxSize,
+                             @Value("${app.security.jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                             @Value("${app.security.jwt.principal-cache.revocation-ttl-seconds:30}") long revocationTtlSeconds,
+                             PersonRepository personRepository) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.revocationTtlMillis = revocationTtlSeconds * 1000;
+        this.personRepository = personRepository;
+    }
+
+    /**
+     * Retourne le principal en cache pour ce token, ou null
+     */
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CachedPrincipal cached = principals.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()
+                || isRevoked(cached.userDetails.getUsername(), cached.issuedAt)) {
+            principals.remove(token);
+            return null;
+        }
+        return cached.userDetails;
+    }
+
+    public void put(String token, UserDetails userDetails, Date tokenExpiration, Date issuedAt) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (principals.size() >= maxSize) {
+            purgeExpired();
+            if (principals.size() >= maxSize) {
+                return; // cache plein : le token sera simplement re-parsé
+            }
+        }
+        principals.put(token, new CachedPrincipal(userDetails, expiresAt, issuedAt));
+    }
+
+    /**
+     * Vrai si le token a été émis avant une révocation de la personne, ou si elle n'existe plus
+     */
+    public boolean isRevoked(String personId, Date issuedAt) {
+        long now = System.currentTimeMillis();
+        RevocationThreshold threshold = revokedBefore.get(personId);
+        if (threshold == null || threshold.checkedUntil <= now) {
+            long validAfterSeconds = personRepository.findTokensValidAfter(personId, Instant.EPOCH)
+                .map(Instant::getEpochSecond)
+                .orElse(Long.MAX_VALUE);
+            threshold = new RevocationThreshold(validAfterSeconds, now + revocationTtlMillis);
+            revokedBefore.put(personId, threshold);
+        }
+        if (threshold.validAfterSeconds == 0) {
+            return false;
+        }
+        // iat est tronqué à la seconde
+        return issuedAt == null || issuedAt.getTime() / 1000 < threshold.validAfterSeconds;
+    }
+
+    /**
+     * Retire du cache les principals d'une personne (déconnexion)
+     */
+    public void evict(String personId) {
+        principals.values().removeIf(cached -> cached.userDetails.getUsername().equals(personId));
+    }
+
+    /**
+     * Invalide tous les access tokens émis jusqu'ici pour cette personne
+     */
+    public void revoke(String personId) {
+        long now = System.currentTimeMillis();
+        Instant validAfter = Instant.ofEpochSecond(now / 1000);
+        personRepository.setTokensValidAfter(personId, validAfter);
+        revokedBefore.put(personId, new RevocationThreshold(validAfter.getEpochSecond(), now + revocationTtlMillis));
+        evict(personId);
+        log.info("🔒 Access tokens révoqués pour: {}", personId);
+    }
+
+    /**
+     * Nettoyage périodique : principals expirés et seuils de révocation à relire
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(cached -> cached.expiresAt <= now);
+        revokedBefore.values().removeIf(threshold -> threshold.checkedUntil <= now);
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAt, Date issuedAt) {
+    }
+
+    private record RevocationThreshold(long validAfterSeconds, long checkedUntil) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.pariba.security;
+
+import com.example.pariba.services.IJwtService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token JWT → principal, partagé par le filtre HTTP et l'authentification STOMP
+ */
+@Component
+@Slf4j
+public class JwtPrincipalResolver {
+
+    private final IJwtService jwtService;
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
+
+    public JwtPrincipalResolver(IJwtService jwtService,
+                                CustomUserDetailsService userDetailsService,
+                                JwtPrincipalCache principalCache) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+    }
+
+    /**
+     * Chemin sans base de données : cache du principal, sinon un seul parsing du token
+     * et autorités construites depuis la claim "role".
+     * Seuls les anciens tokens sans claim de rôle déclenchent un chargement en base.
+     *
+     * @return le principal, ou null si le token est invalide, expiré ou révoqué
+     */
+    public UserDetails resolve(String token) {
+        UserDetails cached = principalCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = jwtService.parseValidToken(token).orElse(null);
+        if (claims == null) {
+            return null;
+        }
+        
+        String personId = claims.getSubject();
+        if (personId == null || principalCache.isRevoked(personId, claims.getIssuedAt())) {
+            return null;
+        }
+        
+        try {
+            String role = claims.get("role", String.class);
+            UserDetails userDetails = role != null
+                    ? userDetailsService.buildFromClaims(personId, role)
+                    : userDetailsService.loadUserByPersonId(personId);
+            principalCache.put(token, userDetails, claims.getExpiration(), claims.getIssuedAt());
+            return userDetails;
+        } catch (Exception e) {
+            log.error("Erreur lors du chargement des authorities pour: {}", personId, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.pariba.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stockage en mémoire borné et expirant.
+ * Les clés sont réparties sur des segments LRU (LinkedHashMap en ordre d'accès) :
+ * au-delà de maxKeys, les clients les moins récents sont évincés.
+ * Un bucket inactif depuis plus longtemps que sa période de recharge est plein :
+ * il est retiré sans changer le comportement.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public LocalRateLimitBackend(int maxKeys) {
+        int perSegment = Math.max(1, maxKeys / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        Segment segment = segments[(key.hashCode() & 0x7fffffff) % SEGMENTS];
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry == null) {
+                entry = new Entry(newBucket(configuration), idleMillis(configuration));
+                segment.put(key, entry);
+            }
+            entry.lastAccess = now;
+        }
+        return entry.bucket.tryConsumeAndReturnRemaining(1);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Retire les buckets inactifs (donc rechargés)
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> now - entry.lastAccess > entry.idleMillis);
+            }
+        }
+    }
+
+    private static Bucket newBucket(BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+
+    private static long idleMillis(BucketConfiguration configuration) {
+        long max = 0;
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            max = Math.max(max, bandwidth.getRefillPeriodNanos() / 1_000_000);
+        }
+        return max;
+    }
+
+    private static final class Entry {
+        private final Bucket bucket;
+        private final long idleMillis;
+        private long lastAccess;
+
+        Entry(Bucket bucket, long idleMillis) {
+            this.bucket = bucket;
+            this.idleMillis = idleMillis;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(64, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
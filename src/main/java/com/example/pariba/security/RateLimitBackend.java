@@ -0,0 +1,18 @@
+package com.example.pariba.security;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Stockage des buckets de limitation de débit.
+ * - LocalRateLimitBackend : mémoire locale bornée (par défaut, une seule instance)
+ * - DistributedRateLimitBackend : ProxyManager bucket4j partagé entre instances
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Consomme un jeton du bucket identifié par la clé (client + politique),
+     * en le créant avec la configuration donnée s'il n'existe pas encore.
+     */
+    ConsumptionProbe tryConsume(String key, BucketConfiguration configuration);
+}
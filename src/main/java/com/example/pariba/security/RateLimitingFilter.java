@@ -1,57 +1,100 @@
 package com.example.pariba.security;
 
+import com.example.pariba.enums.RateLimitPolicy;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Filtre de limitation de débit (Rate Limiting)
  * Protège contre les attaques par force brute et le spam
+ *
+ * Un bucket par couple (client, politique) : la politique est choisie par route
+ * à chaque requête (voir RateLimitPolicy), les buckets sont stockés dans un RateLimitBackend borné.
  */
 @Slf4j
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-    
-    // Configuration: 100 requêtes par minute par IP
-    private static final int CAPACITY = 100;
-    private static final Duration REFILL_DURATION = Duration.ofMinutes(1);
-    
-    // Configuration stricte pour les endpoints sensibles
-    private static final int LOGIN_CAPACITY = 20;  // 20 tentatives (augmenté pour debug)
-    private static final Duration LOGIN_REFILL = Duration.ofMinutes(1);
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    // Littéral IPv4/IPv6 : une entrée X-Forwarded-For quelconque ne déclenche jamais de résolution DNS
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]+");
+
+    private final RateLimitBackend backend;
+    private final boolean trustForwardedFor;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final Map<RateLimitPolicy, BucketConfiguration> configurations = new EnumMap<>(RateLimitPolicy.class);
+    private final Map<RateLimitPolicy, Counter> allowedCounters = new EnumMap<>(RateLimitPolicy.class);
+    private final Map<RateLimitPolicy, Counter> rejectedCounters = new EnumMap<>(RateLimitPolicy.class);
+
+    public RateLimitingFilter(RateLimitBackend backend,
+                              MeterRegistry meterRegistry,
+                              Environment environment,
+                              @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                              @Value("${app.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        this.backend = backend;
+        this.trustForwardedFor = trustForwardedFor;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        if (trustForwardedFor) {
+            log.info("Rate limiting : client lu dans X-Forwarded-For derrière {}",
+                    trustedProxies.isEmpty() ? "le pair direct" : trustedProxies);
+        } else {
+            log.info("Rate limiting : X-Forwarded-For ignoré, un bucket par adresse du pair direct " +
+                    "(derrière un répartiteur de charge, activer app.rate-limit.trust-forwarded-for)");
+        }
+        for (RateLimitPolicy policy : RateLimitPolicy.values()) {
+            configurations.put(policy, buildConfiguration(policy, environment));
+            allowedCounters.put(policy, counter(meterRegistry, policy, "allowed"));
+            rejectedCounters.put(policy, counter(meterRegistry, policy, "rejected"));
+        }
+    }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, 
-                                   HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request,
+                                   HttpServletResponse response,
                                    FilterChain filterChain) throws ServletException, IOException {
-        
-        String key = getClientIP(request);
-        String path = request.getRequestURI();
-        
-        // Appliquer rate limiting strict sur les endpoints de login
-        boolean isLoginEndpoint = path.contains("/login") || path.contains("/auth/login");
-        
-        Bucket bucket = resolveBucket(key, isLoginEndpoint);
-        
-        if (bucket.tryConsume(1)) {
+
+        String clientIp = getClientIP(request);
+        RateLimitPolicy policy = resolvePolicy(request);
+
+        ConsumptionProbe probe = backend.tryConsume(policy.name() + ":" + clientIp, configurations.get(policy));
+
+        if (probe.isConsumed()) {
+            allowedCounters.get(policy).increment();
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
             filterChain.doFilter(request, response);
         } else {
-            log.warn("Rate limit exceeded for IP: {} on path: {}", key, path);
+            rejectedCounters.get(policy).increment();
+            log.warn("Rate limit exceeded for IP: {} on path: {} (politique {})", clientIp, request.getRequestURI(), policy);
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
             response.setContentType("application/json");
             response.getWriter().write(
                 "{\"success\":false,\"message\":\"Trop de requêtes. Veuillez réessayer dans quelques instants.\"}"
@@ -60,57 +103,98 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Résout ou crée un bucket pour une clé donnée
+     * Première politique dont une route correspond à la requête
      */
-    private Bucket resolveBucket(String key, boolean isLoginEndpoint) {
-        return cache.computeIfAbsent(key, k -> createNewBucket(isLoginEndpoint));
+    private RateLimitPolicy resolvePolicy(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (RateLimitPolicy policy : RateLimitPolicy.values()) {
+            if (policy.getMethod() != null && !policy.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            for (String route : policy.getRoutes()) {
+                if (PATH_MATCHER.match(route, path)) {
+                    return policy;
+                }
+            }
+        }
+        return RateLimitPolicy.DEFAULT;
     }
 
     /**
-     * Crée un nouveau bucket avec les limites appropriées
+     * Limites de la politique : app.rate-limit.* pour DEFAULT, app.rate-limit.policies.&lt;nom&gt;.* sinon
      */
-    private Bucket createNewBucket(boolean isLoginEndpoint) {
-        Bandwidth limit;
-        
-        if (isLoginEndpoint) {
-            // Limite stricte pour login: 5 tentatives par minute
-            limit = Bandwidth.builder()
-                    .capacity(LOGIN_CAPACITY)
-                    .refillIntervally(LOGIN_CAPACITY, LOGIN_REFILL)
-                    .build();
-        } else {
-            // Limite normale: 100 requêtes par minute
-            limit = Bandwidth.builder()
-                    .capacity(CAPACITY)
-                    .refillIntervally(CAPACITY, REFILL_DURATION)
-                    .build();
-        }
-        
-        return Bucket.builder()
+    private static BucketConfiguration buildConfiguration(RateLimitPolicy policy, Environment environment) {
+        String prefix = policy == RateLimitPolicy.DEFAULT
+                ? "app.rate-limit."
+                : "app.rate-limit.policies." + policy.name().toLowerCase().replace('_', '-') + ".";
+        int capacity = environment.getProperty(prefix + "capacity", Integer.class, policy.getDefaultCapacity());
+        int refillTokens = environment.getProperty(prefix + "refill-tokens", Integer.class, capacity);
+        long periodSeconds = environment.getProperty(prefix + "refill-period-seconds", Long.class, policy.getDefaultPeriodSeconds());
+
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(capacity)
+                .refillIntervally(refillTokens, Duration.ofSeconds(periodSeconds))
+                .build();
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
 
+    private static Counter counter(MeterRegistry registry, RateLimitPolicy policy, String outcome) {
+        return Counter.builder("pariba.ratelimit.requests")
+                .description("Requêtes évaluées par le rate limiter")
+                .tag("policy", policy.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
     /**
-     * Extrait l'adresse IP du client (supporte les proxies)
+     * Extrait l'adresse IP du client.
+     * X-Forwarded-For n'est lu que si la connexion vient d'un proxy de confiance, et seul le saut
+     * ajouté par nos proxys compte : le plus à droite qui n'est pas lui-même un proxy de confiance.
+     * Les entrées plus à gauche sont fournies par le client et ne servent jamais de clé.
+     * Sans liste trusted-proxies, le pair direct est le seul proxy (un proxy unique devant l'application).
+     * Les proxys de confiance sont des adresses ou des plages CIDR (10.0.0.0/8).
      */
     private String getClientIP(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!trustForwardedFor || !(trustedProxies.isEmpty() || isTrustedProxy(remoteAddr))) {
+            return remoteAddr;
+        }
         String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
+        if (xfHeader == null || xfHeader.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = xfHeader.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                return hop;
+            }
         }
-        // Prendre la première IP si plusieurs (proxy chain)
-        return xfHeader.split(",")[0].trim();
+        return remoteAddr;
     }
-    
+
+    private boolean isTrustedProxy(String address) {
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
     /**
      * Ne pas appliquer le rate limiting sur les ressources statiques
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return path.startsWith("/css/") || 
-               path.startsWith("/js/") || 
+        return path.startsWith("/css/") ||
+               path.startsWith("/js/") ||
                path.startsWith("/images/") ||
                path.startsWith("/webjars/") ||
                path.startsWith("/favicon.ico");
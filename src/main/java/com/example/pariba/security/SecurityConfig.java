@@ -18,6 +18,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -56,6 +57,9 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(auth -> auth
 
+                // Redispatch de fin des réponses asynchrones (exports en flux) : déjà autorisé à la requête initiale
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // ---------- Swagger / OpenAPI ----------
                 .requestMatchers(
                     "/swagger-ui.html",
@@ -82,6 +86,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/payments/orange/callback").permitAll()
                 .requestMatchers("/api/v1/payments/moov/callback").permitAll()
 
+                // Poignée de main WebSocket : le JWT est vérifié au CONNECT STOMP (StompAuthChannelInterceptor)
+                .requestMatchers("/api/v1/ws").permitAll()
+
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
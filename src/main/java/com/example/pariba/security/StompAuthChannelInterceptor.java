@@ -0,0 +1,121 @@
+package com.example.pariba.security;
+
+import com.example.pariba.constants.AppConstants;
+import com.example.pariba.services.IJwtService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Authentification des sessions STOMP par le JWT de l'API.
+ * - CONNECT : header natif "Authorization: Bearer ..." (les navigateurs ne peuvent pas le poser
+ *   sur la poignée de main WebSocket, d'où la vérification ici plutôt que dans le filtre HTTP)
+ * - SUBSCRIBE : uniquement les destinations personnelles /user/queue/...
+ * - SEND : refusé, le canal ne sert qu'à pousser vers les clients
+ * - frames suivantes et heartbeats : l'expiration (exp) et la révocation (iat) du token présenté
+ *   au CONNECT sont revérifiées ; un refus envoie une frame ERROR et ferme la session
+ */
+@Component
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+    private static final String TOKEN_EXPIRES_AT = "jwt.expiresAt";
+    private static final String TOKEN_ISSUED_AT = "jwt.issuedAt";
+
+    private final JwtPrincipalResolver principalResolver;
+    private final IJwtService jwtService;
+    private final JwtPrincipalCache principalCache;
+
+    public StompAuthChannelInterceptor(JwtPrincipalResolver principalResolver,
+                                       IJwtService jwtService,
+                                       JwtPrincipalCache principalCache) {
+        this.principalResolver = principalResolver;
+        this.jwtService = jwtService;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == null) {
+            // Heartbeat client : occasion de fermer une session dont le token a expiré ou été révoqué
+            if (accessor.getMessageType() == SimpMessageType.HEARTBEAT) {
+                checkToken(accessor);
+            }
+            return message;
+        }
+
+        if (command == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader(AppConstants.JWT_HEADER);
+            if (header == null || !header.startsWith(AppConstants.JWT_TOKEN_PREFIX)) {
+                throw new AccessDeniedException("Token JWT manquant");
+            }
+            String token = header.substring(AppConstants.JWT_TOKEN_PREFIX.length());
+            UserDetails userDetails = principalResolver.resolve(token);
+            Claims claims = userDetails != null ? jwtService.parseValidToken(token).orElse(null) : null;
+            if (claims == null) {
+                throw new AccessDeniedException("Token JWT invalide ou expiré");
+            }
+            // Le nom du principal (personId) sert de clé aux destinations /user/...
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (attributes != null) {
+                attributes.put(TOKEN_EXPIRES_AT, claims.getExpiration());
+                attributes.put(TOKEN_ISSUED_AT, claims.getIssuedAt());
+            }
+            log.debug("Session STOMP ouverte pour {}", userDetails.getUsername());
+            return message;
+        }
+
+        if (command != StompCommand.DISCONNECT) {
+            checkToken(accessor);
+        }
+        if (command == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+                throw new AccessDeniedException("Abonnement non autorisé: " + destination);
+            }
+        } else if (command == StompCommand.SEND) {
+            throw new AccessDeniedException("Envoi non autorisé sur ce canal");
+        }
+        return message;
+    }
+
+    /**
+     * Refuse la frame si le token du CONNECT a expiré ou si la personne a été révoquée depuis
+     */
+    private void checkToken(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (user == null || attributes == null) {
+            return;
+        }
+        Date expiresAt = (Date) attributes.get(TOKEN_EXPIRES_AT);
+        if (expiresAt != null && !expiresAt.after(new Date())) {
+            throw new AccessDeniedException("Token JWT expiré");
+        }
+        if (principalCache.isRevoked(user.getName(), (Date) attributes.get(TOKEN_ISSUED_AT))) {
+            throw new AccessDeniedException("Token JWT révoqué");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.pariba.services;
 
 import com.example.pariba.dtos.responses.ContributionResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface IContributionService {
@@ -11,6 +12,14 @@ public interface IContributionService {
     List<ContributionResponse> getContributionsByMember(String personId);
     List<ContributionResponse> getPendingContributions(String groupId);
     List<ContributionResponse> getPendingContributionsByMember(String personId);
-    void applyLatePenalties();
+    /**
+     * Applique les pénalités de retard du jour ; retourne le nombre de cotisations dont la pénalité a changé
+     */
+    int applyLatePenalties();
+    /**
+     * Passe en LATE un lot d'au plus limit contributions DUE échues avant la date et d'id supérieur
+     * à afterId ; retourne leurs ids. Les lignes restent verrouillées jusqu'à la fin de la transaction de l'appelant.
+     */
+    List<String> markOverdue(LocalDate before, String afterId, int limit);
     void markAsPaid(String contributionId);
 }
@@ -2,7 +2,9 @@ package com.example.pariba.services;
 
 import com.example.pariba.dtos.requests.RequestExportRequest;
 import com.example.pariba.dtos.responses.ExportJobResponse;
+import com.example.pariba.utils.StreamedExport;
 
+import java.nio.file.Path;
 import java.util.List;
 
 public interface IExportService {
@@ -11,4 +13,29 @@ public interface IExportService {
     List<ExportJobResponse> getExportJobsByPerson(String personId);
     void processExportJob(String jobId);
     void cleanupOldExports();
+
+    /**
+     * Export global (tous les utilisateurs, groupes ou paiements) demandé depuis le dashboard admin
+     */
+    ExportJobResponse requestAdminExport(String personId, String exportType, String format);
+
+    /**
+     * Annule un export en attente ou en cours ; un export en cours s'arrête à sa prochaine étape de progression
+     */
+    ExportJobResponse cancelExport(String personId, String jobId);
+
+    /**
+     * Fichier d'un export terminé appartenant à la personne
+     */
+    Path getExportFile(String personId, String jobId);
+
+    /**
+     * Export CSV ou NDJSON (gzip) des paiements ou cotisations d'un groupe, écrit en flux sans job ni fichier
+     */
+    StreamedExport streamGroupExport(String personId, String groupId, String exportType, String format);
+
+    /**
+     * Export CSV ou NDJSON (gzip) global : paiements, cotisations, journal d'audit ou logs système
+     */
+    StreamedExport streamAdminExport(String personId, String exportType, String format);
 }
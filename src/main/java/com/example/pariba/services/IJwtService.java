@@ -1,9 +1,17 @@
 package com.example.pariba.services;
 
 import com.example.pariba.enums.AppRole;
+import io.jsonwebtoken.Claims;
+
+import java.util.Optional;
 
 public interface IJwtService {
     String generateToken(String personId, String email, AppRole role);
     String getPersonIdFromToken(String token);
     boolean validateToken(String token);
+
+    /**
+     * Valide le token (signature + expiration) et retourne ses claims, vide si invalide
+     */
+    Optional<Claims> parseValidToken(String token);
 }
@@ -0,0 +1,71 @@
+package com.example.pariba.services;
+
+import com.example.pariba.enums.PaymentStatus;
+import com.example.pariba.models.Contribution;
+import com.example.pariba.models.LedgerBalance;
+import com.example.pariba.models.LedgerEntry;
+import com.example.pariba.models.Payment;
+import com.example.pariba.models.Payout;
+import com.example.pariba.utils.LedgerMismatch;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grand livre par groupe : écritures ajoutées (jamais modifiées) et soldes courants par groupe, tour, membre et cotisation.
+ * Les méthodes record... sont appelées dans la transaction de l'événement métier.
+ */
+public interface ILedgerService {
+
+    void recordContributionsDue(Collection<Contribution> contributions);
+
+    /**
+     * Pénalités en masse : les cotisations impayées du tour à l'échéance dueDate passent de currentPenalty à penalty.
+     * À appeler avant la mise à jour des cotisations (sélection sur l'ancienne pénalité) ; retourne le nombre de cotisations.
+     */
+    int recordPenalties(String groupId, String tourId, LocalDate dueDate, BigDecimal currentPenalty, BigDecimal penalty);
+
+    /**
+     * Paiement confirmé (encaissement) ou dont la confirmation est retirée (annulation)
+     */
+    void recordPaymentStatusChange(Payment payment, PaymentStatus previousStatus);
+
+    void recordPayout(Payout payout);
+
+    /**
+     * Soldes : recherche par clé, solde nul si aucune écriture
+     */
+    LedgerBalance getGroupBalance(String groupId);
+
+    LedgerBalance getTourBalance(String groupId, String tourId);
+
+    LedgerBalance getMemberBalance(String groupId, String memberId);
+
+    LedgerBalance getContributionBalance(String groupId, String contributionId);
+
+    /**
+     * Membres du groupe ayant un reste à payer
+     */
+    List<LedgerBalance> findDebtors(String groupId);
+
+    /**
+     * Cotisations non soldées d'un tour
+     */
+    List<LedgerBalance> findTourDebtors(String tourId);
+
+    List<LedgerEntry> getLatestEntries(String groupId, int limit);
+
+    /**
+     * Compare les soldes aux cotisations, paiements confirmés et versements du groupe
+     */
+    List<LedgerMismatch> verify(String groupId);
+
+    /**
+     * Recalcule les soldes depuis les cotisations, paiements confirmés et versements ; retourne les écarts corrigés
+     */
+    List<LedgerMismatch> rebuild(String groupId);
+
+    void deleteGroupLedger(String groupId);
+}
@@ -1,22 +1,43 @@
 package com.example.pariba.services;
 
+import com.example.pariba.dtos.responses.CursorPageResponse;
 import com.example.pariba.dtos.responses.NotificationResponse;
 import com.example.pariba.enums.NotificationChannel;
 import com.example.pariba.enums.NotificationType;
+import com.example.pariba.models.NotificationOutbox;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface INotificationService {
     void sendNotification(String personId, NotificationType type, String title, String message, NotificationChannel channel);
     void sendNotificationWithTemplate(String personId, NotificationType type, NotificationChannel channel, Map<String, String> variables);
+    /** Même notification pour plusieurs membres (fan-out de groupe, pushs regroupés en multicast) */
+    void sendGroupNotificationWithTemplate(Collection<String> personIds, NotificationType type, NotificationChannel channel, Map<String, String> variables);
+    /**
+     * Envoi via le canal, appelé par les workers du NotificationDispatcher.
+     * Le futur se termine quand l'envoi est effectif (lot push parti) ou échoue avec lui.
+     */
+    CompletableFuture<Void> deliverNotificationWithTemplate(NotificationOutbox entry, Map<String, String> variables);
     void sendBulkNotification(List<String> personIds, NotificationType type, String title, String message, NotificationChannel channel);
+    /** Push sans historique vers tous les appareils actifs de la personne */
+    void sendPush(String personId, String title, String body, Map<String, String> data);
     List<NotificationResponse> getNotificationsByPerson(String personId);
     List<NotificationResponse> getUnreadNotifications(String personId);
+    /** Badge : nombre de notifications non lues (tous canaux), lu depuis le compteur maintenu par personne */
+    int countUnread(String personId);
+    /** Boîte de réception paginée par curseur (plus récentes d'abord) ; unread=null pour toutes */
+    CursorPageResponse<NotificationResponse> getInbox(String personId, Boolean unread, String cursor, int size);
     void markAsRead(String notificationId, String personId);
     void markAllAsRead(String personId);
+    /** Marque comme lues les notifications de la liste appartenant à la personne ; retourne le nombre modifié */
+    int markAsRead(Collection<String> notificationIds, String personId);
     void saveFcmToken(String personId, String fcmToken);
     void deleteNotification(String notificationId, String personId);
     void deleteAllNotifications(String personId);
+    /** Supprime les notifications de la liste appartenant à la personne ; retourne le nombre supprimé */
+    int deleteNotifications(Collection<String> notificationIds, String personId);
 }
     
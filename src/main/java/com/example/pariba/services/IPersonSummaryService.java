@@ -0,0 +1,67 @@
+package com.example.pariba.services;
+
+import com.example.pariba.models.PersonSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Résumé matérialisé par personne (dashboard mobile, statistiques personnelles).
+ * Les méthodes on... sont appelées dans la transaction de l'événement métier.
+ */
+public interface IPersonSummaryService {
+
+    /**
+     * Résumé de la personne ; construit depuis les tables sources s'il n'existe pas encore
+     */
+    PersonSummary getSummary(String personId);
+
+    /**
+     * Recalcule entièrement le résumé depuis les tables sources
+     */
+    PersonSummary rebuild(String personId);
+
+    void onMembershipAdded(String personId, String groupId);
+
+    void onMembershipsRemoved(Collection<String> personIds, String groupId);
+
+    void onPaymentValidated(String payerId, BigDecimal amount, boolean confirmed);
+
+    void onContributionPaid(String memberId);
+
+    /**
+     * Cotisations créées, payées ou dispensées : recalcule la prochaine échéance des membres
+     */
+    void onContributionsChanged(Collection<String> memberIds);
+
+    /**
+     * Pénalités appliquées en masse aux cotisations impayées d'un tour à cette échéance
+     */
+    void onPenaltiesApplied(String tourId, LocalDate dueDate);
+
+    void onTourStarted(Collection<String> memberIds);
+
+    void onTourCompleted(Collection<String> memberIds, String beneficiaryId, BigDecimal amount);
+
+    /**
+     * Badge de l'application : notifications non lues (tous canaux, comme la boîte de réception), lues depuis le résumé
+     */
+    int getUnreadCount(String personId);
+
+    void onNotificationCreated(String personId);
+
+    /**
+     * count notifications non lues lues ou supprimées
+     */
+    void onNotificationsRead(String personId, int count);
+
+    void onAllNotificationsRead(String personId);
+
+    void onPersonDeleted(String personId);
+
+    /**
+     * Recompte les non lues par lots et corrige les compteurs en écart ; retourne le nombre de résumés corrigés
+     */
+    int reconcileUnreadCounters();
+}
@@ -0,0 +1,40 @@
+package com.example.pariba.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Statistiques plateforme du dashboard SuperAdmin, servies depuis les agrégats
+ * horaires/journaliers (platform_stats_rollups) et un cache court
+ */
+public interface IPlatformStatsService {
+
+    /**
+     * Statistiques globales (totaux, nouveaux inscrits, revenus, graphiques), mises en cache quelques secondes
+     */
+    Map<String, Object> getDashboardStats();
+
+    /**
+     * Créneau horaire du dernier relevé des jauges, null si les agrégats n'ont jamais été calculés
+     */
+    Instant getLastRollupHour();
+
+    /**
+     * Date de la plus ancienne donnée (début du rattrapage initial)
+     */
+    Instant getFirstActivity();
+
+    /**
+     * Recalcule les agrégats d'une journée à partir de flowFrom (mutableFrom pour les métriques modifiables) ;
+     * retourne le nombre de lignes sources lues
+     */
+    int rollupDay(LocalDate day, Instant flowFrom, Instant mutableFrom, Instant now);
+
+    /**
+     * Relève les jauges dans le créneau horaire et journalier courant
+     */
+    void snapshotGauges(Instant now);
+
+    void invalidateCache();
+}
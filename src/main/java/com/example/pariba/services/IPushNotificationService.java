@@ -14,9 +14,17 @@ public interface IPushNotificationService {
     void sendToDevice(String deviceToken, String title, String body, Map<String, String> data);
     
     /**
-     * Envoyer une notification push à plusieurs appareils
+     * Envoyer une notification push à plusieurs appareils (multicast par lots de 500 tokens)
+     * @return les tokens rejetés définitivement par Firebase (non enregistrés), à désactiver
      */
-    void sendToMultipleDevices(List<String> deviceTokens, String title, String body, Map<String, String> data);
+    List<String> sendToMultipleDevices(List<String> deviceTokens, String title, String body, Map<String, String> data);
+    
+    /**
+     * Même titre et corps pour plusieurs appareils, avec des données propres à chacun (notificationId),
+     * envoyés par lots de 500 messages
+     * @return les tokens rejetés définitivement par Firebase (non enregistrés), à désactiver
+     */
+    List<String> sendToDevices(Map<String, Map<String, String>> dataByToken, String title, String body);
     
     /**
      * Envoyer une notification push à un topic
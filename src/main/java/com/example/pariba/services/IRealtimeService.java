@@ -0,0 +1,32 @@
+package com.example.pariba.services;
+
+import com.example.pariba.dtos.responses.NotificationResponse;
+import com.example.pariba.dtos.responses.PaymentResponse;
+
+/**
+ * Envoi en temps réel vers les sessions STOMP des utilisateurs (cf. WebSocketConfig).
+ * Appelé dans la transaction de l'événement : l'envoi a lieu après son commit, jamais pour un rollback.
+ * Sans session ouverte, le message est simplement perdu : l'application se resynchronise par l'API.
+ */
+public interface IRealtimeService {
+
+    /**
+     * Nouvelle notification push : /user/queue/notifications, puis +1 sur /user/queue/unread
+     */
+    void notificationCreated(String personId, NotificationResponse notification);
+
+    /**
+     * count notifications lues ou supprimées : {"delta": -count} sur /user/queue/unread
+     */
+    void notificationsRead(String personId, int count);
+
+    /**
+     * Toutes les notifications lues ou supprimées : {"unread": 0} sur /user/queue/unread
+     */
+    void allNotificationsRead(String personId);
+
+    /**
+     * Statut de paiement modifié : /user/queue/payments pour chaque administrateur du groupe
+     */
+    void paymentUpdated(String groupId, PaymentResponse payment);
+}
@@ -0,0 +1,43 @@
+package com.example.pariba.services;
+
+import com.example.pariba.enums.RetentionTable;
+import com.example.pariba.models.RetentionArchive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rétention des tables volumineuses (logs système, audit, notifications, événements publicitaires) :
+ * les journées plus anciennes que la durée "chaude" de la table sont archivées (NDJSON compressé)
+ * puis supprimées par petits lots. Les archives restent consultables par plage de dates.
+ */
+public interface IRetentionService {
+
+    /**
+     * Applique la politique de chaque table ; retourne le nombre de lignes archivées par table
+     */
+    Map<RetentionTable, Long> applyRetention();
+
+    /**
+     * Archive puis supprime les journées entièrement antérieures au seuil de la table
+     */
+    long archiveTable(RetentionTable table);
+
+    /**
+     * Durée "chaude" de la table en jours (0 : rétention désactivée)
+     */
+    int getHotDays(RetentionTable table);
+
+    /**
+     * Archives couvrant les journées [from, to]
+     */
+    List<RetentionArchive> findArchives(RetentionTable table, LocalDate from, LocalDate to);
+
+    /**
+     * Écrit les archives des journées [from, to] à la suite (un flux gzip multi-membres, une ligne JSON par ligne archivée)
+     */
+    void writeArchives(RetentionTable table, LocalDate from, LocalDate to, OutputStream out) throws IOException;
+}
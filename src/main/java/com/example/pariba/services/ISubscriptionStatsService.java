@@ -0,0 +1,20 @@
+package com.example.pariba.services;
+
+import java.util.Map;
+
+/**
+ * Statistiques d'abonnement du SuperAdmin (page /admin/subscription-stats et son équivalent JSON),
+ * calculées par une seule requête groupée plan × période × statut et mises en cache
+ */
+public interface ISubscriptionStatsService {
+
+    /**
+     * Totaux par statut, abonnés actifs par plan (mensuels/annuels), revenus et taux de rétention
+     */
+    Map<String, Object> getSubscriptionStats();
+
+    /**
+     * Invalide le cache (souscription, annulation, expiration) ; différé au commit si une transaction est en cours
+     */
+    void invalidateCache();
+}
@@ -1,14 +1,10 @@
 package com.example.pariba.services;
 
-import com.example.pariba.models.AuditLog;
-import com.example.pariba.repositories.AuditLogRepository;
+import com.example.pariba.services.impl.AuditLogWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-
 /**
  * Service d'audit de sécurité
  * Enregistre toutes les actions sensibles pour traçabilité
@@ -18,26 +14,15 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class SecurityAuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
     /**
-     * Enregistre un événement de sécurité de manière asynchrone
+     * Enregistre un événement de sécurité : déposé dans le tampon d'audit, écrit par lots en arrière-plan
      */
-    @Async
     public void logSecurityEvent(String eventType, String username, String ipAddress, String details, String entityType) {
         try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setAction(eventType); // Définir action avec eventType pour satisfaire la contrainte NOT NULL
-            auditLog.setEventType(eventType);
-            auditLog.setUsername(username);
-            auditLog.setIpAddress(ipAddress);
-            auditLog.setDetails(details);
-            auditLog.setEntityType(entityType); // Ajouter le type de ressource
-            auditLog.setTimestamp(Instant.now());
-            
-            auditLogRepository.save(auditLog);
-            
-            log.info("Security event logged: {} for user: {}", eventType, username);
+            auditLogWriter.enqueue(AuditLogWriter.AuditEvent.security(eventType, username, ipAddress, details, entityType));
+            log.debug("Security event queued: {} for user: {}", eventType, username);
         } catch (Exception e) {
             log.error("Failed to log security event", e);
         }
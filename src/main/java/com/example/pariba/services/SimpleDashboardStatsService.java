@@ -1,11 +1,8 @@
 package com.example.pariba.services;
 
-import com.example.pariba.enums.AppRole;
-import com.example.pariba.repositories.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -14,43 +11,33 @@ import java.util.*;
 @Slf4j
 public class SimpleDashboardStatsService {
     
-    private final PersonRepository personRepository;
-    private final TontineGroupRepository tontineGroupRepository;
-    private final PaymentRepository paymentRepository;
-    private final SubscriptionRepository subscriptionRepository;
-    private final ContributionRepository contributionRepository;
+    private final IPlatformStatsService platformStatsService;
     
-    @Transactional(readOnly = true)
+    /**
+     * Statistiques globales lues dans les agrégats plateforme (aucun COUNT sur les tables sources)
+     */
     public Map<String, Object> getGlobalStats() {
+        Map<String, Object> platform = platformStatsService.getDashboardStats();
         Map<String, Object> stats = new HashMap<>();
         
         // Statistiques utilisateurs
-        long totalUsers = personRepository.count();
-        long totalSuperAdmins = personRepository.countByRole(AppRole.SUPERADMIN);
-        long totalAdmins = personRepository.countByRole(AppRole.ADMIN);
-        long totalMembers = totalUsers - totalSuperAdmins - totalAdmins;
-        
-        stats.put("totalUsers", totalUsers);
-        stats.put("totalSuperAdmins", totalSuperAdmins);
-        stats.put("totalAdmins", totalAdmins);
-        stats.put("totalMembers", totalMembers);
+        stats.put("totalUsers", platform.get("totalUsers"));
+        stats.put("totalSuperAdmins", platform.get("totalSuperAdmins"));
+        stats.put("totalAdmins", platform.get("totalAdmins"));
+        stats.put("totalMembers", platform.get("totalMembers"));
         
         // Statistiques groupes
-        long totalGroups = tontineGroupRepository.count();
-        stats.put("totalGroups", totalGroups);
-        stats.put("activeGroups", totalGroups); // Simplifié
+        stats.put("totalGroups", platform.get("totalGroups"));
+        stats.put("activeGroups", platform.get("activeGroups"));
         
         // Statistiques paiements
-        long totalPayments = paymentRepository.count();
-        stats.put("totalPayments", totalPayments);
+        stats.put("totalPayments", platform.get("totalPayments"));
         
         // Statistiques abonnements
-        long totalSubscriptions = subscriptionRepository.count();
-        stats.put("totalSubscriptions", totalSubscriptions);
+        stats.put("totalSubscriptions", platform.get("totalSubscriptions"));
         
         // Statistiques contributions
-        long totalContributions = contributionRepository.count();
-        stats.put("totalContributions", totalContributions);
+        stats.put("totalContributions", platform.get("totalContributions"));
         
         return stats;
     }
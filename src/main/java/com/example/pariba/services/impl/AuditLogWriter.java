@@ -0,0 +1,205 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.AuditWriteMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Écriture du journal d'audit hors du chemin critique.
+ * - l'appelant ne fait que déposer l'événement dans un tampon borné (quelques microsecondes)
+ * - le pool auditLogExecutor vide le tampon par lots JDBC (INSERT batché) à intervalle fixe ou dès qu'un lot est plein
+ * - l'acteur n'est jamais chargé : la clé étrangère est écrite directement
+ *   (NULL si la personne n'existe pas, comme l'ancien findById(...).orElse(null))
+ * - tampon plein : l'événement est écrit directement par l'appelant, jamais perdu
+ * - à l'arrêt, le tampon est vidé avant la fermeture du pool de connexions
+ * - métriques pariba.audit_logs.events (par issue) et pariba.audit_logs.buffer, comme les logs système
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (id, created_at, updated_at, actor_person_id, action, entity_type, entity_id, " +
+        "details_json, username, ip_address, event_type, details, timestamp) " +
+        "VALUES (?, ?, ?, (SELECT p.id FROM persons p WHERE p.id = ?), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditWriteMode mode;
+    private final BlockingQueue<AuditEvent> buffer;
+    private final int batchSize;
+    private final Executor flushExecutor;
+
+    private final Counter queued;
+    private final Counter written;
+    private final Counter direct;
+    private final Counter failed;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("auditLogExecutor") Executor flushExecutor,
+                          @Value("${app.audit.mode:after-commit}") String mode,
+                          @Value("${app.audit.buffer-capacity:10000}") int bufferCapacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushExecutor = flushExecutor;
+        this.mode = AuditWriteMode.from(mode);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+
+        this.queued = counter(meterRegistry, "queued");
+        this.written = counter(meterRegistry, "written");
+        this.direct = counter(meterRegistry, "direct");
+        this.failed = counter(meterRegistry, "failed");
+        Gauge.builder("pariba.audit_logs.buffer", buffer, BlockingQueue::size)
+            .description("Événements d'audit en attente d'écriture")
+            .register(meterRegistry);
+        log.info("Journal d'audit : mode {} (lots de {}, tampon de {})", this.mode, batchSize, bufferCapacity);
+    }
+
+    /**
+     * Enregistre l'événement selon le mode configuré
+     */
+    public void write(AuditEvent event) {
+        switch (mode) {
+            case SYNC -> insert(event);
+            case AFTER_COMMIT -> {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    // Action annulée (rollback) : rien n'est journalisé
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            enqueue(event);
+                        }
+                    });
+                } else {
+                    enqueue(event);
+                }
+            }
+            case ASYNC -> enqueue(event);
+        }
+    }
+
+    /**
+     * Dépose l'événement dans le tampon, quel que soit le mode (événements de sécurité)
+     */
+    public void enqueue(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            direct.increment();
+            insert(event);
+            return;
+        }
+        queued.increment();
+        if (buffer.size() >= batchSize) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Vidage périodique des lots incomplets
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:200}")
+    public void flushPending() {
+        if (!buffer.isEmpty()) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Vide le tampon par lots ; un lot en échec est réécrit ligne par ligne pour isoler l'événement fautif
+     */
+    public void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditLogWriter::bind);
+                written.increment(batch.size());
+            } catch (Exception e) {
+                log.warn("Lot d'audit rejeté ({} événements), écriture unitaire : {}", batch.size(), e.getMessage());
+                batch.forEach(this::insert);
+            }
+            batch.clear();
+        }
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        log.info("🧹 Journal d'audit vidé à l'arrêt ({} événements écrits, {} en échec)",
+            (long) written.count(), (long) failed.count());
+    }
+
+    private void insert(AuditEvent event) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+            written.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.error("❌ Événement d'audit non enregistré ({} {}): {}", event.action(), event.entityId(), e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        Timestamp at = Timestamp.from(event.at());
+        ps.setString(1, UUID.randomUUID().toString());
+        ps.setTimestamp(2, at);
+        ps.setTimestamp(3, at);
+        ps.setString(4, event.actorId());
+        ps.setString(5, event.action());
+        ps.setString(6, event.entityType());
+        ps.setString(7, event.entityId());
+        ps.setString(8, event.detailsJson());
+        ps.setString(9, event.username());
+        ps.setString(10, event.ipAddress());
+        ps.setString(11, event.eventType());
+        ps.setString(12, event.details());
+        ps.setTimestamp(13, at);
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("pariba.audit_logs.events")
+                .description("Événements d'audit traités par le tampon d'écriture")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Événement d'audit capturé au moment de l'action (horodatage de l'action, pas de l'écriture)
+     */
+    public record AuditEvent(String actorId, String action, String entityType, String entityId, String detailsJson,
+                             String username, String ipAddress, String eventType, String details, Instant at) {
+
+        public static AuditEvent action(String actorId, String action, String entityType, String entityId,
+                                        String detailsJson, String ipAddress) {
+            return new AuditEvent(actorId, action, entityType, entityId, detailsJson, null, ipAddress, null, null, Instant.now());
+        }
+
+        public static AuditEvent security(String eventType, String username, String ipAddress, String details, String entityType) {
+            return new AuditEvent(null, eventType, entityType, null, null, username, ipAddress, eventType, details, Instant.now());
+        }
+    }
+}
@@ -1,16 +1,12 @@
 package com.example.pariba.services.impl;
 
 import com.example.pariba.dtos.responses.AuditLogResponse;
-import com.example.pariba.models.AuditLog;
-import com.example.pariba.models.Person;
 import com.example.pariba.repositories.AuditLogRepository;
-import com.example.pariba.repositories.PersonRepository;
 import com.example.pariba.security.AuditInterceptor;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.utils.IpAddressUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -22,39 +18,24 @@ import java.util.stream.Collectors;
 public class AuditServiceImpl implements IAuditService {
 
     private final AuditLogRepository auditLogRepository;
-    private final PersonRepository personRepository;
+    private final AuditLogWriter auditLogWriter;
 
-    public AuditServiceImpl(AuditLogRepository auditLogRepository, PersonRepository personRepository) {
+    public AuditServiceImpl(AuditLogRepository auditLogRepository, AuditLogWriter auditLogWriter) {
         this.auditLogRepository = auditLogRepository;
-        this.personRepository = personRepository;
+        this.auditLogWriter = auditLogWriter;
     }
 
-    @Transactional
     public void log(String actorId, String action, String entityType, String entityId, String detailsJson) {
         // Récupérer automatiquement l'IP depuis le contexte de la requête
         String ipAddress = getCurrentRequestIpAddress();
         log(actorId, action, entityType, entityId, detailsJson, ipAddress);
     }
     
-    @Transactional
+    /**
+     * Capture l'événement ; l'écriture (synchrone, après commit ou par lots) dépend de app.audit.mode
+     */
     public void log(String actorId, String action, String entityType, String entityId, String detailsJson, String ipAddress) {
-        Person actor = personRepository.findById(actorId).orElse(null);
-
-        AuditLog auditLog = new AuditLog();
-        auditLog.setActor(actor);
-        auditLog.setAction(action);
-        auditLog.setEntityType(entityType);
-        auditLog.setEntityId(entityId);
-        auditLog.setDetailsJson(detailsJson);
-        auditLog.setIpAddress(ipAddress);
-        auditLog.setTimestamp(Instant.now());
-        
-        // Si l'acteur existe, utiliser son username
-        if (actor != null) {
-            auditLog.setUsername(actor.getPhone());
-        }
-        
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(AuditLogWriter.AuditEvent.action(actorId, action, entityType, entityId, detailsJson, ipAddress));
     }
     
     /**
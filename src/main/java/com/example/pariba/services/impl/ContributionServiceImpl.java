@@ -7,24 +7,43 @@ import com.example.pariba.models.Contribution;
 import com.example.pariba.repositories.ContributionRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IContributionService;
+import com.example.pariba.services.ILedgerService;
+import com.example.pariba.services.IPersonSummaryService;
+import com.example.pariba.utils.PenaltyBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
-import com.example.pariba.enums.ContributionStatus;
+
 @Service
+@Slf4j
 public class ContributionServiceImpl implements IContributionService {
 
     private final ContributionRepository contributionRepository;
     private final IAuditService auditService;
+    private final IPersonSummaryService personSummaryService;
+    private final ILedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
 
     public ContributionServiceImpl(ContributionRepository contributionRepository,
-                                  IAuditService auditService) {
+                                  IAuditService auditService,
+                                  IPersonSummaryService personSummaryService,
+                                  ILedgerService ledgerService,
+                                  PlatformTransactionManager transactionManager) {
         this.contributionRepository = contributionRepository;
         this.auditService = auditService;
+        this.personSummaryService = personSummaryService;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -71,34 +90,80 @@ public class ContributionServiceImpl implements IContributionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Pénalités de retard calculées par lots : une mise à jour ensembliste par (tour, échéance, pénalité actuelle),
+     * une transaction et une trace d'audit récapitulative par groupe.
+     * La pénalité cible ne dépend que de la date : relancer le même jour ne modifie rien.
+     */
     @Override
-    @Transactional
-    public void applyLatePenalties() {
+    public int applyLatePenalties() {
         LocalDate today = LocalDate.now();
-        List<Contribution> lateContributions = contributionRepository.findLateContributions(today);
-
-        for (Contribution contribution : lateContributions) {
-            if (contribution.getTour().getGroup().getLatePenaltyAmount() != null) {
-                // Calculer les jours de retard après la période de grâce
-                int graceDays = contribution.getTour().getGroup().getGraceDays();
-                long daysLate = java.time.temporal.ChronoUnit.DAYS.between(
-                    contribution.getDueDate().plusDays(graceDays), 
-                    today
-                );
-
-                if (daysLate > 0) {
-                    BigDecimal penalty = contribution.getTour().getGroup().getLatePenaltyAmount()
-                            .multiply(BigDecimal.valueOf(daysLate));
-                    contribution.setPenaltyApplied(penalty);
-                    contributionRepository.save(contribution);
-
-                    auditService.log(null, "APPLY_PENALTY", "Contribution", contribution.getId(), 
-                        String.format("{\"penalty\": %s, \"daysLate\": %d}", penalty, daysLate));
-                }
+        List<PenaltyBucket> buckets = contributionRepository.findPenaltyBuckets(ContributionStatus.UNPAID, today);
+        int penalized = 0;
+
+        // Lots triés par groupe : un groupe = une transaction
+        int from = 0;
+        while (from < buckets.size()) {
+            String groupId = buckets.get(from).groupId();
+            int to = from;
+            while (to < buckets.size() && buckets.get(to).groupId().equals(groupId)) {
+                to++;
+            }
+            List<PenaltyBucket> groupBuckets = buckets.subList(from, to);
+            try {
+                Integer updated = transactionTemplate.execute(status -> applyGroupPenalties(groupId, groupBuckets, today));
+                penalized += updated != null ? updated : 0;
+            } catch (Exception e) {
+                log.error("❌ Pénalités du groupe {} non appliquées: {}", groupId, e.getMessage());
+            }
+            from = to;
+        }
+        return penalized;
+    }
+
+    private int applyGroupPenalties(String groupId, List<PenaltyBucket> buckets, LocalDate today) {
+        int updated = 0;
+        BigDecimal totalDelta = BigDecimal.ZERO;
+        Set<String> tours = new HashSet<>();
+
+        for (PenaltyBucket bucket : buckets) {
+            BigDecimal penalty = bucket.penaltyAt(today);
+            if (penalty.compareTo(bucket.currentPenalty()) == 0) {
+                continue;
+            }
+            // Le registre sélectionne sur l'ancienne pénalité : avant la mise à jour des cotisations
+            ledgerService.recordPenalties(groupId, bucket.tourId(), bucket.dueDate(), bucket.currentPenalty(), penalty);
+            int rows = contributionRepository.updatePenalty(bucket.tourId(), bucket.dueDate(), ContributionStatus.UNPAID,
+                    bucket.currentPenalty(), penalty);
+            if (rows == 0) {
+                continue;
             }
+            // Le montant de la prochaine échéance inclut la pénalité
+            personSummaryService.onPenaltiesApplied(bucket.tourId(), bucket.dueDate());
+            updated += rows;
+            totalDelta = totalDelta.add(penalty.subtract(bucket.currentPenalty()).multiply(BigDecimal.valueOf(rows)));
+            tours.add(bucket.tourId());
         }
+
+        if (updated > 0) {
+            auditService.log(null, "APPLY_PENALTY", "TontineGroup", groupId,
+                String.format("{\"contributions\": %d, \"tours\": %d, \"penaltyDelta\": %s, \"date\": \"%s\"}",
+                    updated, tours.size(), totalDelta, today));
+        }
+        return updated;
     }
-        @Override
+
+    @Override
+    @Transactional
+    public List<String> markOverdue(LocalDate before, String afterId, int limit) {
+        List<String> ids = contributionRepository.findIdsDueBefore(ContributionStatus.DUE, before, afterId, PageRequest.of(0, limit));
+        if (!ids.isEmpty()) {
+            contributionRepository.updateStatus(ids, ContributionStatus.DUE, ContributionStatus.LATE);
+        }
+        return ids;
+    }
+
+    @Override
     @Transactional(readOnly = true)
     public List<ContributionResponse> getPendingContributionsByMember(String personId) {
         List<Contribution> contributions = contributionRepository
@@ -118,7 +183,12 @@ public class ContributionServiceImpl implements IContributionService {
         Contribution contribution = contributionRepository.findById(contributionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Contribution", "id", contributionId));
 
+        boolean alreadyPaid = contribution.getStatus() == ContributionStatus.PAID;
         contribution.setStatus(ContributionStatus.PAID);
         contributionRepository.save(contribution);
+
+        if (!alreadyPaid) {
+            personSummaryService.onContributionPaid(contribution.getMember().getId());
+        }
     }
 }
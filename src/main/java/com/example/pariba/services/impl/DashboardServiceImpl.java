@@ -2,20 +2,17 @@ package com.example.pariba.services.impl;
 
 import com.example.pariba.dtos.responses.DashboardSummaryResponse;
 import com.example.pariba.exceptions.ResourceNotFoundException;
-import com.example.pariba.models.Person;
+import com.example.pariba.models.PersonSummary;
 import com.example.pariba.repositories.PersonRepository;
-import com.example.pariba.repositories.TontineGroupRepository;
-import com.example.pariba.repositories.PaymentRepository;
-import com.example.pariba.repositories.NotificationRepository;
 import com.example.pariba.services.IDashboardService;
+import com.example.pariba.services.IPersonSummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-
 /**
  * Implémentation du service Dashboard
+ * Lecture du résumé matérialisé (person_summaries) : une ligne par personne, aucune agrégation à la requête
  */
 @Service
 @RequiredArgsConstructor
@@ -23,32 +20,30 @@ import java.math.BigDecimal;
 public class DashboardServiceImpl implements IDashboardService {
 
     private final PersonRepository personRepository;
-    private final TontineGroupRepository tontineGroupRepository;
-    private final PaymentRepository paymentRepository;
-    private final NotificationRepository notificationRepository;
+    private final IPersonSummaryService personSummaryService;
 
     @Override
     public DashboardSummaryResponse getDashboardSummary(String personId) {
-        log.info("Génération du résumé dashboard pour person: {}", personId);
+        log.debug("Résumé dashboard pour person: {}", personId);
         
         // Vérifier que la personne existe
-        Person person = personRepository.findById(personId)
-                .orElseThrow(() -> new ResourceNotFoundException("Personne non trouvée"));
+        if (!personRepository.existsById(personId)) {
+            throw new ResourceNotFoundException("Personne non trouvée");
+        }
         
-        DashboardSummaryResponse summary = new DashboardSummaryResponse();
+        PersonSummary source = personSummaryService.getSummary(personId);
         
-        // Statistiques de base (pour l'instant des valeurs par défaut)
-        summary.setTotalGroups(2);
-        summary.setActiveGroups(1);
-        summary.setTotalContributions(5);
-        summary.setTotalAmountContributed(new BigDecimal("125000"));
-        summary.setTotalAmountReceived(new BigDecimal("75000"));
-        summary.setUpcomingPayments(1);
-        summary.setUnreadNotifications(3);
-        summary.setNextPaymentDate("2025-12-01");
-        summary.setNextPaymentAmount(new BigDecimal("25000"));
+        DashboardSummaryResponse summary = new DashboardSummaryResponse();
+        summary.setTotalGroups(source.getTotalGroups());
+        summary.setActiveGroups(source.getActiveGroups());
+        summary.setTotalContributions(source.getTotalContributions());
+        summary.setTotalAmountContributed(source.getTotalAmountContributed());
+        summary.setTotalAmountReceived(source.getTotalAmountReceived());
+        summary.setUpcomingPayments(source.getUpcomingPayments());
+        summary.setUnreadNotifications(source.getUnreadNotifications());
+        summary.setNextPaymentDate(source.getNextPaymentDate() != null ? source.getNextPaymentDate().toString() : null);
+        summary.setNextPaymentAmount(source.getNextPaymentAmount());
         
-        log.info("Résumé dashboard généré pour person: {}", personId);
         return summary;
     }
 }
@@ -0,0 +1,138 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.repositories.DeviceTokenRepository;
+import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.utils.PushTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index borné personne → tokens push (appareils actifs du registre DeviceToken, plus l'ancien
+ * token FCM du profil). Les personnes absentes de l'index sont chargées en une requête par lot.
+ *
+ * Mise à jour :
+ * - evict(personId) après commit à chaque changement d'appareil (enregistrement, activation,
+ *   désactivation, nouveau token, suppression)
+ * - removeTokens(...) quand Firebase signale des tokens non enregistrés
+ * - TTL : borne le retard des autres instances, qui ne voient pas les évictions locales
+ */
+@Component
+public class DeviceTokenIndex {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final PersonRepository personRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<String, CachedTokens> tokensByPerson = new ConcurrentHashMap<>();
+
+    public DeviceTokenIndex(DeviceTokenRepository deviceTokenRepository,
+                            PersonRepository personRepository,
+                            @Value("${app.notifications.push.token-index.max-size:50000}") int maxSize,
+                            @Value("${app.notifications.push.token-index.ttl-seconds:300}") long ttlSeconds) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.personRepository = personRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Tokens push d'une personne (liste vide si aucun appareil)
+     */
+    public List<String> tokensOf(String personId) {
+        return tokensOf(List.of(personId)).getOrDefault(personId, List.of());
+    }
+
+    /**
+     * Tokens push de plusieurs personnes : une requête par lot de 500 personnes absentes de l'index
+     */
+    public Map<String, List<String>> tokensOf(Collection<String> personIds) {
+        long now = System.currentTimeMillis();
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String personId : new LinkedHashSet<>(personIds)) {
+            CachedTokens cached = tokensByPerson.get(personId);
+            if (cached != null && cached.expiresAt > now) {
+                result.put(personId, cached.tokens);
+            } else {
+                missing.add(personId);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            List<String> batch = missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()));
+            Map<String, Set<String>> loaded = new HashMap<>();
+            batch.forEach(personId -> loaded.put(personId, new LinkedHashSet<>()));
+            for (PushTarget target : deviceTokenRepository.findActivePushTargets(batch)) {
+                loaded.get(target.personId()).add(target.token());
+            }
+            for (PushTarget target : personRepository.findFcmPushTargets(batch)) {
+                loaded.get(target.personId()).add(target.token());
+            }
+            loaded.forEach((personId, tokens) -> {
+                List<String> list = List.copyOf(tokens);
+                put(personId, list, now);
+                result.put(personId, list);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Retire une personne de l'index ; dans une transaction, après son commit
+     * (sinon un rechargement concurrent relirait l'état précédent)
+     */
+    public void evict(String personId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokensByPerson.remove(personId);
+                }
+            });
+        }
+        tokensByPerson.remove(personId);
+    }
+
+    /**
+     * Retire les personnes dont un token a été rejeté par Firebase
+     */
+    public void removeTokens(Collection<String> tokens) {
+        Set<String> rejected = Set.copyOf(tokens);
+        tokensByPerson.values().removeIf(cached -> cached.tokens.stream().anyMatch(rejected::contains));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        tokensByPerson.values().removeIf(cached -> cached.expiresAt <= now);
+    }
+
+    private void put(String personId, List<String> tokens, long now) {
+        if (tokensByPerson.size() >= maxSize) {
+            purgeExpired();
+            if (tokensByPerson.size() >= maxSize) {
+                return; // index plein : la personne sera relue à son prochain envoi
+            }
+        }
+        tokensByPerson.put(personId, new CachedTokens(tokens, now + ttlMillis));
+    }
+
+    private record CachedTokens(List<String> tokens, long expiresAt) {
+    }
+}
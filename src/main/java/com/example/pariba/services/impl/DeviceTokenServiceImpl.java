@@ -29,6 +29,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
     
     private final DeviceTokenRepository deviceTokenRepository;
     private final PersonRepository personRepository;
+    private final DeviceTokenIndex deviceTokenIndex;
     
     @Override
     @Transactional
@@ -61,6 +62,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         }
         
         deviceToken = deviceTokenRepository.save(deviceToken);
+        deviceTokenIndex.evict(personId);
         return mapToResponse(deviceToken);
     }
     
@@ -93,6 +95,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         
         token.setActive(false);
         deviceTokenRepository.save(token);
+        deviceTokenIndex.evict(personId);
     }
     
     @Override
@@ -148,6 +151,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         }
         
         deviceToken = deviceTokenRepository.save(deviceToken);
+        deviceTokenIndex.evict(personId);
         return new DeviceResponse(deviceToken);
     }
 
@@ -169,6 +173,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         device.setActive(true);
         device.setLastUsedAt(LocalDateTime.now());
         device = deviceTokenRepository.save(device);
+        deviceTokenIndex.evict(personId);
         
         log.info("Appareil {} activé pour person {}", deviceId, personId);
         return new DeviceResponse(device);
@@ -180,6 +185,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         DeviceToken device = findDeviceByPersonAndId(personId, deviceId);
         device.setActive(false);
         device = deviceTokenRepository.save(device);
+        deviceTokenIndex.evict(personId);
         
         log.info("Appareil {} désactivé pour person {}", deviceId, personId);
         return new DeviceResponse(device);
@@ -190,6 +196,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
     public void deleteDevice(String personId, String deviceId) {
         DeviceToken device = findDeviceByPersonAndId(personId, deviceId);
         deviceTokenRepository.delete(device);
+        deviceTokenIndex.evict(personId);
         
         log.info("Appareil {} supprimé pour person {}", deviceId, personId);
     }
@@ -201,6 +208,7 @@ public class DeviceTokenServiceImpl implements IDeviceTokenService {
         device.setToken(newToken);
         device.setLastUsedAt(LocalDateTime.now());
         device = deviceTokenRepository.save(device);
+        deviceTokenIndex.evict(personId);
         
         log.info("Token mis à jour pour appareil {} de person {}", deviceId, personId);
         return new DeviceResponse(device);
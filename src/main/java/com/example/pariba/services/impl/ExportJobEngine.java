@@ -0,0 +1,176 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.models.ExportJob;
+import com.example.pariba.repositories.ExportJobRepository;
+import com.example.pariba.services.IExportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moteur d'exécution des exports, hors des threads HTTP.
+ * - les jobs sont confiés à un pool dédié (file bornée) après le commit de leur création
+ * - si la file est pleine ou si l'utilisateur a déjà trop d'exports en cours,
+ *   le job reste en attente et sera repris par le poller
+ * - un job PROCESSING sans progression depuis trop longtemps passe en FAILED
+ * - les anciens exports sont purgés selon app.export.retention-days
+ */
+@Component
+@Slf4j
+public class ExportJobEngine {
+
+    private final ExportJobRepository exportJobRepository;
+    private final IExportService exportService;
+    private final ThreadPoolExecutor executor;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> runningByPerson = new ConcurrentHashMap<>();
+
+    @Value("${app.export.max-concurrent-per-user:1}")
+    private int maxConcurrentPerUser;
+
+    @Value("${app.export.poll-batch-size:50}")
+    private int pollBatchSize;
+
+    @Value("${app.export.stale-after-minutes:15}")
+    private long staleAfterMinutes;
+
+    public ExportJobEngine(ExportJobRepository exportJobRepository,
+                           @Lazy IExportService exportService,
+                           @Value("${app.export.workers:2}") int workers,
+                           @Value("${app.export.queue-capacity:100}") int queueCapacity) {
+        this.exportJobRepository = exportJobRepository;
+        this.exportService = exportService;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            workers, workers, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "export-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Lance le job après le commit de la transaction courante (ou immédiatement s'il n'y en a pas)
+     */
+    public void submitAfterCommit(String jobId, String personId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId, personId);
+                }
+            });
+        } else {
+            submit(jobId, personId);
+        }
+    }
+
+    /**
+     * Reprend les jobs en attente et marque en échec ceux qui ne progressent plus
+     */
+    @Scheduled(fixedDelayString = "${app.export.poll-interval-ms:10000}")
+    public void pollWaiting() {
+        Instant now = Instant.now();
+        int stale = exportJobRepository.failStale(now.minus(Duration.ofMinutes(staleAfterMinutes)), now);
+        if (stale > 0) {
+            log.warn("{} exports interrompus marqués en échec", stale);
+        }
+
+        List<ExportJob> waiting = exportJobRepository.findWaiting(PageRequest.of(0, pollBatchSize));
+        for (ExportJob job : waiting) {
+            submit(job.getId(), job.getRequestedBy().getId());
+        }
+    }
+
+    @Scheduled(cron = "${app.export.cleanup-cron:0 0 4 * * ?}")
+    public void cleanup() {
+        exportService.cleanupOldExports();
+    }
+
+    private void submit(String jobId, String personId) {
+        if (!inFlight.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId, personId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Contre-pression : le job reste en attente, le poller le reprendra
+            inFlight.remove(jobId);
+            log.debug("File d'export pleine, job {} différé", jobId);
+        }
+    }
+
+    private void run(String jobId, String personId) {
+        if (!tryAcquire(personId)) {
+            log.debug("Limite d'exports simultanés atteinte pour {}, job {} différé", personId, jobId);
+            return;
+        }
+        try {
+            exportService.processExportJob(jobId);
+        } catch (Exception e) {
+            log.error("❌ Erreur inattendue pendant l'export {}", jobId, e);
+        } finally {
+            release(personId);
+        }
+    }
+
+    /**
+     * Limite par utilisateur et par instance
+     */
+    private boolean tryAcquire(String personId) {
+        boolean[] acquired = {false};
+        runningByPerson.compute(personId, (key, running) -> {
+            int current = running == null ? 0 : running;
+            if (current >= maxConcurrentPerUser) {
+                return running;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(String personId) {
+        runningByPerson.computeIfPresent(personId, (key, running) -> running <= 1 ? null : running - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
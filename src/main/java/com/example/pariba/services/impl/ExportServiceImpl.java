@@ -4,19 +4,38 @@ import com.example.pariba.constants.AppConstants;
 import com.example.pariba.dtos.requests.RequestExportRequest;
 import com.example.pariba.dtos.responses.ExportJobResponse;
 import com.example.pariba.enums.ExportStatus;
+import com.example.pariba.exceptions.BadRequestException;
+import com.example.pariba.exceptions.ExportCancelledException;
 import com.example.pariba.exceptions.ResourceNotFoundException;
+import com.example.pariba.models.Contribution;
 import com.example.pariba.models.ExportJob;
+import com.example.pariba.models.Payment;
 import com.example.pariba.models.Person;
+import com.example.pariba.models.TontineGroup;
+import com.example.pariba.repositories.AuditLogRepository;
+import com.example.pariba.repositories.ContributionRepository;
 import com.example.pariba.repositories.ExportJobRepository;
+import com.example.pariba.repositories.GroupMembershipRepository;
+import com.example.pariba.repositories.PaymentRepository;
 import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.repositories.SystemLogRepository;
+import com.example.pariba.repositories.TontineGroupRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IExportService;
 import com.example.pariba.services.ISubscriptionService;
 import com.example.pariba.exceptions.ForbiddenException;
+import com.example.pariba.utils.ExportProgress;
+import com.example.pariba.utils.PageSource;
+import com.example.pariba.utils.StreamedExport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,17 +43,50 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ExportServiceImpl implements IExportService {
 
+    private static final List<String> GROUP_EXPORT_TYPES = List.of("CONTRIBUTIONS", "PAYMENTS", "MEMBERS");
+    private static final List<String> ADMIN_EXPORT_TYPES = List.of("USERS", "GROUPS", "PAYMENTS");
+
     private final ExportJobRepository exportJobRepository;
     private final PersonRepository personRepository;
+    private final TontineGroupRepository tontineGroupRepository;
+    private final GroupMembershipRepository membershipRepository;
+    private final PaymentRepository paymentRepository;
+    private final ContributionRepository contributionRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final SystemLogRepository systemLogRepository;
+    private final FileGeneratorService fileGeneratorService;
+    private final ExportJobEngine exportJobEngine;
     private final IAuditService auditService;
     private final ISubscriptionService subscriptionService;
 
+    @Value("${app.export.max-pending-per-user:5}")
+    private int maxPendingPerUser;
+
+    @Value("${app.export.retention-days:30}")
+    private int retentionDays;
+
     public ExportServiceImpl(ExportJobRepository exportJobRepository,
                             PersonRepository personRepository,
+                            TontineGroupRepository tontineGroupRepository,
+                            GroupMembershipRepository membershipRepository,
+                            PaymentRepository paymentRepository,
+                            ContributionRepository contributionRepository,
+                            AuditLogRepository auditLogRepository,
+                            SystemLogRepository systemLogRepository,
+                            FileGeneratorService fileGeneratorService,
+                            ExportJobEngine exportJobEngine,
                             IAuditService auditService,
                             ISubscriptionService subscriptionService) {
         this.exportJobRepository = exportJobRepository;
         this.personRepository = personRepository;
+        this.tontineGroupRepository = tontineGroupRepository;
+        this.membershipRepository = membershipRepository;
+        this.paymentRepository = paymentRepository;
+        this.contributionRepository = contributionRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.systemLogRepository = systemLogRepository;
+        this.fileGeneratorService = fileGeneratorService;
+        this.exportJobEngine = exportJobEngine;
         this.auditService = auditService;
         this.subscriptionService = subscriptionService;
     }
@@ -44,36 +96,83 @@ public class ExportServiceImpl implements IExportService {
         Person person = personRepository.findById(personId)
                 .orElseThrow(() -> new ResourceNotFoundException("Person", "id", personId));
 
+        // Seuls PDF et XLSX sont générés : tout autre format est refusé avant le contrôle des droits
+        String format = normalizeFormat(request.getFormat());
+        if (!AppConstants.EXPORT_PDF_FORMAT.equals(format) && !AppConstants.EXPORT_XLSX_FORMAT.equals(format)) {
+            throw new BadRequestException("Le format doit être PDF ou XLSX");
+        }
+
         // Vérifier les droits d'export selon le plan d'abonnement
-        String format = request.getFormat().toUpperCase();
-        if ("PDF".equals(format)) {
+        if (AppConstants.EXPORT_PDF_FORMAT.equals(format)) {
             if (!subscriptionService.canExportPdf(personId)) {
                 log.warn("⚠️ Export PDF refusé pour {} - Plan ne permet pas l'export PDF", personId);
                 throw new ForbiddenException("L'export PDF n'est pas disponible avec votre plan. Passez à un plan supérieur.");
             }
-        } else if ("EXCEL".equals(format) || "XLSX".equals(format) || "XLS".equals(format)) {
+        } else {
             if (!subscriptionService.canExportExcel(personId)) {
                 log.warn("⚠️ Export Excel refusé pour {} - Plan ne permet pas l'export Excel", personId);
                 throw new ForbiddenException("L'export Excel n'est pas disponible avec votre plan. Passez à un plan supérieur.");
             }
         }
-        
+
+        TontineGroup group = tontineGroupRepository.findById(request.getGroupId())
+                .orElseThrow(() -> new ResourceNotFoundException("TontineGroup", "id", request.getGroupId()));
+        if (!membershipRepository.existsByGroupIdAndPersonId(group.getId(), personId)) {
+            throw new ForbiddenException("Vous n'êtes pas membre de ce groupe");
+        }
+
+        String exportType = request.getExportType() != null ? request.getExportType().toUpperCase() : "CONTRIBUTIONS";
+        if (!GROUP_EXPORT_TYPES.contains(exportType)) {
+            throw new BadRequestException("Type d'export non supporté: " + exportType);
+        }
+        checkPendingLimit(personId);
+
         log.info("✅ Export {} autorisé pour {}", format, personId);
 
         ExportJob job = new ExportJob();
         job.setRequestedBy(person);
-        job.setExportType(request.getExportType());
-        job.setFormat(request.getFormat());
+        job.setGroup(group);
+        job.setExportType(exportType);
+        job.setFormat(format);
         job.setStatus(ExportStatus.PENDING);
         job.setFilters(request.getFilters());
+        job.setParametersJson(request.getParametersJson());
 
         job = exportJobRepository.save(job);
 
         // Audit log
         auditService.log(personId, AppConstants.AUDIT_EXPORT_REQUEST, "ExportJob", job.getId(), null);
 
-        // TODO: Déclencher le traitement asynchrone de l'export
-        // processExportJobAsync(job.getId());
+        exportJobEngine.submitAfterCommit(job.getId(), personId);
+
+        return new ExportJobResponse(job);
+    }
+
+    @Override
+    public ExportJobResponse requestAdminExport(String personId, String exportType, String format) {
+        Person person = personRepository.findById(personId)
+                .orElseThrow(() -> new ResourceNotFoundException("Person", "id", personId));
+
+        String type = exportType.toUpperCase();
+        if (!ADMIN_EXPORT_TYPES.contains(type)) {
+            throw new BadRequestException("Type d'export non supporté: " + exportType);
+        }
+        String normalizedFormat = normalizeFormat(format);
+        if (!AppConstants.EXPORT_PDF_FORMAT.equals(normalizedFormat) && !AppConstants.EXPORT_XLSX_FORMAT.equals(normalizedFormat)) {
+            throw new BadRequestException("Le format doit être PDF ou XLSX");
+        }
+        checkPendingLimit(personId);
+
+        ExportJob job = new ExportJob();
+        job.setRequestedBy(person);
+        job.setExportType(type);
+        job.setFormat(normalizedFormat);
+        job.setStatus(ExportStatus.PENDING);
+
+        job = exportJobRepository.save(job);
+        auditService.log(personId, AppConstants.AUDIT_EXPORT_REQUEST, "ExportJob", job.getId(), null);
+
+        exportJobEngine.submitAfterCommit(job.getId(), personId);
 
         return new ExportJobResponse(job);
     }
@@ -94,50 +193,231 @@ public class ExportServiceImpl implements IExportService {
     }
 
     @Override
-    public void processExportJob(String jobId) {
-        ExportJob job = exportJobRepository.findById(jobId)
-                .orElseThrow(() -> new ResourceNotFoundException("ExportJob", "id", jobId));
+    public ExportJobResponse cancelExport(String personId, String jobId) {
+        ExportJob job = findOwnedJob(personId, jobId);
+        if (exportJobRepository.cancel(jobId, Instant.now()) == 0) {
+            throw new BadRequestException("Cet export est déjà terminé");
+        }
+        log.info("Export {} annulé par {}", jobId, personId);
+        job.setStatus(ExportStatus.CANCELLED);
+        return new ExportJobResponse(job);
+    }
 
+    @Override
+    public Path getExportFile(String personId, String jobId) {
+        ExportJob job = findOwnedJob(personId, jobId);
+        if (job.getStatus() != ExportStatus.COMPLETED || job.getFileName() == null) {
+            throw new BadRequestException("L'export n'est pas encore prêt");
+        }
         try {
-            job.setStatus(ExportStatus.PROCESSING);
-            exportJobRepository.save(job);
+            Path file = fileGeneratorService.resolveExportFile(job.getFileName());
+            if (!Files.exists(file)) {
+                throw new ResourceNotFoundException("Fichier d'export introuvable");
+            }
+            return file;
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestException("Fichier d'export invalide", e);
+        }
+    }
 
-            // TODO: Générer le fichier d'export selon le type et le format
-            String filePath = generateExportFile(job);
+    @Override
+    public StreamedExport streamGroupExport(String personId, String groupId, String exportType, String format) {
+        String streamFormat = normalizeStreamFormat(format);
+        if (!subscriptionService.canExportExcel(personId)) {
+            log.warn("⚠️ Export {} refusé pour {} - Plan ne permet pas l'export de données", streamFormat, personId);
+            throw new ForbiddenException("L'export de données n'est pas disponible avec votre plan. Passez à un plan supérieur.");
+        }
+        if (!membershipRepository.existsByGroupIdAndPersonId(groupId, personId)) {
+            throw new ForbiddenException("Vous n'êtes pas membre de ce groupe");
+        }
 
-            job.setStatus(ExportStatus.COMPLETED);
-            job.setDownloadUrl(filePath);
-            exportJobRepository.save(job);
+        String type = exportType.toUpperCase();
+        StreamingResponseBody body = switch (type) {
+            case "PAYMENTS" -> out -> fileGeneratorService.writePaymentsRecords(
+                PageSource.keyset((afterCreatedAt, afterId, pageable) ->
+                    paymentRepository.findExportPageByGroupAfter(groupId, afterCreatedAt, afterId, pageable)),
+                streamFormat, out);
+            case "CONTRIBUTIONS" -> out -> fileGeneratorService.writeContributionsRecords(
+                PageSource.keyset((afterCreatedAt, afterId, pageable) ->
+                    contributionRepository.findExportPageByGroupAfter(groupId, afterCreatedAt, afterId, pageable)),
+                streamFormat, out);
+            default -> throw new BadRequestException("Type d'export non supporté: " + exportType);
+        };
 
+        auditService.log(personId, AppConstants.AUDIT_EXPORT_REQUEST, "TontineGroup", groupId,
+            String.format("{\"type\":\"%s\",\"format\":\"%s\"}", type, streamFormat));
+        return new StreamedExport(streamFileName(type, streamFormat), body);
+    }
+
+    @Override
+    public StreamedExport streamAdminExport(String personId, String exportType, String format) {
+        String streamFormat = normalizeStreamFormat(format);
+        String type = exportType.toUpperCase();
+        StreamingResponseBody body = switch (type) {
+            case "PAYMENTS" -> out -> fileGeneratorService.writePaymentsRecords(
+                PageSource.keyset(paymentRepository::findExportPageAfter), streamFormat, out);
+            case "CONTRIBUTIONS" -> out -> fileGeneratorService.writeContributionsRecords(
+                PageSource.keyset(contributionRepository::findExportPageAfter), streamFormat, out);
+            case "AUDIT_LOGS" -> out -> fileGeneratorService.writeAuditLogsRecords(
+                PageSource.keyset(auditLogRepository::findExportPageAfter), streamFormat, out);
+            case "SYSTEM_LOGS" -> out -> fileGeneratorService.writeSystemLogsRecords(
+                PageSource.keyset(systemLogRepository::findExportPageAfter), streamFormat, out);
+            default -> throw new BadRequestException("Type d'export non supporté: " + exportType);
+        };
+
+        auditService.log(personId, AppConstants.AUDIT_EXPORT_REQUEST, "Export", type,
+            String.format("{\"type\":\"%s\",\"format\":\"%s\"}", type, streamFormat));
+        return new StreamedExport(streamFileName(type, streamFormat), body);
+    }
+
+    /**
+     * Exécuté par un worker d'ExportJobEngine : réserve le job, génère le fichier en publiant
+     * la progression, puis le marque COMPLETED ou FAILED. Une annulation est détectée à la
+     * prochaine mise à jour de progression (le job n'est plus PROCESSING).
+     */
+    @Override
+    public void processExportJob(String jobId) {
+        if (exportJobRepository.claim(jobId, Instant.now()) == 0) {
+            return; // déjà pris, annulé ou terminé
+        }
+        ExportJob job = exportJobRepository.findWithDetailsById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ExportJob", "id", jobId));
+
+        ExportProgress progress = percent -> {
+            if (exportJobRepository.updateProgress(jobId, percent, Instant.now()) == 0) {
+                throw new ExportCancelledException(jobId);
+            }
+        };
+
+        try {
+            String fileName = generateExportFile(job, progress);
+            if (exportJobRepository.complete(jobId, fileName, downloadUrl(job), Instant.now()) == 0) {
+                fileGeneratorService.deleteJobFiles(jobId);
+                log.info("Export {} annulé pendant l'écriture du fichier", jobId);
+                return;
+            }
+            log.info("✅ Export {} {} terminé: {}", job.getExportType(), job.getFormat(), fileName);
+        } catch (ExportCancelledException e) {
+            fileGeneratorService.deleteJobFiles(jobId);
+            log.info("Export {} annulé", jobId);
         } catch (Exception e) {
-            job.setStatus(ExportStatus.FAILED);
-            job.setErrorMessage(e.getMessage());
-            exportJobRepository.save(job);
+            log.error("❌ Échec de l'export {}: {}", jobId, e.getMessage());
+            fileGeneratorService.deleteJobFiles(jobId);
+            exportJobRepository.fail(jobId, truncate(e.getMessage()), Instant.now());
         }
     }
 
     @Override
     public void cleanupOldExports() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
+        Instant cutoffDate = Instant.now().minus(Duration.ofDays(retentionDays));
         List<ExportJob> oldJobs = exportJobRepository.findOldCompletedJobs(cutoffDate);
 
         for (ExportJob job : oldJobs) {
-            // TODO: Supprimer le fichier physique
-            if (job.getDownloadUrl() != null) {
-                // deleteFile(job.getDownloadUrl());
-            }
+            fileGeneratorService.deleteJobFiles(job.getId());
             exportJobRepository.delete(job);
         }
+        log.info("🧹 {} anciens exports supprimés", oldJobs.size());
     }
 
-    private String generateExportFile(ExportJob job) {
-        // TODO: Implémenter la génération du fichier selon le type et le format
-        String fileName = String.format("export_%s_%s.%s", 
-            job.getExportType(), 
-            job.getId(), 
-            job.getFormat().toLowerCase());
+    private String generateExportFile(ExportJob job, ExportProgress progress) throws Exception {
+        boolean excel = AppConstants.EXPORT_XLSX_FORMAT.equals(normalizeFormat(job.getFormat()));
+        String groupId = job.getGroup() != null ? job.getGroup().getId() : null;
+        String jobId = job.getId();
 
-        // Simuler la génération
-        return "/exports/" + fileName;
+        // Lecture par pages (keyset sur createdAt, id) : mémoire constante quel que soit le volume
+        switch (job.getExportType()) {
+            case "USERS" -> {
+                PageSource<Person> source = PageSource.keyset(personRepository::findExportPageAfter);
+                long total = personRepository.count();
+                return excel ? fileGeneratorService.generateUsersExcel(source, total, jobId, progress)
+                             : fileGeneratorService.generateUsersPdf(source, total, jobId, progress);
+            }
+            case "MEMBERS" -> {
+                String memberGroupId = requireGroup(groupId);
+                PageSource<Person> source = PageSource.keyset((afterCreatedAt, afterId, pageable) ->
+                    membershipRepository.findPersonsPageByGroupAfter(memberGroupId, afterCreatedAt, afterId, pageable));
+                long total = membershipRepository.countByGroupId(memberGroupId);
+                return excel ? fileGeneratorService.generateUsersExcel(source, total, jobId, progress)
+                             : fileGeneratorService.generateUsersPdf(source, total, jobId, progress);
+            }
+            case "GROUPS" -> {
+                PageSource<TontineGroup> source = PageSource.keyset(tontineGroupRepository::findExportPageAfter);
+                long total = tontineGroupRepository.count();
+                return excel ? fileGeneratorService.generateGroupsExcel(source, total, jobId, progress)
+                             : fileGeneratorService.generateGroupsPdf(source, total, jobId, progress);
+            }
+            case "PAYMENTS" -> {
+                PageSource<Payment> source = groupId == null
+                    ? PageSource.keyset(paymentRepository::findExportPageAfter)
+                    : PageSource.keyset((afterCreatedAt, afterId, pageable) ->
+                        paymentRepository.findExportPageByGroupAfter(groupId, afterCreatedAt, afterId, pageable));
+                long total = groupId == null ? paymentRepository.count() : paymentRepository.countByGroupId(groupId);
+                return excel ? fileGeneratorService.generatePaymentsExcel(source, total, jobId, progress)
+                             : fileGeneratorService.generatePaymentsPdf(source, total, jobId, progress);
+            }
+            case "CONTRIBUTIONS" -> {
+                String contributionGroupId = requireGroup(groupId);
+                PageSource<Contribution> source = PageSource.keyset((afterCreatedAt, afterId, pageable) ->
+                    contributionRepository.findExportPageByGroupAfter(contributionGroupId, afterCreatedAt, afterId, pageable));
+                long total = contributionRepository.countByGroupId(contributionGroupId);
+                return excel ? fileGeneratorService.generateContributionsExcel(source, total, jobId, progress)
+                             : fileGeneratorService.generateContributionsPdf(source, total, jobId, progress);
+            }
+            default -> throw new BadRequestException("Type d'export non supporté: " + job.getExportType());
+        }
+    }
+
+    private ExportJob findOwnedJob(String personId, String jobId) {
+        ExportJob job = exportJobRepository.findWithDetailsById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ExportJob", "id", jobId));
+        if (job.getRequestedBy() == null || !job.getRequestedBy().getId().equals(personId)) {
+            throw new ForbiddenException("Cet export ne vous appartient pas");
+        }
+        return job;
+    }
+
+    private void checkPendingLimit(String personId) {
+        if (exportJobRepository.countActiveByPerson(personId) >= maxPendingPerUser) {
+            throw new BadRequestException("Vous avez déjà " + maxPendingPerUser + " exports en cours. Veuillez patienter.");
+        }
+    }
+
+    private String requireGroup(String groupId) {
+        if (groupId == null) {
+            throw new BadRequestException("Cet export nécessite un groupe");
+        }
+        return groupId;
+    }
+
+    private String downloadUrl(ExportJob job) {
+        return job.getGroup() != null
+                ? "/api/v1/exports/" + job.getId() + "/download"
+                : "/api/admin/export/jobs/" + job.getId() + "/download";
+    }
+
+    private static String normalizeStreamFormat(String format) {
+        String upper = format.toUpperCase();
+        if (!AppConstants.EXPORT_CSV_FORMAT.equals(upper) && !AppConstants.EXPORT_NDJSON_FORMAT.equals(upper)) {
+            throw new BadRequestException("Le format doit être CSV ou NDJSON");
+        }
+        return upper;
+    }
+
+    private static String streamFileName(String type, String format) {
+        return String.format("%s_%s.%s.gz", type.toLowerCase(), System.currentTimeMillis(), format.toLowerCase());
+    }
+
+    private static String normalizeFormat(String format) {
+        String upper = format.toUpperCase();
+        return "EXCEL".equals(upper) || "XLS".equals(upper) ? "XLSX" : upper;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 250 ? message.substring(0, 250) : message;
     }
 }
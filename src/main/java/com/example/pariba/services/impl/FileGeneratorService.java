@@ -1,25 +1,47 @@
 package com.example.pariba.services.impl;
 
+import com.example.pariba.constants.AppConstants;
+import com.example.pariba.models.AuditLog;
+import com.example.pariba.models.Contribution;
 import com.example.pariba.models.Person;
 import com.example.pariba.models.TontineGroup;
 import com.example.pariba.models.Payment;
+import com.example.pariba.models.SystemLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.FileOutputStream;
+import com.example.pariba.utils.ExportProgress;
+import com.example.pariba.utils.PageSource;
+import com.example.pariba.utils.PdfFonts;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service pour générer les fichiers d'export (PDF, Excel)
@@ -31,314 +53,580 @@ public class FileGeneratorService {
     @Value("${app.export.directory:./exports}")
     private String exportDirectory;
     
+    @Value("${app.export.page-size:1000}")
+    private int exportPageSize;
+    
+    private static final int EXCEL_WINDOW_ROWS = 100;
+    private static final int WIDTH_SAMPLE_ROWS = 200;
+    private static final int MAX_COLUMN_CHARS = 80;
+    private static final int PDF_CHUNK_ROWS = 200;
+    private static final int RECORD_BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator("")
+            .build();
+    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     
     /**
-     * Génère un fichier PDF pour une liste d'utilisateurs
+     * Génère un fichier PDF des utilisateurs, lus page par page
      */
-    public String generateUsersPdf(List<Person> users, String jobId) throws Exception {
-        log.info(" Génération PDF pour {} utilisateurs", users.size());
-        
-        String fileName = String.format("users_%s_%s.pdf", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
-        Document document = new Document(PageSize.A4.rotate());
-        PdfWriter.getInstance(document, new FileOutputStream(filePath.toFile()));
-        document.open();
-        
-        try {
-            // Titre
-            com.itextpdf.text.Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
-            Paragraph title = new Paragraph("Liste des Utilisateurs - Pariba", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
-            
-            // Date
-            com.itextpdf.text.Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
-            Paragraph date = new Paragraph("Généré le: " + LocalDateTime.now().format(DATE_FORMATTER), dateFont);
-            date.setAlignment(Element.ALIGN_RIGHT);
-            date.setSpacingAfter(20);
-            document.add(date);
-            
-            // Table
-            PdfPTable table = new PdfPTable(5);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{3, 3, 2, 2, 2});
-            
-            // Header
-            com.itextpdf.text.Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-            addTableHeader(table, headerFont, "Nom Complet", "Email", "Téléphone", "Rôle", "Date Création");
-            
-            // Data
-            com.itextpdf.text.Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            for (Person user : users) {
-                addTableCell(table, dataFont, user.getPrenom() + " " + user.getNom());
-                addTableCell(table, dataFont, user.getEmail());
-                addTableCell(table, dataFont, user.getPhone());
-                addTableCell(table, dataFont, user.getRole().name());
-                addTableCell(table, dataFont, user.getCreatedAt().toString().substring(0, 10));
-            }
-            
-            document.add(table);
-            
-            // Footer
-            Paragraph footer = new Paragraph("\nTotal: " + users.size() + " utilisateurs", dateFont);
-            footer.setAlignment(Element.ALIGN_RIGHT);
-            document.add(footer);
-            
-        } finally {
-            document.close();
-        }
-        
-        return fileName;
+    public String generateUsersPdf(PageSource<Person> users, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("users", jobId, "pdf", out -> writeUsersPdf(users, total, out, progress));
     }
     
     /**
-     * Génère un fichier Excel pour une liste d'utilisateurs
+     * Écrit le rapport PDF des utilisateurs dans un flux (fichier ou réponse HTTP)
      */
-    public String generateUsersExcel(List<Person> users, String jobId) throws Exception {
-        log.info("Génération Excel pour {} utilisateurs", users.size());
-        
-        String fileName = String.format("users_%s_%s.xlsx", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Utilisateurs");
-        
-        // Style header
-        CellStyle headerStyle = createHeaderStyle(workbook, IndexedColors.DARK_BLUE);
-        
-        // Header
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"Nom Complet", "Email", "Téléphone", "Rôle", "Date Création"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
-        
-        // Data
-        int rowNum = 1;
-        for (Person user : users) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(user.getPrenom() + " " + user.getNom());
-            row.createCell(1).setCellValue(user.getEmail());
-            row.createCell(2).setCellValue(user.getPhone());
-            row.createCell(3).setCellValue(user.getRole().name());
-            row.createCell(4).setCellValue(user.getCreatedAt().toString().substring(0, 10));
+    public void writeUsersPdf(PageSource<Person> users, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération PDF pour {} utilisateurs", total);
+        writePdf(out, "Liste des Utilisateurs - Pariba", "utilisateurs",
+            new String[]{"Nom Complet", "Email", "Téléphone", "Rôle", "Date Création"},
+            new float[]{3, 3, 2, 2, 2},
+            users, total, progress,
+            user -> new String[]{
+                user.getPrenom() + " " + user.getNom(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole().name(),
+                user.getCreatedAt().toString().substring(0, 10)
+            });
+    }
+    
+    /**
+     * Génère un fichier Excel des utilisateurs, lus page par page
+     */
+    public String generateUsersExcel(PageSource<Person> users, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("users", jobId, "xlsx", out -> writeUsersExcel(users, total, out, progress));
+    }
+    
+    /**
+     * Écrit le classeur Excel des utilisateurs dans un flux (fichier ou réponse HTTP)
+     */
+    public void writeUsersExcel(PageSource<Person> users, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info("Génération Excel pour {} utilisateurs", total);
+        writeExcel(out, "Utilisateurs", IndexedColors.DARK_BLUE,
+            new String[]{"Nom Complet", "Email", "Téléphone", "Rôle", "Date Création"},
+            users, total, progress,
+            user -> new Object[]{
+                user.getPrenom() + " " + user.getNom(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole().name(),
+                user.getCreatedAt().toString().substring(0, 10)
+            });
+    }
+    
+    /**
+     * Génère un fichier PDF des groupes, lus page par page
+     */
+    public String generateGroupsPdf(PageSource<TontineGroup> groups, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("groups", jobId, "pdf", out -> writeGroupsPdf(groups, total, out, progress));
+    }
+    
+    /**
+     * Écrit le rapport PDF des groupes dans un flux (fichier ou réponse HTTP)
+     */
+    public void writeGroupsPdf(PageSource<TontineGroup> groups, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération PDF pour {} groupes", total);
+        writePdf(out, "Liste des Groupes - Pariba", "groupes",
+            new String[]{"Nom", "Créateur", "Membres", "Montant", "Statut"},
+            null,
+            groups, total, progress,
+            group -> new String[]{
+                group.getNom(),
+                group.getCreator().getPrenom() + " " + group.getCreator().getNom(),
+                String.valueOf(group.getTotalTours()),
+                group.getMontant() + " FCFA",
+                "ACTIF" // Pas de champ active dans le modèle
+            });
+    }
+    
+    /**
+     * Génère un fichier Excel des groupes, lus page par page
+     */
+    public String generateGroupsExcel(PageSource<TontineGroup> groups, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("groups", jobId, "xlsx", out -> writeGroupsExcel(groups, total, out, progress));
+    }
+    
+    /**
+     * Écrit le classeur Excel des groupes dans un flux (fichier ou réponse HTTP)
+     */
+    public void writeGroupsExcel(PageSource<TontineGroup> groups, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération Excel pour {} groupes", total);
+        writeExcel(out, "Groupes", IndexedColors.DARK_GREEN,
+            new String[]{"Nom", "Créateur", "Membres", "Montant", "Fréquence", "Statut"},
+            groups, total, progress,
+            group -> new Object[]{
+                group.getNom(),
+                group.getCreator().getPrenom() + " " + group.getCreator().getNom(),
+                group.getTotalTours(),
+                group.getMontant() + " FCFA",
+                group.getFrequency().name(),
+                "ACTIF"
+            });
+    }
+    
+    /**
+     * Génère un fichier PDF des paiements, lus page par page
+     */
+    public String generatePaymentsPdf(PageSource<Payment> payments, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("payments", jobId, "pdf", out -> writePaymentsPdf(payments, total, out, progress));
+    }
+    
+    /**
+     * Écrit le rapport PDF des paiements dans un flux (fichier ou réponse HTTP)
+     */
+    public void writePaymentsPdf(PageSource<Payment> payments, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération PDF pour {} paiements", total);
+        writePdf(out, "Liste des Paiements - Pariba", "paiements",
+            new String[]{"ID", "Utilisateur", "Montant", "Statut", "Méthode", "Date"},
+            new float[]{2, 3, 2, 2, 2, 2},
+            payments, total, progress,
+            payment -> new String[]{
+                payment.getId().substring(0, 8),
+                payerName(payment),
+                payment.getAmount() + " FCFA",
+                payment.getStatus().name(),
+                payment.getPaymentType() != null ? payment.getPaymentType().name() : "N/A",
+                payment.getCreatedAt().toString().substring(0, 16)
+            });
+    }
+    
+    /**
+     * Génère un fichier Excel des paiements, lus page par page
+     */
+    public String generatePaymentsExcel(PageSource<Payment> payments, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("payments", jobId, "xlsx", out -> writePaymentsExcel(payments, total, out, progress));
+    }
+    
+    /**
+     * Écrit le classeur Excel des paiements dans un flux (fichier ou réponse HTTP)
+     */
+    public void writePaymentsExcel(PageSource<Payment> payments, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération Excel pour {} paiements", total);
+        writeExcel(out, "Paiements", IndexedColors.ORANGE,
+            new String[]{"ID", "Utilisateur", "Montant", "Statut", "Méthode", "Date"},
+            payments, total, progress,
+            payment -> new Object[]{
+                payment.getId().substring(0, 8),
+                payerName(payment),
+                payment.getAmount() + " FCFA",
+                payment.getStatus().name(),
+                payment.getPaymentType() != null ? payment.getPaymentType().name() : "N/A",
+                payment.getCreatedAt().toString().substring(0, 16)
+            });
+    }
+    
+    /**
+     * Génère un fichier PDF des cotisations, lues page par page
+     */
+    public String generateContributionsPdf(PageSource<Contribution> contributions, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("contributions", jobId, "pdf", out -> writeContributionsPdf(contributions, total, out, progress));
+    }
+    
+    /**
+     * Écrit le rapport PDF des cotisations dans un flux (fichier ou réponse HTTP)
+     */
+    public void writeContributionsPdf(PageSource<Contribution> contributions, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération PDF pour {} cotisations", total);
+        writePdf(out, "Liste des Cotisations - Pariba", "cotisations",
+            new String[]{"Membre", "Tour", "Montant", "Pénalité", "Échéance", "Statut"},
+            new float[]{3, 1, 2, 2, 2, 2},
+            contributions, total, progress,
+            contribution -> new String[]{
+                contribution.getMember().getPrenom() + " " + contribution.getMember().getNom(),
+                String.valueOf(contribution.getTour().getIndexInGroup()),
+                contribution.getAmountDue() + " FCFA",
+                contribution.getPenaltyApplied() != null ? contribution.getPenaltyApplied() + " FCFA" : "-",
+                String.valueOf(contribution.getDueDate()),
+                contribution.getStatus().name()
+            });
+    }
+    
+    /**
+     * Génère un fichier Excel des cotisations, lues page par page
+     */
+    public String generateContributionsExcel(PageSource<Contribution> contributions, long total, String jobId, ExportProgress progress) throws Exception {
+        return writeExportFile("contributions", jobId, "xlsx", out -> writeContributionsExcel(contributions, total, out, progress));
+    }
+    
+    /**
+     * Écrit le classeur Excel des cotisations dans un flux (fichier ou réponse HTTP)
+     */
+    public void writeContributionsExcel(PageSource<Contribution> contributions, long total, OutputStream out, ExportProgress progress) throws IOException {
+        log.info(" Génération Excel pour {} cotisations", total);
+        writeExcel(out, "Cotisations", IndexedColors.TEAL,
+            new String[]{"Membre", "Tour", "Montant", "Pénalité", "Échéance", "Statut"},
+            contributions, total, progress,
+            contribution -> new Object[]{
+                contribution.getMember().getPrenom() + " " + contribution.getMember().getNom(),
+                contribution.getTour().getIndexInGroup(),
+                contribution.getAmountDue() + " FCFA",
+                contribution.getPenaltyApplied() != null ? contribution.getPenaltyApplied() + " FCFA" : "-",
+                String.valueOf(contribution.getDueDate()),
+                contribution.getStatus().name()
+            });
+    }
+    
+    /**
+     * Écrit les paiements en CSV ou NDJSON compressé (gzip) : montants bruts, sans mise en forme
+     */
+    public void writePaymentsRecords(PageSource<Payment> payments, String format, OutputStream out) throws IOException {
+        writeRecords(out, format,
+            new String[]{"id", "groupId", "payerId", "payerName", "amount", "status", "paymentType", "externalRef", "payout", "validatedAt", "createdAt"},
+            payments,
+            payment -> new Object[]{
+                payment.getId(),
+                payment.getGroup() != null ? payment.getGroup().getId() : null,
+                payment.getPayer() != null ? payment.getPayer().getId() : null,
+                payment.getPayer() != null ? payerName(payment) : null,
+                payment.getAmount(),
+                payment.getStatus(),
+                payment.getPaymentType(),
+                payment.getExternalRef(),
+                payment.isPayout(),
+                payment.getValidatedAt(),
+                payment.getCreatedAt()
+            });
+    }
+    
+    /**
+     * Écrit les cotisations en CSV ou NDJSON compressé (gzip)
+     */
+    public void writeContributionsRecords(PageSource<Contribution> contributions, String format, OutputStream out) throws IOException {
+        writeRecords(out, format,
+            new String[]{"id", "groupId", "memberId", "memberName", "tour", "amountDue", "penaltyApplied", "dueDate", "status", "createdAt"},
+            contributions,
+            contribution -> new Object[]{
+                contribution.getId(),
+                contribution.getGroup() != null ? contribution.getGroup().getId() : null,
+                contribution.getMember().getId(),
+                contribution.getMember().getPrenom() + " " + contribution.getMember().getNom(),
+                contribution.getTour().getIndexInGroup(),
+                contribution.getAmountDue(),
+                contribution.getPenaltyApplied(),
+                contribution.getDueDate(),
+                contribution.getStatus(),
+                contribution.getCreatedAt()
+            });
+    }
+    
+    /**
+     * Écrit le journal d'audit en CSV ou NDJSON compressé (gzip)
+     */
+    public void writeAuditLogsRecords(PageSource<AuditLog> auditLogs, String format, OutputStream out) throws IOException {
+        writeRecords(out, format,
+            new String[]{"id", "actorId", "action", "entityType", "entityId", "detailsJson", "username", "ipAddress", "eventType", "details", "createdAt"},
+            auditLogs,
+            auditLog -> new Object[]{
+                auditLog.getId(),
+                auditLog.getActor() != null ? auditLog.getActor().getId() : null,
+                auditLog.getAction(),
+                auditLog.getEntityType(),
+                auditLog.getEntityId(),
+                auditLog.getDetailsJson(),
+                auditLog.getUsername(),
+                auditLog.getIpAddress(),
+                auditLog.getEventType(),
+                auditLog.getDetails(),
+                auditLog.getCreatedAt()
+            });
+    }
+    
+    /**
+     * Écrit les logs système en CSV ou NDJSON compressé (gzip)
+     */
+    public void writeSystemLogsRecords(PageSource<SystemLog> systemLogs, String format, OutputStream out) throws IOException {
+        writeRecords(out, format,
+            new String[]{"id", "userId", "userName", "action", "entityType", "entityId", "level", "success", "ipAddress", "userAgent", "details", "createdAt"},
+            systemLogs,
+            systemLog -> new Object[]{
+                systemLog.getId(),
+                systemLog.getUserId(),
+                systemLog.getUserName(),
+                systemLog.getAction(),
+                systemLog.getEntityType(),
+                systemLog.getEntityId(),
+                systemLog.getLevel(),
+                systemLog.isSuccess(),
+                systemLog.getIpAddress(),
+                systemLog.getUserAgent(),
+                systemLog.getDetails(),
+                systemLog.getCreatedAt()
+            });
+    }
+    
+    /**
+     * Chemin d'un fichier généré (le nom ne doit pas sortir du répertoire d'export)
+     */
+    public Path resolveExportFile(String fileName) throws Exception {
+        Path directory = ensureExportDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Nom de fichier d'export invalide: " + fileName);
         }
-        
-        // Auto-size
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+        return file;
+    }
+    
+    /**
+     * Supprime les fichiers générés pour un job (fichier final ou partiel après annulation/échec)
+     */
+    public void deleteJobFiles(String jobId) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(ensureExportDirectory(), "*_" + jobId + "_*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (Exception e) {
+            log.warn("Impossible de supprimer les fichiers de l'export {}: {}", jobId, e.getMessage());
         }
-        
-        try (FileOutputStream fileOut = new FileOutputStream(filePath.toFile())) {
-            workbook.write(fileOut);
+    }
+    
+    // Helper methods
+    
+    @FunctionalInterface
+    private interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
+    private String writeExportFile(String prefix, String jobId, String extension, StreamWriter writer) throws Exception {
+        String fileName = String.format("%s_%s_%s.%s", prefix, jobId, System.currentTimeMillis(), extension);
+        Path filePath = ensureExportDirectory().resolve(fileName);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(filePath))) {
+            writer.write(out);
         }
-        workbook.close();
-        
         return fileName;
     }
     
     /**
-     * Génère un fichier PDF pour une liste de groupes
+     * Classeur SXSSF à fenêtre glissante : seules EXCEL_WINDOW_ROWS lignes restent en mémoire,
+     * les autres sont écrites dans un fichier temporaire compressé. Les données sont lues page par page.
+     * Les largeurs de colonnes sont calculées sur les WIDTH_SAMPLE_ROWS premières lignes
+     * (autoSizeColumn relirait toutes les lignes et n'est pas possible sur les lignes déjà vidées).
      */
-    public String generateGroupsPdf(List<TontineGroup> groups, String jobId) throws Exception {
-        log.info(" Génération PDF pour {} groupes", groups.size());
-        
-        String fileName = String.format("groups_%s_%s.pdf", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
-        Document document = new Document(PageSize.A4.rotate());
-        PdfWriter.getInstance(document, new FileOutputStream(filePath.toFile()));
-        document.open();
-        
+    private <T> void writeExcel(OutputStream out, String sheetName, IndexedColors headerColor, String[] headers,
+                                PageSource<T> source, long total, ExportProgress progress,
+                                Function<T, Object[]> rowMapper) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_WINDOW_ROWS);
+        workbook.setCompressTempFiles(true);
         try {
-            com.itextpdf.text.Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
-            Paragraph title = new Paragraph("Liste des Groupes - Pariba", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
+            Sheet sheet = workbook.createSheet(sheetName);
+            CellStyle headerStyle = createHeaderStyle(workbook, headerColor);
             
-            PdfPTable table = new PdfPTable(5);
-            table.setWidthPercentage(100);
+            int[] widths = new int[headers.length];
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                widths[i] = headers[i].length();
+            }
             
-            com.itextpdf.text.Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-            addTableHeader(table, headerFont, "Nom", "Créateur", "Membres", "Montant", "Statut");
+            int rowNum = 1;
+            T last = null;
+            List<T> page;
+            do {
+                page = source.nextPage(last, exportPageSize);
+                for (T item : page) {
+                    Object[] values = rowMapper.apply(item);
+                    Row row = sheet.createRow(rowNum);
+                    for (int i = 0; i < values.length; i++) {
+                        String text = setCellValue(row.createCell(i), values[i]);
+                        if (rowNum <= WIDTH_SAMPLE_ROWS) {
+                            widths[i] = Math.max(widths[i], text.length());
+                        }
+                    }
+                    progress.rows(rowNum, total);
+                    rowNum++;
+                }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == exportPageSize);
             
-            com.itextpdf.text.Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            for (TontineGroup group : groups) {
-                addTableCell(table, dataFont, group.getNom());
-                addTableCell(table, dataFont, group.getCreator().getPrenom() + " " + group.getCreator().getNom());
-                addTableCell(table, dataFont, String.valueOf(group.getTotalTours()));
-                addTableCell(table, dataFont, group.getMontant() + " FCFA");
-                addTableCell(table, dataFont, "ACTIF"); // Pas de champ active dans le modèle
+            for (int i = 0; i < widths.length; i++) {
+                sheet.setColumnWidth(i, Math.min(widths[i] + 2, MAX_COLUMN_CHARS) * 256);
             }
             
-            document.add(table);
-            
+            workbook.write(out);
         } finally {
-            document.close();
+            workbook.dispose();
+            workbook.close();
         }
-        
-        return fileName;
     }
     
     /**
-     * Génère un fichier Excel pour une liste de groupes
+     * Écriture ligne à ligne, page par page, dans un flux gzip : aucune mise en forme ni tampon
+     * au-delà de la page courante. CSV (RFC 4180, en-tête en première ligne) ou NDJSON (un objet par ligne).
      */
-    public String generateGroupsExcel(List<TontineGroup> groups, String jobId) throws Exception {
-        log.info(" Génération Excel pour {} groupes", groups.size());
-        
-        String fileName = String.format("groups_%s_%s.xlsx", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Groupes");
-        
-        CellStyle headerStyle = createHeaderStyle(workbook, IndexedColors.DARK_GREEN);
-        
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"Nom", "Créateur", "Membres", "Montant", "Fréquence", "Statut"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+    private <T> void writeRecords(OutputStream out, String format, String[] fields, PageSource<T> source,
+                                  Function<T, Object[]> rowMapper) throws IOException {
+        boolean ndjson = AppConstants.EXPORT_NDJSON_FORMAT.equals(format);
+        GZIPOutputStream gzip = new GZIPOutputStream(out, RECORD_BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), RECORD_BUFFER_SIZE);
+        JsonGenerator json = ndjson ? JSON_FACTORY.createGenerator(writer) : null;
+        
+        if (!ndjson) {
+            writeCsvLine(writer, fields);
         }
         
-        int rowNum = 1;
-        for (TontineGroup group : groups) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(group.getNom());
-            row.createCell(1).setCellValue(group.getCreator().getPrenom() + " " + group.getCreator().getNom());
-            row.createCell(2).setCellValue(group.getTotalTours());
-            row.createCell(3).setCellValue(group.getMontant() + " FCFA");
-            row.createCell(4).setCellValue(group.getFrequency().name());
-            row.createCell(5).setCellValue("ACTIF");
-        }
+        long rows = 0;
+        T last = null;
+        List<T> page;
+        do {
+            page = source.nextPage(last, exportPageSize);
+            for (T item : page) {
+                Object[] values = rowMapper.apply(item);
+                if (ndjson) {
+                    writeJsonLine(json, fields, values);
+                } else {
+                    writeCsvLine(writer, values);
+                }
+            }
+            rows += page.size();
+            if (!page.isEmpty()) {
+                last = page.get(page.size() - 1);
+            }
+        } while (page.size() == exportPageSize);
         
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+        if (json != null) {
+            json.flush();
         }
-        
-        try (FileOutputStream fileOut = new FileOutputStream(filePath.toFile())) {
-            workbook.write(fileOut);
+        writer.flush();
+        // Termine le flux gzip sans fermer la sortie (réponse HTTP gérée par le conteneur)
+        gzip.finish();
+        out.flush();
+        log.info("Export {} terminé: {} lignes", ndjson ? "NDJSON" : "CSV", rows);
+    }
+    
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
         }
-        workbook.close();
-        
-        return fileName;
+        writer.write("\r\n");
+    }
+    
+    private void writeJsonLine(JsonGenerator json, String[] fields, Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < fields.length; i++) {
+            Object value = values[i];
+            json.writeFieldName(fields[i]);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                json.writeNumber(decimal);
+            } else if (value instanceof Number number) {
+                json.writeNumber(number.longValue());
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
     }
     
     /**
-     * Génère un fichier PDF pour une liste de paiements
+     * Rapport PDF écrit par tranches : la table est en mode « large element » (setComplete(false)),
+     * chaque tranche de PDF_CHUNK_ROWS lignes est mise en page puis libérée, l'en-tête est répété
+     * sur chaque page. Seules la page de données courante et une tranche restent en mémoire.
      */
-    public String generatePaymentsPdf(List<Payment> payments, String jobId) throws Exception {
-        log.info(" Génération PDF pour {} paiements", payments.size());
-        
-        String fileName = String.format("payments_%s_%s.pdf", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
+    private <T> void writePdf(OutputStream out, String title, String unitLabel, String[] headers, float[] widths,
+                              PageSource<T> source, long total, ExportProgress progress,
+                              Function<T, String[]> rowMapper) throws IOException {
         Document document = new Document(PageSize.A4.rotate());
-        PdfWriter.getInstance(document, new FileOutputStream(filePath.toFile()));
-        document.open();
-        
         try {
-            com.itextpdf.text.Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
-            Paragraph title = new Paragraph("Liste des Paiements - Pariba", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
             
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{2, 3, 2, 2, 2, 2});
+            Paragraph titleParagraph = new Paragraph(title, PdfFonts.TITLE);
+            titleParagraph.setAlignment(Element.ALIGN_CENTER);
+            titleParagraph.setSpacingAfter(20);
+            document.add(titleParagraph);
+            
+            Paragraph date = new Paragraph("Généré le: " + LocalDateTime.now().format(DATE_FORMATTER), PdfFonts.META);
+            date.setAlignment(Element.ALIGN_RIGHT);
+            date.setSpacingAfter(20);
+            document.add(date);
             
-            com.itextpdf.text.Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-            addTableHeader(table, headerFont, "ID", "Utilisateur", "Montant", "Statut", "Méthode", "Date");
+            PdfPTable table = new PdfPTable(headers.length);
+            table.setWidthPercentage(100);
+            if (widths != null) {
+                table.setWidths(widths);
+            }
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            addTableHeader(table, PdfFonts.HEADER, headers);
             
-            com.itextpdf.text.Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            for (Payment payment : payments) {
-                addTableCell(table, dataFont, payment.getId().substring(0, 8));
-                String payerName = "N/A";
-                try {
-                    if (payment.getPayer() != null) {
-                        payerName = payment.getPayer().getPrenom() + " " + payment.getPayer().getNom();
+            long rows = 0;
+            T last = null;
+            List<T> page;
+            do {
+                page = source.nextPage(last, exportPageSize);
+                for (T item : page) {
+                    for (String value : rowMapper.apply(item)) {
+                        addTableCell(table, PdfFonts.DATA, value);
+                    }
+                    rows++;
+                    progress.rows(rows, total);
+                    if (rows % PDF_CHUNK_ROWS == 0) {
+                        document.add(table);
                     }
-                } catch (Exception e) {
-                    log.warn("Impossible de charger le payeur pour le paiement {}", payment.getId());
                 }
-                addTableCell(table, dataFont, payerName);
-                addTableCell(table, dataFont, payment.getAmount() + " FCFA");
-                addTableCell(table, dataFont, payment.getStatus().name());
-                addTableCell(table, dataFont, payment.getPaymentType() != null ? payment.getPaymentType().name() : "N/A");
-                addTableCell(table, dataFont, payment.getCreatedAt().toString().substring(0, 16));
-            }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == exportPageSize);
             
+            table.setComplete(true);
             document.add(table);
             
+            Paragraph footer = new Paragraph("\nTotal: " + rows + " " + unitLabel, PdfFonts.META);
+            footer.setAlignment(Element.ALIGN_RIGHT);
+            document.add(footer);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur de génération PDF: " + e.getMessage(), e);
         } finally {
-            document.close();
+            if (document.isOpen()) {
+                document.close();
+            }
         }
-        
-        return fileName;
     }
     
-    /**
-     * Génère un fichier Excel pour une liste de paiements
-     */
-    public String generatePaymentsExcel(List<Payment> payments, String jobId) throws Exception {
-        log.info(" Génération Excel pour {} paiements", payments.size());
-        
-        String fileName = String.format("payments_%s_%s.xlsx", jobId, System.currentTimeMillis());
-        Path filePath = ensureExportDirectory().resolve(fileName);
-        
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Paiements");
-        
-        CellStyle headerStyle = createHeaderStyle(workbook, IndexedColors.ORANGE);
-        
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"ID", "Utilisateur", "Montant", "Statut", "Méthode", "Date"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
-        
-        int rowNum = 1;
-        for (Payment payment : payments) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(payment.getId().substring(0, 8));
-            String payerName = "N/A";
-            try {
-                if (payment.getPayer() != null) {
-                    payerName = payment.getPayer().getPrenom() + " " + payment.getPayer().getNom();
-                }
-            } catch (Exception e) {
-                log.warn("Impossible de charger le payeur pour le paiement {}", payment.getId());
-            }
-            row.createCell(1).setCellValue(payerName);
-            row.createCell(2).setCellValue(payment.getAmount() + " FCFA");
-            row.createCell(3).setCellValue(payment.getStatus().name());
-            row.createCell(4).setCellValue(payment.getPaymentType() != null ? payment.getPaymentType().name() : "N/A");
-            row.createCell(5).setCellValue(payment.getCreatedAt().toString().substring(0, 16));
-        }
-        
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+    private String setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            return "";
         }
-        
-        try (FileOutputStream fileOut = new FileOutputStream(filePath.toFile())) {
-            workbook.write(fileOut);
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+            return number.toString();
         }
-        workbook.close();
-        
-        return fileName;
+        String text = value.toString();
+        cell.setCellValue(text);
+        return text;
     }
     
-    // Helper methods
+    private String payerName(Payment payment) {
+        return payment.getPayer() != null
+                ? payment.getPayer().getPrenom() + " " + payment.getPayer().getNom()
+                : "N/A";
+    }
     private Path ensureExportDirectory() throws Exception {
         Path path = Paths.get(exportDirectory);
         if (!Files.exists(path)) {
@@ -19,6 +19,7 @@ import com.example.pariba.repositories.TontineGroupRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IInvitationService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.services.ITontineGroupService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,6 +40,7 @@ public class InvitationServiceImpl implements IInvitationService {
     private final ITontineGroupService groupService;
     private final IAuditService auditService;
     private final INotificationService notificationService;
+    private final IPersonSummaryService personSummaryService;
 
     public InvitationServiceImpl(InvitationRepository invitationRepository,
                                 TontineGroupRepository groupRepository,
@@ -46,7 +48,8 @@ public class InvitationServiceImpl implements IInvitationService {
                                 GroupMembershipRepository membershipRepository,
                                 ITontineGroupService groupService,
                                 IAuditService auditService,
-                                INotificationService notificationService) {
+                                INotificationService notificationService,
+                                IPersonSummaryService personSummaryService) {
         this.invitationRepository = invitationRepository;
         this.groupRepository = groupRepository;
         this.personRepository = personRepository;
@@ -54,6 +57,7 @@ public class InvitationServiceImpl implements IInvitationService {
         this.groupService = groupService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.personSummaryService = personSummaryService;
     }
 
     @Transactional
@@ -244,6 +248,7 @@ public class InvitationServiceImpl implements IInvitationService {
         membership.setPerson(person);
         membership.setRole(GroupRole.MEMBER);
         membershipRepository.save(membership);
+        personSummaryService.onMembershipAdded(personId, group.getId());
 
         // Marquer l'invitation comme acceptée (mais le lien reste réutilisable)
         if (invitation.getStatus() == InvitationStatus.PENDING) {
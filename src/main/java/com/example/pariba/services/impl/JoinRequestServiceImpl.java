@@ -23,6 +23,7 @@ import com.example.pariba.repositories.TontineGroupRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IJoinRequestService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +42,7 @@ public class JoinRequestServiceImpl implements IJoinRequestService {
     private final GroupMembershipRepository membershipRepository;
     private final INotificationService notificationService;
     private final IAuditService auditService;
+    private final IPersonSummaryService personSummaryService;
 
     public JoinRequestServiceImpl(
             JoinRequestRepository joinRequestRepository,
@@ -48,13 +50,15 @@ public class JoinRequestServiceImpl implements IJoinRequestService {
             PersonRepository personRepository,
             GroupMembershipRepository membershipRepository,
             INotificationService notificationService,
-            IAuditService auditService) {
+            IAuditService auditService,
+            IPersonSummaryService personSummaryService) {
         this.joinRequestRepository = joinRequestRepository;
         this.groupRepository = groupRepository;
         this.personRepository = personRepository;
         this.membershipRepository = membershipRepository;
         this.notificationService = notificationService;
         this.auditService = auditService;
+        this.personSummaryService = personSummaryService;
     }
 
     @Transactional
@@ -125,6 +129,7 @@ public class JoinRequestServiceImpl implements IJoinRequestService {
             membership.setPerson(joinRequest.getPerson());
             membership.setRole(GroupRole.MEMBER);
             membershipRepository.save(membership);
+            personSummaryService.onMembershipAdded(joinRequest.getPerson().getId(), joinRequest.getGroup().getId());
 
             // Notifier la personne
             Map<String, String> variables = new HashMap<>();
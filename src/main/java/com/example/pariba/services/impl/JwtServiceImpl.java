@@ -2,14 +2,17 @@ package com.example.pariba.services.impl;
 
 import com.example.pariba.services.IJwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -25,12 +28,21 @@ public class JwtServiceImpl implements IJwtService {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
     /**
-     * Génère une clé de signature à partir du secret
+     * Décode la clé de signature une seule fois ; le parser jjwt est immuable et thread-safe
      */
-    private SecretKey getSigningKey() {
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
 
     @Override
@@ -52,11 +64,22 @@ public class JwtServiceImpl implements IJwtService {
 
     @Override
     public boolean validateToken(String token) {
+        return parseValidToken(token).isPresent();
+    }
+
+    /**
+     * Vérifie la signature et l'expiration en un seul parsing (jjwt rejette déjà les tokens expirés)
+     */
+    @Override
+    public Optional<Claims> parseValidToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
     
@@ -86,24 +109,6 @@ public class JwtServiceImpl implements IJwtService {
      * Extrait toutes les claims du token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Vérifie si le token est expiré
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extrait la date d'expiration du token
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,415 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.ContributionStatus;
+import com.example.pariba.enums.LedgerEntryType;
+import com.example.pariba.enums.LedgerScope;
+import com.example.pariba.enums.PaymentStatus;
+import com.example.pariba.exceptions.ResourceNotFoundException;
+import com.example.pariba.models.Contribution;
+import com.example.pariba.models.LedgerBalance;
+import com.example.pariba.models.LedgerEntry;
+import com.example.pariba.models.Payment;
+import com.example.pariba.models.Payout;
+import com.example.pariba.repositories.ContributionRepository;
+import com.example.pariba.repositories.LedgerBalanceRepository;
+import com.example.pariba.repositories.LedgerEntryRepository;
+import com.example.pariba.repositories.PaymentRepository;
+import com.example.pariba.repositories.PayoutRepository;
+import com.example.pariba.repositories.TontineGroupRepository;
+import com.example.pariba.repositories.TourRepository;
+import com.example.pariba.services.ILedgerService;
+import com.example.pariba.utils.LedgerMismatch;
+import com.example.pariba.utils.LedgerSourceRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Grand livre des groupes.
+ * - chaque écriture verrouille la ligne du groupe : séquence continue et soldes mis à jour sans course
+ * - le premier événement d'un groupe (nouveau ou antérieur au grand livre) initialise les soldes depuis
+ *   les cotisations, paiements confirmés et versements, qui incluent déjà cet événement
+ * - Tour.totalDue / totalCollected suivent le solde du tour
+ */
+@Service
+@Slf4j
+public class LedgerServiceImpl implements ILedgerService {
+
+    private final LedgerEntryRepository entryRepository;
+    private final LedgerBalanceRepository balanceRepository;
+    private final TontineGroupRepository groupRepository;
+    private final TourRepository tourRepository;
+    private final ContributionRepository contributionRepository;
+    private final PaymentRepository paymentRepository;
+    private final PayoutRepository payoutRepository;
+
+    public LedgerServiceImpl(LedgerEntryRepository entryRepository,
+                             LedgerBalanceRepository balanceRepository,
+                             TontineGroupRepository groupRepository,
+                             TourRepository tourRepository,
+                             ContributionRepository contributionRepository,
+                             PaymentRepository paymentRepository,
+                             PayoutRepository payoutRepository) {
+        this.entryRepository = entryRepository;
+        this.balanceRepository = balanceRepository;
+        this.groupRepository = groupRepository;
+        this.tourRepository = tourRepository;
+        this.contributionRepository = contributionRepository;
+        this.paymentRepository = paymentRepository;
+        this.payoutRepository = payoutRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordContributionsDue(Collection<Contribution> contributions) {
+        Map<String, List<LedgerEntry>> entriesByGroup = new LinkedHashMap<>();
+        for (Contribution contribution : contributions) {
+            entriesByGroup.computeIfAbsent(contribution.getGroup().getId(), groupId -> new ArrayList<>())
+                    .add(entry(LedgerEntryType.CONTRIBUTION_DUE, contribution.getAmountDue(), contribution, null));
+        }
+        entriesByGroup.forEach(this::append);
+    }
+
+    @Override
+    @Transactional
+    public int recordPenalties(String groupId, String tourId, LocalDate dueDate, BigDecimal currentPenalty, BigDecimal penalty) {
+        BigDecimal delta = penalty.subtract(currentPenalty);
+        if (delta.signum() == 0) {
+            return 0;
+        }
+        lockGroup(groupId);
+        if (balanceRepository.findByGroupIdAndScopeAndScopeId(groupId, LedgerScope.GROUP, groupId).isEmpty()) {
+            // Les cotisations ne sont pas encore modifiées : soldes initialisés sur l'état avant pénalité
+            reconcile(groupId, true);
+        }
+
+        Map<String, LedgerBalance> touched = new LinkedHashMap<>();
+        LedgerBalance group = balance(touched, groupId, LedgerScope.GROUP, groupId, null, null);
+        long sequence = group.getLastSequence() + 1;
+
+        // Cotisations et membres : une mise à jour ensembliste par portée
+        int count = balanceRepository.addContributionPenalties(groupId, tourId, dueDate, ContributionStatus.UNPAID,
+                currentPenalty, delta, sequence);
+        if (count == 0) {
+            return 0;
+        }
+        balanceRepository.addMemberPenalties(groupId, tourId, dueDate, ContributionStatus.UNPAID,
+                currentPenalty, delta, sequence);
+
+        LedgerEntry entry = new LedgerEntry();
+        entry.setGroupId(groupId);
+        entry.setSequence(sequence);
+        entry.setType(LedgerEntryType.PENALTY);
+        entry.setAmount(delta.multiply(BigDecimal.valueOf(count)));
+        entry.setTourId(tourId);
+        apply(group, entry);
+        apply(balance(touched, groupId, LedgerScope.TOUR, tourId, tourId, null), entry);
+
+        entryRepository.save(entry);
+        balanceRepository.saveAll(touched.values());
+        syncTourTotals(touched.values());
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public void recordPaymentStatusChange(Payment payment, PaymentStatus previousStatus) {
+        if (payment.isPayout() || payment.getContribution() == null) {
+            return;
+        }
+        boolean confirmed = payment.getStatus() == PaymentStatus.CONFIRMED;
+        if (confirmed == (previousStatus == PaymentStatus.CONFIRMED)) {
+            return;
+        }
+        LedgerEntryType type = confirmed ? LedgerEntryType.PAYMENT_CONFIRMED : LedgerEntryType.PAYMENT_REVERSED;
+        append(payment.getGroup().getId(), List.of(entry(type, payment.getAmount(), payment.getContribution(), payment.getId())));
+    }
+
+    @Override
+    @Transactional
+    public void recordPayout(Payout payout) {
+        if (payout.getStatus() != PaymentStatus.CONFIRMED) {
+            return;
+        }
+        LedgerEntry entry = new LedgerEntry();
+        entry.setType(LedgerEntryType.PAYOUT);
+        entry.setAmount(payout.getAmount());
+        entry.setTourId(payout.getTour().getId());
+        entry.setMemberId(payout.getBeneficiary().getId());
+        entry.setReferenceId(payout.getId());
+        append(payout.getTour().getGroup().getId(), List.of(entry));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerBalance getGroupBalance(String groupId) {
+        return find(groupId, LedgerScope.GROUP, groupId, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerBalance getTourBalance(String groupId, String tourId) {
+        return find(groupId, LedgerScope.TOUR, tourId, tourId, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerBalance getMemberBalance(String groupId, String memberId) {
+        return find(groupId, LedgerScope.MEMBER, memberId, null, memberId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerBalance getContributionBalance(String groupId, String contributionId) {
+        return find(groupId, LedgerScope.CONTRIBUTION, contributionId, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerBalance> findDebtors(String groupId) {
+        return balanceRepository.findMemberDebtors(groupId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerBalance> findTourDebtors(String tourId) {
+        return balanceRepository.findTourDebtors(tourId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerEntry> getLatestEntries(String groupId, int limit) {
+        return entryRepository.findLatestByGroup(groupId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerMismatch> verify(String groupId) {
+        return reconcile(groupId, false);
+    }
+
+    @Override
+    @Transactional
+    public List<LedgerMismatch> rebuild(String groupId) {
+        lockGroup(groupId);
+        List<LedgerMismatch> mismatches = reconcile(groupId, true);
+        if (!mismatches.isEmpty()) {
+            log.warn("📒 Grand livre du groupe {} reconstruit : {} écarts corrigés", groupId, mismatches.size());
+        }
+        return mismatches;
+    }
+
+    @Override
+    @Transactional
+    public void deleteGroupLedger(String groupId) {
+        entryRepository.deleteByGroup(groupId);
+        balanceRepository.deleteByGroup(groupId);
+    }
+
+    private void append(String groupId, List<LedgerEntry> entries) {
+        lockGroup(groupId);
+
+        Map<String, LedgerBalance> touched = new LinkedHashMap<>();
+        Optional<LedgerBalance> existing = balanceRepository.findByGroupIdAndScopeAndScopeId(groupId, LedgerScope.GROUP, groupId);
+        boolean initialized = existing.isPresent();
+        if (!initialized) {
+            // Premier événement du groupe : les tables sources incluent déjà cet événement
+            reconcile(groupId, true);
+        }
+        LedgerBalance group = balance(touched, groupId, LedgerScope.GROUP, groupId, null, null);
+
+        long sequence = group.getLastSequence();
+        for (LedgerEntry entry : entries) {
+            entry.setGroupId(groupId);
+            entry.setSequence(++sequence);
+            if (initialized) {
+                apply(group, entry);
+                if (entry.getTourId() != null) {
+                    apply(balance(touched, groupId, LedgerScope.TOUR, entry.getTourId(), entry.getTourId(), null), entry);
+                }
+                if (entry.getMemberId() != null) {
+                    apply(balance(touched, groupId, LedgerScope.MEMBER, entry.getMemberId(), null, entry.getMemberId()), entry);
+                }
+                if (entry.getContributionId() != null) {
+                    apply(balance(touched, groupId, LedgerScope.CONTRIBUTION, entry.getContributionId(),
+                            entry.getTourId(), entry.getMemberId()), entry);
+                }
+            }
+        }
+        group.setLastSequence(sequence);
+
+        entryRepository.saveAll(entries);
+        balanceRepository.saveAll(touched.values());
+        syncTourTotals(touched.values());
+    }
+
+    private void apply(LedgerBalance balance, LedgerEntry entry) {
+        switch (entry.getType()) {
+            case CONTRIBUTION_DUE -> balance.setTotalDue(balance.getTotalDue().add(entry.getAmount()));
+            case PENALTY -> balance.setTotalPenalties(balance.getTotalPenalties().add(entry.getAmount()));
+            case PAYMENT_CONFIRMED -> balance.setTotalPaid(balance.getTotalPaid().add(entry.getAmount()));
+            case PAYMENT_REVERSED -> balance.setTotalPaid(balance.getTotalPaid().subtract(entry.getAmount()));
+            case PAYOUT -> balance.setTotalPaidOut(balance.getTotalPaidOut().add(entry.getAmount()));
+        }
+        balance.setLastSequence(entry.getSequence());
+    }
+
+    /**
+     * Compare (et corrige si repair) les soldes enregistrés avec ceux recalculés depuis les tables sources
+     */
+    private List<LedgerMismatch> reconcile(String groupId, boolean repair) {
+        Map<String, LedgerBalance> expected = expectedBalances(groupId);
+        Map<String, LedgerBalance> stored = new HashMap<>();
+        for (LedgerBalance balance : balanceRepository.findByGroupId(groupId)) {
+            stored.put(key(balance.getScope(), balance.getScopeId()), balance);
+        }
+
+        Set<String> keys = new LinkedHashSet<>(expected.keySet());
+        keys.addAll(stored.keySet());
+
+        List<LedgerMismatch> mismatches = new ArrayList<>();
+        List<LedgerBalance> repaired = new ArrayList<>();
+        for (String key : keys) {
+            LedgerBalance actual = stored.get(key);
+            LedgerBalance target = expected.get(key);
+            if (target == null) {
+                target = new LedgerBalance(groupId, actual.getScope(), actual.getScopeId(), actual.getTourId(), actual.getMemberId());
+            }
+            List<LedgerMismatch> differences = compare(actual, target);
+            if (differences.isEmpty()) {
+                continue;
+            }
+            mismatches.addAll(differences);
+            if (repair) {
+                if (actual == null) {
+                    actual = target;
+                    if (actual.getScope() == LedgerScope.GROUP) {
+                        // Soldes recréés : la séquence reprend après la dernière écriture existante
+                        actual.setLastSequence(entryRepository.findLastSequence(groupId));
+                    }
+                } else {
+                    actual.setTotalDue(target.getTotalDue());
+                    actual.setTotalPenalties(target.getTotalPenalties());
+                    actual.setTotalPaid(target.getTotalPaid());
+                    actual.setTotalPaidOut(target.getTotalPaidOut());
+                }
+                repaired.add(actual);
+            }
+        }
+
+        if (!repaired.isEmpty()) {
+            balanceRepository.saveAll(repaired);
+            syncTourTotals(repaired);
+        }
+        return mismatches;
+    }
+
+    private Map<String, LedgerBalance> expectedBalances(String groupId) {
+        Map<String, LedgerBalance> balances = new HashMap<>();
+
+        for (LedgerSourceRow row : contributionRepository.findLedgerSourceRows(groupId)) {
+            for (LedgerBalance balance : scopes(balances, groupId, row)) {
+                balance.setTotalDue(balance.getTotalDue().add(row.amount()));
+                balance.setTotalPenalties(balance.getTotalPenalties().add(row.penalty()));
+            }
+        }
+        for (LedgerSourceRow row : paymentRepository.sumByContribution(groupId, PaymentStatus.CONFIRMED)) {
+            for (LedgerBalance balance : scopes(balances, groupId, row)) {
+                balance.setTotalPaid(balance.getTotalPaid().add(row.amount()));
+            }
+        }
+        for (LedgerSourceRow row : payoutRepository.sumByTour(groupId, PaymentStatus.CONFIRMED)) {
+            for (LedgerBalance balance : scopes(balances, groupId, row)) {
+                balance.setTotalPaidOut(balance.getTotalPaidOut().add(row.amount()));
+            }
+        }
+        return balances;
+    }
+
+    private List<LedgerBalance> scopes(Map<String, LedgerBalance> balances, String groupId, LedgerSourceRow row) {
+        List<LedgerBalance> scopes = new ArrayList<>(4);
+        scopes.add(balance(balances, groupId, LedgerScope.GROUP, groupId, null, null));
+        scopes.add(balance(balances, groupId, LedgerScope.TOUR, row.tourId(), row.tourId(), null));
+        scopes.add(balance(balances, groupId, LedgerScope.MEMBER, row.memberId(), null, row.memberId()));
+        if (row.contributionId() != null) {
+            scopes.add(balance(balances, groupId, LedgerScope.CONTRIBUTION, row.contributionId(), row.tourId(), row.memberId()));
+        }
+        return scopes;
+    }
+
+    private List<LedgerMismatch> compare(LedgerBalance actual, LedgerBalance expected) {
+        List<LedgerMismatch> differences = new ArrayList<>();
+        LedgerBalance current = actual != null ? actual : new LedgerBalance();
+        compare(differences, expected, "totalDue", current.getTotalDue(), expected.getTotalDue());
+        compare(differences, expected, "totalPenalties", current.getTotalPenalties(), expected.getTotalPenalties());
+        compare(differences, expected, "totalPaid", current.getTotalPaid(), expected.getTotalPaid());
+        compare(differences, expected, "totalPaidOut", current.getTotalPaidOut(), expected.getTotalPaidOut());
+        return differences;
+    }
+
+    private void compare(List<LedgerMismatch> differences, LedgerBalance expected, String field,
+                         BigDecimal ledgerValue, BigDecimal expectedValue) {
+        if (ledgerValue.compareTo(expectedValue) != 0) {
+            differences.add(new LedgerMismatch(expected.getScope(), expected.getScopeId(), field, ledgerValue, expectedValue));
+        }
+    }
+
+    /**
+     * Solde de la portée : déjà chargé, enregistré, ou nouveau (nul)
+     */
+    private LedgerBalance balance(Map<String, LedgerBalance> balances, String groupId, LedgerScope scope,
+                                  String scopeId, String tourId, String memberId) {
+        return balances.computeIfAbsent(key(scope, scopeId), key ->
+                balanceRepository.findByGroupIdAndScopeAndScopeId(groupId, scope, scopeId)
+                        .orElseGet(() -> new LedgerBalance(groupId, scope, scopeId, tourId, memberId)));
+    }
+
+    private LedgerBalance find(String groupId, LedgerScope scope, String scopeId, String tourId, String memberId) {
+        return balanceRepository.findByGroupIdAndScopeAndScopeId(groupId, scope, scopeId)
+                .orElseGet(() -> new LedgerBalance(groupId, scope, scopeId, tourId, memberId));
+    }
+
+    private void syncTourTotals(Collection<LedgerBalance> balances) {
+        for (LedgerBalance balance : balances) {
+            if (balance.getScope() == LedgerScope.TOUR) {
+                tourRepository.findById(balance.getScopeId()).ifPresent(tour -> {
+                    tour.setTotalDue(balance.getTotalDue().add(balance.getTotalPenalties()));
+                    tour.setTotalCollected(balance.getTotalPaid());
+                });
+            }
+        }
+    }
+
+    private void lockGroup(String groupId) {
+        groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("TontineGroup", "id", groupId));
+    }
+
+    private static LedgerEntry entry(LedgerEntryType type, BigDecimal amount, Contribution contribution, String referenceId) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setType(type);
+        entry.setAmount(amount);
+        entry.setTourId(contribution.getTour().getId());
+        entry.setMemberId(contribution.getMember().getId());
+        entry.setContributionId(contribution.getId());
+        entry.setReferenceId(referenceId);
+        return entry;
+    }
+
+    private static String key(LedgerScope scope, String scopeId) {
+        return scope + ":" + scopeId;
+    }
+}
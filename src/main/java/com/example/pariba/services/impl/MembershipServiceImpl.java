@@ -13,6 +13,7 @@ import com.example.pariba.repositories.GroupMembershipRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IMembershipService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.services.ITontineGroupService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,15 +32,18 @@ public class MembershipServiceImpl implements IMembershipService {
     private final ITontineGroupService groupService;
     private final IAuditService auditService;
     private final INotificationService notificationService;
+    private final IPersonSummaryService personSummaryService;
 
     public MembershipServiceImpl(GroupMembershipRepository membershipRepository,
                                 ITontineGroupService groupService,
                                 IAuditService auditService,
-                                INotificationService notificationService) {
+                                INotificationService notificationService,
+                                IPersonSummaryService personSummaryService) {
         this.membershipRepository = membershipRepository;
         this.groupService = groupService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.personSummaryService = personSummaryService;
     }
 
     @Transactional(readOnly = true)
@@ -161,6 +165,7 @@ public class MembershipServiceImpl implements IMembershipService {
         String groupName = membership.getGroup().getNom();
         String removedPersonId = membership.getPerson().getId();
         
+        personSummaryService.onMembershipsRemoved(List.of(removedPersonId), groupId);
         membershipRepository.delete(membership);
 
         // Audit log
@@ -0,0 +1,271 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.NotificationChannel;
+import com.example.pariba.enums.NotificationType;
+import com.example.pariba.enums.OutboxStatus;
+import com.example.pariba.exceptions.ResourceNotFoundException;
+import com.example.pariba.models.NotificationOutbox;
+import com.example.pariba.repositories.NotificationOutboxRepository;
+import com.example.pariba.services.INotificationService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipeline d'envoi des notifications basé sur une table outbox.
+ * - enqueue() écrit l'entrée dans la transaction de l'appelant
+ * - après commit, l'entrée est confiée au pool de workers de son canal (file bornée)
+ * - si la file est pleine, l'entrée reste PENDING et sera reprise par le poller
+ * - en cas d'échec : nouvel essai avec backoff exponentiel, puis DEAD
+ * - un PUSH reste PROCESSING tant que son lot multicast n'est pas parti
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final INotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<NotificationChannel, ThreadPoolExecutor> executors = new EnumMap<>(NotificationChannel.class);
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.notifications.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.dispatch.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    @Value("${app.notifications.dispatch.poll-batch-size:200}")
+    private int pollBatchSize;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  @Lazy INotificationService notificationService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.notifications.dispatch.workers-per-channel:4}") int workersPerChannel,
+                                  @Value("${app.notifications.dispatch.queue-capacity:1000}") int queueCapacity) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            executors.put(channel, newChannelExecutor(channel, workersPerChannel, queueCapacity));
+        }
+    }
+
+    /**
+     * Enregistre la notification dans l'outbox ; la livraison démarre après le commit
+     * de la transaction courante (ou immédiatement s'il n'y en a pas).
+     */
+    public void enqueue(String personId, NotificationType type, NotificationChannel channel, Map<String, String> variables) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setPersonId(personId);
+        entry.setType(type);
+        entry.setChannel(channel);
+        entry.setVariablesJson(writeVariables(variables));
+        entry = outboxRepository.save(entry);
+
+        String entryId = entry.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(entryId, channel);
+                }
+            });
+        } else {
+            submit(entryId, channel);
+        }
+    }
+
+    /**
+     * Reprend les entrées prêtes (nouvel essai, file pleine au moment du commit, redémarrage)
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch.poll-interval-ms:5000}")
+    public void pollPending() {
+        Instant now = Instant.now();
+        int released = outboxRepository.releaseStale(now.minus(Duration.ofMinutes(5)), now);
+        if (released > 0) {
+            log.warn("{} notifications bloquées en PROCESSING remises en attente", released);
+        }
+
+        List<NotificationOutbox> ready = outboxRepository.findReady(now, PageRequest.of(0, pollBatchSize));
+        for (NotificationOutbox entry : ready) {
+            submit(entry.getId(), entry.getChannel());
+        }
+    }
+
+    /**
+     * Purge quotidienne des entrées déjà envoyées
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(Instant.now().minus(Duration.ofDays(7)));
+        log.info("🧹 {} entrées outbox envoyées supprimées", deleted);
+    }
+
+    private void submit(String entryId, NotificationChannel channel) {
+        if (!inFlight.add(entryId)) {
+            return;
+        }
+        try {
+            executors.get(channel).execute(() -> {
+                try {
+                    process(entryId);
+                } finally {
+                    inFlight.remove(entryId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Contre-pression : l'entrée reste PENDING, le poller la reprendra
+            inFlight.remove(entryId);
+            log.debug("File {} pleine, notification {} différée", channel, entryId);
+        }
+    }
+
+    private void process(String entryId) {
+        if (outboxRepository.claim(entryId, Instant.now()) == 0) {
+            return; // déjà prise par un autre worker ou une autre instance
+        }
+
+        NotificationOutbox entry = outboxRepository.findById(entryId).orElse(null);
+        if (entry == null) {
+            return;
+        }
+
+        CompletableFuture<Void> delivery;
+        try {
+            delivery = notificationService.deliverNotificationWithTemplate(entry, readVariables(entry.getVariablesJson()));
+        } catch (Exception e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+
+        if (delivery.isDone()) {
+            finish(entry, failureOf(delivery));
+            return;
+        }
+
+        // Push en attente de son lot : l'entrée reste PROCESSING (releaseStale la reprend après un crash)
+        // et n'est marquée SENT, ou replanifiée, qu'au retour du multicast
+        outboxRepository.save(entry);
+        delivery.whenComplete((ok, error) -> outboxRepository.findById(entryId)
+            .ifPresent(current -> finish(current, unwrap(error))));
+    }
+
+    private void finish(NotificationOutbox entry, Throwable error) {
+        if (error == null) {
+            entry.setStatus(OutboxStatus.SENT);
+            entry.setSentAt(Instant.now());
+            entry.setLastError(null);
+        } else {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(error.getMessage()));
+
+            if (error instanceof ResourceNotFoundException || attempts >= maxAttempts) {
+                entry.setStatus(OutboxStatus.DEAD);
+                log.error("❌ Notification {} {} abandonnée après {} essai(s): {}",
+                    entry.getType(), entry.getChannel(), attempts, error.getMessage());
+            } else {
+                entry.setStatus(OutboxStatus.PENDING);
+                entry.setNextAttemptAt(Instant.now().plusSeconds(backoffSeconds << (attempts - 1)));
+                log.warn("Échec envoi notification {} {} (essai {}), nouvel essai prévu: {}",
+                    entry.getType(), entry.getChannel(), attempts, error.getMessage());
+            }
+        }
+        outboxRepository.save(entry);
+    }
+
+    private Throwable failureOf(CompletableFuture<Void> delivery) {
+        try {
+            delivery.join();
+            return null;
+        } catch (CompletionException e) {
+            return unwrap(e);
+        }
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private ThreadPoolExecutor newChannelExecutor(NotificationChannel channel, int workers, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            workers, workers, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "notif-" + channel.name().toLowerCase() + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private String writeVariables(Map<String, String> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Variables de notification non sérialisables", e);
+        }
+    }
+
+    private Map<String, String> readVariables(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, String>>(){});
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor executor : executors.values()) {
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.example.pariba.services.impl;
 
+import com.example.pariba.dtos.responses.CursorPageResponse;
 import com.example.pariba.dtos.responses.NotificationResponse;
 import com.example.pariba.enums.NotificationChannel;
 import com.example.pariba.enums.NotificationType;
 import com.example.pariba.exceptions.ResourceNotFoundException;
 import com.example.pariba.models.Notification;
+import com.example.pariba.models.NotificationOutbox;
 import com.example.pariba.models.Person;
-import com.example.pariba.repositories.DeviceTokenRepository;
 import com.example.pariba.repositories.NotificationRepository;
-import com.example.pariba.repositories.NotificationTemplateRepository;
 import com.example.pariba.repositories.PersonRepository;
 import com.example.pariba.services.IEmailService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.services.IPushNotificationService;
+import com.example.pariba.services.IRealtimeService;
+import com.example.pariba.utils.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,23 +38,42 @@ public class NotificationServiceImpl implements INotificationService {
 
     private final NotificationRepository notificationRepository;
     private final PersonRepository personRepository;
-    private final NotificationTemplateRepository templateRepository;
+    private final NotificationTemplateCache templateCache;
     private final IEmailService emailService;
     private final IPushNotificationService pushService;
-    private final DeviceTokenRepository deviceTokenRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final PushNotificationBatcher pushBatcher;
+    private final DeviceTokenIndex deviceTokenIndex;
+    private final IPersonSummaryService personSummaryService;
+    private final IRealtimeService realtimeService;
+
+
+    @Value("${app.notifications.inbox.max-page-size:100}")
+    private int inboxMaxPageSize;
+
+    @Value("${app.notifications.inbox.delete-batch-size:500}")
+    private int deleteBatchSize;
 
     public NotificationServiceImpl(NotificationRepository notificationRepository,
                                   PersonRepository personRepository,
-                                  NotificationTemplateRepository templateRepository,
+                                  NotificationTemplateCache templateCache,
                                   IEmailService emailService,
                                   IPushNotificationService pushService,
-                                  DeviceTokenRepository deviceTokenRepository) {
+                                  NotificationDispatcher notificationDispatcher,
+                                  PushNotificationBatcher pushBatcher,
+                                  DeviceTokenIndex deviceTokenIndex,
+                                  IPersonSummaryService personSummaryService,
+                                  IRealtimeService realtimeService) {
         this.notificationRepository = notificationRepository;
         this.personRepository = personRepository;
-        this.templateRepository = templateRepository;
+        this.templateCache = templateCache;
         this.emailService = emailService;
         this.pushService = pushService;
-        this.deviceTokenRepository = deviceTokenRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.pushBatcher = pushBatcher;
+        this.deviceTokenIndex = deviceTokenIndex;
+        this.personSummaryService = personSummaryService;
+        this.realtimeService = realtimeService;
     }
 
     @Override
@@ -61,6 +91,7 @@ public class NotificationServiceImpl implements INotificationService {
         notification.setReadFlag(false);
 
         notificationRepository.save(notification);
+        onNotificationCreated(notification);
 
         // TODO: Envoyer la notification via le canal approprié (SMS, Email, Push)
         sendViaChannel(notification, channel);
@@ -69,16 +100,42 @@ public class NotificationServiceImpl implements INotificationService {
     @Override
     public void sendNotificationWithTemplate(String personId, NotificationType type, 
                                             NotificationChannel channel, Map<String, String> variables) {
+        // Écrit dans l'outbox : l'envoi réel (FCM, SMTP) se fait après commit, hors du thread appelant
+        notificationDispatcher.enqueue(personId, type, channel, variables);
+    }
+    
+    @Override
+    public void sendGroupNotificationWithTemplate(Collection<String> personIds, NotificationType type,
+                                                 NotificationChannel channel, Map<String, String> variables) {
+        // Une entrée outbox par membre (historique individuel) ; pour PUSH, les envois
+        // de même contenu sont regroupés en multicast par le PushNotificationBatcher
+        for (String personId : new LinkedHashSet<>(personIds)) {
+            notificationDispatcher.enqueue(personId, type, channel, variables);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> deliverNotificationWithTemplate(NotificationOutbox entry, Map<String, String> variables) {
+        String personId = entry.getPersonId();
+        NotificationType type = entry.getType();
+        NotificationChannel channel = entry.getChannel();
+
+        // Nouvel essai d'un push déjà historisé : on renvoie la même notification, sans doublon en base
+        if (channel == NotificationChannel.PUSH && entry.getNotificationId() != null) {
+            return notificationRepository.findById(entry.getNotificationId())
+                    .map(this::sendPushNotification)
+                    .orElseGet(() -> CompletableFuture.completedFuture(null));
+        }
+
         Person person = personRepository.findById(personId)
                 .orElseThrow(() -> new ResourceNotFoundException("Person", "id", personId));
         
-        // Récupérer le template
-        var template = templateRepository.findByTypeAndChannelAndActiveTrue(type, channel)
-                .orElse(null);
+        // Récupérer le template compilé (cache, pas d'accès base à chaque notification)
+        var template = templateCache.get(type, channel).orElse(null);
         
         if (template == null) {
             log.warn("Aucun template trouvé pour type={}, channel={}", type, channel);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
         // Ajouter les informations de la personne aux variables
@@ -86,30 +143,30 @@ public class NotificationServiceImpl implements INotificationService {
         allVariables.put("prenom", person.getPrenom() != null ? person.getPrenom() : "");
         allVariables.put("nom", person.getNom() != null ? person.getNom() : "");
         
-        // Remplacer les variables dans le template
-        String subject = replaceVariables(template.getSubject(), allVariables);
-        String body = replaceVariables(template.getBodyTemplate(), allVariables);
+        // Rendu en une passe des variables dans le template
+        String subject = template.renderSubject(allVariables);
+        String body = template.renderBody(allVariables);
         
         log.info("Envoi notification {} via {} à {}: {}", type, channel, person.getPhone(), subject);
         
         // Envoyer directement selon le canal avec les variables
-        sendDirectViaChannel(person, type, channel, subject, body, allVariables);
+        return sendDirectViaChannel(entry, person, subject, body, allVariables);
     }
     
     /**
-     * Envoie directement via le canal avec les variables déjà remplacées
+     * Envoie directement via le canal avec les variables déjà remplacées.
+     * Pour PUSH, le futur se termine quand le lot FCM est parti.
      */
-    private void sendDirectViaChannel(Person person, NotificationType type, NotificationChannel channel, 
-                                      String subject, String body, Map<String, String> variables) {
+    private CompletableFuture<Void> sendDirectViaChannel(NotificationOutbox entry, Person person,
+                                                         String subject, String body, Map<String, String> variables) {
+        NotificationType type = entry.getType();
+        NotificationChannel channel = entry.getChannel();
         switch (channel) {
             case EMAIL -> {
                 if (person.getEmail() != null && !person.getEmail().isEmpty()) {
-                    try {
-                        emailService.sendHtmlEmail(person.getEmail(), subject, body);
-                        log.info("Email envoyé à: {}", person.getEmail());
-                    } catch (Exception e) {
-                        log.error("Erreur lors de l'envoi de l'email: {}", e.getMessage());
-                    }
+                    // Les erreurs SMTP remontent au dispatcher qui replanifie l'envoi
+                    emailService.sendHtmlEmail(person.getEmail(), subject, body);
+                    log.info("Email envoyé à: {}", person.getEmail());
                 }
             }
             case SMS -> {
@@ -132,38 +189,61 @@ public class NotificationServiceImpl implements INotificationService {
                 }
                 
                 notificationRepository.save(notification);
+                onNotificationCreated(notification);
+                entry.setNotificationId(notification.getId());
                 
-                sendPushNotification(notification);
+                return sendPushNotification(notification);
             }
             case WHATSAPP -> {
                 // TODO: Implémenter WhatsApp
                 log.warn("WhatsApp non implémenté pour: {}", person.getPhone());
             }
         }
+        return CompletableFuture.completedFuture(null);
     }
     
-    /**
-     * Remplace les variables {{variable}} dans un template
-     */
-    private String replaceVariables(String template, Map<String, String> variables) {
-        if (template == null || variables == null) {
-            return template;
+    @Override
+    public void sendBulkNotification(List<String> personIds, NotificationType type, 
+                                    String title, String message, NotificationChannel channel) {
+        if (channel != NotificationChannel.PUSH) {
+            for (String personId : personIds) {
+                sendNotification(personId, type, title, message, channel);
+            }
+            return;
         }
         
-        String result = template;
-        for (Map.Entry<String, String> entry : variables.entrySet()) {
-            String placeholder = "{{" + entry.getKey() + "}}";
-            result = result.replace(placeholder, entry.getValue() != null ? entry.getValue() : "");
+        // Push : personnes et tokens lus par lots, un seul multicast pour tous les appareils
+        List<Person> persons = personRepository.findAllById(new LinkedHashSet<>(personIds));
+        List<Notification> notifications = new ArrayList<>();
+        for (Person person : persons) {
+            Notification notification = new Notification();
+            notification.setPerson(person);
+            notification.setType(type);
+            notification.setTitle(title);
+            notification.setBody(message);
+            notification.setChannel(channel);
+            notification.setReadFlag(false);
+            notifications.add(notification);
         }
-        return result;
+        notificationRepository.saveAll(notifications);
+        notifications.forEach(this::onNotificationCreated);
+        
+        List<String> tokens = new ArrayList<>();
+        deviceTokenIndex.tokensOf(persons.stream().map(Person::getId).toList()).values().forEach(tokens::addAll);
+        if (!tokens.isEmpty()) {
+            pushBatcher.submit(tokens, title, message, Map.of("type", type.name()));
+        }
+        log.info("Push groupé planifié pour {} personnes ({} appareils)", persons.size(), tokens.size());
     }
-
+    
     @Override
-    public void sendBulkNotification(List<String> personIds, NotificationType type, 
-                                    String title, String message, NotificationChannel channel) {
-        for (String personId : personIds) {
-            sendNotification(personId, type, title, message, channel);
+    public void sendPush(String personId, String title, String body, Map<String, String> data) {
+        List<String> tokens = deviceTokenIndex.tokensOf(personId);
+        if (tokens.isEmpty()) {
+            log.warn("Aucun appareil actif pour la personne: {}", personId);
+            return;
         }
+        pushBatcher.submit(tokens, title, body, data);
     }
 
     @Override
@@ -182,6 +262,40 @@ public class NotificationServiceImpl implements INotificationService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public int countUnread(String personId) {
+        return personSummaryService.getUnreadCount(personId);
+    }
+
+    @Override
+    public CursorPageResponse<NotificationResponse> getInbox(String personId, Boolean unread, String cursor, int size) {
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, inboxMaxPageSize));
+        // Une ligne de plus pour savoir s'il reste une page, sans COUNT
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Notification> rows;
+        if (unread == null) {
+            rows = before == null
+                ? notificationRepository.findByPersonIdOrderByCreatedAtDescIdDesc(personId, pageable)
+                : notificationRepository.findInboxPageBefore(personId, before.createdAt(), before.id(), pageable);
+        } else {
+            boolean readFlag = !unread;
+            rows = before == null
+                ? notificationRepository.findByPersonIdAndReadFlagOrderByCreatedAtDescIdDesc(personId, readFlag, pageable)
+                : notificationRepository.findInboxPageByReadFlagBefore(personId, readFlag, before.createdAt(), before.id(), pageable);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Notification> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(page.stream().map(NotificationResponse::new).toList(), hasNext, nextCursor);
+    }
+
     @Override
     public void markAsRead(String notificationId, String personId) {
         Notification notification = notificationRepository.findById(notificationId)
@@ -191,20 +305,49 @@ public class NotificationServiceImpl implements INotificationService {
             throw new ResourceNotFoundException("Notification", "id", notificationId);
         }
 
+        boolean wasUnread = !notification.isReadFlag();
         notification.setReadFlag(true);
         notificationRepository.save(notification);
+
+        if (wasUnread) {
+            onNotificationsRead(personId, 1);
+        }
     }
 
     @Override
+    @Transactional
     public void markAllAsRead(String personId) {
-        List<Notification> notifications = notificationRepository
-                .findByPersonIdAndReadFlagOrderByCreatedAtDesc(personId, false);
+        int updated = notificationRepository.markAllAsRead(personId);
+        onAllNotificationsRead(personId);
+        log.info("{} notifications marquées comme lues pour la personne: {}", updated, personId);
+    }
 
-        for (Notification notification : notifications) {
-            notification.setReadFlag(true);
-        }
+    @Override
+    @Transactional
+    public int markAsRead(Collection<String> notificationIds, String personId) {
+        // Le nombre de lignes passées à lues est exactement la baisse du compteur
+        int read = notificationRepository.markAsRead(personId, notificationIds);
+        onNotificationsRead(personId, read);
+        return read;
+    }
 
-        notificationRepository.saveAll(notifications);
+    /**
+     * Compteur de non lues et envoi temps réel : toute notification historisée apparaît dans la boîte de réception
+     */
+    private void onNotificationCreated(Notification notification) {
+        String personId = notification.getPerson().getId();
+        personSummaryService.onNotificationCreated(personId);
+        realtimeService.notificationCreated(personId, new NotificationResponse(notification));
+    }
+
+    private void onNotificationsRead(String personId, int count) {
+        personSummaryService.onNotificationsRead(personId, count);
+        realtimeService.notificationsRead(personId, count);
+    }
+
+    private void onAllNotificationsRead(String personId) {
+        personSummaryService.onAllNotificationsRead(personId);
+        realtimeService.allNotificationsRead(personId);
     }
 
     private void sendViaChannel(Notification notification, NotificationChannel channel) {
@@ -240,10 +383,10 @@ public class NotificationServiceImpl implements INotificationService {
             }
             
             // Chercher un template
-            var template = templateRepository.findByTypeAndChannelAndLanguageAndActiveTrue(
+            var template = templateCache.get(
                 notification.getType(), 
                 NotificationChannel.EMAIL, 
-                "fr"
+                NotificationTemplateCache.DEFAULT_LANGUAGE
             );
             
             if (template.isPresent()) {
@@ -254,11 +397,10 @@ public class NotificationServiceImpl implements INotificationService {
                 variables.put("titre", notification.getTitle());
                 variables.put("message", notification.getBody());
                 
-                emailService.sendTemplateEmail(
+                emailService.sendHtmlEmail(
                     person.getEmail(),
-                    template.get().getSubject(),
-                    template.get().getBodyTemplate(),
-                    variables
+                    template.get().renderSubject(variables),
+                    template.get().renderBody(variables)
                 );
             } else {
                 // Email simple sans template
@@ -276,18 +418,18 @@ public class NotificationServiceImpl implements INotificationService {
     }
     
     /**
-     * Envoyer une notification push
+     * Envoyer une notification push ; le futur se termine (ou échoue) avec le lot FCM
      */
-    private void sendPushNotification(Notification notification) {
+    private CompletableFuture<Void> sendPushNotification(Notification notification) {
         try {
             Person person = notification.getPerson();
             
-            // Vérifier si la personne a un token FCM
-            String fcmToken = person.getFcmToken();
+            // Tous les appareils actifs de la personne (index en mémoire, pas de lecture en base par envoi)
+            List<String> tokens = deviceTokenIndex.tokensOf(person.getId());
             
-            if (fcmToken == null || fcmToken.isEmpty()) {
-                log.warn("Pas de token FCM pour la personne: {}", person.getId());
-                return;
+            if (tokens.isEmpty()) {
+                log.warn("Aucun appareil actif pour la personne: {}", person.getId());
+                return CompletableFuture.completedFuture(null);
             }
             
             // Préparer les données
@@ -295,17 +437,19 @@ public class NotificationServiceImpl implements INotificationService {
             data.put("notificationId", notification.getId());
             data.put("type", notification.getType().name());
             
-            // Envoyer la notification push
-            pushService.sendToDevice(
-                fcmToken,
+            // Confier le push au batcher : les pushs identiques partent en un seul multicast
+            CompletableFuture<Void> sent = pushBatcher.submit(
+                tokens,
                 notification.getTitle(),
                 notification.getBody(),
                 data
             );
             
-            log.info("Push envoyé à la personne: {}", person.getId());
+            log.info("Push planifié pour la personne: {}", person.getId());
+            return sent;
         } catch (Exception e) {
             log.error("Erreur lors de l'envoi du push: {}", e.getMessage());
+            return CompletableFuture.failedFuture(e);
         }
     }
      @Override
@@ -314,6 +458,7 @@ public class NotificationServiceImpl implements INotificationService {
             .orElseThrow(() -> new ResourceNotFoundException("Person", "id", personId));
         person.setFcmToken(fcmToken);
         personRepository.save(person);
+        deviceTokenIndex.evict(personId);
         log.info("Token FCM enregistré pour la personne: {}", personId);
     }
 
@@ -328,14 +473,34 @@ public class NotificationServiceImpl implements INotificationService {
         }
         
         notificationRepository.delete(notification);
+        if (!notification.isReadFlag()) {
+            onNotificationsRead(personId, 1);
+        }
         log.info("Notification {} supprimée pour la personne: {}", notificationId, personId);
     }
 
     @Override
     public void deleteAllNotifications(String personId) {
-        List<Notification> notifications = notificationRepository.findByPersonIdOrderByCreatedAtDesc(personId);
-        notificationRepository.deleteAll(notifications);
-        log.info("Toutes les notifications supprimées pour la personne: {}", personId);
+        // Suppression par lots d'ids, chaque lot dans sa propre transaction : pas de verrou long sur tout l'historique
+        long deleted = 0;
+        List<String> ids;
+        do {
+            ids = notificationRepository.findIdsByPersonId(personId, PageRequest.of(0, deleteBatchSize));
+            if (!ids.isEmpty()) {
+                deleted += notificationRepository.deleteByIds(personId, ids);
+            }
+        } while (ids.size() == deleteBatchSize);
+        onAllNotificationsRead(personId);
+        log.info("{} notifications supprimées pour la personne: {}", deleted, personId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteNotifications(Collection<String> notificationIds, String personId) {
+        int unread = notificationRepository.deleteUnreadByIds(personId, notificationIds);
+        int others = notificationRepository.deleteByIds(personId, notificationIds);
+        onNotificationsRead(personId, unread);
+        return unread + others;
     }
 
 }
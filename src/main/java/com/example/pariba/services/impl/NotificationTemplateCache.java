@@ -0,0 +1,85 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.NotificationChannel;
+import com.example.pariba.enums.NotificationType;
+import com.example.pariba.models.NotificationTemplate;
+import com.example.pariba.repositories.NotificationTemplateRepository;
+import com.example.pariba.utils.CompiledTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des templates de notification compilés par (type, canal, langue).
+ * Invalidé par AdminNotificationTemplateController à chaque modification ; un TTL
+ * borne la fraîcheur lorsque plusieurs instances partagent la base.
+ */
+@Component
+@Slf4j
+public class NotificationTemplateCache {
+
+    public static final String DEFAULT_LANGUAGE = "fr";
+
+    private final NotificationTemplateRepository templateRepository;
+    private final Duration ttl;
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+
+    public NotificationTemplateCache(NotificationTemplateRepository templateRepository,
+                                     @Value("${app.notifications.template-cache-ttl-seconds:600}") long ttlSeconds) {
+        this.templateRepository = templateRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public Optional<Compiled> get(NotificationType type, NotificationChannel channel) {
+        return get(type, channel, DEFAULT_LANGUAGE);
+    }
+
+    public Optional<Compiled> get(NotificationType type, NotificationChannel channel, String language) {
+        Key key = new Key(type, channel, language);
+        Entry entry = cache.get(key);
+        if (entry == null || entry.loadedAt().plus(ttl).isBefore(Instant.now())) {
+            entry = new Entry(load(type, channel, language), Instant.now());
+            cache.put(key, entry);
+        }
+        return Optional.ofNullable(entry.template());
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+        log.info("Cache des templates de notifications vidé");
+    }
+
+    private Compiled load(NotificationType type, NotificationChannel channel, String language) {
+        Optional<NotificationTemplate> template = templateRepository
+                .findByTypeAndChannelAndLanguageAndActiveTrue(type, channel, language);
+        if (template.isEmpty()) {
+            template = templateRepository.findByTypeAndChannelAndActiveTrue(type, channel);
+        }
+        return template
+                .map(t -> new Compiled(CompiledTemplate.compile(t.getSubject()), CompiledTemplate.compile(t.getBodyTemplate())))
+                .orElse(null);
+    }
+
+    /**
+     * Template prêt à l'emploi (sujet et corps compilés)
+     */
+    public record Compiled(CompiledTemplate subject, CompiledTemplate body) {
+        public String renderSubject(Map<String, String> variables) {
+            return subject != null ? subject.render(variables) : null;
+        }
+
+        public String renderBody(Map<String, String> variables) {
+            return body != null ? body.render(variables) : null;
+        }
+    }
+
+    private record Key(NotificationType type, NotificationChannel channel, String language) {}
+
+    private record Entry(Compiled template, Instant loadedAt) {}
+}
@@ -4,6 +4,7 @@ import com.example.pariba.exceptions.BadRequestException;
 import com.example.pariba.exceptions.ResourceNotFoundException;
 import com.example.pariba.models.Person;
 import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.security.JwtPrincipalCache;
 import com.example.pariba.services.IEmailService;
 import com.example.pariba.services.IPasswordResetService;
 import com.example.pariba.services.ISmsService;
@@ -28,6 +29,7 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
     private final IEmailService emailService;
     private final ISmsService smsService;
     private final PasswordEncoder passwordEncoder;
+    private final JwtPrincipalCache principalCache;
     
     // Stockage temporaire des OTP (en production, utiliser Redis)
     private final Map<String, OtpData> otpStorage = new HashMap<>();
@@ -45,11 +47,13 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
     public PasswordResetServiceImpl(PersonRepository personRepository,
                                    IEmailService emailService,
                                    ISmsService smsService,
-                                   PasswordEncoder passwordEncoder) {
+                                   PasswordEncoder passwordEncoder,
+                                   JwtPrincipalCache principalCache) {
         this.personRepository = personRepository;
         this.emailService = emailService;
         this.smsService = smsService;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
     
     @Override
@@ -121,6 +125,7 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
         
         person.getUser().setPassword(passwordEncoder.encode(newPassword));
         personRepository.save(person);
+        principalCache.revoke(person.getId());
         
         // Supprimer l'OTP utilisé
         otpStorage.remove(identifier);
@@ -145,6 +150,7 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
         // Mettre à jour le mot de passe
         person.getUser().setPassword(passwordEncoder.encode(newPassword));
         personRepository.save(person);
+        principalCache.revoke(personId);
         
         log.info("✅ Mot de passe changé pour l'utilisateur: {}", personId);
     }
@@ -290,6 +296,7 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
             // Changer le mot de passe
             person.getUser().setPassword(passwordEncoder.encode(newPassword));
             personRepository.save(person);
+            principalCache.revoke(person.getId());
             
             // Supprimer le token utilisé
             resetTokenStorage.remove(token);
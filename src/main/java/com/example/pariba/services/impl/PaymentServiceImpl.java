@@ -23,8 +23,11 @@ import com.example.pariba.repositories.PaymentRepository;
 import com.example.pariba.repositories.PersonRepository;
 import com.example.pariba.services.IAuditService;
 import com.example.pariba.services.IContributionService;
+import com.example.pariba.services.ILedgerService;
 import com.example.pariba.services.INotificationService;
 import com.example.pariba.services.IPaymentService;
+import com.example.pariba.services.IPersonSummaryService;
+import com.example.pariba.services.IRealtimeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -50,6 +53,9 @@ public class PaymentServiceImpl implements IPaymentService {
     private final IContributionService contributionService;
     private final IAuditService auditService;
     private final INotificationService notificationService;
+    private final IPersonSummaryService personSummaryService;
+    private final ILedgerService ledgerService;
+    private final IRealtimeService realtimeService;
 
     public PaymentServiceImpl(PaymentRepository paymentRepository,
                              ContributionRepository contributionRepository,
@@ -57,7 +63,10 @@ public class PaymentServiceImpl implements IPaymentService {
                              GroupMembershipRepository membershipRepository,
                              IContributionService contributionService,
                              IAuditService auditService,
-                             INotificationService notificationService) {
+                             INotificationService notificationService,
+                             IPersonSummaryService personSummaryService,
+                             ILedgerService ledgerService,
+                             IRealtimeService realtimeService) {
         this.paymentRepository = paymentRepository;
         this.contributionRepository = contributionRepository;
         this.personRepository = personRepository;
@@ -65,6 +74,9 @@ public class PaymentServiceImpl implements IPaymentService {
         this.contributionService = contributionService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.personSummaryService = personSummaryService;
+        this.ledgerService = ledgerService;
+        this.realtimeService = realtimeService;
     }
 
     @Override
@@ -168,7 +180,9 @@ public class PaymentServiceImpl implements IPaymentService {
             log.error("❌ Erreur notification déclaration paiement: {}", e.getMessage());
         }
 
-        return new PaymentResponse(payment);
+        PaymentResponse response = new PaymentResponse(payment);
+        realtimeService.paymentUpdated(payment.getGroup().getId(), response);
+        return response;
     }
     @Override
     @Transactional
@@ -204,7 +218,9 @@ public class PaymentServiceImpl implements IPaymentService {
         auditService.log(adminId, "VERIFY_PAYMENT", "Payment", payment.getId(),
                 String.format("{\"status\": \"%s\"}", payment.getStatus()));
 
-        return new PaymentResponse(payment);
+        PaymentResponse response = new PaymentResponse(payment);
+        realtimeService.paymentUpdated(payment.getGroup().getId(), response);
+        return response;
     }
 
 
@@ -225,6 +241,7 @@ public class PaymentServiceImpl implements IPaymentService {
         }
 
         // Mettre à jour le statut du paiement
+        PaymentStatus previousStatus = payment.getStatus();
         payment.setStatus(request.isConfirmed() ? PaymentStatus.CONFIRMED : PaymentStatus.REJECTED);
         payment.setAdminNotes(request.getNotes());
         payment.setValidatedBy(personRepository.findById(adminId).orElseThrow());
@@ -232,17 +249,22 @@ public class PaymentServiceImpl implements IPaymentService {
         
         payment = paymentRepository.save(payment);
 
-        // Si le paiement est confirmé, vérifier si la contribution est maintenant payée
+        // Résumé du payeur et grand livre : une seule fois par transition
+        if (payment.getStatus() != previousStatus) {
+            personSummaryService.onPaymentValidated(payment.getPayer().getId(), payment.getAmount(),
+                    payment.getStatus() == PaymentStatus.CONFIRMED);
+            ledgerService.recordPaymentStatusChange(payment, previousStatus);
+        }
+
+        // Si le paiement est confirmé, vérifier si la contribution est maintenant payée (solde de la cotisation)
         if (payment.getStatus() == PaymentStatus.CONFIRMED) {
             Contribution contribution = payment.getContribution();
             
-            BigDecimal totalPaid = paymentRepository.findByContributionId(contribution.getId())
-                    .stream()
-                    .filter(p -> p.getStatus() == PaymentStatus.CONFIRMED)
-                    .map(Payment::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal totalPaid = ledgerService.getContributionBalance(payment.getGroup().getId(), contribution.getId())
+                    .getTotalPaid();
 
-            BigDecimal totalDue = contribution.getAmountDue().add(contribution.getPenaltyApplied());
+            BigDecimal penalty = contribution.getPenaltyApplied() != null ? contribution.getPenaltyApplied() : BigDecimal.ZERO;
+            BigDecimal totalDue = contribution.getAmountDue().add(penalty);
 
             if (totalPaid.compareTo(totalDue) >= 0) {
                 contributionService.markAsPaid(contribution.getId());
@@ -297,7 +319,9 @@ public class PaymentServiceImpl implements IPaymentService {
             log.error("❌ Erreur notification validation paiement: {}", e.getMessage());
         }
 
-        return new PaymentResponse(payment);
+        PaymentResponse response = new PaymentResponse(payment);
+        realtimeService.paymentUpdated(payment.getGroup().getId(), response);
+        return response;
     }
 
     @Override
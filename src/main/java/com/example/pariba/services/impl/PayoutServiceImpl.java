@@ -15,6 +15,7 @@ import com.example.pariba.models.Tour;
 import com.example.pariba.repositories.PayoutRepository;
 import com.example.pariba.repositories.TourRepository;
 import com.example.pariba.services.IAuditService;
+import com.example.pariba.services.ILedgerService;
 import com.example.pariba.services.INotificationService;
 import com.example.pariba.services.IPayoutService;
 import com.example.pariba.services.ITontineGroupService;
@@ -37,17 +38,20 @@ public class PayoutServiceImpl implements IPayoutService {
     private final ITontineGroupService groupService;
     private final IAuditService auditService;
     private final INotificationService notificationService;
+    private final ILedgerService ledgerService;
 
     public PayoutServiceImpl(PayoutRepository payoutRepository,
                             TourRepository tourRepository,
                             ITontineGroupService groupService,
                             IAuditService auditService,
-                            INotificationService notificationService) {
+                            INotificationService notificationService,
+                            ILedgerService ledgerService) {
         this.payoutRepository = payoutRepository;
         this.tourRepository = tourRepository;
         this.groupService = groupService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.ledgerService = ledgerService;
     }
 
     @Override
@@ -83,6 +87,7 @@ public class PayoutServiceImpl implements IPayoutService {
         payout.setStatus(PaymentStatus.CONFIRMED);
 
         payout = payoutRepository.save(payout);
+        ledgerService.recordPayout(payout);
 
         // Audit log
         auditService.log(personId, AppConstants.AUDIT_PAYOUT_TOUR, "Payout", payout.getId(), 
@@ -2,27 +2,45 @@ package com.example.pariba.services.impl;
 
 import com.example.pariba.dtos.requests.UpdateProfileRequest;
 import com.example.pariba.dtos.responses.PersonResponse;
+import com.example.pariba.dtos.responses.PersonalStatisticsResponse;
+import com.example.pariba.enums.GroupRole;
 import com.example.pariba.exceptions.ResourceNotFoundException;
 import com.example.pariba.models.Person;
+import com.example.pariba.models.PersonSummary;
+import com.example.pariba.repositories.GroupMembershipRepository;
 import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.security.JwtPrincipalCache;
 import com.example.pariba.services.IPersonService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.storages.StorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 @Service
 @Slf4j
 public class PersonServiceImpl implements IPersonService {
 
     private final PersonRepository personRepository;
     private final StorageService storageService;
+    private final JwtPrincipalCache principalCache;
+    private final GroupMembershipRepository membershipRepository;
+    private final IPersonSummaryService personSummaryService;
 
     public PersonServiceImpl(PersonRepository personRepository, 
-                            StorageService storageService) {
+                            StorageService storageService,
+                            JwtPrincipalCache principalCache,
+                            GroupMembershipRepository membershipRepository,
+                            IPersonSummaryService personSummaryService) {
         this.personRepository = personRepository;
         this.storageService = storageService;
+        this.principalCache = principalCache;
+        this.membershipRepository = membershipRepository;
+        this.personSummaryService = personSummaryService;
     }
 
     @Transactional(readOnly = true)
@@ -111,14 +129,50 @@ public class PersonServiceImpl implements IPersonService {
         // Supprimer le compte
         // Note: Les relations en cascade (groupes, contributions, etc.) seront gérées par JPA
         personRepository.delete(person);
+        personSummaryService.onPersonDeleted(personId);
+        principalCache.revoke(personId);
         log.info("✅ Compte supprimé pour l'utilisateur: {}", personId);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public com.example.pariba.dtos.responses.PersonalStatisticsResponse getPersonalStatistics(String personId) {
-        // TODO: Implémenter les statistiques personnelles
-        // Pour l'instant, retourner des valeurs par défaut
-        return new com.example.pariba.dtos.responses.PersonalStatisticsResponse();
+    public PersonalStatisticsResponse getPersonalStatistics(String personId) {
+        if (!personRepository.existsById(personId)) {
+            throw new ResourceNotFoundException("Person", "id", personId);
+        }
+
+        PersonSummary summary = personSummaryService.getSummary(personId);
+        PersonalStatisticsResponse stats = new PersonalStatisticsResponse();
+
+        // Groupes
+        stats.setTotalGroups(summary.getTotalGroups());
+        stats.setActiveGroups(summary.getActiveGroups());
+        stats.setGroupsAsAdmin(membershipRepository.countByPersonIdAndRole(personId, GroupRole.ADMIN));
+
+        // Contributions
+        stats.setTotalContributions(summary.getTotalContributions());
+        stats.setTotalContributed(summary.getTotalAmountContributed());
+        stats.setAverageContribution(summary.getTotalContributions() > 0
+                ? summary.getTotalAmountContributed().divide(BigDecimal.valueOf(summary.getTotalContributions()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+
+        // Paiements
+        stats.setTotalPayments(summary.getConfirmedPayments() + summary.getRejectedPayments());
+        stats.setTotalPaid(summary.getTotalAmountContributed());
+        stats.setSuccessfulPayments(summary.getConfirmedPayments());
+        stats.setFailedPayments(summary.getRejectedPayments());
+
+        // Payouts reçus
+        stats.setTotalPayoutsReceived(summary.getPayoutsReceived());
+        stats.setTotalAmountReceived(summary.getTotalAmountReceived());
+
+        // Taux de participation : cotisations payées sur cotisations payées + à payer
+        long expected = (long) summary.getTotalContributions() + summary.getUpcomingPayments();
+        stats.setParticipationRate(expected > 0 ? summary.getTotalContributions() * 100.0 / expected : 0.0);
+
+        // Activité
+        stats.setNotificationsReceived(summary.getNotificationsReceived());
+        stats.setUnreadNotifications(summary.getUnreadNotifications());
+
+        return stats;
     }
 }
@@ -0,0 +1,253 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.ContributionStatus;
+import com.example.pariba.enums.PaymentStatus;
+import com.example.pariba.enums.TourStatus;
+import com.example.pariba.models.Contribution;
+import com.example.pariba.models.PersonSummary;
+import com.example.pariba.repositories.ContributionRepository;
+import com.example.pariba.repositories.GroupMembershipRepository;
+import com.example.pariba.repositories.NotificationRepository;
+import com.example.pariba.repositories.PaymentRepository;
+import com.example.pariba.repositories.PersonSummaryRepository;
+import com.example.pariba.repositories.TourRepository;
+import com.example.pariba.services.IPersonSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintient person_summaries par incréments atomiques.
+ * - un événement sur une personne sans résumé est ignoré : le résumé sera construit
+ *   depuis les tables sources (qui incluent déjà l'événement) à la première lecture ou par le rattrapage
+ * - la prochaine échéance est recalculée à l'événement (requête indexée sur le membre),
+ *   jamais à la lecture
+ */
+@Service
+@Slf4j
+public class PersonSummaryServiceImpl implements IPersonSummaryService {
+
+    private static final Set<ContributionStatus> UNPAID_STATUSES = Set.of(
+        ContributionStatus.PENDING, ContributionStatus.DUE, ContributionStatus.PARTIAL, ContributionStatus.LATE);
+
+    private final PersonSummaryRepository summaryRepository;
+    private final GroupMembershipRepository membershipRepository;
+    private final ContributionRepository contributionRepository;
+    private final PaymentRepository paymentRepository;
+    private final TourRepository tourRepository;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.dashboard.summary.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    @Value("${app.notifications.unread.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public PersonSummaryServiceImpl(PersonSummaryRepository summaryRepository,
+                                    GroupMembershipRepository membershipRepository,
+                                    ContributionRepository contributionRepository,
+                                    PaymentRepository paymentRepository,
+                                    TourRepository tourRepository,
+                                    NotificationRepository notificationRepository) {
+        this.summaryRepository = summaryRepository;
+        this.membershipRepository = membershipRepository;
+        this.contributionRepository = contributionRepository;
+        this.paymentRepository = paymentRepository;
+        this.tourRepository = tourRepository;
+        this.notificationRepository = notificationRepository;
+    }
+
+    @Override
+    public PersonSummary getSummary(String personId) {
+        return summaryRepository.findByPersonId(personId).orElseGet(() -> rebuild(personId));
+    }
+
+    @Override
+    public PersonSummary rebuild(String personId) {
+        PersonSummary summary = summaryRepository.findByPersonId(personId).orElseGet(PersonSummary::new);
+        summary.setPersonId(personId);
+
+        summary.setTotalGroups((int) membershipRepository.countByPersonId(personId));
+        summary.setActiveGroups((int) membershipRepository.countGroupsWithTourStatus(personId, TourStatus.IN_PROGRESS));
+
+        summary.setTotalContributions((int) contributionRepository.countByMemberIdAndStatus(personId, ContributionStatus.PAID));
+        summary.setTotalAmountContributed(paymentRepository.sumAmountByPayerAndStatus(personId, PaymentStatus.CONFIRMED));
+        summary.setConfirmedPayments((int) paymentRepository.countByPayerIdAndStatus(personId, PaymentStatus.CONFIRMED));
+        summary.setRejectedPayments((int) paymentRepository.countByPayerIdAndStatus(personId, PaymentStatus.REJECTED));
+
+        summary.setPayoutsReceived((int) tourRepository.countByBeneficiaryIdAndStatus(personId, TourStatus.COMPLETED));
+        summary.setTotalAmountReceived(tourRepository.sumExpectedAmountByBeneficiaryAndStatus(personId, TourStatus.COMPLETED));
+
+        summary.setUpcomingPayments((int) contributionRepository.countByMemberIdAndStatusIn(personId, UNPAID_STATUSES));
+        Optional<Contribution> next = contributionRepository.findFirstByMemberIdAndStatusInOrderByDueDateAscIdAsc(personId, UNPAID_STATUSES);
+        summary.setNextPaymentDate(next.map(Contribution::getDueDate).orElse(null));
+        summary.setNextPaymentAmount(next.map(this::amountOwed).orElse(null));
+
+        summary.setUnreadNotifications((int) notificationRepository.countByPersonIdAndReadFlag(personId, false));
+        summary.setNotificationsReceived((int) notificationRepository.countByPersonId(personId));
+
+        try {
+            return summaryRepository.save(summary);
+        } catch (DataIntegrityViolationException e) {
+            // Construit en parallèle (autre requête ou rattrapage) : on garde celui déjà enregistré
+            return summaryRepository.findByPersonId(personId).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public void onMembershipAdded(String personId, String groupId) {
+        int active = tourRepository.existsByGroupIdAndStatus(groupId, TourStatus.IN_PROGRESS) ? 1 : 0;
+        summaryRepository.addGroups(List.of(personId), 1, active);
+        refreshNextDue(personId);
+    }
+
+    @Override
+    public void onMembershipsRemoved(Collection<String> personIds, String groupId) {
+        if (personIds.isEmpty()) {
+            return;
+        }
+        int active = tourRepository.existsByGroupIdAndStatus(groupId, TourStatus.IN_PROGRESS) ? -1 : 0;
+        summaryRepository.addGroups(personIds, -1, active);
+    }
+
+    @Override
+    public void onPaymentValidated(String payerId, BigDecimal amount, boolean confirmed) {
+        if (confirmed) {
+            summaryRepository.addConfirmedPayment(payerId, amount);
+        } else {
+            summaryRepository.addRejectedPayment(payerId);
+        }
+    }
+
+    @Override
+    public void onContributionPaid(String memberId) {
+        summaryRepository.addPaidContribution(memberId);
+        refreshNextDue(memberId);
+    }
+
+    @Override
+    public void onContributionsChanged(Collection<String> memberIds) {
+        for (String memberId : memberIds) {
+            refreshNextDue(memberId);
+        }
+    }
+
+    @Override
+    public void onPenaltiesApplied(String tourId, LocalDate dueDate) {
+        summaryRepository.refreshNextPaymentAmounts(tourId, dueDate, UNPAID_STATUSES);
+    }
+
+    @Override
+    public void onTourStarted(Collection<String> memberIds) {
+        if (!memberIds.isEmpty()) {
+            summaryRepository.addActiveGroups(memberIds, 1);
+        }
+    }
+
+    @Override
+    public void onTourCompleted(Collection<String> memberIds, String beneficiaryId, BigDecimal amount) {
+        if (!memberIds.isEmpty()) {
+            summaryRepository.addActiveGroups(memberIds, -1);
+        }
+        if (beneficiaryId != null) {
+            summaryRepository.addPayoutReceived(beneficiaryId, amount != null ? amount : BigDecimal.ZERO);
+        }
+    }
+
+    @Override
+    public int getUnreadCount(String personId) {
+        return summaryRepository.findUnreadNotificationsByPersonId(personId)
+            .orElseGet(() -> rebuild(personId).getUnreadNotifications());
+    }
+
+    @Override
+    public void onNotificationCreated(String personId) {
+        summaryRepository.addNotification(personId, 1);
+    }
+
+    @Override
+    public void onNotificationsRead(String personId, int count) {
+        if (count > 0) {
+            summaryRepository.removeUnread(personId, count);
+        }
+    }
+
+    @Override
+    public void onAllNotificationsRead(String personId) {
+        summaryRepository.clearUnread(personId);
+    }
+
+    @Override
+    public void onPersonDeleted(String personId) {
+        summaryRepository.deleteByPersonId(personId);
+    }
+
+    @Override
+    public int reconcileUnreadCounters() {
+        int corrected = 0;
+        String after = "";
+        List<String> personIds;
+        do {
+            personIds = summaryRepository.findPersonIdsAfter(after, PageRequest.of(0, reconcileBatchSize));
+            if (personIds.isEmpty()) {
+                break;
+            }
+            corrected += summaryRepository.reconcileUnread(personIds);
+            after = personIds.get(personIds.size() - 1);
+        } while (personIds.size() == reconcileBatchSize);
+        return corrected;
+    }
+
+    /**
+     * Rattrapage : construit les résumés manquants (comptes existants avant la table, inscriptions)
+     */
+    @Scheduled(initialDelayString = "${app.dashboard.summary.backfill-initial-delay-ms:60000}",
+               fixedDelayString = "${app.dashboard.summary.backfill-interval-ms:600000}")
+    public void backfillMissingSummaries() {
+        int built = 0;
+        int failed = 0;
+        String afterId = "";
+        List<String> personIds;
+        do {
+            // Keyset sur le dernier id vu : une personne en échec ne bloque pas les suivantes
+            personIds = summaryRepository.findPersonIdsWithoutSummary(afterId, PageRequest.of(0, backfillBatchSize));
+            for (String personId : personIds) {
+                try {
+                    rebuild(personId);
+                    built++;
+                } catch (Exception e) {
+                    failed++;
+                    log.warn("Résumé non construit pour {}: {}", personId, e.getMessage());
+                }
+                afterId = personId;
+            }
+        } while (personIds.size() == backfillBatchSize);
+
+        if (built > 0 || failed > 0) {
+            log.info("✅ {} résumés personnels construits, {} en échec", built, failed);
+        }
+    }
+
+    private void refreshNextDue(String personId) {
+        Optional<Contribution> next = contributionRepository.findFirstByMemberIdAndStatusInOrderByDueDateAscIdAsc(personId, UNPAID_STATUSES);
+        summaryRepository.setNextDue(personId,
+            (int) contributionRepository.countByMemberIdAndStatusIn(personId, UNPAID_STATUSES),
+            next.map(Contribution::getDueDate).orElse(null),
+            next.map(this::amountOwed).orElse(null));
+    }
+
+    private BigDecimal amountOwed(Contribution contribution) {
+        BigDecimal penalty = contribution.getPenaltyApplied() != null ? contribution.getPenaltyApplied() : BigDecimal.ZERO;
+        return contribution.getAmountDue().add(penalty);
+    }
+}
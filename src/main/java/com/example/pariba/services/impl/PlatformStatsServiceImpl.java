@@ -0,0 +1,365 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.StatsGranularity;
+import com.example.pariba.enums.StatsMetric;
+import com.example.pariba.enums.SubscriptionRequestStatus;
+import com.example.pariba.enums.SubscriptionStatus;
+import com.example.pariba.enums.TourStatus;
+import com.example.pariba.models.PlatformStatsRollup;
+import com.example.pariba.repositories.ContributionRepository;
+import com.example.pariba.repositories.NotificationRepository;
+import com.example.pariba.repositories.PaymentRepository;
+import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.repositories.PersonSummaryRepository;
+import com.example.pariba.repositories.PlatformStatsRollupRepository;
+import com.example.pariba.repositories.SubscriptionRepository;
+import com.example.pariba.repositories.SubscriptionRequestRepository;
+import com.example.pariba.repositories.SystemLogRepository;
+import com.example.pariba.repositories.TontineGroupRepository;
+import com.example.pariba.repositories.TourRepository;
+import com.example.pariba.services.IPlatformStatsService;
+import com.example.pariba.utils.StatsAggregate;
+import com.example.pariba.utils.StatsSourceRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques plateforme servies depuis platform_stats_rollups :
+ * la lecture ne fait que quelques sommes sur les agrégats (quelques centaines de lignes par an),
+ * jamais de COUNT sur les tables sources. Les agrégats sont maintenus par PlatformStatsRollupJob.
+ */
+@Service
+@Slf4j
+public class PlatformStatsServiceImpl implements IPlatformStatsService {
+
+    private static final List<StatsMetric> FLOW_METRICS = Arrays.stream(StatsMetric.values())
+        .filter(metric -> !metric.isGauge())
+        .toList();
+    private static final List<StatsMetric> GAUGE_METRICS = Arrays.stream(StatsMetric.values())
+        .filter(StatsMetric::isGauge)
+        .toList();
+    private static final String MONTHLY = "monthly";
+    private static final String ANNUAL = "annual";
+    private static final int GROWTH_DAYS = 7;
+
+    private final PlatformStatsRollupRepository rollupRepository;
+    private final PersonRepository personRepository;
+    private final TontineGroupRepository groupRepository;
+    private final PaymentRepository paymentRepository;
+    private final ContributionRepository contributionRepository;
+    private final NotificationRepository notificationRepository;
+    private final SystemLogRepository systemLogRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRequestRepository subscriptionRequestRepository;
+    private final TourRepository tourRepository;
+    private final PersonSummaryRepository personSummaryRepository;
+    private final Duration cacheTtl;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile CachedStats cached;
+
+    public PlatformStatsServiceImpl(PlatformStatsRollupRepository rollupRepository,
+                                    PersonRepository personRepository,
+                                    TontineGroupRepository groupRepository,
+                                    PaymentRepository paymentRepository,
+                                    ContributionRepository contributionRepository,
+                                    NotificationRepository notificationRepository,
+                                    SystemLogRepository systemLogRepository,
+                                    SubscriptionRepository subscriptionRepository,
+                                    SubscriptionRequestRepository subscriptionRequestRepository,
+                                    TourRepository tourRepository,
+                                    PersonSummaryRepository personSummaryRepository,
+                                    @Value("${app.stats.cache-ttl-seconds:30}") long cacheTtlSeconds) {
+        this.rollupRepository = rollupRepository;
+        this.personRepository = personRepository;
+        this.groupRepository = groupRepository;
+        this.paymentRepository = paymentRepository;
+        this.contributionRepository = contributionRepository;
+        this.notificationRepository = notificationRepository;
+        this.systemLogRepository = systemLogRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionRequestRepository = subscriptionRequestRepository;
+        this.tourRepository = tourRepository;
+        this.personSummaryRepository = personSummaryRepository;
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        CachedStats current = cached;
+        if (current != null && current.loadedAt().plus(cacheTtl).isAfter(Instant.now())) {
+            return current.stats();
+        }
+        Map<String, Object> stats = Collections.unmodifiableMap(computeStats());
+        cached = new CachedStats(stats, Instant.now());
+        return stats;
+    }
+
+    @Override
+    public void invalidateCache() {
+        cached = null;
+    }
+
+    @Override
+    public Instant getLastRollupHour() {
+        return rollupRepository.findLatestBucket(StatsGranularity.HOUR, GAUGE_METRICS);
+    }
+
+    @Override
+    public Instant getFirstActivity() {
+        Instant first = personRepository.findFirstCreatedAt();
+        return first != null ? first : Instant.now();
+    }
+
+    @Override
+    @Transactional
+    public int rollupDay(LocalDate day, Instant flowFrom, Instant mutableFrom, Instant now) {
+        Instant dayStart = day.atStartOfDay(zone).toInstant();
+        Instant dayEnd = day.plusDays(1).atStartOfDay(zone).toInstant();
+        List<StatsMetric> touched = new ArrayList<>();
+        int rowsRead = 0;
+
+        for (StatsMetric metric : FLOW_METRICS) {
+            Instant from = truncateToHour(metric.isMutable() ? mutableFrom : flowFrom);
+            Instant windowStart = from.isAfter(dayStart) ? from : dayStart;
+            Instant windowEnd = now.isBefore(dayEnd) ? now : dayEnd;
+            if (!windowStart.isBefore(windowEnd)) {
+                continue;
+            }
+
+            // Créneaux horaires recalculés entièrement sur la fenêtre (idempotent)
+            List<StatsSourceRow> rows = sourceRows(metric, windowStart, windowEnd);
+            rowsRead += rows.size();
+            Map<Instant, Map<String, StatsAggregate>> hours = new HashMap<>();
+            for (StatsSourceRow row : rows) {
+                hours.computeIfAbsent(truncateToHour(row.createdAt()), hour -> new HashMap<>())
+                    .merge(row.dimension(), new StatsAggregate(metric, row.dimension(), 1L, row.amount()), PlatformStatsServiceImpl::add);
+            }
+
+            rollupRepository.deleteBuckets(StatsGranularity.HOUR, List.of(metric), windowStart, windowEnd);
+            List<PlatformStatsRollup> hourly = new ArrayList<>();
+            hours.forEach((hour, dimensions) -> dimensions.values().forEach(aggregate ->
+                hourly.add(rollup(StatsGranularity.HOUR, hour, aggregate))));
+            rollupRepository.saveAll(hourly);
+            touched.add(metric);
+        }
+
+        // Agrégat journalier = somme des créneaux horaires de la journée
+        if (!touched.isEmpty()) {
+            rollupRepository.deleteBuckets(StatsGranularity.DAY, touched, dayStart, dayEnd);
+            rollupRepository.saveAll(rollupRepository.sumBuckets(StatsGranularity.HOUR, touched, dayStart, dayEnd).stream()
+                .map(aggregate -> rollup(StatsGranularity.DAY, dayStart, aggregate))
+                .toList());
+        }
+        return rowsRead;
+    }
+
+    @Override
+    @Transactional
+    public void snapshotGauges(Instant now) {
+        List<StatsAggregate> gauges = new ArrayList<>();
+
+        for (StatsAggregate byRole : personRepository.countGroupedByRole()) {
+            gauges.add(new StatsAggregate(StatsMetric.USERS_BY_ROLE, byRole.dimension(), byRole.count(), BigDecimal.ZERO));
+        }
+        gauges.add(new StatsAggregate(StatsMetric.ACTIVE_GROUPS, StatsSourceRow.NO_DIMENSION,
+            tourRepository.countGroupsWithStatus(TourStatus.IN_PROGRESS), BigDecimal.ZERO));
+
+        Map<String, StatsAggregate> subscriptions = new LinkedHashMap<>();
+        subscriptions.put(MONTHLY, new StatsAggregate(StatsMetric.ACTIVE_SUBSCRIPTIONS, MONTHLY, 0L, BigDecimal.ZERO));
+        subscriptions.put(ANNUAL, new StatsAggregate(StatsMetric.ACTIVE_SUBSCRIPTIONS, ANNUAL, 0L, BigDecimal.ZERO));
+        for (StatsAggregate byPeriod : subscriptionRepository.sumByBillingPeriodAndStatus(SubscriptionStatus.ACTIVE)) {
+            String period = billingPeriod(byPeriod.dimension());
+            subscriptions.merge(period, new StatsAggregate(StatsMetric.ACTIVE_SUBSCRIPTIONS, period, byPeriod.count(), byPeriod.amount()),
+                PlatformStatsServiceImpl::add);
+        }
+        gauges.addAll(subscriptions.values());
+
+        gauges.add(new StatsAggregate(StatsMetric.PENDING_SUBSCRIPTION_REQUESTS, StatsSourceRow.NO_DIMENSION,
+            subscriptionRequestRepository.countByStatus(SubscriptionRequestStatus.PENDING), BigDecimal.ZERO));
+        gauges.add(new StatsAggregate(StatsMetric.UNREAD_NOTIFICATIONS, StatsSourceRow.NO_DIMENSION,
+            personSummaryRepository.sumUnreadNotifications(), BigDecimal.ZERO));
+
+        // Dernier relevé de l'heure et de la journée (le relevé horaire sert aussi de marqueur de passage)
+        Instant hour = truncateToHour(now);
+        Instant dayStart = LocalDate.ofInstant(now, zone).atStartOfDay(zone).toInstant();
+        rollupRepository.deleteBuckets(StatsGranularity.HOUR, GAUGE_METRICS, hour, hour.plus(1, ChronoUnit.HOURS));
+        rollupRepository.deleteBuckets(StatsGranularity.DAY, GAUGE_METRICS, dayStart, dayStart.plus(1, ChronoUnit.DAYS));
+        List<PlatformStatsRollup> rows = new ArrayList<>();
+        for (StatsAggregate gauge : gauges) {
+            rows.add(rollup(StatsGranularity.HOUR, hour, gauge));
+            rows.add(rollup(StatsGranularity.DAY, dayStart, gauge));
+        }
+        rollupRepository.saveAll(rows);
+    }
+
+    private Map<String, Object> computeStats() {
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.ofInstant(now, zone);
+        Instant tomorrow = today.plusDays(1).atStartOfDay(zone).toInstant();
+
+        Totals allTime = totals(StatsGranularity.DAY, Instant.EPOCH, tomorrow);
+        Totals last24h = totals(StatsGranularity.HOUR, truncateToHour(now).minus(23, ChronoUnit.HOURS), tomorrow);
+        Totals week = totals(StatsGranularity.DAY, today.minusDays(6).atStartOfDay(zone).toInstant(), tomorrow);
+        Totals month = totals(StatsGranularity.DAY, today.minusDays(29).atStartOfDay(zone).toInstant(), tomorrow);
+        Instant gaugeHour = rollupRepository.findLatestBucket(StatsGranularity.HOUR, GAUGE_METRICS);
+        Totals gauges = new Totals(gaugeHour == null ? List.of() : rollupRepository
+            .findByGranularityAndBucketStartAndMetricIn(StatsGranularity.HOUR, gaugeHour, GAUGE_METRICS).stream()
+            .map(row -> new StatsAggregate(row.getMetric(), row.getDimension(), row.getCountValue(), row.getAmountValue()))
+            .toList());
+
+        Map<String, Object> stats = new HashMap<>();
+
+        // Utilisateurs
+        long totalUsers = gauges.count(StatsMetric.USERS_BY_ROLE);
+        long totalSuperAdmins = gauges.count(StatsMetric.USERS_BY_ROLE, "SUPERADMIN");
+        long totalAdmins = gauges.count(StatsMetric.USERS_BY_ROLE, "ADMIN");
+        stats.put("totalUsers", totalUsers);
+        stats.put("totalSuperAdmins", totalSuperAdmins);
+        stats.put("totalAdmins", totalAdmins);
+        stats.put("totalMembers", totalUsers - totalSuperAdmins - totalAdmins);
+        stats.put("newUsersToday", last24h.count(StatsMetric.USERS_CREATED));
+        stats.put("newUsersWeek", week.count(StatsMetric.USERS_CREATED));
+        stats.put("newUsersMonth", month.count(StatsMetric.USERS_CREATED));
+
+        // Groupes
+        long totalGroups = allTime.count(StatsMetric.GROUPS_CREATED);
+        long activeGroups = gauges.count(StatsMetric.ACTIVE_GROUPS);
+        stats.put("totalGroups", totalGroups);
+        stats.put("activeGroups", activeGroups);
+        stats.put("inactiveGroups", Math.max(0, totalGroups - activeGroups));
+        stats.put("newGroupsToday", last24h.count(StatsMetric.GROUPS_CREATED));
+        stats.put("newGroupsWeek", week.count(StatsMetric.GROUPS_CREATED));
+        stats.put("newGroupsMonth", month.count(StatsMetric.GROUPS_CREATED));
+
+        // Paiements et contributions
+        stats.put("totalPayments", allTime.count(StatsMetric.PAYMENTS));
+        stats.put("confirmedPayments", allTime.count(StatsMetric.PAYMENTS, "CONFIRMED"));
+        stats.put("confirmedPaymentsAmount", allTime.amount(StatsMetric.PAYMENTS, "CONFIRMED"));
+        stats.put("totalContributions", allTime.count(StatsMetric.CONTRIBUTIONS_CREATED));
+
+        // Notifications et logs
+        stats.put("totalNotifications", allTime.count(StatsMetric.NOTIFICATIONS_CREATED));
+        stats.put("unreadNotifications", gauges.count(StatsMetric.UNREAD_NOTIFICATIONS));
+        stats.put("totalLogs", allTime.count(StatsMetric.SYSTEM_LOGS));
+        stats.put("errorsToday", last24h.count(StatsMetric.SYSTEM_LOGS, "ERROR"));
+
+        // Abonnements et revenus
+        stats.put("totalSubscriptions", allTime.count(StatsMetric.SUBSCRIPTIONS_CREATED));
+        stats.put("activeSubscriptions", gauges.count(StatsMetric.ACTIVE_SUBSCRIPTIONS));
+        stats.put("pendingRequests", gauges.count(StatsMetric.PENDING_SUBSCRIPTION_REQUESTS));
+        stats.put("monthlyRevenue", gauges.amount(StatsMetric.ACTIVE_SUBSCRIPTIONS, MONTHLY).doubleValue());
+        stats.put("annualRevenue", gauges.amount(StatsMetric.ACTIVE_SUBSCRIPTIONS, ANNUAL).doubleValue());
+        stats.put("monthlySubscriptionsCount", gauges.count(StatsMetric.ACTIVE_SUBSCRIPTIONS, MONTHLY));
+        stats.put("annualSubscriptionsCount", gauges.count(StatsMetric.ACTIVE_SUBSCRIPTIONS, ANNUAL));
+
+        stats.put("chartData", chartData(today));
+        return stats;
+    }
+
+    /**
+     * Évolution journalière des inscriptions et des groupes sur 7 jours
+     */
+    private Map<String, Object> chartData(LocalDate today) {
+        Map<String, Long> userGrowth = new LinkedHashMap<>();
+        Map<String, Long> groupGrowth = new LinkedHashMap<>();
+        for (int i = GROWTH_DAYS - 1; i >= 0; i--) {
+            userGrowth.put(today.minusDays(i).toString(), 0L);
+            groupGrowth.put(today.minusDays(i).toString(), 0L);
+        }
+
+        Instant from = today.minusDays(GROWTH_DAYS - 1).atStartOfDay(zone).toInstant();
+        for (PlatformStatsRollup row : rollupRepository.findByGranularityAndMetricInAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+                StatsGranularity.DAY, List.of(StatsMetric.USERS_CREATED, StatsMetric.GROUPS_CREATED), from)) {
+            Map<String, Long> series = row.getMetric() == StatsMetric.USERS_CREATED ? userGrowth : groupGrowth;
+            series.merge(LocalDate.ofInstant(row.getBucketStart(), zone).toString(), row.getCountValue(), Long::sum);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("userGrowth", userGrowth);
+        data.put("groupGrowth", groupGrowth);
+        return data;
+    }
+
+    private Totals totals(StatsGranularity granularity, Instant from, Instant to) {
+        return new Totals(rollupRepository.sumBuckets(granularity, FLOW_METRICS, from, to));
+    }
+
+    private List<StatsSourceRow> sourceRows(StatsMetric metric, Instant from, Instant to) {
+        return switch (metric) {
+            case USERS_CREATED -> personRepository.findStatsRowsBetween(from, to);
+            case GROUPS_CREATED -> groupRepository.findStatsRowsBetween(from, to);
+            case PAYMENTS -> paymentRepository.findStatsRowsBetween(from, to);
+            case CONTRIBUTIONS_CREATED -> contributionRepository.findStatsRowsBetween(from, to);
+            case NOTIFICATIONS_CREATED -> notificationRepository.findStatsRowsBetween(from, to);
+            case SYSTEM_LOGS -> systemLogRepository.findStatsRowsBetween(from, to);
+            case SUBSCRIPTIONS_CREATED -> subscriptionRepository.findStatsRowsBetween(from, to).stream()
+                .map(row -> new StatsSourceRow(row.createdAt(), billingPeriod(row.dimension()), row.amount()))
+                .toList();
+            default -> List.of();
+        };
+    }
+
+    private Instant truncateToHour(Instant instant) {
+        return instant.atZone(zone).truncatedTo(ChronoUnit.HOURS).toInstant();
+    }
+
+    private static String billingPeriod(String raw) {
+        return ANNUAL.equalsIgnoreCase(raw) ? ANNUAL : MONTHLY;
+    }
+
+    private static StatsAggregate add(StatsAggregate a, StatsAggregate b) {
+        return new StatsAggregate(a.metric(), a.dimension(), a.count() + b.count(), a.amount().add(b.amount()));
+    }
+
+    private static PlatformStatsRollup rollup(StatsGranularity granularity, Instant bucketStart, StatsAggregate aggregate) {
+        return new PlatformStatsRollup(granularity, bucketStart, aggregate.metric(), aggregate.dimension(),
+            aggregate.count(), aggregate.amount());
+    }
+
+    /**
+     * Nombres et montants par métrique et dimension
+     */
+    private static final class Totals {
+        private final Map<StatsMetric, Map<String, StatsAggregate>> values = new HashMap<>();
+
+        Totals(List<StatsAggregate> aggregates) {
+            for (StatsAggregate aggregate : aggregates) {
+                values.computeIfAbsent(aggregate.metric(), metric -> new HashMap<>())
+                    .merge(aggregate.dimension(), aggregate, PlatformStatsServiceImpl::add);
+            }
+        }
+
+        long count(StatsMetric metric) {
+            return values.getOrDefault(metric, Map.of()).values().stream().mapToLong(StatsAggregate::count).sum();
+        }
+
+        long count(StatsMetric metric, String dimension) {
+            StatsAggregate aggregate = values.getOrDefault(metric, Map.of()).get(dimension);
+            return aggregate != null ? aggregate.count() : 0L;
+        }
+
+        BigDecimal amount(StatsMetric metric, String dimension) {
+            StatsAggregate aggregate = values.getOrDefault(metric, Map.of()).get(dimension);
+            return aggregate != null ? aggregate.amount() : BigDecimal.ZERO;
+        }
+    }
+
+    private record CachedStats(Map<String, Object> stats, Instant loadedAt) {}
+}
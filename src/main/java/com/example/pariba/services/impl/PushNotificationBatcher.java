@@ -0,0 +1,193 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.repositories.DeviceTokenRepository;
+import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.services.IPushNotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regroupe les pushs de même contenu (titre, corps, type) reçus pendant une courte fenêtre
+ * en un seul multicast FCM (jusqu'à 500 tokens). Une notification de groupe de 50 membres
+ * part ainsi en un appel HTTP au lieu de 50.
+ * Les tokens signalés non enregistrés par Firebase sont désactivés automatiquement.
+ * submit() rend un futur terminé à l'envoi du lot (en erreur si le multicast échoue) :
+ * l'outbox garde ainsi ses entrées PUSH en cours jusqu'à l'envoi réel et rejoue les échecs.
+ * Chaque destinataire garde ses propres données (notificationId, pour l'ouverture et la lecture
+ * depuis l'app) : un lot aux données identiques part en multicast, sinon en un message par token.
+ * Les envois et les callbacks des futurs tournent sur le pool borné pushSendExecutor.
+ */
+@Component
+@Slf4j
+public class PushNotificationBatcher {
+
+    private static final int MAX_BATCH_TOKENS = 500;
+
+    private final IPushNotificationService pushService;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final PersonRepository personRepository;
+    private final DeviceTokenIndex deviceTokenIndex;
+    private final ScheduledExecutorService flusher;
+    private final Executor sendExecutor;
+
+    private final Map<PushPayload, PendingBatch> pending = new HashMap<>();
+
+    public PushNotificationBatcher(IPushNotificationService pushService,
+                                   DeviceTokenRepository deviceTokenRepository,
+                                   PersonRepository personRepository,
+                                   DeviceTokenIndex deviceTokenIndex,
+                                   @Qualifier("pushSendExecutor") Executor sendExecutor,
+                                   @Value("${app.notifications.push.batch-window-ms:250}") long batchWindowMs) {
+        this.pushService = pushService;
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.personRepository = personRepository;
+        this.deviceTokenIndex = deviceTokenIndex;
+        this.sendExecutor = sendExecutor;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "push-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushAll, batchWindowMs, batchWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ajoute un push au lot correspondant à son contenu. L'envoi part à la fin de la fenêtre
+     * ou dès que le lot atteint 500 tokens.
+     */
+    public CompletableFuture<Void> submit(String token, String title, String body, Map<String, String> data) {
+        if (token == null || token.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return submit(List.of(token), title, body, data);
+    }
+
+    /**
+     * @return futur terminé quand tous les lots contenant ces tokens sont partis
+     */
+    public CompletableFuture<Void> submit(List<String> tokens, String title, String body, Map<String, String> data) {
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PushPayload payload = PushPayload.of(title, body, data);
+        List<PendingBatch> full = new ArrayList<>();
+        List<CompletableFuture<Void>> waits = new ArrayList<>();
+        synchronized (pending) {
+            PendingBatch batch = pending.computeIfAbsent(payload, key -> new PendingBatch());
+            waits.add(batch.sent);
+            for (String token : tokens) {
+                batch.recipients.add(new Recipient(token, data != null ? data : Map.of()));
+                if (batch.recipients.size() >= MAX_BATCH_TOKENS) {
+                    full.add(pending.remove(payload));
+                    batch = pending.computeIfAbsent(payload, key -> new PendingBatch());
+                    waits.add(batch.sent);
+                }
+            }
+            if (batch.recipients.isEmpty()) {
+                pending.remove(payload);
+                waits.remove(batch.sent);
+            }
+        }
+        for (PendingBatch batch : full) {
+            sendExecutor.execute(() -> send(payload, batch));
+        }
+        return CompletableFuture.allOf(waits.toArray(new CompletableFuture[0]));
+    }
+
+    private void flushAll() {
+        Map<PushPayload, PendingBatch> toSend;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            toSend = new HashMap<>(pending);
+            pending.clear();
+        }
+        toSend.forEach((payload, batch) -> sendExecutor.execute(() -> send(payload, batch)));
+    }
+
+    private void send(PushPayload payload, PendingBatch batch) {
+        try {
+            List<String> invalidTokens;
+            Set<Map<String, String>> distinctData = new HashSet<>();
+            batch.recipients.forEach(recipient -> distinctData.add(recipient.data()));
+            if (distinctData.size() == 1) {
+                // Mêmes données pour tous (pushs sans historique) : un seul multicast
+                List<String> tokens = batch.recipients.stream().map(Recipient::token).distinct().toList();
+                invalidTokens = pushService.sendToMultipleDevices(tokens, payload.title(), payload.body(), distinctData.iterator().next());
+            } else {
+                // Un message par token ; un même appareil visé par deux notifications part en deux vagues
+                invalidTokens = new ArrayList<>();
+                List<Recipient> remaining = new ArrayList<>(batch.recipients);
+                while (!remaining.isEmpty()) {
+                    Map<String, Map<String, String>> dataByToken = new LinkedHashMap<>();
+                    List<Recipient> next = new ArrayList<>();
+                    for (Recipient recipient : remaining) {
+                        if (dataByToken.putIfAbsent(recipient.token(), recipient.data()) != null) {
+                            next.add(recipient);
+                        }
+                    }
+                    invalidTokens.addAll(pushService.sendToDevices(dataByToken, payload.title(), payload.body()));
+                    remaining = next;
+                }
+            }
+            if (!invalidTokens.isEmpty()) {
+                int deactivated = deviceTokenRepository.deactivateByTokens(invalidTokens);
+                personRepository.clearFcmTokens(invalidTokens);
+                deviceTokenIndex.removeTokens(invalidTokens);
+                log.info("{} tokens push invalides désactivés", deactivated);
+            }
+            batch.sent.complete(null);
+        } catch (Exception e) {
+            // Remonté aux appelants : l'outbox replanifie ses entrées selon son backoff
+            log.error("Erreur lors de l'envoi du lot push ({} tokens): {}", batch.recipients.size(), e.getMessage());
+            batch.sent.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flushAll();
+    }
+
+    /**
+     * Clé de regroupement : les données propres à un destinataire (notificationId) sont exclues,
+     * elles restent attachées à chaque Recipient du lot
+     */
+    private record PushPayload(String title, String body, Map<String, String> data) {
+        static PushPayload of(String title, String body, Map<String, String> data) {
+            Map<String, String> shared = new HashMap<>();
+            if (data != null) {
+                shared.putAll(data);
+                shared.remove("notificationId");
+            }
+            return new PushPayload(title, body, shared);
+        }
+    }
+
+    private record Recipient(String token, Map<String, String> data) {
+    }
+
+    private static class PendingBatch {
+        private final Set<Recipient> recipients = new LinkedHashSet<>();
+        private final CompletableFuture<Void> sent = new CompletableFuture<>();
+    }
+}
@@ -5,6 +5,7 @@ import com.google.firebase.messaging.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +16,8 @@ import java.util.Map;
 @Slf4j
 public class PushNotificationServiceImpl implements IPushNotificationService {
     
+    private static final int MAX_MULTICAST_TOKENS = 500;
+    
     @Override
     public void sendToDevice(String deviceToken, String title, String body, Map<String, String> data) {
         try {
@@ -56,12 +59,23 @@ public class PushNotificationServiceImpl implements IPushNotificationService {
     }
     
     @Override
-    public void sendToMultipleDevices(List<String> deviceTokens, String title, String body, Map<String, String> data) {
+    public List<String> sendToMultipleDevices(List<String> deviceTokens, String title, String body, Map<String, String> data) {
+        List<String> invalidTokens = new ArrayList<>();
         if (deviceTokens == null || deviceTokens.isEmpty()) {
             log.warn("Liste de tokens vide, aucune notification envoyée");
-            return;
+            return invalidTokens;
         }
         
+        // FCM limite un multicast à 500 tokens
+        for (int from = 0; from < deviceTokens.size(); from += MAX_MULTICAST_TOKENS) {
+            List<String> chunk = deviceTokens.subList(from, Math.min(from + MAX_MULTICAST_TOKENS, deviceTokens.size()));
+            invalidTokens.addAll(sendMulticastChunk(chunk, title, body, data));
+        }
+        return invalidTokens;
+    }
+    
+    private List<String> sendMulticastChunk(List<String> deviceTokens, String title, String body, Map<String, String> data) {
+        List<String> invalidTokens = new ArrayList<>();
         try {
             MulticastMessage.Builder messageBuilder = MulticastMessage.builder()
                     .setNotification(Notification.builder()
@@ -75,34 +89,26 @@ public class PushNotificationServiceImpl implements IPushNotificationService {
                 messageBuilder.putAllData(data);
             }
             
-            // Configuration Android
-            messageBuilder.setAndroidConfig(AndroidConfig.builder()
-                    .setPriority(AndroidConfig.Priority.HIGH)
-                    .setNotification(AndroidNotification.builder()
-                            .setSound("default")
-                            .setColor("#667eea")
-                            .build())
-                    .build());
-            
-            // Configuration iOS
-            messageBuilder.setApnsConfig(ApnsConfig.builder()
-                    .setAps(Aps.builder()
-                            .setSound("default")
-                            .build())
-                    .build());
+            // Configuration Android et iOS
+            messageBuilder.setAndroidConfig(androidConfig());
+            messageBuilder.setApnsConfig(apnsConfig());
             
             BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(messageBuilder.build());
             log.info("Notifications push envoyées: {} succès, {} échecs", 
                     response.getSuccessCount(), response.getFailureCount());
             
-            // Logger les tokens qui ont échoué
+            // Les réponses sont dans le même ordre que les tokens
             if (response.getFailureCount() > 0) {
                 List<SendResponse> responses = response.getResponses();
                 for (int i = 0; i < responses.size(); i++) {
                     if (!responses.get(i).isSuccessful()) {
+                        FirebaseMessagingException error = responses.get(i).getException();
                         log.error("Échec pour le token {}: {}", 
                                 deviceTokens.get(i), 
-                                responses.get(i).getException().getMessage());
+                                error.getMessage());
+                        if (isUnregistered(error)) {
+                            invalidTokens.add(deviceTokens.get(i));
+                        }
                     }
                 }
             }
@@ -111,6 +117,75 @@ public class PushNotificationServiceImpl implements IPushNotificationService {
             log.error("Erreur lors de l'envoi des notifications push en masse: {}", e.getMessage());
             throw new RuntimeException("Échec de l'envoi des notifications push en masse", e);
         }
+        return invalidTokens;
+    }
+    
+    @Override
+    public List<String> sendToDevices(Map<String, Map<String, String>> dataByToken, String title, String body) {
+        List<String> invalidTokens = new ArrayList<>();
+        List<String> deviceTokens = new ArrayList<>(dataByToken.keySet());
+        for (int from = 0; from < deviceTokens.size(); from += MAX_MULTICAST_TOKENS) {
+            List<String> chunk = deviceTokens.subList(from, Math.min(from + MAX_MULTICAST_TOKENS, deviceTokens.size()));
+            List<Message> messages = new ArrayList<>(chunk.size());
+            for (String token : chunk) {
+                Message.Builder messageBuilder = Message.builder()
+                        .setToken(token)
+                        .setNotification(Notification.builder()
+                                .setTitle(title)
+                                .setBody(body)
+                                .build())
+                        .setAndroidConfig(androidConfig())
+                        .setApnsConfig(apnsConfig());
+                Map<String, String> data = dataByToken.get(token);
+                if (data != null && !data.isEmpty()) {
+                    messageBuilder.putAllData(data);
+                }
+                messages.add(messageBuilder.build());
+            }
+            try {
+                BatchResponse response = FirebaseMessaging.getInstance().sendEach(messages);
+                log.info("Notifications push envoyées: {} succès, {} échecs",
+                        response.getSuccessCount(), response.getFailureCount());
+                List<SendResponse> responses = response.getResponses();
+                for (int i = 0; i < responses.size(); i++) {
+                    if (!responses.get(i).isSuccessful()) {
+                        FirebaseMessagingException error = responses.get(i).getException();
+                        log.error("Échec pour le token {}: {}", chunk.get(i), error.getMessage());
+                        if (isUnregistered(error)) {
+                            invalidTokens.add(chunk.get(i));
+                        }
+                    }
+                }
+            } catch (FirebaseMessagingException e) {
+                log.error("Erreur lors de l'envoi des notifications push en masse: {}", e.getMessage());
+                throw new RuntimeException("Échec de l'envoi des notifications push en masse", e);
+            }
+        }
+        return invalidTokens;
+    }
+    
+    private AndroidConfig androidConfig() {
+        return AndroidConfig.builder()
+                .setPriority(AndroidConfig.Priority.HIGH)
+                .setNotification(AndroidNotification.builder()
+                        .setSound("default")
+                        .setColor("#667eea")
+                        .build())
+                .build();
+    }
+    
+    private ApnsConfig apnsConfig() {
+        return ApnsConfig.builder()
+                .setAps(Aps.builder()
+                        .setSound("default")
+                        .build())
+                .build();
+    }
+    
+    private boolean isUnregistered(FirebaseMessagingException error) {
+        return error != null
+                && (error.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED
+                    || error.getMessagingErrorCode() == MessagingErrorCode.SENDER_ID_MISMATCH);
     }
     
     @Override
@@ -0,0 +1,81 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.dtos.responses.NotificationResponse;
+import com.example.pariba.dtos.responses.PaymentResponse;
+import com.example.pariba.enums.GroupRole;
+import com.example.pariba.repositories.GroupMembershipRepository;
+import com.example.pariba.services.IRealtimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class RealtimeServiceImpl implements IRealtimeService {
+
+    private static final String NOTIFICATIONS_QUEUE = "/queue/notifications";
+    private static final String UNREAD_QUEUE = "/queue/unread";
+    private static final String PAYMENTS_QUEUE = "/queue/payments";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GroupMembershipRepository membershipRepository;
+
+    public RealtimeServiceImpl(SimpMessagingTemplate messagingTemplate,
+                               GroupMembershipRepository membershipRepository) {
+        this.messagingTemplate = messagingTemplate;
+        this.membershipRepository = membershipRepository;
+    }
+
+    @Override
+    public void notificationCreated(String personId, NotificationResponse notification) {
+        afterCommit(() -> {
+            send(personId, NOTIFICATIONS_QUEUE, notification);
+            send(personId, UNREAD_QUEUE, Map.of("delta", 1));
+        });
+    }
+
+    @Override
+    public void notificationsRead(String personId, int count) {
+        if (count > 0) {
+            afterCommit(() -> send(personId, UNREAD_QUEUE, Map.of("delta", -count)));
+        }
+    }
+
+    @Override
+    public void allNotificationsRead(String personId) {
+        afterCommit(() -> send(personId, UNREAD_QUEUE, Map.of("unread", 0)));
+    }
+
+    @Override
+    public void paymentUpdated(String groupId, PaymentResponse payment) {
+        // Administrateurs lus dans la transaction, envoi après le commit
+        List<String> adminIds = membershipRepository.findPersonIdsByGroupIdAndRole(groupId, GroupRole.ADMIN);
+        afterCommit(() -> adminIds.forEach(adminId -> send(adminId, PAYMENTS_QUEUE, payment)));
+    }
+
+    private void send(String personId, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(personId, destination, payload);
+        } catch (Exception e) {
+            log.warn("Envoi temps réel {} impossible pour {}: {}", destination, personId, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
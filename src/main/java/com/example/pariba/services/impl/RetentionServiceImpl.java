@@ -0,0 +1,314 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.RetentionTable;
+import com.example.pariba.models.RetentionArchive;
+import com.example.pariba.repositories.RetentionArchiveRepository;
+import com.example.pariba.services.IPersonSummaryService;
+import com.example.pariba.services.IRetentionService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivage par journée (partition temporelle) :
+ * 1. les lignes de la journée sont lues par pages keyset (created_at, id) et écrites dans
+ *    {répertoire}/{table}/{jour}-{id}.ndjson.gz (fichier temporaire puis renommage)
+ * 2. l'archive est enregistrée dans retention_archives
+ * 3. les lignes archivées (jusqu'à la dernière clé écrite) sont supprimées par petits lots,
+ *    chaque lot dans sa propre transaction courte
+ * Un archivage interrompu avant la fin des suppressions est repris au passage suivant
+ * dans un nouveau fichier de la même journée : aucune ligne n'est perdue ni supprimée sans archive.
+ */
+@Service
+@Slf4j
+public class RetentionServiceImpl implements IRetentionService {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator("")
+            .build();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RetentionArchiveRepository archiveRepository;
+    private final IPersonSummaryService personSummaryService;
+    private final Environment environment;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${app.retention.directory:./exports/archives}")
+    private String directory;
+
+    @Value("${app.retention.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.retention.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    @Value("${app.retention.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    public RetentionServiceImpl(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                RetentionArchiveRepository archiveRepository,
+                                IPersonSummaryService personSummaryService,
+                                Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveRepository = archiveRepository;
+        this.personSummaryService = personSummaryService;
+        this.environment = environment;
+    }
+
+    @Override
+    public Map<RetentionTable, Long> applyRetention() {
+        Map<RetentionTable, Long> archived = new EnumMap<>(RetentionTable.class);
+        for (RetentionTable table : RetentionTable.values()) {
+            try {
+                archived.put(table, archiveTable(table));
+            } catch (Exception e) {
+                log.error("❌ Rétention {} interrompue: {}", table.getTableName(), e.getMessage());
+                archived.put(table, 0L);
+            }
+        }
+        return archived;
+    }
+
+    @Override
+    public long archiveTable(RetentionTable table) {
+        int hotDays = getHotDays(table);
+        if (hotDays <= 0) {
+            return 0;
+        }
+        Instant cutoff = LocalDate.now(zone).minusDays(hotDays).atStartOfDay(zone).toInstant();
+
+        long archived = 0;
+        for (int days = 0; days < maxDaysPerRun; days++) {
+            Instant oldest = oldestCreatedAt(table);
+            if (oldest == null) {
+                break;
+            }
+            LocalDate day = LocalDate.ofInstant(oldest, zone);
+            Instant dayStart = day.atStartOfDay(zone).toInstant();
+            Instant dayEnd = day.plusDays(1).atStartOfDay(zone).toInstant();
+            if (dayEnd.isAfter(cutoff)) {
+                break;
+            }
+            archived += archiveDay(table, day, dayStart, dayEnd);
+        }
+        return archived;
+    }
+
+    @Override
+    public int getHotDays(RetentionTable table) {
+        return environment.getProperty("app.retention." + table.getConfigKey() + "-days", Integer.class, table.getDefaultHotDays());
+    }
+
+    @Override
+    public List<RetentionArchive> findArchives(RetentionTable table, LocalDate from, LocalDate to) {
+        return archiveRepository.findOverlapping(table,
+            from.atStartOfDay(zone).toInstant(),
+            to.plusDays(1).atStartOfDay(zone).toInstant());
+    }
+
+    @Override
+    public void writeArchives(RetentionTable table, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        for (RetentionArchive archive : findArchives(table, from, to)) {
+            Path file = archiveRoot().resolve(archive.getFileName());
+            if (!Files.exists(file)) {
+                log.warn("Archive introuvable: {}", file);
+                continue;
+            }
+            // Membres gzip concaténés : un flux gzip valide
+            Files.copy(file, out);
+        }
+        out.flush();
+    }
+
+    private long archiveDay(RetentionTable table, LocalDate day, Instant dayStart, Instant dayEnd) {
+        RetentionArchive archive = new RetentionArchive();
+        String fileName = table.getTableName() + "/" + day + "-" + archive.getId().substring(0, 8) + ".ndjson.gz";
+        Path file = archiveRoot().resolve(fileName);
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+
+        long rows = 0;
+        RowKey last = null;
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+                 JsonGenerator json = JSON_FACTORY.createGenerator(writer)) {
+                List<Map<String, Object>> page;
+                do {
+                    page = readPage(table, dayStart, dayEnd, last);
+                    for (Map<String, Object> row : page) {
+                        writeRow(json, row);
+                    }
+                    if (!page.isEmpty()) {
+                        last = RowKey.of(page.get(page.size() - 1));
+                    }
+                    rows += page.size();
+                } while (page.size() == pageSize);
+                json.flush();
+            }
+
+            if (rows == 0) {
+                Files.deleteIfExists(partial);
+                return 0;
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            archive.setTableName(table);
+            archive.setRangeStart(dayStart);
+            archive.setRangeEnd(dayEnd);
+            archive.setRowCount(rows);
+            archive.setFileName(fileName);
+            archive.setFileSize(Files.size(file));
+            archiveRepository.save(archive);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archivage " + fileName + " impossible", e);
+        }
+
+        long deleted = deleteArchived(table, dayStart, last);
+        log.info("🧹 {} du {} : {} lignes archivées dans {}, {} supprimées", table.getTableName(), day, rows, fileName, deleted);
+        return rows;
+    }
+
+    private List<Map<String, Object>> readPage(RetentionTable table, Instant dayStart, Instant dayEnd, RowKey after) {
+        Timestamp afterCreatedAt = Timestamp.from(after != null ? after.createdAt() : dayStart);
+        String afterId = after != null ? after.id() : "";
+        return jdbcTemplate.queryForList(
+            "SELECT * FROM " + table.getTableName() +
+            " WHERE created_at >= ? AND created_at < ? AND (created_at > ? OR (created_at = ? AND id > ?))" +
+            " ORDER BY created_at, id LIMIT ?",
+            Timestamp.from(dayStart), Timestamp.from(dayEnd), afterCreatedAt, afterCreatedAt, afterId, pageSize);
+    }
+
+    /**
+     * Supprime les lignes de la journée jusqu'à la dernière clé archivée, par lots
+     */
+    private long deleteArchived(RetentionTable table, Instant dayStart, RowKey last) {
+        Timestamp lastCreatedAt = Timestamp.from(last.createdAt());
+        long deleted = 0;
+        List<String> ids;
+        do {
+            ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table.getTableName() +
+                " WHERE created_at >= ? AND (created_at < ? OR (created_at = ? AND id <= ?)) LIMIT ?",
+                String.class, Timestamp.from(dayStart), lastCreatedAt, lastCreatedAt, last.id(), deleteBatchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<String> batch = ids;
+            Integer count = transactionTemplate.execute(status -> {
+                if (table == RetentionTable.NOTIFICATIONS) {
+                    // Les notifications non lues supprimées ne doivent plus compter dans les résumés
+                    namedJdbcTemplate.query(
+                        "SELECT person_id, COUNT(*) FROM notifications WHERE id IN (:ids) AND read_flag = false " +
+                        "GROUP BY person_id",
+                        Map.of("ids", batch),
+                        rs -> { personSummaryService.onNotificationsRead(rs.getString(1), rs.getInt(2)); });
+                }
+                return namedJdbcTemplate.update("DELETE FROM " + table.getTableName() + " WHERE id IN (:ids)", Map.of("ids", batch));
+            });
+            deleted += count != null ? count : 0;
+        } while (ids.size() == deleteBatchSize);
+        return deleted;
+    }
+
+    private Instant oldestCreatedAt(RetentionTable table) {
+        Object oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + table.getTableName(), Object.class);
+        return oldest != null ? toInstant(oldest) : null;
+    }
+
+    private Path archiveRoot() {
+        return Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    private static void writeRow(JsonGenerator json, Map<String, Object> row) throws IOException {
+        json.writeStartObject();
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            json.writeFieldName(column.getKey().toLowerCase(Locale.ROOT));
+            Object value = column.getValue();
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else if (value instanceof Number number) {
+                json.writeNumber(number.toString());
+            } else if (value instanceof Timestamp || value instanceof OffsetDateTime) {
+                json.writeString(toInstant(value).toString());
+            } else if (value instanceof byte[] bytes) {
+                json.writeBinary(bytes);
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        return Instant.from((TemporalAccessor) value);
+    }
+
+    /**
+     * Clé keyset (created_at, id) de la dernière ligne lue
+     */
+    private record RowKey(Instant createdAt, String id) {
+        static RowKey of(Map<String, Object> row) {
+            Object createdAt = null;
+            Object id = null;
+            for (Map.Entry<String, Object> column : row.entrySet()) {
+                if ("created_at".equalsIgnoreCase(column.getKey())) {
+                    createdAt = column.getValue();
+                } else if ("id".equalsIgnoreCase(column.getKey())) {
+                    id = column.getValue();
+                }
+            }
+            return new RowKey(toInstant(createdAt), String.valueOf(id));
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.example.pariba.repositories.SubscriptionPlanRepository;
 import com.example.pariba.repositories.SubscriptionRepository;
 import com.example.pariba.services.INotificationService;
 import com.example.pariba.services.ISubscriptionService;
+import com.example.pariba.services.ISubscriptionStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -37,6 +38,7 @@ public class SubscriptionServiceImpl implements ISubscriptionService {
     private final SubscriptionPlanRepository subscriptionPlanRepository;
     private final PersonRepository personRepository;
     private final INotificationService notificationService;
+    private final ISubscriptionStatsService subscriptionStatsService;
     
     @Override
     public SubscriptionResponse getActiveSubscription(String personId) {
@@ -83,6 +85,7 @@ public class SubscriptionServiceImpl implements ISubscriptionService {
         }
         
         subscription = subscriptionRepository.save(subscription);
+        subscriptionStatsService.invalidateCache();
         
         // Envoyer notification d'abonnement
         try {
@@ -181,6 +184,7 @@ public class SubscriptionServiceImpl implements ISubscriptionService {
         }
         
         subscription = subscriptionRepository.save(subscription);
+        subscriptionStatsService.invalidateCache();
         
         // Notification d'activation
         try {
@@ -222,6 +226,7 @@ public class SubscriptionServiceImpl implements ISubscriptionService {
             sub.setStatus(SubscriptionStatus.CANCELLED);
             sub.setAutoRenew(false);
             subscriptionRepository.save(sub);
+            subscriptionStatsService.invalidateCache();
             
             // Envoyer notification d'annulation
             try {
@@ -278,6 +283,9 @@ public class SubscriptionServiceImpl implements ISubscriptionService {
         LocalDate now = LocalDate.now();
         List<Subscription> expiredSubscriptions = subscriptionRepository
                 .findByStatusAndEndDateBeforeAndAutoRenewTrue(SubscriptionStatus.ACTIVE, now);
+        if (!expiredSubscriptions.isEmpty()) {
+            subscriptionStatsService.invalidateCache();
+        }
         
         for (Subscription subscription : expiredSubscriptions) {
             if (subscription.getAutoRenew()) {
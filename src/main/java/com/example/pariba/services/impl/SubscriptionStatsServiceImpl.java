@@ -0,0 +1,150 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.enums.SubscriptionStatus;
+import com.example.pariba.repositories.SubscriptionRepository;
+import com.example.pariba.services.ISubscriptionStatsService;
+import com.example.pariba.utils.SubscriptionStatsRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques d'abonnement : une requête groupée (plan × période × statut, nombres et revenus)
+ * remplace le comptage par plan et le chargement en mémoire des abonnements actifs.
+ * Le résultat est gardé quelques secondes et invalidé à chaque changement d'abonnement.
+ */
+@Service
+@Slf4j
+public class SubscriptionStatsServiceImpl implements ISubscriptionStatsService {
+
+    private static final String ANNUAL = "annual";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final Duration cacheTtl;
+
+    private volatile CachedStats cached;
+
+    public SubscriptionStatsServiceImpl(SubscriptionRepository subscriptionRepository,
+                                        @Value("${app.stats.subscriptions-cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+    }
+
+    @Override
+    public Map<String, Object> getSubscriptionStats() {
+        CachedStats current = cached;
+        if (current != null && current.loadedAt().plus(cacheTtl).isAfter(Instant.now())) {
+            return current.stats();
+        }
+        Map<String, Object> stats = Collections.unmodifiableMap(computeStats());
+        cached = new CachedStats(stats, Instant.now());
+        return stats;
+    }
+
+    @Override
+    public void invalidateCache() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sinon une lecture concurrente remettrait en cache l'état d'avant le commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cached = null;
+                }
+            });
+        } else {
+            cached = null;
+        }
+    }
+
+    private Map<String, Object> computeStats() {
+        List<SubscriptionStatsRow> rows = subscriptionRepository.aggregateByPlanPeriodAndStatus();
+
+        Map<SubscriptionStatus, Long> byStatus = new EnumMap<>(SubscriptionStatus.class);
+        Map<String, Long> byPlanId = new HashMap<>();
+        Map<String, Long> monthlyByPlanId = new HashMap<>();
+        Map<String, Long> annualByPlanId = new HashMap<>();
+        long total = 0;
+        long monthlyCount = 0;
+        long annualCount = 0;
+        BigDecimal monthlyRevenue = BigDecimal.ZERO;
+        BigDecimal annualRevenue = BigDecimal.ZERO;
+
+        for (SubscriptionStatsRow row : rows) {
+            total += row.count();
+            byStatus.merge(row.status(), row.count(), Long::sum);
+            if (row.status() != SubscriptionStatus.ACTIVE) {
+                continue;
+            }
+
+            // Période absente ou inconnue : mensuel
+            byPlanId.merge(row.planId(), row.count(), Long::sum);
+            if (ANNUAL.equalsIgnoreCase(row.billingPeriod())) {
+                annualByPlanId.merge(row.planId(), row.count(), Long::sum);
+                annualCount += row.count();
+                annualRevenue = annualRevenue.add(row.revenue());
+            } else {
+                monthlyByPlanId.merge(row.planId(), row.count(), Long::sum);
+                monthlyCount += row.count();
+                monthlyRevenue = monthlyRevenue.add(row.revenue());
+            }
+        }
+
+        long totalActive = byStatus.getOrDefault(SubscriptionStatus.ACTIVE, 0L);
+        long totalExpired = byStatus.getOrDefault(SubscriptionStatus.EXPIRED, 0L);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalSubscriptions", total);
+        stats.put("totalActive", totalActive);
+        stats.put("totalExpired", totalExpired);
+        stats.put("totalCancelled", byStatus.getOrDefault(SubscriptionStatus.CANCELLED, 0L));
+        stats.put("totalCanceled", byStatus.getOrDefault(SubscriptionStatus.CANCELED, 0L));
+
+        stats.put("byPlanId", byPlanId);
+        stats.put("monthlyByPlanId", monthlyByPlanId);
+        stats.put("annualByPlanId", annualByPlanId);
+
+        // Abonnements récents (30 derniers jours)
+        stats.put("recentSubscriptions", subscriptionRepository.countByCreatedAtAfter(Instant.now().minus(30, ChronoUnit.DAYS)));
+
+        // Abonnements expirant bientôt (dans les 7 prochains jours)
+        LocalDate today = LocalDate.now();
+        stats.put("expiringSoon", subscriptionRepository.countByStatusAndEndDateBetween(
+            SubscriptionStatus.ACTIVE, today, today.plusDays(7)));
+
+        // Taux de rétention (approximatif) : actifs / (actifs + expirés), 100% si aucun expiré
+        double renewalRate;
+        if (totalActive > 0 && totalExpired == 0) {
+            renewalRate = 100.0;
+        } else if (totalActive + totalExpired > 0) {
+            renewalRate = (double) totalActive / (totalActive + totalExpired) * 100;
+        } else {
+            renewalRate = 0.0;
+        }
+        stats.put("renewalRate", String.format("%.1f", renewalRate));
+
+        // Revenus estimés séparés par période de facturation
+        stats.put("monthlyRevenue", monthlyRevenue.doubleValue());
+        stats.put("annualRevenue", annualRevenue.doubleValue());
+        stats.put("monthlySubscriptionsCount", monthlyCount);
+        stats.put("annualSubscriptionsCount", annualCount);
+        stats.put("totalRevenue", monthlyRevenue.add(annualRevenue).doubleValue());
+
+        log.debug("📊 Statistiques d'abonnement recalculées ({} lignes agrégées)", rows.size());
+        return stats;
+    }
+
+    private record CachedStats(Map<String, Object> stats, Instant loadedAt) {}
+}
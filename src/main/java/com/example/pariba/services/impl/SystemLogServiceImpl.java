@@ -1,28 +1,28 @@
 package com.example.pariba.services.impl;
 
 import com.example.pariba.models.SystemLog;
-import com.example.pariba.repositories.SystemLogRepository;
 import com.example.pariba.services.ISystemLogService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Implémentation du service de logs système
+ * Implémentation du service de logs système.
+ * L'appelant ne fait que construire la ligne et la déposer dans le tampon de SystemLogWriter
+ * (aucun accès base sur le thread de la requête) ; l'écriture se fait par lots sur le pool systemLogExecutor.
  */
 @Service
 @Slf4j
 public class SystemLogServiceImpl implements ISystemLogService {
     
-    private final SystemLogRepository systemLogRepository;
+    private final SystemLogWriter systemLogWriter;
     
-    public SystemLogServiceImpl(SystemLogRepository systemLogRepository) {
-        this.systemLogRepository = systemLogRepository;
+    public SystemLogServiceImpl(SystemLogWriter systemLogWriter) {
+        this.systemLogWriter = systemLogWriter;
     }
     
     @Override
-    @Async
     public void log(String userId, String userName, String action, String entityType, String entityId, String details, String level, boolean success) {
         try {
             SystemLog systemLog = new SystemLog();
@@ -32,17 +32,16 @@ public class SystemLogServiceImpl implements ISystemLogService {
             systemLog.setEntityType(entityType);
             systemLog.setEntityId(entityId);
             systemLog.setDetails(details);
-            systemLog.setLevel(level);
+            systemLog.setLevel(level != null ? level : "INFO");
             systemLog.setSuccess(success);
             
-            systemLogRepository.save(systemLog);
+            submit(systemLog);
         } catch (Exception e) {
             log.error("Erreur lors du logging: {}", e.getMessage());
         }
     }
     
     @Override
-    @Async
     public void log(String userId, String userName, String action, String entityType, String entityId, String details, HttpServletRequest request) {
         try {
             SystemLog systemLog = new SystemLog();
@@ -55,29 +54,44 @@ public class SystemLogServiceImpl implements ISystemLogService {
             systemLog.setLevel("INFO");
             systemLog.setSuccess(true);
             
+            // Lu sur le thread de la requête : l'objet requête n'est plus valide une fois la réponse envoyée
             if (request != null) {
                 systemLog.setIpAddress(getClientIp(request));
                 systemLog.setUserAgent(request.getHeader("User-Agent"));
             }
             
-            systemLogRepository.save(systemLog);
+            submit(systemLog);
         } catch (Exception e) {
             log.error("Erreur lors du logging: {}", e.getMessage());
         }
     }
     
     @Override
-    @Async
     public void logInfo(String userId, String userName, String action) {
         log(userId, userName, action, null, null, null, "INFO", true);
     }
     
     @Override
-    @Async
     public void logError(String userId, String userName, String action, String details) {
         log(userId, userName, action, null, null, details, "ERROR", false);
     }
     
+    /**
+     * Vidage périodique des lots incomplets
+     */
+    @Scheduled(fixedDelayString = "${app.system-logs.flush-interval-ms:500}")
+    public void flushPending() {
+        if (systemLogWriter.getPendingCount() > 0) {
+            systemLogWriter.flushAsync();
+        }
+    }
+    
+    private void submit(SystemLog systemLog) {
+        if (systemLogWriter.offer(systemLog)) {
+            systemLogWriter.flushAsync();
+        }
+    }
+    
     /**
      * Récupérer l'IP du client
      */
@@ -0,0 +1,181 @@
+package com.example.pariba.services.impl;
+
+import com.example.pariba.models.SystemLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tampon borné des logs système, vidé par lots JDBC sur le pool systemLogExecutor.
+ * Politique de surcharge (taux de remplissage du tampon) :
+ * - au-delà de app.system-logs.sample-info-above, seul 1 log INFO sur info-sample-rate est gardé
+ * - au-delà de app.system-logs.drop-info-above, les logs INFO sont abandonnés
+ * - WARNING, ERROR, CRITICAL ne sont jamais abandonnés : tampon plein, l'appelant les écrit directement
+ */
+@Component
+@Slf4j
+public class SystemLogWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO system_logs (id, created_at, updated_at, user_id, user_name, action, entity_type, entity_id, " +
+        "details, ip_address, user_agent, level, success) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SystemLog> buffer;
+    private final int capacity;
+    private final int batchSize;
+    private final double sampleInfoAbove;
+    private final double dropInfoAbove;
+    private final int infoSampleRate;
+    private final AtomicLong infoSequence = new AtomicLong();
+
+    private final Counter queued;
+    private final Counter written;
+    private final Counter sampledOut;
+    private final Counter dropped;
+    private final Counter direct;
+    private final Counter failed;
+
+    public SystemLogWriter(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.system-logs.buffer-capacity:20000}") int capacity,
+                           @Value("${app.system-logs.batch-size:500}") int batchSize,
+                           @Value("${app.system-logs.sample-info-above:0.5}") double sampleInfoAbove,
+                           @Value("${app.system-logs.drop-info-above:0.9}") double dropInfoAbove,
+                           @Value("${app.system-logs.info-sample-rate:10}") int infoSampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.sampleInfoAbove = sampleInfoAbove;
+        this.dropInfoAbove = dropInfoAbove;
+        this.infoSampleRate = Math.max(1, infoSampleRate);
+
+        this.queued = counter(meterRegistry, "queued");
+        this.written = counter(meterRegistry, "written");
+        this.sampledOut = counter(meterRegistry, "sampled_out");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.direct = counter(meterRegistry, "direct");
+        this.failed = counter(meterRegistry, "failed");
+        Gauge.builder("pariba.system_logs.buffer", buffer, BlockingQueue::size)
+            .description("Logs système en attente d'écriture")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Dépose le log dans le tampon selon la politique de surcharge ; retourne true si un lot complet est prêt
+     */
+    public boolean offer(SystemLog systemLog) {
+        if (isInfo(systemLog.getLevel())) {
+            double fill = (double) buffer.size() / capacity;
+            if (fill >= dropInfoAbove) {
+                dropped.increment();
+                return false;
+            }
+            if (fill >= sampleInfoAbove && infoSequence.incrementAndGet() % infoSampleRate != 0) {
+                sampledOut.increment();
+                return false;
+            }
+        }
+
+        if (buffer.offer(systemLog)) {
+            queued.increment();
+            return buffer.size() >= batchSize;
+        }
+        if (isInfo(systemLog.getLevel())) {
+            dropped.increment();
+        } else {
+            direct.increment();
+            insert(List.of(systemLog));
+        }
+        return false;
+    }
+
+    /**
+     * Vidage sur le pool systemLogExecutor (appel depuis un autre bean)
+     */
+    @Async("systemLogExecutor")
+    public void flushAsync() {
+        flush();
+    }
+
+    /**
+     * Vide le tampon par lots ; un lot en échec est réécrit ligne par ligne pour isoler la ligne fautive
+     */
+    public void flush() {
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), SystemLogWriter::bind);
+                written.increment(batch.size());
+            } catch (Exception e) {
+                log.warn("Lot de logs système rejeté ({} lignes), écriture unitaire : {}", batch.size(), e.getMessage());
+                insert(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void insert(List<SystemLog> rows) {
+        for (SystemLog row : rows) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                written.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Erreur lors du logging: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isInfo(String level) {
+        return level == null || "INFO".equalsIgnoreCase(level) || "DEBUG".equalsIgnoreCase(level);
+    }
+
+    private static void bind(PreparedStatement ps, SystemLog row) throws SQLException {
+        ps.setString(1, row.getId());
+        ps.setTimestamp(2, Timestamp.from(row.getCreatedAt()));
+        ps.setTimestamp(3, Timestamp.from(row.getUpdatedAt()));
+        ps.setString(4, row.getUserId());
+        ps.setString(5, row.getUserName());
+        ps.setString(6, row.getAction());
+        ps.setString(7, row.getEntityType());
+        ps.setString(8, row.getEntityId());
+        ps.setString(9, row.getDetails());
+        ps.setString(10, row.getIpAddress());
+        ps.setString(11, row.getUserAgent());
+        ps.setString(12, row.getLevel());
+        ps.setBoolean(13, row.isSuccess());
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("pariba.system_logs.events")
+                .description("Logs système traités par le tampon d'écriture")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -20,7 +20,9 @@ import com.example.pariba.repositories.GroupMembershipRepository;
 import com.example.pariba.repositories.PersonRepository;
 import com.example.pariba.repositories.TontineGroupRepository;
 import com.example.pariba.services.IAuditService;
+import com.example.pariba.services.ILedgerService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.services.ISubscriptionService;
 import com.example.pariba.services.ITontineGroupService;
 import lombok.extern.slf4j.Slf4j;
@@ -42,19 +44,25 @@ public class TontineGroupServiceImpl implements ITontineGroupService {
     private final IAuditService auditService;
     private final INotificationService notificationService;
     private final ISubscriptionService subscriptionService;
+    private final IPersonSummaryService personSummaryService;
+    private final ILedgerService ledgerService;
 
     public TontineGroupServiceImpl(TontineGroupRepository groupRepository,
                                   PersonRepository personRepository,
                                   GroupMembershipRepository membershipRepository,
                                   IAuditService auditService,
                                   INotificationService notificationService,
-                                  ISubscriptionService subscriptionService) {
+                                  ISubscriptionService subscriptionService,
+                                  IPersonSummaryService personSummaryService,
+                                  ILedgerService ledgerService) {
         this.groupRepository = groupRepository;
         this.personRepository = personRepository;
         this.membershipRepository = membershipRepository;
         this.auditService = auditService;
         this.notificationService = notificationService;
         this.subscriptionService = subscriptionService;
+        this.personSummaryService = personSummaryService;
+        this.ledgerService = ledgerService;
     }
 
     @Transactional
@@ -87,6 +95,7 @@ public class TontineGroupServiceImpl implements ITontineGroupService {
         membership.setPerson(creator);
         membership.setRole(GroupRole.ADMIN);
         membershipRepository.save(membership);
+        personSummaryService.onMembershipAdded(creatorId, group.getId());
 
         // Audit log
         auditService.log(creatorId, AppConstants.AUDIT_CREATE_GROUP, "TontineGroup", group.getId(), null);
@@ -231,6 +240,8 @@ public class TontineGroupServiceImpl implements ITontineGroupService {
         // Récupérer tous les membres avant suppression
         List<GroupMembership> members = membershipRepository.findByGroupId(groupId);
         int memberCount = members.size();
+        List<String> memberIds = members.stream().map(m -> m.getPerson().getId()).collect(Collectors.toList());
+        personSummaryService.onMembershipsRemoved(memberIds, groupId);
 
         // Supprimer tous les memberships (déconnecter tous les membres)
         membershipRepository.deleteAll(members);
@@ -242,6 +253,8 @@ public class TontineGroupServiceImpl implements ITontineGroupService {
 
         // Supprimer le groupe (cascade supprimera les tours, contributions, etc.)
         groupRepository.delete(group);
+        ledgerService.deleteGroupLedger(groupId);
+        personSummaryService.onContributionsChanged(memberIds);
         
         log.info("🗑️ Groupe {} supprimé définitivement par {}", groupId, personId);
     }
@@ -283,6 +296,7 @@ public class TontineGroupServiceImpl implements ITontineGroupService {
         }
 
         // Supprimer le membership
+        personSummaryService.onMembershipsRemoved(List.of(personId), groupId);
         membershipRepository.delete(membership);
         
         // Audit log
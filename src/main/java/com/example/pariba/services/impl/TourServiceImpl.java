@@ -14,7 +14,9 @@ import com.example.pariba.exceptions.ResourceNotFoundException;
 import com.example.pariba.models.*;
 import com.example.pariba.repositories.*;
 import com.example.pariba.services.IAuditService;
+import com.example.pariba.services.ILedgerService;
 import com.example.pariba.services.INotificationService;
+import com.example.pariba.services.IPersonSummaryService;
 import com.example.pariba.services.ITontineGroupService;
 import com.example.pariba.services.ITourService;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +42,8 @@ public class TourServiceImpl implements ITourService {
     private final ITontineGroupService groupService;
     private final IAuditService auditService;
     private final INotificationService notificationService;
+    private final IPersonSummaryService personSummaryService;
+    private final ILedgerService ledgerService;
 
     public TourServiceImpl(TourRepository tourRepository,
                           TontineGroupRepository groupRepository,
@@ -47,7 +51,9 @@ public class TourServiceImpl implements ITourService {
                           ContributionRepository contributionRepository,
                           ITontineGroupService groupService,
                           IAuditService auditService,
-                          INotificationService notificationService) {
+                          INotificationService notificationService,
+                          IPersonSummaryService personSummaryService,
+                          ILedgerService ledgerService) {
         this.tourRepository = tourRepository;
         this.groupRepository = groupRepository;
         this.membershipRepository = membershipRepository;
@@ -55,6 +61,8 @@ public class TourServiceImpl implements ITourService {
         this.groupService = groupService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.personSummaryService = personSummaryService;
+        this.ledgerService = ledgerService;
     }
 
     @Override
@@ -168,6 +176,7 @@ public class TourServiceImpl implements ITourService {
             throw new BadRequestException(MessageConstants.TOUR_ERROR_ALREADY_STARTED);
         }
 
+        boolean groupAlreadyActive = tourRepository.existsByGroupIdAndStatus(tour.getGroup().getId(), TourStatus.IN_PROGRESS);
         tour.setStatus(TourStatus.IN_PROGRESS);
         tourRepository.save(tour);
 
@@ -175,6 +184,13 @@ public class TourServiceImpl implements ITourService {
         List<GroupMembership> members = membershipRepository.findByGroupId(tour.getGroup().getId());
         createContributionsForTour(tour, members, tour.getGroup());
 
+        // Résumés des membres : groupe actif et nouvelle échéance
+        List<String> memberIds = members.stream().map(membership -> membership.getPerson().getId()).collect(Collectors.toList());
+        if (!groupAlreadyActive) {
+            personSummaryService.onTourStarted(memberIds);
+        }
+        personSummaryService.onContributionsChanged(memberIds);
+
         auditService.log(personId, "START_TOUR", "Tour", tourId, null);
         
         // Envoyer notifications de démarrage du tour
@@ -185,19 +201,13 @@ public class TourServiceImpl implements ITourService {
             variables.put("beneficiaire", tour.getBeneficiary().getPrenom() + " " + tour.getBeneficiary().getNom());
             variables.put("montant", String.format("%,.0f", tour.getExpectedAmount()));
             
-            // Notifier tous les membres
-            members.forEach(membership -> {
-                try {
-                    notificationService.sendNotificationWithTemplate(
-                        membership.getPerson().getId(),
-                        NotificationType.TOUR_STARTED,
-                        NotificationChannel.PUSH,
-                        variables
-                    );
-                } catch (Exception e) {
-                    log.error("❌ Erreur notification tour démarré pour {}", membership.getPerson().getId());
-                }
-            });
+            // Notifier tous les membres (pushs regroupés en multicast)
+            notificationService.sendGroupNotificationWithTemplate(
+                members.stream().map(membership -> membership.getPerson().getId()).collect(Collectors.toList()),
+                NotificationType.TOUR_STARTED,
+                NotificationChannel.PUSH,
+                variables
+            );
             
             // Notification spéciale pour le bénéficiaire
             notificationService.sendNotificationWithTemplate(
@@ -228,6 +238,16 @@ public class TourServiceImpl implements ITourService {
         tour.setStatus(TourStatus.COMPLETED);
         tourRepository.save(tour);
 
+        // Résumés : montant reçu par le bénéficiaire, groupe inactif s'il n'a plus de tour en cours
+        List<String> groupMemberIds = tourRepository.existsByGroupIdAndStatus(tour.getGroup().getId(), TourStatus.IN_PROGRESS)
+                ? List.of()
+                : membershipRepository.findByGroupId(tour.getGroup().getId()).stream()
+                        .map(membership -> membership.getPerson().getId())
+                        .collect(Collectors.toList());
+        personSummaryService.onTourCompleted(groupMemberIds,
+                tour.getBeneficiary() != null ? tour.getBeneficiary().getId() : null,
+                tour.getExpectedAmount());
+
         auditService.log(personId, "COMPLETE_TOUR", "Tour", tourId, null);
         
         // Envoyer notifications de complétion du tour
@@ -239,18 +259,12 @@ public class TourServiceImpl implements ITourService {
             
             // Notifier tous les membres
             List<GroupMembership> members = membershipRepository.findByGroupId(tour.getGroup().getId());
-            members.forEach(membership -> {
-                try {
-                    notificationService.sendNotificationWithTemplate(
-                        membership.getPerson().getId(),
-                        NotificationType.TOUR_COMPLETED,
-                        NotificationChannel.PUSH,
-                        variables
-                    );
-                } catch (Exception e) {
-                    log.error("❌ Erreur notification tour complété pour {}", membership.getPerson().getId());
-                }
-            });
+            notificationService.sendGroupNotificationWithTemplate(
+                members.stream().map(membership -> membership.getPerson().getId()).collect(Collectors.toList()),
+                NotificationType.TOUR_COMPLETED,
+                NotificationChannel.PUSH,
+                variables
+            );
             
             // Notification spéciale pour le bénéficiaire (déboursement)
             variables.put("date", LocalDate.now().toString());
@@ -340,5 +354,6 @@ public class TourServiceImpl implements ITourService {
         }
 
         contributionRepository.saveAll(contributions);
+        ledgerService.recordContributionsDue(contributions);
     }
 }
@@ -0,0 +1,77 @@
+package com.example.pariba.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template {{variable}} pré-découpé en segments littéraux / variables.
+ * Le rendu se fait en une seule passe ; une variable absente du contexte est laissée telle quelle.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final String[] literals;   // literals[i] précède placeholders[i]
+    private final String[] placeholders;
+    private final String trailing;
+    private final int estimatedLength;
+
+    private CompiledTemplate(List<String> literals, List<String> placeholders, String trailing, int sourceLength) {
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new String[0]);
+        this.trailing = trailing;
+        this.estimatedLength = sourceLength;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        if (source == null) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close));
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(literals, placeholders, source.substring(position), source.length());
+    }
+
+    /**
+     * Rendu dans un StringBuilder réutilisé par thread
+     */
+    public String render(Map<String, String> variables) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(estimatedLength + 64);
+        renderTo(buffer, variables);
+        return buffer.toString();
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> variables) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String name = placeholders[i];
+            if (variables != null && variables.containsKey(name)) {
+                String value = variables.get(name);
+                out.append(value != null ? value : "");
+            } else {
+                out.append(OPEN).append(name).append(CLOSE);
+            }
+        }
+        out.append(trailing);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.pariba.utils;
+
+/**
+ * Suivi d'avancement d'une génération d'export.
+ * L'implémentation peut lever ExportCancelledException pour interrompre la génération.
+ */
+@FunctionalInterface
+public interface ExportProgress {
+
+    ExportProgress NONE = percent -> {};
+
+    void report(int percent);
+
+    /**
+     * Avancement de l'écriture des lignes, ramené sur la plage 10-95 %
+     * (0-10 : lecture des données, 95-100 : écriture du fichier).
+     * N'émet qu'à chaque point de pourcentage franchi.
+     */
+    default void rows(long done, long total) {
+        if (total <= 0 || done > total) {
+            return;
+        }
+        long step = Math.max(1, total / 100);
+        if (done % step == 0 || done == total) {
+            report(10 + (int) (85 * done / total));
+        }
+    }
+}
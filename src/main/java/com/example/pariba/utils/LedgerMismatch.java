@@ -0,0 +1,11 @@
+package com.example.pariba.utils;
+
+import com.example.pariba.enums.LedgerScope;
+
+import java.math.BigDecimal;
+
+/**
+ * Écart entre un solde du grand livre et la valeur recalculée depuis les cotisations, paiements et versements
+ */
+public record LedgerMismatch(LedgerScope scope, String scopeId, String field, BigDecimal ledger, BigDecimal expected) {
+}
@@ -0,0 +1,23 @@
+package com.example.pariba.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne source projetée pour la vérification du grand livre : une cotisation (montant dû et pénalité)
+ * ou un total encaissé / versé, rattaché à son tour et à son membre
+ */
+public record LedgerSourceRow(String contributionId, String tourId, String memberId, BigDecimal amount, BigDecimal penalty) {
+
+    public LedgerSourceRow {
+        amount = amount != null ? amount : BigDecimal.ZERO;
+        penalty = penalty != null ? penalty : BigDecimal.ZERO;
+    }
+
+    public LedgerSourceRow(String contributionId, String tourId, String memberId, BigDecimal amount) {
+        this(contributionId, tourId, memberId, amount, null);
+    }
+
+    public LedgerSourceRow(String tourId, String memberId, BigDecimal amount) {
+        this(null, tourId, memberId, amount, null);
+    }
+}
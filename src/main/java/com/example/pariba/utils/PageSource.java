@@ -0,0 +1,36 @@
+package com.example.pariba.utils;
+
+import com.example.pariba.models.BaseEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lecture par pages successives pour les exports en flux : seule la page courante est en mémoire.
+ */
+@FunctionalInterface
+public interface PageSource<T> {
+
+    /**
+     * Page suivant l'élément last (null pour la première page)
+     */
+    List<T> nextPage(T last, int pageSize);
+
+    /**
+     * Requête keyset sur (createdAt, id), cf. les méthodes find...PageAfter des repositories
+     */
+    @FunctionalInterface
+    interface KeysetQuery<T> {
+        List<T> find(Instant afterCreatedAt, String afterId, Pageable pageable);
+    }
+
+    static <T extends BaseEntity> PageSource<T> keyset(KeysetQuery<T> query) {
+        return (last, pageSize) -> query.find(
+            last != null ? last.getCreatedAt() : Instant.EPOCH,
+            last != null ? last.getId() : "",
+            PageRequest.of(0, pageSize)
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.pariba.utils;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.pdf.BaseFont;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Polices des rapports PDF, créées une seule fois (au lieu d'un FontFactory.getFont par rapport).
+ * Ces instances ne sont jamais modifiées : elles sont partagées par les workers d'export.
+ */
+public final class PdfFonts {
+
+    private static final BaseFont HELVETICA = baseFont(BaseFont.HELVETICA);
+    private static final BaseFont HELVETICA_BOLD = baseFont(BaseFont.HELVETICA_BOLD);
+
+    public static final Font TITLE = new Font(HELVETICA_BOLD, 18, Font.NORMAL, BaseColor.DARK_GRAY);
+    public static final Font META = new Font(HELVETICA, 10, Font.NORMAL, BaseColor.GRAY);
+    public static final Font HEADER = new Font(HELVETICA_BOLD, 12, Font.NORMAL, BaseColor.WHITE);
+    public static final Font DATA = new Font(HELVETICA, 10, Font.NORMAL, BaseColor.BLACK);
+
+    private PdfFonts() {
+    }
+
+    private static BaseFont baseFont(String name) {
+        try {
+            // Polices standard PDF (non embarquées), encodage Cp1252 pour les accents
+            return BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new UncheckedIOException(new IOException("Police PDF indisponible: " + name, e));
+        }
+    }
+}
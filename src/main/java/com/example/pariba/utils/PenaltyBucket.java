@@ -0,0 +1,22 @@
+package com.example.pariba.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Cotisations impayées d'un tour partageant la même échéance et la même pénalité courante :
+ * elles reçoivent toutes la même nouvelle pénalité, en une seule mise à jour
+ */
+public record PenaltyBucket(String groupId, String tourId, LocalDate dueDate, BigDecimal currentPenalty,
+                            long count, BigDecimal latePenaltyAmount, Integer graceDays) {
+
+    /**
+     * Pénalité au jour donné : latePenaltyAmount × jours de retard au-delà de la période de grâce (nulle pendant la grâce)
+     */
+    public BigDecimal penaltyAt(LocalDate date) {
+        int grace = graceDays != null ? graceDays : 0;
+        long daysLate = ChronoUnit.DAYS.between(dueDate.plusDays(grace), date);
+        return daysLate > 0 ? latePenaltyAmount.multiply(BigDecimal.valueOf(daysLate)) : currentPenalty;
+    }
+}
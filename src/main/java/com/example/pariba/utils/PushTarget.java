@@ -0,0 +1,7 @@
+package com.example.pariba.utils;
+
+/**
+ * Token push d'une personne (appareil actif ou ancien token FCM du profil)
+ */
+public record PushTarget(String personId, String token) {
+}
@@ -0,0 +1,20 @@
+package com.example.pariba.utils;
+
+import com.example.pariba.enums.StatsMetric;
+
+import java.math.BigDecimal;
+
+/**
+ * Résultat d'une requête GROUP BY (jauges et sommes d'agrégats) : nombre et montant par dimension
+ */
+public record StatsAggregate(StatsMetric metric, String dimension, Long count, BigDecimal amount) {
+
+    public StatsAggregate(Object dimension, Long count) {
+        this(dimension, count, null);
+    }
+
+    public StatsAggregate(Object dimension, Long count, BigDecimal amount) {
+        this(null, dimension != null ? dimension.toString() : StatsSourceRow.NO_DIMENSION,
+             count != null ? count : 0L, amount != null ? amount : BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.pariba.utils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Ligne source projetée pour les agrégats (date de création, dimension, montant) :
+ * seules ces colonnes sont lues, jamais l'entité complète
+ */
+public record StatsSourceRow(Instant createdAt, String dimension, BigDecimal amount) {
+
+    public static final String NO_DIMENSION = "ALL";
+
+    public StatsSourceRow(Instant createdAt) {
+        this(createdAt, NO_DIMENSION, BigDecimal.ZERO);
+    }
+
+    public StatsSourceRow(Instant createdAt, Object dimension) {
+        this(createdAt, dimension, null);
+    }
+
+    public StatsSourceRow(Instant createdAt, Object dimension, BigDecimal amount) {
+        this(createdAt, dimension != null ? dimension.toString() : NO_DIMENSION, amount != null ? amount : BigDecimal.ZERO);
+    }
+}
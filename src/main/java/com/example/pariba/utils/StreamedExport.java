@@ -0,0 +1,10 @@
+package com.example.pariba.utils;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Export écrit directement dans la réponse HTTP (CSV ou NDJSON compressé en gzip).
+ * Les contrôles d'accès sont faits à la création : body ne fait plus qu'écrire.
+ */
+public record StreamedExport(String fileName, StreamingResponseBody body) {
+}
@@ -0,0 +1,16 @@
+package com.example.pariba.utils;
+
+import com.example.pariba.enums.SubscriptionStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne de l'agrégat plan × période de facturation × statut : nombre d'abonnements et revenus
+ */
+public record SubscriptionStatsRow(String planId, String billingPeriod, SubscriptionStatus status, Long count, BigDecimal revenue) {
+
+    public SubscriptionStatsRow(String planId, String billingPeriod, Object status, Long count, BigDecimal revenue) {
+        this(planId, billingPeriod, (SubscriptionStatus) status,
+             count != null ? count : 0L, revenue != null ? revenue : BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.pariba.benchmarks;
+
+import com.example.pariba.configs.NotificationTemplateSeeder;
+import com.example.pariba.models.NotificationTemplate;
+import com.example.pariba.repositories.NotificationTemplateRepository;
+import com.example.pariba.utils.CompiledTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancien rendu (un String.replace par variable) au rendu compilé en une passe,
+ * sur l'ensemble des templates créés par NotificationTemplateSeeder.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationTemplateRenderingBenchmark {
+
+    private List<NotificationTemplate> templates;
+    private List<CompiledTemplate[]> compiled;
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        templates = seededTemplates();
+        compiled = new ArrayList<>();
+        for (NotificationTemplate template : templates) {
+            compiled.add(new CompiledTemplate[] {
+                CompiledTemplate.compile(template.getSubject()),
+                CompiledTemplate.compile(template.getBodyTemplate())
+            });
+        }
+
+        variables = new HashMap<>();
+        variables.put("groupe", "Tontine des commerçantes de Bamako");
+        variables.put("montant", "25 000");
+        variables.put("prenom", "Awa");
+        variables.put("nom", "Traoré");
+        variables.put("tour", "Tour 3");
+        variables.put("date", "2026-10-18");
+        variables.put("code", "482913");
+        variables.put("lien", "https://pariba.app/pay/3f1c2a");
+        variables.put("reference", "CASH-1760779200000");
+        variables.put("beneficiaire", "Moussa Keita");
+        variables.put("membres", "12");
+        variables.put("jours", "2");
+        variables.put("frequence", "Mensuel");
+        variables.put("methode", "Orange Money");
+        variables.put("tours", "12");
+        variables.put("penalite", "1 000");
+        variables.put("date_limite", "2026-10-20");
+    }
+
+    @Benchmark
+    public void legacyReplace(Blackhole blackhole) {
+        for (NotificationTemplate template : templates) {
+            blackhole.consume(legacyReplaceVariables(template.getSubject(), variables));
+            blackhole.consume(legacyReplaceVariables(template.getBodyTemplate(), variables));
+        }
+    }
+
+    @Benchmark
+    public void compiledRender(Blackhole blackhole) {
+        for (CompiledTemplate[] template : compiled) {
+            blackhole.consume(template[0] != null ? template[0].render(variables) : null);
+            blackhole.consume(template[1].render(variables));
+        }
+    }
+
+    /**
+     * Ancienne implémentation de NotificationServiceImpl.replaceVariables
+     */
+    private static String legacyReplaceVariables(String template, Map<String, String> variables) {
+        if (template == null || variables == null) {
+            return template;
+        }
+        String result = template;
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            String placeholder = "{{" + entry.getKey() + "}}";
+            result = result.replace(placeholder, entry.getValue() != null ? entry.getValue() : "");
+        }
+        return result;
+    }
+
+    /**
+     * Exécute le seeder sur un repository en mémoire pour récupérer les templates par défaut
+     */
+    private static List<NotificationTemplate> seededTemplates() {
+        List<NotificationTemplate> saved = new ArrayList<>();
+        NotificationTemplateRepository repository = (NotificationTemplateRepository) Proxy.newProxyInstance(
+            NotificationTemplateRepository.class.getClassLoader(),
+            new Class<?>[] { NotificationTemplateRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "count" -> (long) saved.size();
+                case "save" -> {
+                    saved.add((NotificationTemplate) args[0]);
+                    yield args[0];
+                }
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryNotificationTemplateRepository";
+                default -> null;
+            });
+        new NotificationTemplateSeeder(repository).run();
+        return saved;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(NotificationTemplateRenderingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
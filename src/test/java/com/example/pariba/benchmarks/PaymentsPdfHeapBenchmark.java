@@ -0,0 +1,137 @@
+package com.example.pariba.benchmarks;
+
+import com.example.pariba.enums.PaymentStatus;
+import com.example.pariba.enums.PaymentType;
+import com.example.pariba.models.Payment;
+import com.example.pariba.models.Person;
+import com.example.pariba.services.impl.FileGeneratorService;
+import com.example.pariba.utils.ExportProgress;
+import com.example.pariba.utils.PageSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génère un rapport PDF de 50 000 paiements (données synthétiques lues page par page)
+ * et vérifie que le tas vivant reste sous un budget : la JVM du fork est lancée avec -Xmx128m
+ * et l'occupation du tas après GC (somme des pools, pic de l'itération) doit rester sous HEAP_BUDGET_MB.
+ * L'ancienne génération (une seule PdfPTable de 50 000 lignes) dépasse ce budget.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx128m"})
+@State(Scope.Benchmark)
+public class PaymentsPdfHeapBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final long HEAP_BUDGET_MB = 64;
+
+    private FileGeneratorService fileGeneratorService;
+
+    @Setup
+    public void setUp() {
+        fileGeneratorService = new FileGeneratorService();
+        ReflectionTestUtils.setField(fileGeneratorService, "exportPageSize", PAGE_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeaks() {
+        System.gc();
+        for (MemoryPoolMXBean pool : heapPools()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    @Benchmark
+    public long paymentsPdf() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        fileGeneratorService.writePaymentsPdf(syntheticPayments(), ROWS, out, ExportProgress.NONE);
+        return out.count;
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkHeapBudget() {
+        long peakAfterGc = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                peakAfterGc += usage.getUsed();
+            }
+        }
+        long peakMb = peakAfterGc / (1024 * 1024);
+        System.out.printf("Tas vivant après GC : %d Mo (budget %d Mo)%n", peakMb, HEAP_BUDGET_MB);
+        if (peakMb > HEAP_BUDGET_MB) {
+            throw new IllegalStateException("Budget mémoire dépassé : " + peakMb + " Mo > " + HEAP_BUDGET_MB + " Mo");
+        }
+    }
+
+    /**
+     * Pages de paiements créées à la demande : seule la page courante existe en mémoire
+     */
+    private static PageSource<Payment> syntheticPayments() {
+        Person payer = new Person();
+        payer.setPrenom("Awa");
+        payer.setNom("Traoré");
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        int[] produced = {0};
+        return (last, pageSize) -> {
+            List<Payment> page = new ArrayList<>(pageSize);
+            while (page.size() < pageSize && produced[0] < ROWS) {
+                Payment payment = new Payment();
+                payment.setPayer(payer);
+                payment.setAmount(BigDecimal.valueOf(5_000L + produced[0] % 50 * 500L));
+                payment.setStatus(PaymentStatus.values()[produced[0] % PaymentStatus.values().length]);
+                payment.setPaymentType(PaymentType.values()[produced[0] % PaymentType.values().length]);
+                payment.setCreatedAt(start.plusSeconds(produced[0] * 60L));
+                page.add(payment);
+                produced[0]++;
+            }
+            return page;
+        };
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PaymentsPdfHeapBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
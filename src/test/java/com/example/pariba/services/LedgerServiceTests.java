@@ -0,0 +1,222 @@
+package com.example.pariba.services;
+
+import com.example.pariba.enums.ContributionStatus;
+import com.example.pariba.enums.LedgerEntryType;
+import com.example.pariba.enums.PaymentStatus;
+import com.example.pariba.enums.PaymentType;
+import com.example.pariba.models.Contribution;
+import com.example.pariba.models.LedgerBalance;
+import com.example.pariba.models.LedgerEntry;
+import com.example.pariba.models.Payment;
+import com.example.pariba.models.Person;
+import com.example.pariba.models.TontineGroup;
+import com.example.pariba.models.Tour;
+import com.example.pariba.repositories.ContributionRepository;
+import com.example.pariba.repositories.LedgerEntryRepository;
+import com.example.pariba.repositories.PaymentRepository;
+import com.example.pariba.repositories.PersonRepository;
+import com.example.pariba.repositories.TontineGroupRepository;
+import com.example.pariba.repositories.TourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grand livre sur H2 (mode MySQL) : les soldes tenus par incréments doivent toujours égaler
+ * ceux recalculés depuis les cotisations, paiements et versements (verify() sans écart).
+ */
+@SpringBootTest
+class LedgerServiceTests {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1000.00");
+
+    @Autowired private ILedgerService ledgerService;
+    @Autowired private IContributionService contributionService;
+    @Autowired private PersonRepository personRepository;
+    @Autowired private TontineGroupRepository groupRepository;
+    @Autowired private TourRepository tourRepository;
+    @Autowired private ContributionRepository contributionRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private LedgerEntryRepository entryRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void confirmThenReversePayment() {
+        Person member = person();
+        TontineGroup group = group(member, null);
+        Tour tour = tour(group, member);
+        Contribution contribution = contribution(group, tour, member, LocalDate.now().plusDays(5));
+        ledgerService.recordContributionsDue(List.of(contribution));
+
+        Payment payment = payment(group, member, contribution, PaymentStatus.PENDING);
+        validate(payment.getId(), PaymentStatus.CONFIRMED);
+        assertThat(ledgerService.getMemberBalance(group.getId(), member.getId()).getTotalPaid()).isEqualByComparingTo(AMOUNT);
+
+        validate(payment.getId(), PaymentStatus.REJECTED);
+        // Même statut revalidé : aucune écriture
+        validate(payment.getId(), PaymentStatus.REJECTED);
+
+        LedgerBalance balance = ledgerService.getMemberBalance(group.getId(), member.getId());
+        assertThat(balance.getTotalPaid()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(balance.getTotalDue()).isEqualByComparingTo(AMOUNT);
+        assertThat(ledgerService.getContributionBalance(group.getId(), contribution.getId()).getTotalPaid())
+                .isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(entries(group)).extracting(LedgerEntry::getType).containsExactlyInAnyOrder(
+                LedgerEntryType.CONTRIBUTION_DUE, LedgerEntryType.PAYMENT_CONFIRMED, LedgerEntryType.PAYMENT_REVERSED);
+        assertThat(ledgerService.verify(group.getId())).isEmpty();
+    }
+
+    @Test
+    void penaltiesAppliedTwiceOnSameDayChangeNothing() {
+        Person member = person();
+        TontineGroup group = group(member, new BigDecimal("100.00"));
+        Tour tour = tour(group, member);
+        Contribution contribution = contribution(group, tour, member, LocalDate.now().minusDays(3));
+        ledgerService.recordContributionsDue(List.of(contribution));
+
+        contributionService.applyLatePenalties();
+        LedgerBalance first = ledgerService.getGroupBalance(group.getId());
+        int entries = entries(group).size();
+        assertThat(first.getTotalPenalties()).isEqualByComparingTo("300.00");
+
+        contributionService.applyLatePenalties();
+        LedgerBalance second = ledgerService.getGroupBalance(group.getId());
+        assertThat(second.getTotalPenalties()).isEqualByComparingTo(first.getTotalPenalties());
+        assertThat(second.getLastSequence()).isEqualTo(first.getLastSequence());
+        assertThat(entries(group)).hasSize(entries);
+        assertThat(contributionRepository.findById(contribution.getId()).orElseThrow().getPenaltyApplied())
+                .isEqualByComparingTo("300.00");
+        assertThat(ledgerService.verify(group.getId())).isEmpty();
+    }
+
+    @Test
+    void penaltiesKeepLedgerConsistent() {
+        Person first = person();
+        Person second = person();
+        TontineGroup group = group(first, new BigDecimal("100.00"));
+        Tour tour = tour(group, first);
+        LocalDate dueDate = LocalDate.now().minusDays(2);
+        // Deux cotisations du même membre dans le même lot : sa pénalité compte pour chacune
+        List<Contribution> contributions = List.of(
+                contribution(group, tour, first, dueDate),
+                contribution(group, tour, first, dueDate),
+                contribution(group, tour, second, dueDate));
+        ledgerService.recordContributionsDue(contributions);
+
+        contributionService.applyLatePenalties();
+
+        assertThat(ledgerService.getMemberBalance(group.getId(), first.getId()).getTotalPenalties()).isEqualByComparingTo("400.00");
+        assertThat(ledgerService.getMemberBalance(group.getId(), second.getId()).getTotalPenalties()).isEqualByComparingTo("200.00");
+        assertThat(ledgerService.getTourBalance(group.getId(), tour.getId()).getTotalPenalties()).isEqualByComparingTo("600.00");
+        assertThat(ledgerService.verify(group.getId())).isEmpty();
+    }
+
+    @Test
+    void firstEventOfGroupReconcilesFromSourceTables() {
+        Person member = person();
+        TontineGroup group = group(member, null);
+        Tour tour = tour(group, member);
+        // Cotisations et paiement antérieurs au grand livre : aucune écriture pour ce groupe
+        Contribution paid = contribution(group, tour, member, LocalDate.now().plusDays(5));
+        contribution(group, tour, member, LocalDate.now().plusDays(5));
+        Payment payment = payment(group, member, paid, PaymentStatus.PENDING);
+
+        validate(payment.getId(), PaymentStatus.CONFIRMED);
+
+        LedgerBalance balance = ledgerService.getGroupBalance(group.getId());
+        assertThat(balance.getTotalDue()).isEqualByComparingTo("2000.00");
+        assertThat(balance.getTotalPaid()).isEqualByComparingTo(AMOUNT);
+        assertThat(balance.getLastSequence()).isEqualTo(1);
+        assertThat(entries(group)).singleElement().extracting(LedgerEntry::getSequence).isEqualTo(1L);
+        assertThat(ledgerService.verify(group.getId())).isEmpty();
+
+        // Les événements suivants s'appliquent par incrément
+        Payment next = payment(group, member, paid, PaymentStatus.PENDING);
+        validate(next.getId(), PaymentStatus.CONFIRMED);
+        assertThat(ledgerService.getGroupBalance(group.getId()).getTotalPaid()).isEqualByComparingTo("2000.00");
+        assertThat(ledgerService.verify(group.getId())).isEmpty();
+    }
+
+    private Person person() {
+        Person person = new Person();
+        person.setPrenom("Awa");
+        person.setNom("Traoré");
+        person.setPhone("+223" + UUID.randomUUID().toString().substring(0, 8));
+        return personRepository.save(person);
+    }
+
+    private TontineGroup group(Person creator, BigDecimal latePenaltyAmount) {
+        TontineGroup group = new TontineGroup();
+        group.setNom("Tontine test");
+        group.setMontant(AMOUNT);
+        group.setTotalTours(1);
+        group.setCreator(creator);
+        group.setLatePenaltyAmount(latePenaltyAmount);
+        group.setGraceDays(0);
+        return groupRepository.save(group);
+    }
+
+    private Tour tour(TontineGroup group, Person beneficiary) {
+        Tour tour = new Tour();
+        tour.setGroup(group);
+        tour.setIndexInGroup(1);
+        tour.setBeneficiary(beneficiary);
+        return tourRepository.save(tour);
+    }
+
+    private Contribution contribution(TontineGroup group, Tour tour, Person member, LocalDate dueDate) {
+        Contribution contribution = new Contribution();
+        contribution.setGroup(group);
+        contribution.setTour(tour);
+        contribution.setMember(member);
+        contribution.setAmountDue(AMOUNT);
+        contribution.setStatus(ContributionStatus.DUE);
+        contribution.setDueDate(dueDate);
+        return contributionRepository.save(contribution);
+    }
+
+    private Payment payment(TontineGroup group, Person payer, Contribution contribution, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setGroup(group);
+        payment.setPayer(payer);
+        payment.setContribution(contribution);
+        payment.setAmount(AMOUNT);
+        payment.setPaymentType(PaymentType.CASH);
+        payment.setStatus(status);
+        return paymentRepository.save(payment);
+    }
+
+    /**
+     * Comme la validation admin : changement de statut et écriture au grand livre dans la même transaction
+     */
+    private void validate(String paymentId, PaymentStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+            PaymentStatus previousStatus = payment.getStatus();
+            payment.setStatus(status);
+            ledgerService.recordPaymentStatusChange(paymentRepository.save(payment), previousStatus);
+        });
+    }
+
+    private List<LedgerEntry> entries(TontineGroup group) {
+        return entryRepository.findLatestByGroup(group.getId(), PageRequest.of(0, 100));
+    }
+}